@@ -0,0 +1,109 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import projeto.Sistema;
+
+/**
+ * Mede a vazao do Sistema com varias threads, cada uma trabalhando em um par
+ * proprio de usuarios: cadastro de item, emprestimo e devolucao. Os pares nao
+ * disputam as faixas de usuario, mas toda iteracao ainda passa por trechos
+ * serializados por monitores globais: o registro do item no catalogo do
+ * ControllerItem, o historico de emprestimos do ControllerEmprestimo, o
+ * historico e o ranking de reputacao e, quando ha diario, o
+ * Diario.acrescentar. A aceleracao medida e limitada por esses trechos e nao
+ * indica escalabilidade linear; com um unico processador ela mede apenas o
+ * custo das travas.
+ *
+ * @author caiosbl
+ *
+ */
+public class ConcorrenciaBenchmark {
+
+	private static final int OPERACOES_POR_THREAD = 20_000;
+	private static final int REPETICOES = 5;
+	private static final int AQUECIMENTO = 3;
+	private static final String[] DATAS = datas(OPERACOES_POR_THREAD + 2);
+
+	public static void main(String[] args) throws Exception {
+		int processadores = Runtime.getRuntime().availableProcessors();
+		System.out.println("processadores: " + processadores);
+		if (processadores == 1) {
+			System.out.println("aviso: com um processador a aceleracao nao mede paralelismo");
+		}
+		System.out.println("threads |      ops/s | aceleracao");
+		for (int repeticao = 0; repeticao < AQUECIMENTO; repeticao++) {
+			medir(1, repeticao);
+		}
+		double base = 0;
+		for (int threads = 1; threads <= Math.max(8, processadores); threads *= 2) {
+			double melhor = 0;
+			for (int repeticao = 0; repeticao < REPETICOES; repeticao++) {
+				melhor = Math.max(melhor, medir(threads, repeticao));
+			}
+			if (threads == 1) {
+				base = melhor;
+			}
+			System.out.printf("%7d | %10.0f | %9.2fx%n", threads, melhor, melhor / base);
+		}
+	}
+
+	private static double medir(int numThreads, int repeticao) throws Exception {
+		Sistema sistema = new Sistema();
+		for (int i = 0; i < 2 * numThreads; i++) {
+			sistema.cadastrarUsuario("Usuario " + i, "9" + i, "usuario@lp2.com");
+		}
+
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			String dono = "Usuario " + (2 * t);
+			String telDono = "9" + (2 * t);
+			String requerente = "Usuario " + (2 * t + 1);
+			String telRequerente = "9" + (2 * t + 1);
+			Thread thread = new Thread(() -> {
+				try {
+					largada.await();
+					for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+						String item = "Jogo " + repeticao + "-" + i;
+						sistema.cadastrarJogoTabuleiro(dono, telDono, item, 10);
+						sistema.registrarEmprestimo(dono, telDono, requerente, telRequerente, item, DATAS[i], 5);
+						sistema.devolverItem(dono, telDono, requerente, telRequerente, item, DATAS[i],
+								DATAS[i + 2]);
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		long inicio = System.nanoTime();
+		largada.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long duracao = System.nanoTime() - inicio;
+		return (double) numThreads * OPERACOES_POR_THREAD * 1e9 / duracao;
+	}
+
+	/**
+	 * Datas consecutivas a partir de 01/01/2018, para que os eventos de
+	 * reputacao de cada usuario cheguem em ordem de dia, como no uso real.
+	 */
+	private static String[] datas(int quantidade) {
+		DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+		String[] datas = new String[quantidade];
+		LocalDate data = LocalDate.of(2018, 1, 1);
+		for (int i = 0; i < quantidade; i++) {
+			datas[i] = data.plusDays(i).format(formato);
+		}
+		return datas;
+	}
+
+}
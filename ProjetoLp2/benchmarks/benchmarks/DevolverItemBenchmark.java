@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.text.ParseException;
+
+import projeto.controllers.ControllerEmprestimo;
+import projeto.utilitarios.ChaveUsuario;
+
+/**
+ * Mede a latencia de ControllerEmprestimo.devolverItem para historicos de
+ * tamanhos crescentes. Como a devolucao consulta a tabela de emprestimos em
+ * andamento, o tempo por devolucao deve se manter estavel enquanto o historico
+ * cresce.
+ *
+ * @author lucasvsa
+ *
+ */
+public class DevolverItemBenchmark {
+
+	private static final int[] TAMANHOS_HISTORICO = { 1_000, 10_000, 100_000, 1_000_000 };
+	private static final int DEVOLUCOES = 10_000;
+	private static final int REPETICOES = 5;
+
+	public static void main(String[] args) throws ParseException {
+		ChaveUsuario dono = new ChaveUsuario("Dono", "0000");
+		ChaveUsuario requerente = new ChaveUsuario("Requerente", "1111");
+
+		System.out.println("historico | ns/devolucao");
+		for (int tamanho : TAMANHOS_HISTORICO) {
+			ControllerEmprestimo cEmprestimo = new ControllerEmprestimo();
+			for (int i = 0; i < tamanho; i++) {
+				String item = "Historico " + i;
+				cEmprestimo.registrarEmprestimo(dono, requerente, item, "01/01/2018", 7);
+				cEmprestimo.devolverItem(dono, requerente, item, "01/01/2018", "05/01/2018");
+			}
+
+			long melhor = Long.MAX_VALUE;
+			for (int repeticao = 0; repeticao < REPETICOES; repeticao++) {
+				String prefixo = "Rodada " + repeticao + " ";
+				for (int i = 0; i < DEVOLUCOES; i++) {
+					cEmprestimo.registrarEmprestimo(dono, requerente, prefixo + i, "01/01/2018", 7);
+				}
+				long inicio = System.nanoTime();
+				for (int i = 0; i < DEVOLUCOES; i++) {
+					cEmprestimo.devolverItem(dono, requerente, prefixo + i, "01/01/2018", "05/01/2018");
+				}
+				melhor = Math.min(melhor, System.nanoTime() - inicio);
+			}
+			System.out.printf("%9d | %d%n", tamanho, melhor / DEVOLUCOES);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import projeto.Facade;
+
+/**
+ * Mede com o JMH o ciclo fecharSistema/iniciarSistema da Facade, com os mesmos
+ * tamanhos de {@link SistemaBenchmark}. Cada ciclo grava o sistema inteiro e
+ * o le de volta, entao o sistema medido nao cresce. Os arquivos ficam em um
+ * diretorio temporario, no formato escolhido pela propriedade
+ * projeto.snapshot, que pode ser passada as JVMs do JMH com -jvmArgsAppend.
+ *
+ * @author caiosbl
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FacadeBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	private int tamanho;
+
+	private File diretorio;
+	private Facade facade;
+
+	@Setup(Level.Trial)
+	public void montar() throws Exception {
+		diretorio = Files.createTempDirectory("lp2-benchmark").toFile();
+		System.setProperty("projeto.diretorio", diretorio.getPath());
+		facade = new Facade();
+		facade.iniciarSistema();
+		for (int i = 0; i < tamanho; i++) {
+			String nome = SistemaBenchmark.nome(i);
+			String telefone = SistemaBenchmark.telefone(i);
+			facade.cadastrarUsuario(nome, telefone, "usuario@lp2.com");
+			facade.cadastrarEletronico(nome, telefone, "Eletronico " + i, 99.9, "PC");
+			facade.cadastrarJogoTabuleiro(nome, telefone, "Tabuleiro " + i, 70);
+		}
+	}
+
+	@Benchmark
+	public void fecharEIniciarSistema() throws Exception {
+		facade.fecharSistema();
+		facade.iniciarSistema();
+	}
+
+	@TearDown(Level.Trial)
+	public void desmontar() throws IOException {
+		facade.fecharSistema();
+		for (File arquivo : diretorio.listFiles()) {
+			Files.delete(arquivo.toPath());
+		}
+		Files.delete(diretorio.toPath());
+	}
+
+}
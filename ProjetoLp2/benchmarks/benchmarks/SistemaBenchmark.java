@@ -0,0 +1,215 @@
+package benchmarks;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import projeto.Sistema;
+
+/**
+ * Mede com o JMH os caminhos mais usados de Sistema para tamanhos crescentes
+ * de sistema: cadastros de usuarios e de itens, emprestimo seguido de
+ * devolucao, todas as listagens e a pesquisa de itens. O ciclo
+ * fecharSistema/iniciarSistema da Facade fica em {@link FacadeBenchmark}.
+ *
+ * O tamanho e o numero de usuarios ja cadastrados; cada usuario tem um jogo
+ * eletronico e um jogo de tabuleiro, e o jogo de tabuleiro de cada usuario
+ * esta emprestado ao seguinte. Cada cadastro e medido junto com a remocao do
+ * que foi cadastrado, para que o sistema medido mantenha o tamanho do
+ * parametro durante todas as iteracoes; so o historico de emprestimos cresce,
+ * como no uso real. Os resultados das listagens sao devolvidos ao JMH, que os
+ * consome em um Blackhole, e cada benchmark roda em JVMs proprias.
+ *
+ * Para compilar e rodar, a partir de ProjetoLp2, com o sistema compilado em
+ * bin:
+ *
+ * <pre>
+ * javac -cp bin:lib/jmh-core-1.37.jar -processorpath lib/jmh-generator-annprocess-1.37.jar:lib/jmh-core-1.37.jar \
+ *     -d bin-benchmarks benchmarks/benchmarks/*.java
+ * java -cp bin:bin-benchmarks:lib/jmh-core-1.37.jar:lib/jopt-simple-5.0.4.jar:lib/commons-math3-3.6.1.jar \
+ *     org.openjdk.jmh.Main SistemaBenchmark -prof gc
+ * </pre>
+ *
+ * O perfilador gc acrescenta a alocacao por operacao (gc.alloc.rate.norm) ao
+ * lado do tempo medio, com a mesma estatistica do tempo.
+ *
+ * @author caiosbl
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SistemaBenchmark {
+
+	private static final String DATA = "01/01/2018";
+
+	@Param({ "100", "1000", "10000" })
+	private int tamanho;
+
+	private Sistema sistema;
+	private String dono;
+	private String telefone;
+	private int indice;
+
+	@Setup(Level.Trial)
+	public void montar() throws ParseException {
+		sistema = montarSistema(tamanho);
+		dono = nome(1);
+		telefone = telefone(1);
+	}
+
+	@Benchmark
+	public void cadastrarUsuario() {
+		sistema.cadastrarUsuario("Novo", "8", "novo@lp2.com");
+		sistema.removerUsuario("Novo", "8");
+	}
+
+	@Benchmark
+	public void cadastrarEletronico() {
+		sistema.cadastrarEletronico(dono, telefone, "Novo", 99.9, "PC");
+		sistema.removerItem(dono, telefone, "Novo");
+	}
+
+	@Benchmark
+	public void cadastrarJogoTabuleiro() {
+		sistema.cadastrarJogoTabuleiro(dono, telefone, "Novo", 70);
+		sistema.removerItem(dono, telefone, "Novo");
+	}
+
+	@Benchmark
+	public void cadastrarBluRayFilme() {
+		sistema.cadastrarBluRayFilme(dono, telefone, "Novo", 10.5, 120, "ACAO", "LIVRE", 2010);
+		sistema.removerItem(dono, telefone, "Novo");
+	}
+
+	@Benchmark
+	public void cadastrarBluRayShow() {
+		sistema.cadastrarBluRayShow(dono, telefone, "Novo", 20, 90, 12, "Artista", "LIVRE");
+		sistema.removerItem(dono, telefone, "Novo");
+	}
+
+	@Benchmark
+	public void cadastrarBluRaySerie() {
+		sistema.cadastrarBluRaySerie(dono, telefone, "Novo", 50, "Descricao", 40, "LIVRE", "DRAMA", 1);
+		sistema.removerItem(dono, telefone, "Novo");
+	}
+
+	@Benchmark
+	public void registrarEmprestimoEDevolverItem() throws ParseException {
+		int doDono = indice++ % tamanho;
+		int requerente = (doDono + 1) % tamanho;
+		sistema.registrarEmprestimo(nome(doDono), telefone(doDono), nome(requerente), telefone(requerente),
+				"Eletronico " + doDono, DATA, 5);
+		sistema.devolverItem(nome(doDono), telefone(doDono), nome(requerente), telefone(requerente),
+				"Eletronico " + doDono, DATA, "05/01/2018");
+	}
+
+	@Benchmark
+	public String listarItensOrdenadosPorNome() {
+		return sistema.listarItensOrdenadosPorNome();
+	}
+
+	@Benchmark
+	public String listarItensOrdenadosPorValor() {
+		return sistema.listarItensOrdenadosPorValor();
+	}
+
+	@Benchmark
+	public String listarItensNaoEmprestados() {
+		return sistema.listarItensNaoEmprestados();
+	}
+
+	@Benchmark
+	public String listarItensEmprestados() {
+		return sistema.listarItensEmprestados();
+	}
+
+	@Benchmark
+	public String listarTop10Itens() {
+		return sistema.listarTop10Itens();
+	}
+
+	@Benchmark
+	public String pesquisarItens() {
+		return sistema.pesquisarItens("tabuleiro " + indice++ % tamanho, 10);
+	}
+
+	@Benchmark
+	public String listarEmprestimosUsuarioEmprestando() {
+		return sistema.listarEmprestimosUsuarioEmprestando(dono, telefone);
+	}
+
+	@Benchmark
+	public String listarEmprestimosUsuarioPegandoEmprestado() {
+		return sistema.listarEmprestimosUsuarioPegandoEmprestado(dono, telefone);
+	}
+
+	@Benchmark
+	public String listarEmprestimosItem() {
+		return sistema.listarEmprestimosItem("Tabuleiro 1");
+	}
+
+	@Benchmark
+	public String listarCaloteiros() {
+		return sistema.listarCaloteiros();
+	}
+
+	@Benchmark
+	public String listarTop10MelhoresUsuarios() {
+		return sistema.listarTop10MelhoresUsuarios();
+	}
+
+	@Benchmark
+	public String listarTop10PioresUsuarios() {
+		return sistema.listarTop10PioresUsuarios();
+	}
+
+	/**
+	 * Monta um sistema com o numero de usuarios informado, cada um com um jogo
+	 * eletronico e um jogo de tabuleiro emprestado ao usuario seguinte.
+	 *
+	 * @param tamanho
+	 *            numero de usuarios
+	 * @return sistema montado
+	 * @throws ParseException
+	 *             nao lancada, as datas sao fixas
+	 */
+	static Sistema montarSistema(int tamanho) throws ParseException {
+		Sistema sistema = new Sistema();
+		for (int i = 0; i < tamanho; i++) {
+			sistema.cadastrarUsuario(nome(i), telefone(i), "usuario@lp2.com");
+			sistema.cadastrarEletronico(nome(i), telefone(i), "Eletronico " + i, 99.9, "PC");
+			sistema.cadastrarJogoTabuleiro(nome(i), telefone(i), "Tabuleiro " + i, 70);
+		}
+		for (int i = 0; i < tamanho; i++) {
+			int requerente = (i + 1) % tamanho;
+			sistema.registrarEmprestimo(nome(i), telefone(i), nome(requerente), telefone(requerente),
+					"Tabuleiro " + i, DATA, 5);
+		}
+		return sistema;
+	}
+
+	static String nome(int indice) {
+		return "Usuario " + indice;
+	}
+
+	static String telefone(int indice) {
+		return "9" + indice;
+	}
+
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+
+import projeto.Sistema;
+import projeto.persistencia.FormatoSnapshot;
+import projeto.persistencia.Snapshot;
+
+/**
+ * Compara os formatos de snapshot em tamanho e em tempo de gravacao e de
+ * leitura, para sistemas com quantidades crescentes de usuarios. Cada usuario
+ * tem um item de cada tipo e um emprestimo devolvido.
+ *
+ * @author caiosbl
+ *
+ */
+public class SnapshotBenchmark {
+
+	private static final int[] USUARIOS = { 1_000, 10_000, 50_000 };
+	private static final int REPETICOES = 5;
+
+	public static void main(String[] args) throws IOException, ClassNotFoundException, ParseException {
+		System.out.println("usuarios | formato     | bytes      | ms gravar | ms ler");
+		for (int usuarios : USUARIOS) {
+			Sistema sistema = montarSistema(usuarios);
+			for (FormatoSnapshot formato : FormatoSnapshot.values()) {
+				medir(usuarios, formato, new Snapshot(sistema, 0));
+			}
+		}
+	}
+
+	private static void medir(int usuarios, FormatoSnapshot formato, Snapshot snapshot)
+			throws IOException, ClassNotFoundException {
+		long melhorGravacao = Long.MAX_VALUE;
+		long melhorLeitura = Long.MAX_VALUE;
+		int tamanho = 0;
+		for (int repeticao = 0; repeticao < REPETICOES; repeticao++) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			long inicio = System.nanoTime();
+			formato.gravar(snapshot, bytes);
+			melhorGravacao = Math.min(melhorGravacao, System.nanoTime() - inicio);
+			tamanho = bytes.size();
+
+			byte[] gravado = bytes.toByteArray();
+			inicio = System.nanoTime();
+			formato.ler(new ByteArrayInputStream(gravado));
+			melhorLeitura = Math.min(melhorLeitura, System.nanoTime() - inicio);
+		}
+		System.out.printf("%8d | %-11s | %10d | %9.1f | %.1f%n", usuarios, formato, tamanho,
+				melhorGravacao / 1e6, melhorLeitura / 1e6);
+	}
+
+	private static Sistema montarSistema(int usuarios) throws ParseException {
+		Sistema sistema = new Sistema();
+		for (int i = 0; i < usuarios; i++) {
+			String nome = "Usuario " + i;
+			String telefone = "9" + i;
+			sistema.cadastrarUsuario(nome, telefone, "usuario" + i + "@lp2.com");
+			sistema.cadastrarEletronico(nome, telefone, "Fifa " + i, 99.9, "PS4");
+			sistema.cadastrarJogoTabuleiro(nome, telefone, "War " + i, 70);
+			sistema.cadastrarBluRayFilme(nome, telefone, "Avatar " + i, 10.5, 160, "ACAO", "DOZE_ANOS", 2009);
+			sistema.cadastrarBluRayShow(nome, telefone, "Acustico " + i, 20, 90, 12, "Cassia", "LIVRE");
+			sistema.cadastrarBluRaySerie(nome, telefone, "Lost " + i, 50, "Ilha", 40, "QUATORZE_ANOS", "SUSPENSE",
+					1);
+		}
+		for (int i = 1; i < usuarios; i++) {
+			String dono = "Usuario " + (i - 1);
+			String telefoneDono = "9" + (i - 1);
+			String requerente = "Usuario " + i;
+			String telefoneRequerente = "9" + i;
+			String item = "War " + (i - 1);
+			sistema.registrarEmprestimo(dono, telefoneDono, requerente, telefoneRequerente, item, "01/01/2018", 5);
+			sistema.devolverItem(dono, telefoneDono, requerente, telefoneRequerente, item, "01/01/2018",
+					"05/01/2018");
+		}
+		return sistema;
+	}
+
+}
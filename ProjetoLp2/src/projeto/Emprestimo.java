@@ -1,15 +1,24 @@
 package projeto;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
 import java.io.Serializable;
 import java.text.ParseException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
+import projeto.persistencia.SaidaBinaria;
+import projeto.utilitarios.ChaveEmprestimo;
 import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Datas;
 
 /**
  * Classe de Emprestimo.
  * 
+ * Um Emprestimo e uma visao de uma linha de {@link HistoricoEmprestimos}, onde
+ * os campos ficam guardados em colunas de inteiros; as datas sao dias epoch e
+ * sao convertidas de e para dd/MM/yyyy por {@link Datas}. Emprestimos sao
+ * criados apenas pelo historico, com {@link HistoricoEmprestimos#getEmprestimo}.
  * 
  * @author lucasvsa
  *
@@ -21,44 +30,73 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 * 
 	 */
 	private static final long serialVersionUID = 6021029249976516649L;
-	private ChaveUsuario dono;
-	private ChaveUsuario requerente;
-	private String item;
-	private LocalDate dataEmprestimo;
-	private int periodo;
-	private LocalDate dataDevolucao;
+	private HistoricoEmprestimos historico;
+	private int numero;
 
 	/**
-	 * Metodo construtor da classe Emprestimo.
+	 * Metodo construtor da visao de um emprestimo do historico.
 	 * 
-	 * @param dono,
-	 *            objeto repassado por parametro.
-	 * @param requerente,
-	 *            objeto repassado por parametro.
-	 * @param item,
-	 *            objeto repassado por parametro.
-	 * @param dataInicial,
-	 *            String repassado por parametro.
-	 * @param periodo,
-	 *            inteiro repassado por parametro.
+	 * @param historico,
+	 *            historico que guarda o emprestimo.
+	 * @param numero,
+	 *            numero do emprestimo no historico.
 	 */
-	public Emprestimo(ChaveUsuario dono, ChaveUsuario requerente, String item, String dataInicial, int periodo) {
-		checaValidadeAtributos(dono, requerente, item, dataInicial, periodo);
+	Emprestimo(HistoricoEmprestimos historico, int numero) {
+		this.historico = historico;
+		this.numero = numero;
+	}
 
-		this.dono = dono;
-		this.requerente = requerente;
-		this.item = item;
-		this.dataEmprestimo = LocalDate.parse(dataInicial, getFormatoData());
-		this.periodo = periodo;
-		this.dataDevolucao = null;
+	/**
+	 * Versoes salvas antes do historico em colunas guardavam os campos no
+	 * proprio emprestimo, com as datas como LocalDate ou como dias epoch; nesse
+	 * caso o emprestimo passa a ter um historico proprio.
+	 */
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField campos = entrada.readFields();
+		ObjectStreamClass formato = campos.getObjectStreamClass();
+		if (formato.getField("historico") != null) {
+			this.historico = (HistoricoEmprestimos) campos.get("historico", null);
+			this.numero = campos.get("numero", 0);
+			return;
+		}
 
+		ChaveUsuario dono = (ChaveUsuario) campos.get("dono", null);
+		ChaveUsuario requerente = (ChaveUsuario) campos.get("requerente", null);
+		String item = (String) campos.get("item", null);
+		int periodo = campos.get("periodo", 0);
+		int diaEmprestimo;
+		int diaDevolucao;
+		if (formato.getField("diaEmprestimo") != null) {
+			diaEmprestimo = campos.get("diaEmprestimo", 0);
+			diaDevolucao = campos.get("diaDevolucao", Datas.SEM_DATA);
+		} else {
+			LocalDate emprestimo = (LocalDate) campos.get("dataEmprestimo", null);
+			LocalDate devolucao = (LocalDate) campos.get("dataDevolucao", null);
+			diaEmprestimo = (int) emprestimo.toEpochDay();
+			diaDevolucao = devolucao == null ? Datas.SEM_DATA : (int) devolucao.toEpochDay();
+		}
+		this.historico = new HistoricoEmprestimos(1);
+		this.numero = historico.registrar(dono, requerente, item, diaEmprestimo, periodo);
+		historico.setDiaDevolucao(numero, diaDevolucao);
+	}
+
+	/**
+	 * Metodo para escrever o emprestimo em um snapshot binario.
+	 * 
+	 * @param saida,
+	 *            saida do snapshot.
+	 * @throws IOException
+	 *             caso a escrita falhe.
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		historico.escrever(numero, saida);
 	}
 
 	/**
 	 * Metodo para retornar o Objeto Usuario. @return, retorna o Objeto dono.
 	 */
 	public ChaveUsuario getDono() {
-		return dono;
+		return historico.getDono(numero);
 	}
 
 	/**
@@ -66,18 +104,22 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 * requerente.
 	 */
 	public ChaveUsuario getRequerente() {
-		return requerente;
+		return historico.getRequerente(numero);
 	}
 
 	/**
-	 * Metodo para retornar o Objeto Item. @return, retorna o Objeto item.
+	 * Metodo para retornar o numero do emprestimo, que e a sua posicao no
+	 * historico do sistema. @return, retorna o numero.
 	 */
-	public String getItem() {
-		return item;
+	public int getNumero() {
+		return numero;
 	}
 
-	private DateTimeFormatter getFormatoData() {
-		return DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	/**
+	 * Metodo para retornar o Objeto Item. @return, retorna o Objeto item.
+	 */
+	public String getItem() {
+		return historico.getItem(numero);
 	}
 
 	/**
@@ -85,7 +127,22 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 * string dataEmprestimo.
 	 */
 	public String getDataEmprestimo() {
-		return getFormatoData().format(dataEmprestimo);
+		return Datas.formatar(getDiaEmprestimo());
+	}
+
+	/**
+	 * Metodo para retornar o dia epoch do emprestimo. @return, retorna o dia.
+	 */
+	public int getDiaEmprestimo() {
+		return historico.getDiaEmprestimo(numero);
+	}
+
+	/**
+	 * Metodo para retornar a chave do emprestimo, formada pelos campos usados
+	 * em equals. @return, retorna a ChaveEmprestimo.
+	 */
+	public ChaveEmprestimo getChave() {
+		return new ChaveEmprestimo(getDono(), getRequerente(), getItem(), getDiaEmprestimo());
 	}
 
 	/**
@@ -93,7 +150,7 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 * inteiro de dias.
 	 */
 	public int getPeriodo() {
-		return periodo;
+		return historico.getPeriodo(numero);
 	}
 
 	/**
@@ -101,14 +158,30 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 * retorna a string dataDevolução.
 	 */
 	public String getDataDevolucao() {
-		if (dataDevolucao == null) {
+		if (isEmAndamento()) {
 			return "Emprestimo em andamento";
 		}
 
-		return getFormatoData().format(dataDevolucao);
+		return Datas.formatar(historico.getDiaDevolucao(numero));
 
 	}
 
+	/**
+	 * Metodo para retornar o dia epoch da devolução. @return, retorna o dia, ou
+	 * Datas.SEM_DATA se o emprestimo esta em andamento.
+	 */
+	public int getDiaDevolucao() {
+		return historico.getDiaDevolucao(numero);
+	}
+
+	/**
+	 * Metodo para verificar se o item ainda nao foi devolvido. @return, retorna
+	 * true se o emprestimo esta em andamento.
+	 */
+	public boolean isEmAndamento() {
+		return historico.getDiaDevolucao(numero) == Datas.SEM_DATA;
+	}
+
 	/**
 	 * Metodo para alterar a data de devolução de um emprestimo conforme o
 	 * usuario do sistema deseje.
@@ -117,7 +190,17 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 *            String a ser alterado passado por paramtro.
 	 */
 	public void setDataDevolucao(String data) throws ParseException {
-		this.dataDevolucao = LocalDate.parse(data, getFormatoData());
+		historico.setDiaDevolucao(numero, Datas.paraDia(data));
+	}
+
+	/**
+	 * Metodo para registrar a devolução de um emprestimo a partir do dia epoch.
+	 * 
+	 * @param dia,
+	 *            dia epoch da devolução.
+	 */
+	public void setDiaDevolucao(int dia) {
+		historico.setDiaDevolucao(numero, dia);
 	}
 
 	/**
@@ -133,8 +216,9 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 		if (getClass() != obj.getClass())
 			return false;
 		Emprestimo other = (Emprestimo) obj;
-		if ((this.dono.equals(other.dono)) && (this.requerente.equals(other.requerente))
-				&& (this.item.equals(other.item)) && (this.dataEmprestimo.equals(other.dataEmprestimo)))
+		if ((this.getDono().equals(other.getDono())) && (this.getRequerente().equals(other.getRequerente()))
+				&& (this.getItem().equals(other.getItem()))
+				&& (this.getDiaEmprestimo() == other.getDiaEmprestimo()))
 			return true;
 		else
 			return false;
@@ -142,19 +226,12 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	}
 
 	/**
-	 * Metodo sobreescrito de hashCode() de emprestimo.
+	 * Metodo sobreescrito de hashCode() de emprestimo. Usa os mesmos campos de
+	 * equals, o mesmo hash de ChaveEmprestimo, sem criar a chave.
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((dataDevolucao == null) ? 0 : dataDevolucao.hashCode());
-		result = prime * result + ((dataEmprestimo == null) ? 0 : dataEmprestimo.hashCode());
-		result = prime * result + ((dono == null) ? 0 : dono.hashCode());
-		result = prime * result + ((item == null) ? 0 : item.hashCode());
-		result = prime * result + periodo;
-		result = prime * result + ((requerente == null) ? 0 : requerente.hashCode());
-		return result;
+		return ChaveEmprestimo.hashCode(getDono(), getRequerente(), getItem(), getDiaEmprestimo());
 	}
 
 	/**
@@ -172,7 +249,7 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 *            valor passado por parametro.
 	 */
 
-	public void checaValidadeAtributos(ChaveUsuario dono, ChaveUsuario requerente, String item, String dataInicial,
+	public static void checaValidadeAtributos(ChaveUsuario dono, ChaveUsuario requerente, String item, String dataInicial,
 			int periodo) {
 
 		if (dono == null)
@@ -195,8 +272,10 @@ public class Emprestimo implements Comparable<Emprestimo>, Serializable {
 	 */
 	@Override
 	public String toString() {
-		return String.format("EMPRESTIMO - De: %s, Para: %s, %s, %s, %d dias, ENTREGA: %s", getDono().getNome(),
-				getRequerente().getNome(), this.getItem(), getDataEmprestimo(), this.periodo, getDataDevolucao());
+		return new StringBuilder("EMPRESTIMO - De: ").append(getDono().getNome()).append(", Para: ")
+				.append(getRequerente().getNome()).append(", ").append(this.getItem()).append(", ")
+				.append(getDataEmprestimo()).append(", ").append(getPeriodo()).append(" dias, ENTREGA: ")
+				.append(getDataDevolucao()).toString();
 
 	}
 
@@ -4,10 +4,23 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
 
+import projeto.importacao.ImportadorCsv;
+import projeto.metricas.Metricas;
+import projeto.persistencia.Diario;
+import projeto.persistencia.FormatoSnapshot;
+import projeto.persistencia.RegistroDiario;
+import projeto.persistencia.Snapshot;
+import projeto.utilitarios.Pagina;
+import projeto.utilitarios.Propriedades;
+
 /**
  * Classe de Fachada
  * 
@@ -16,33 +29,105 @@ import java.text.ParseException;
  */
 
 public class Facade {
+	private static final String DIRETORIO = System.getProperty("projeto.diretorio", "storage");
+	private static final String ARQUIVO_DIARIO = DIRETORIO + "/sistema.diario";
+	private static final int LOTE_DIARIO = Integer.getInteger("projeto.diario.lote", Diario.LOTE_PADRAO);
+	private static final long INTERVALO_DIARIO = Long.getLong("projeto.diario.intervalo", Diario.INTERVALO_PADRAO);
+	private static final int LOTE_IMPORTACAO = Integer.getInteger("projeto.importacao.lote",
+			ImportadorCsv.LOTE_PADRAO);
+	private static final FormatoSnapshot FORMATO_SNAPSHOT = Propriedades.lerEnum("projeto.snapshot",
+			FormatoSnapshot.SERIALIZADO);
+
 	private Sistema sistema;
+	private Diario diario;
+	private Metricas metricas;
 
 	public Facade() {
 		this.sistema = new Sistema();
+		this.metricas = Metricas.global();
 	}
 
 	/**
-	 * Carrega a versão salva do Sistema.
+	 * Carrega a versão salva do Sistema e reaplica as operações registradas no
+	 * diário depois dela. A partir daí, cada operação que altera o sistema é
+	 * acrescentada ao diário.
+	 * 
+	 * A versão salva é procurada primeiro no formato escolhido pela propriedade
+	 * projeto.snapshot (serializado ou binario; um valor inválido é ignorado
+	 * com um aviso) e depois nos demais formatos, de modo que trocar o formato
+	 * migra o sistema no próximo fecharSistema. Os
+	 * arquivos ficam no diretório da propriedade projeto.diretorio, por padrão
+	 * storage. O diário é sincronizado com o disco a cada projeto.diario.lote
+	 * registros e, com poucas operações, depois de no máximo
+	 * projeto.diario.intervalo milissegundos (por padrão 1000; 0 desliga a
+	 * sincronização periódica).
 	 * 
 	 * @throws ClassNotFoundException
-	 *             Se o arquivo não for encontrado.
+	 *             Se o arquivo não puder ser lido ou uma operação do diário não
+	 *             puder ser reaplicada.
 	 */
 	public void iniciarSistema() throws ClassNotFoundException {
+		metricas.medir("iniciarSistema", this::carregarSistema);
+	}
+
+	private void carregarSistema() throws ClassNotFoundException {
 		try {
-			String nomeArquivo = "storage/sistema.dat";
-			File arquivo = new File(nomeArquivo);
-			if (arquivo.exists()) {
-				FileInputStream f = new FileInputStream(nomeArquivo);
-				ObjectInputStream obj = new ObjectInputStream(f);
-				Sistema sistemaLido = (Sistema) obj.readObject();
-				this.sistema = sistemaLido;
-				obj.close();
+			fecharDiario();
+			Snapshot snapshot = lerSnapshot();
+			long ultimoRegistro = 0;
+			if (snapshot != null) {
+				this.sistema = snapshot.getSistema();
+				ultimoRegistro = snapshot.getUltimoRegistro();
 			} else {
 				this.sistema = new Sistema();
 			}
-		} catch (IOException e) {
-			throw new ClassNotFoundException("Falha na leitura");
+
+			File arquivoDiario = new File(ARQUIVO_DIARIO);
+			for (RegistroDiario registro : Diario.ler(arquivoDiario)) {
+				if (registro.getNumero() > ultimoRegistro) {
+					sistema.reaplicar(registro);
+					ultimoRegistro = registro.getNumero();
+				}
+			}
+			arquivoDiario.getAbsoluteFile().getParentFile().mkdirs();
+			this.diario = new Diario(arquivoDiario, ultimoRegistro, LOTE_DIARIO, INTERVALO_DIARIO);
+			sistema.setDiario(diario);
+		} catch (IOException | ParseException | RuntimeException e) {
+			throw new ClassNotFoundException("Falha na leitura", e);
+		}
+	}
+
+	/**
+	 * Lê a versão salva do sistema, dando preferência ao formato escolhido.
+	 * 
+	 * @return snapshot lido, ou null se não houver versão salva
+	 */
+	private Snapshot lerSnapshot() throws IOException, ClassNotFoundException {
+		if (arquivoSnapshot(FORMATO_SNAPSHOT).exists()) {
+			return lerSnapshot(FORMATO_SNAPSHOT);
+		}
+		for (FormatoSnapshot formato : FormatoSnapshot.values()) {
+			if (arquivoSnapshot(formato).exists()) {
+				return lerSnapshot(formato);
+			}
+		}
+		return null;
+	}
+
+	private Snapshot lerSnapshot(FormatoSnapshot formato) throws IOException, ClassNotFoundException {
+		try (InputStream entrada = new FileInputStream(arquivoSnapshot(formato))) {
+			return formato.ler(entrada);
+		}
+	}
+
+	private File arquivoSnapshot(FormatoSnapshot formato) {
+		return new File(DIRETORIO, formato.getNomeArquivo());
+	}
+
+	private void fecharDiario() throws IOException {
+		if (diario != null) {
+			diario.fechar();
+			diario = null;
 		}
 	}
 
@@ -57,7 +142,7 @@ public class Facade {
 	 *            email do usuario
 	 */
 	public void cadastrarUsuario(String nome, String telefone, String email) {
-		sistema.cadastrarUsuario(nome, telefone, email);
+		metricas.medir("cadastrarUsuario", () -> sistema.cadastrarUsuario(nome, telefone, email));
 	}
 
 	/**
@@ -72,7 +157,30 @@ public class Facade {
 	 * @return Retorna a string que representa o atributo consultado
 	 */
 	public String getInfoUsuario(String nome, String telefone, String atributo) {
-		return sistema.getInfoUsuario(nome, telefone, atributo);
+		return metricas.medir("getInfoUsuario", () -> sistema.getInfoUsuario(nome, telefone, atributo));
+	}
+
+	/**
+	 * Consulta a reputação que um usuário tinha ao fim de uma data
+	 * 
+	 * @param nome
+	 *            nome do usuario a ser consultado
+	 * @param telefone
+	 *            telefone do usuario a ser consultado
+	 * @param data
+	 *            data da consulta, no formato dd/MM/yyyy
+	 * @return Retorna a reputação na data
+	 */
+	public String getReputacaoEm(String nome, String telefone, String data) {
+		return metricas.medir("getReputacaoEm", () -> sistema.getReputacaoEm(nome, telefone, data));
+	}
+
+	/**
+	 * Recalcula a reputação e o cartão de todos os usuários a partir do
+	 * histórico de reputação
+	 */
+	public void recalcularReputacoes() {
+		metricas.medir("recalcularReputacoes", () -> sistema.recalcularReputacoes());
 	}
 
 	/**
@@ -84,7 +192,7 @@ public class Facade {
 	 *            telefone do usuario a ser removido
 	 */
 	public void removerUsuario(String nome, String telefone) {
-		sistema.removerUsuario(nome, telefone);
+		metricas.medir("removerUsuario", () -> sistema.removerUsuario(nome, telefone));
 	}
 
 	/**
@@ -100,7 +208,7 @@ public class Facade {
 	 *            novo valor para o atributo a ser atualziado
 	 */
 	public void atualizarUsuario(String nome, String telefone, String atributo, String valor) {
-		sistema.atualizarUsuario(nome, telefone, atributo, valor);
+		metricas.medir("atualizarUsuario", () -> sistema.atualizarUsuario(nome, telefone, atributo, valor));
 	}
 
 	/**
@@ -118,7 +226,8 @@ public class Facade {
 	 *            plataforma do eletronico a ser cadastrado
 	 */
 	public void cadastrarEletronico(String nome, String telefone, String nomeItem, double preco, String plataforma) {
-		sistema.cadastrarEletronico(nome, telefone, nomeItem, preco, plataforma);
+		metricas.medir("cadastrarEletronico", () -> sistema.cadastrarEletronico(nome, telefone, nomeItem, preco,
+				plataforma));
 	}
 
 	/**
@@ -134,7 +243,7 @@ public class Facade {
 	 *            preço do jogo de tabuleiro a ser cadastrado
 	 */
 	public void cadastrarJogoTabuleiro(String nome, String telefone, String nomeItem, double preco) {
-		sistema.cadastrarJogoTabuleiro(nome, telefone, nomeItem, preco);
+		metricas.medir("cadastrarJogoTabuleiro", () -> sistema.cadastrarJogoTabuleiro(nome, telefone, nomeItem, preco));
 	}
 
 	/**
@@ -161,8 +270,8 @@ public class Facade {
 	 */
 	public void cadastrarBluRaySerie(String nome, String telefone, String nomeItem, double preco, String descricao,
 			int duracao, String classificacao, String genero, int temporada) {
-		sistema.cadastrarBluRaySerie(nome, telefone, nomeItem, preco, descricao, duracao, classificacao, genero,
-				temporada);
+		metricas.medir("cadastrarBluRaySerie", () -> sistema.cadastrarBluRaySerie(nome, telefone, nomeItem, preco,
+				descricao, duracao, classificacao, genero, temporada));
 	}
 
 	/**
@@ -179,7 +288,7 @@ public class Facade {
 	 * 
 	 */
 	public void adicionarBluRay(String nome, String telefone, String nomeBlurayTemporada, int duracao) {
-		sistema.adicionarBluRay(nome, telefone, nomeBlurayTemporada, duracao);
+		metricas.medir("adicionarBluRay", () -> sistema.adicionarBluRay(nome, telefone, nomeBlurayTemporada, duracao));
 	}
 
 	/**
@@ -204,7 +313,8 @@ public class Facade {
 	 */
 	public void cadastrarBluRayFilme(String nome, String telefone, String nomeItem, double preco, int duracao,
 			String genero, String classificacao, int anoLancamento) {
-		sistema.cadastrarBluRayFilme(nome, telefone, nomeItem, preco, duracao, genero, classificacao, anoLancamento);
+		metricas.medir("cadastrarBluRayFilme", () -> sistema.cadastrarBluRayFilme(nome, telefone, nomeItem, preco,
+				duracao, genero, classificacao, anoLancamento));
 	}
 
 	/**
@@ -229,7 +339,8 @@ public class Facade {
 	 */
 	public void cadastrarBluRayShow(String nome, String telefone, String nomeItem, double preco, int duracao,
 			int numFaixas, String nomeArtista, String classificacao) {
-		sistema.cadastrarBluRayShow(nome, telefone, nomeItem, preco, duracao, numFaixas, nomeArtista, classificacao);
+		metricas.medir("cadastrarBluRayShow", () -> sistema.cadastrarBluRayShow(nome, telefone, nomeItem, preco,
+				duracao, numFaixas, nomeArtista, classificacao));
 	}
 
 	/**
@@ -245,7 +356,7 @@ public class Facade {
 	 *            é o nome da peça perdida
 	 */
 	public void adicionarPecaPerdida(String nome, String telefone, String nomeItem, String nomePeca) {
-		sistema.adicionarPecaPerdida(nome, telefone, nomeItem, nomePeca);
+		metricas.medir("adicionarPecaPerdida", () -> sistema.adicionarPecaPerdida(nome, telefone, nomeItem, nomePeca));
 	}
 
 	/**
@@ -259,7 +370,7 @@ public class Facade {
 	 *            nome do item a ser removido
 	 */
 	public void removerItem(String nome, String telefone, String nomeItem) {
-		sistema.removerItem(nome, telefone, nomeItem);
+		metricas.medir("removerItem", () -> sistema.removerItem(nome, telefone, nomeItem));
 	}
 
 	/**
@@ -277,7 +388,7 @@ public class Facade {
 	 *            é o novo atributo atualizado após a modificação
 	 */
 	public void atualizarItem(String nome, String telefone, String nomeItem, String atributo, String valor) {
-		sistema.atualizarItem(nome, telefone, nomeItem, atributo, valor);
+		metricas.medir("atualizarItem", () -> sistema.atualizarItem(nome, telefone, nomeItem, atributo, valor));
 	}
 
 	/**
@@ -294,7 +405,7 @@ public class Facade {
 	 * @return informação correspondente a um atributo do item
 	 */
 	public String getInfoItem(String nome, String telefone, String nomeItem, String atributo) {
-		return sistema.getInfoItem(nome, telefone, nomeItem, atributo);
+		return metricas.medir("getInfoItem", () -> sistema.getInfoItem(nome, telefone, nomeItem, atributo));
 	}
 
 	/**
@@ -303,7 +414,33 @@ public class Facade {
 	 * @return informações dos itens ordenados por nome
 	 */
 	public String listarItensOrdenadosPorNome() {
-		return sistema.listarItensOrdenadosPorNome();
+		return metricas.medir("listarItensOrdenadosPorNome", () -> sistema.listarItensOrdenadosPorNome());
+	}
+
+	/**
+	 * Escreve os itens dos usuários ordenados por nome.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensOrdenadosPorNome(Appendable saida) throws IOException {
+		metricas.medir("listarItensOrdenadosPorNome", () -> sistema.listarItensOrdenadosPorNome(saida));
+	}
+
+	/**
+	 * Lista uma página dos itens dos usuários ordenados por nome.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensOrdenadosPorNome(int tamanhoPagina, String cursor) {
+		return metricas.medir("listarItensOrdenadosPorNome(pagina)",
+				() -> sistema.listarItensOrdenadosPorNome(tamanhoPagina, cursor));
 	}
 
 	/**
@@ -312,7 +449,119 @@ public class Facade {
 	 * @return informações dos itens ordenados por valor
 	 */
 	public String listarItensOrdenadosPorValor() {
-		return sistema.listarItensOrdenadosPorValor();
+		return metricas.medir("listarItensOrdenadosPorValor", () -> sistema.listarItensOrdenadosPorValor());
+	}
+
+	/**
+	 * Escreve os itens dos usuários ordenados por valor.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensOrdenadosPorValor(Appendable saida) throws IOException {
+		metricas.medir("listarItensOrdenadosPorValor", () -> sistema.listarItensOrdenadosPorValor(saida));
+	}
+
+	/**
+	 * Lista uma página dos itens dos usuários ordenados por valor.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensOrdenadosPorValor(int tamanhoPagina, String cursor) {
+		return metricas.medir("listarItensOrdenadosPorValor(pagina)",
+				() -> sistema.listarItensOrdenadosPorValor(tamanhoPagina, cursor));
+	}
+
+	/**
+	 * Lista os itens dos usuários com valor entre os limites informados,
+	 * inclusive, ordenados por valor.
+	 * 
+	 * @param valorMinimo
+	 *            Menor valor da faixa.
+	 * @param valorMaximo
+	 *            Maior valor da faixa.
+	 * @return informações dos itens da faixa ordenados por valor
+	 */
+	public String listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo) {
+		return metricas.medir("listarItensPorFaixaDeValor",
+				() -> sistema.listarItensPorFaixaDeValor(valorMinimo, valorMaximo));
+	}
+
+	/**
+	 * Escreve os itens dos usuários com valor entre os limites informados,
+	 * inclusive, ordenados por valor.
+	 * 
+	 * @param valorMinimo
+	 *            Menor valor da faixa.
+	 * @param valorMaximo
+	 *            Maior valor da faixa.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo, Appendable saida)
+			throws IOException {
+		metricas.medir("listarItensPorFaixaDeValor",
+				() -> sistema.listarItensPorFaixaDeValor(valorMinimo, valorMaximo, saida));
+	}
+
+	/**
+	 * Lista uma página dos itens dos usuários com valor entre os limites
+	 * informados, inclusive, ordenados por valor.
+	 * 
+	 * @param valorMinimo
+	 *            Menor valor da faixa.
+	 * @param valorMaximo
+	 *            Maior valor da faixa.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo, int tamanhoPagina,
+			String cursor) {
+		return metricas.medir("listarItensPorFaixaDeValor(pagina)",
+				() -> sistema.listarItensPorFaixaDeValor(valorMinimo, valorMaximo, tamanhoPagina, cursor));
+	}
+
+	/**
+	 * Pesquisa os itens dos usuários pelos termos da consulta, no nome, na
+	 * descrição de séries e no artista de shows.
+	 * 
+	 * @param consulta
+	 *            Termos pesquisados, cada um podendo ser o início de uma
+	 *            palavra.
+	 * @param quantidade
+	 *            Número máximo de itens listados.
+	 * @return informações dos itens encontrados, do mais relevante ao menos
+	 *         relevante
+	 */
+	public String pesquisarItens(String consulta, int quantidade) {
+		return metricas.medir("pesquisarItens", () -> sistema.pesquisarItens(consulta, quantidade));
+	}
+
+	/**
+	 * Escreve os itens dos usuários encontrados pelos termos da consulta.
+	 * 
+	 * @param consulta
+	 *            Termos pesquisados.
+	 * @param quantidade
+	 *            Número máximo de itens listados.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void pesquisarItens(String consulta, int quantidade, Appendable saida) throws IOException {
+		metricas.medir("pesquisarItens", () -> sistema.pesquisarItens(consulta, quantidade, saida));
 	}
 
 	/**
@@ -327,7 +576,7 @@ public class Facade {
 	 * @return representação textual do item
 	 */
 	public String pesquisarDetalhesItem(String nome, String telefone, String nomeItem) {
-		return sistema.pesquisarDetalhesItem(nome, telefone, nomeItem);
+		return metricas.medir("pesquisarDetalhesItem", () -> sistema.pesquisarDetalhesItem(nome, telefone, nomeItem));
 	}
 
 	/**
@@ -352,9 +601,8 @@ public class Facade {
 	 */
 	public void registrarEmprestimo(String nomeDono, String telefoneDono, String nomeRequerente,
 			String telefoneRequerente, String nomeItem, String dataEmprestimo, int periodo) throws ParseException {
-		sistema.registrarEmprestimo(nomeDono, telefoneDono, nomeRequerente, telefoneRequerente, nomeItem,
-				dataEmprestimo, periodo);
-
+		metricas.medir("registrarEmprestimo", () -> sistema.registrarEmprestimo(nomeDono, telefoneDono, nomeRequerente,
+				telefoneRequerente, nomeItem, dataEmprestimo, periodo));
 	}
 
 	/**
@@ -379,8 +627,8 @@ public class Facade {
 	 */
 	public void devolverItem(String nomeDono, String telefoneDono, String nomeRequerente, String telefoneRequerente,
 			String nomeItem, String dataEmprestimo, String dataDevolucao) throws ParseException {
-		sistema.devolverItem(nomeDono, telefoneDono, nomeRequerente, telefoneRequerente, nomeItem, dataEmprestimo,
-				dataDevolucao);
+		metricas.medir("devolverItem", () -> sistema.devolverItem(nomeDono, telefoneDono, nomeRequerente,
+				telefoneRequerente, nomeItem, dataEmprestimo, dataDevolucao));
 	}
 
 	/**
@@ -394,7 +642,45 @@ public class Facade {
 	 * @return listagem
 	 */
 	public String listarEmprestimosUsuarioEmprestando(String nome, String telefone) {
-		return sistema.listarEmprestimosUsuarioEmprestando(nome, telefone);
+		return metricas.medir("listarEmprestimosUsuarioEmprestando",
+				() -> sistema.listarEmprestimosUsuarioEmprestando(nome, telefone));
+	}
+
+	/**
+	 * Escreve os emprestimos em que o Usuario era o dono do item.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarEmprestimosUsuarioEmprestando(String nome, String telefone, Appendable saida) throws IOException {
+		metricas.medir("listarEmprestimosUsuarioEmprestando",
+				() -> sistema.listarEmprestimosUsuarioEmprestando(nome, telefone, saida));
+	}
+
+	/**
+	 * Lista uma página dos emprestimos em que o Usuario era o dono do item, sem
+	 * o cabeçalho da listagem completa.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarEmprestimosUsuarioEmprestando(String nome, String telefone, int tamanhoPagina,
+			String cursor) {
+		return metricas.medir("listarEmprestimosUsuarioEmprestando(pagina)",
+				() -> sistema.listarEmprestimosUsuarioEmprestando(nome, telefone, tamanhoPagina, cursor));
 	}
 
 	/**
@@ -408,7 +694,46 @@ public class Facade {
 	 * @return listagem
 	 */
 	public String listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone) {
-		return sistema.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone);
+		return metricas.medir("listarEmprestimosUsuarioPegandoEmprestado",
+				() -> sistema.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone));
+	}
+
+	/**
+	 * Escreve os emprestimos em que o Usuario pegou um item emprestado.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone, Appendable saida)
+			throws IOException {
+		metricas.medir("listarEmprestimosUsuarioPegandoEmprestado",
+				() -> sistema.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone, saida));
+	}
+
+	/**
+	 * Lista uma página dos emprestimos em que o Usuario pegou um item
+	 * emprestado, sem o cabeçalho da listagem completa.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone, int tamanhoPagina,
+			String cursor) {
+		return metricas.medir("listarEmprestimosUsuarioPegandoEmprestado(pagina)",
+				() -> sistema.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone, tamanhoPagina, cursor));
 	}
 
 	/**
@@ -420,7 +745,38 @@ public class Facade {
 	 * @return retorna a lista de emprestimos encontrados naquele item.
 	 */
 	public String listarEmprestimosItem(String nomeItem) {
-		return sistema.listarEmprestimosItem(nomeItem);
+		return metricas.medir("listarEmprestimosItem", () -> sistema.listarEmprestimosItem(nomeItem));
+	}
+
+	/**
+	 * Escreve os emprestimos associados ao item de acordo com o nome do mesmo.
+	 * 
+	 * @param nomeItem
+	 *            Nome do Item.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarEmprestimosItem(String nomeItem, Appendable saida) throws IOException {
+		metricas.medir("listarEmprestimosItem", () -> sistema.listarEmprestimosItem(nomeItem, saida));
+	}
+
+	/**
+	 * Lista uma página dos emprestimos associados ao item, sem o cabeçalho da
+	 * listagem completa.
+	 * 
+	 * @param nomeItem
+	 *            Nome do Item.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarEmprestimosItem(String nomeItem, int tamanhoPagina, String cursor) {
+		return metricas.medir("listarEmprestimosItem(pagina)",
+				() -> sistema.listarEmprestimosItem(nomeItem, tamanhoPagina, cursor));
 	}
 
 	/**
@@ -429,7 +785,34 @@ public class Facade {
 	 * @return retorna a lista de itens emprestados junto com o nome do dono.
 	 */
 	public String listarItensEmprestados() {
-		return sistema.listarItensEmprestados();
+		return metricas.medir("listarItensEmprestados", () -> sistema.listarItensEmprestados());
+	}
+
+	/**
+	 * Escreve todos os itens emprestados nesse momento, junto com o nome do dono.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensEmprestados(Appendable saida) throws IOException {
+		metricas.medir("listarItensEmprestados", () -> sistema.listarItensEmprestados(saida));
+	}
+
+	/**
+	 * Lista uma página dos itens emprestados nesse momento, junto com o nome do
+	 * dono.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensEmprestados(int tamanhoPagina, String cursor) {
+		return metricas.medir("listarItensEmprestados(pagina)",
+				() -> sistema.listarItensEmprestados(tamanhoPagina, cursor));
 	}
 
 	/**
@@ -438,7 +821,33 @@ public class Facade {
 	 * @return informações dos itens não emprestados ordenados por nome
 	 */
 	public String listarItensNaoEmprestados() {
-		return sistema.listarItensNaoEmprestados();
+		return metricas.medir("listarItensNaoEmprestados", () -> sistema.listarItensNaoEmprestados());
+	}
+
+	/**
+	 * Escreve os itens não emprestados ordenados por nome.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensNaoEmprestados(Appendable saida) throws IOException {
+		metricas.medir("listarItensNaoEmprestados", () -> sistema.listarItensNaoEmprestados(saida));
+	}
+
+	/**
+	 * Lista uma página dos itens não emprestados ordenados por nome.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensNaoEmprestados(int tamanhoPagina, String cursor) {
+		return metricas.medir("listarItensNaoEmprestados(pagina)",
+				() -> sistema.listarItensNaoEmprestados(tamanhoPagina, cursor));
 	}
 
 	/**
@@ -448,7 +857,19 @@ public class Facade {
 	 * @return retorna top 10 itens
 	 */
 	public String listarTop10Itens() {
-		return sistema.listarTop10Itens();
+		return metricas.medir("listarTop10Itens", () -> sistema.listarTop10Itens());
+	}
+
+	/**
+	 * Escreve os 10 itens com maior quantidade de empréstimos em ordem decrescente.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarTop10Itens(Appendable saida) throws IOException {
+		metricas.medir("listarTop10Itens", () -> sistema.listarTop10Itens(saida));
 	}
 
 	/**
@@ -457,7 +878,33 @@ public class Facade {
 	 * @return lista de caloteiros
 	 */
 	public String listarCaloteiros() {
-		return sistema.listarCaloteiros();
+		return metricas.medir("listarCaloteiros", () -> sistema.listarCaloteiros());
+	}
+
+	/**
+	 * Escreve os usuários com reputação negativa.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarCaloteiros(Appendable saida) throws IOException {
+		metricas.medir("listarCaloteiros", () -> sistema.listarCaloteiros(saida));
+	}
+
+	/**
+	 * Lista uma página dos usuários com reputação negativa, ordenados por nome,
+	 * sem o cabeçalho da listagem completa.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarCaloteiros(int tamanhoPagina, String cursor) {
+		return metricas.medir("listarCaloteiros(pagina)", () -> sistema.listarCaloteiros(tamanhoPagina, cursor));
 	}
 
 	/**
@@ -466,7 +913,34 @@ public class Facade {
 	 * @return top 10 com melhores usuarios
 	 */
 	public String listarTop10MelhoresUsuarios() {
-		return sistema.listarTop10MelhoresUsuarios();
+		return metricas.medir("listarTop10MelhoresUsuarios", () -> sistema.listarTop10MelhoresUsuarios());
+	}
+
+	/**
+	 * Escreve os usuários com melhores reputações.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarTop10MelhoresUsuarios(Appendable saida) throws IOException {
+		metricas.medir("listarTop10MelhoresUsuarios", () -> sistema.listarTop10MelhoresUsuarios(saida));
+	}
+
+	/**
+	 * Lista uma página do ranking de usuários, da maior para a menor reputação,
+	 * no formato do top 10 de melhores usuários e sem o limite de 10.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarMelhoresUsuarios(int tamanhoPagina, String cursor) {
+		return metricas.medir("listarMelhoresUsuarios(pagina)",
+				() -> sistema.listarMelhoresUsuarios(tamanhoPagina, cursor));
 	}
 
 	/**
@@ -475,25 +949,101 @@ public class Facade {
 	 * @return listagem
 	 */
 	public String listarTop10PioresUsuarios() {
-		return sistema.listarTop10PioresUsuarios();
+		return metricas.medir("listarTop10PioresUsuarios", () -> sistema.listarTop10PioresUsuarios());
+	}
+
+	/**
+	 * Escreve os 10 piores Usuários.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarTop10PioresUsuarios(Appendable saida) throws IOException {
+		metricas.medir("listarTop10PioresUsuarios", () -> sistema.listarTop10PioresUsuarios(saida));
+	}
+
+	/**
+	 * Importa usuários, itens e empréstimos de um arquivo CSV em UTF-8. Cada
+	 * linha tem o nome de uma operação de cadastro ou registrarEmprestimo
+	 * seguido dos seus argumentos, na ordem desta Facade. As linhas são
+	 * aplicadas em lotes do tamanho da propriedade projeto.importacao.lote, e
+	 * cada linha aplicada é registrada no diário como a operação
+	 * correspondente.
+	 * 
+	 * @param caminho
+	 *            caminho do arquivo
+	 * @return relatório com o número de linhas importadas e as linhas
+	 *         rejeitadas, com seus números e motivos
+	 * @throws IOException
+	 *             Caso o arquivo não possa ser lido.
+	 */
+	public String importarCsv(String caminho) throws IOException {
+		return metricas.medir("importarCsv", () -> {
+			ImportadorCsv importador = new ImportadorCsv(sistema, LOTE_IMPORTACAO);
+			try (Reader origem = Files.newBufferedReader(Paths.get(caminho), StandardCharsets.UTF_8)) {
+				return importador.importar(origem).toString();
+			}
+		});
+	}
+
+	/**
+	 * Lista as métricas das operações da Facade no processo: chamadas, erros
+	 * por tipo de exceção e latências em microssegundos. As mesmas métricas
+	 * são publicadas no JMX.
+	 * 
+	 * @return tabela com uma linha por operação
+	 */
+	public String listarMetricas() {
+		return metricas.emTexto();
 	}
 
 	/**
-	 * Salva o sistema em um arquivo.
+	 * Salva o sistema em um arquivo, no formato escolhido, e esvazia o diário,
+	 * cujas operações passam a fazer parte da versão salva. Versões salvas em
+	 * outros formatos são apagadas.
 	 * 
 	 * @throws IOException
 	 *             Lança uma exceção caso não seja possível salvar.
 	 */
 	public void fecharSistema() throws IOException {
+		metricas.medir("fecharSistema", this::salvarSistema);
+	}
+
+	private void salvarSistema() throws IOException {
 		try {
-			String nomeArquivo = "storage/sistema.dat";
-			FileOutputStream f = new FileOutputStream(nomeArquivo);
-			ObjectOutputStream obj = new ObjectOutputStream(f);
-			obj.writeObject(sistema);
-			obj.close();
+			sistema.executarSozinho(this::gravarSnapshot);
 		} catch (IOException e) {
 			throw new IOException("Falha ao Salvar Sistema");
 		}
 	}
 
+	/**
+	 * Grava a versão salva do sistema e esvazia o diário. Roda com o sistema
+	 * travado por inteiro, de modo que o snapshot e o número do último registro
+	 * do diário correspondem ao mesmo estado.
+	 */
+	private void gravarSnapshot() throws IOException {
+		File arquivo = arquivoSnapshot(FORMATO_SNAPSHOT);
+		File temporario = new File(arquivo.getPath() + ".tmp");
+		Snapshot snapshot = new Snapshot(sistema, diario == null ? 0 : diario.getUltimoNumero());
+		try (FileOutputStream f = new FileOutputStream(temporario)) {
+			FORMATO_SNAPSHOT.gravar(snapshot, f);
+			f.getFD().sync();
+		}
+		Files.move(temporario.toPath(), arquivo.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		for (FormatoSnapshot formato : FormatoSnapshot.values()) {
+			if (formato != FORMATO_SNAPSHOT) {
+				Files.deleteIfExists(arquivoSnapshot(formato).toPath());
+			}
+		}
+		if (diario == null) {
+			Files.deleteIfExists(new File(ARQUIVO_DIARIO).toPath());
+		} else {
+			diario.truncar();
+		}
+	}
+
 }
@@ -0,0 +1,312 @@
+package projeto;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
+import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Datas;
+
+/**
+ * Historico de emprestimos guardado em colunas: cada emprestimo e uma linha,
+ * identificada pelo seu numero, e cada campo e um vetor de inteiros. Usuarios
+ * e nomes de itens sao guardados uma unica vez e referenciados por
+ * identificadores inteiros; as datas sao dias epoch.
+ *
+ * Objetos Emprestimo sao apenas visoes de uma linha do historico, criadas
+ * quando necessario.
+ *
+ * @author lucasvsa
+ *
+ */
+public class HistoricoEmprestimos implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -1725946513316208746L;
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private List<ChaveUsuario> usuarios;
+	private List<String> itens;
+	private transient Map<ChaveUsuario, Integer> idsUsuarios;
+	private transient Map<String, Integer> idsItens;
+
+	private int tamanho;
+	private int[] donos;
+	private int[] requerentes;
+	private int[] itensEmprestados;
+	private int[] diasEmprestimo;
+	private int[] periodos;
+	private int[] diasDevolucao;
+
+	/**
+	 * Construtor do historico vazio.
+	 */
+	public HistoricoEmprestimos() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	/**
+	 * Construtor do historico vazio com capacidade inicial.
+	 *
+	 * @param capacidade,
+	 *            numero de emprestimos reservados.
+	 */
+	public HistoricoEmprestimos(int capacidade) {
+		capacidade = Math.max(1, capacidade);
+		this.usuarios = new ArrayList<>();
+		this.itens = new ArrayList<>();
+		this.idsUsuarios = new HashMap<>();
+		this.idsItens = new HashMap<>();
+		this.donos = new int[capacidade];
+		this.requerentes = new int[capacidade];
+		this.itensEmprestados = new int[capacidade];
+		this.diasEmprestimo = new int[capacidade];
+		this.periodos = new int[capacidade];
+		this.diasDevolucao = new int[capacidade];
+	}
+
+	/**
+	 * Metodo para registrar um emprestimo em andamento no fim do historico.
+	 *
+	 * @param dono,
+	 *            chave do dono do item.
+	 * @param requerente,
+	 *            chave do requerente do item.
+	 * @param item,
+	 *            nome do item emprestado.
+	 * @param diaEmprestimo,
+	 *            dia epoch do emprestimo.
+	 * @param periodo,
+	 *            periodo do emprestimo em dias. @return, retorna o numero do
+	 *            emprestimo.
+	 */
+	public int registrar(ChaveUsuario dono, ChaveUsuario requerente, String item, int diaEmprestimo, int periodo) {
+		if (tamanho == donos.length) {
+			crescer();
+		}
+		int numero = tamanho++;
+		donos[numero] = idUsuario(dono);
+		requerentes[numero] = idUsuario(requerente);
+		itensEmprestados[numero] = idItemOuNovo(item);
+		diasEmprestimo[numero] = diaEmprestimo;
+		periodos[numero] = periodo;
+		diasDevolucao[numero] = Datas.SEM_DATA;
+		return numero;
+	}
+
+	private void crescer() {
+		int capacidade = donos.length * 2;
+		donos = Arrays.copyOf(donos, capacidade);
+		requerentes = Arrays.copyOf(requerentes, capacidade);
+		itensEmprestados = Arrays.copyOf(itensEmprestados, capacidade);
+		diasEmprestimo = Arrays.copyOf(diasEmprestimo, capacidade);
+		periodos = Arrays.copyOf(periodos, capacidade);
+		diasDevolucao = Arrays.copyOf(diasDevolucao, capacidade);
+	}
+
+	private int idUsuario(ChaveUsuario chave) {
+		Integer id = idsUsuarios.get(chave);
+		if (id == null) {
+			id = usuarios.size();
+			ChaveUsuario copia = new ChaveUsuario(chave.getNome(), chave.getTelefone());
+			usuarios.add(copia);
+			idsUsuarios.put(copia, id);
+		}
+		return id;
+	}
+
+	private int idItemOuNovo(String item) {
+		Integer id = idsItens.get(item);
+		if (id == null) {
+			id = itens.size();
+			itens.add(item);
+			idsItens.put(item, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Metodo para retornar o numero de emprestimos do historico. @return,
+	 * retorna o tamanho.
+	 */
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Metodo para retornar a visao de um emprestimo do historico.
+	 *
+	 * @param numero,
+	 *            numero do emprestimo. @return, retorna o Emprestimo.
+	 */
+	public Emprestimo getEmprestimo(int numero) {
+		checaNumero(numero);
+		return new Emprestimo(this, numero);
+	}
+
+	/**
+	 * Metodo para retornar o identificador de um nome de item. @return, retorna
+	 * o identificador, ou -1 se o item nunca foi emprestado.
+	 */
+	public int idItem(String item) {
+		Integer id = idsItens.get(item);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Metodo para retornar o identificador do item de um emprestimo. @return,
+	 * retorna o identificador.
+	 */
+	public int getIdItem(int numero) {
+		checaNumero(numero);
+		return itensEmprestados[numero];
+	}
+
+	/**
+	 * Metodo para retornar o dono de um emprestimo. @return, retorna a chave.
+	 */
+	public ChaveUsuario getDono(int numero) {
+		checaNumero(numero);
+		return usuarios.get(donos[numero]);
+	}
+
+	/**
+	 * Metodo para retornar o requerente de um emprestimo. @return, retorna a
+	 * chave.
+	 */
+	public ChaveUsuario getRequerente(int numero) {
+		checaNumero(numero);
+		return usuarios.get(requerentes[numero]);
+	}
+
+	/**
+	 * Metodo para retornar o nome do item de um emprestimo. @return, retorna o
+	 * nome.
+	 */
+	public String getItem(int numero) {
+		checaNumero(numero);
+		return itens.get(itensEmprestados[numero]);
+	}
+
+	/**
+	 * Metodo para retornar o dia epoch de um emprestimo. @return, retorna o dia.
+	 */
+	public int getDiaEmprestimo(int numero) {
+		checaNumero(numero);
+		return diasEmprestimo[numero];
+	}
+
+	/**
+	 * Metodo para retornar o periodo de um emprestimo. @return, retorna o
+	 * periodo em dias.
+	 */
+	public int getPeriodo(int numero) {
+		checaNumero(numero);
+		return periodos[numero];
+	}
+
+	/**
+	 * Metodo para retornar o dia epoch da devolucao de um emprestimo. @return,
+	 * retorna o dia, ou Datas.SEM_DATA se o emprestimo esta em andamento.
+	 */
+	public int getDiaDevolucao(int numero) {
+		checaNumero(numero);
+		return diasDevolucao[numero];
+	}
+
+	/**
+	 * Metodo para registrar a devolucao de um emprestimo.
+	 *
+	 * @param numero,
+	 *            numero do emprestimo.
+	 * @param dia,
+	 *            dia epoch da devolucao.
+	 */
+	public void setDiaDevolucao(int numero, int dia) {
+		checaNumero(numero);
+		diasDevolucao[numero] = dia;
+	}
+
+	/**
+	 * Metodo para escrever um emprestimo em um snapshot binario.
+	 *
+	 * @param numero,
+	 *            numero do emprestimo.
+	 * @param saida,
+	 *            saida do snapshot.
+	 * @throws IOException
+	 *             caso a escrita falhe.
+	 */
+	public void escrever(int numero, SaidaBinaria saida) throws IOException {
+		ChaveUsuario dono = getDono(numero);
+		ChaveUsuario requerente = getRequerente(numero);
+		saida.escreverTexto(dono.getNome());
+		saida.escreverTexto(dono.getTelefone());
+		saida.escreverTexto(requerente.getNome());
+		saida.escreverTexto(requerente.getTelefone());
+		saida.escreverTexto(getItem(numero));
+		saida.escreverDia(diasEmprestimo[numero]);
+		saida.escreverInteiro(periodos[numero]);
+		saida.escreverDia(diasDevolucao[numero]);
+	}
+
+	/**
+	 * Metodo para ler um emprestimo escrito por escrever e registra-lo no fim do
+	 * historico.
+	 *
+	 * @param entrada,
+	 *            entrada do snapshot. @return, retorna o numero do emprestimo.
+	 * @throws IOException
+	 *             caso a leitura falhe.
+	 */
+	public int ler(EntradaBinaria entrada) throws IOException {
+		ChaveUsuario dono = new ChaveUsuario(entrada.lerTexto(), entrada.lerTexto());
+		ChaveUsuario requerente = new ChaveUsuario(entrada.lerTexto(), entrada.lerTexto());
+		String item = entrada.lerTexto();
+		int diaEmprestimo = entrada.lerDia();
+		int periodo = entrada.lerInteiro();
+		int numero = registrar(dono, requerente, item, diaEmprestimo, periodo);
+		diasDevolucao[numero] = entrada.lerDia();
+		return numero;
+	}
+
+	private void checaNumero(int numero) {
+		if (numero < 0 || numero >= tamanho) {
+			throw new IndexOutOfBoundsException("Emprestimo inexistente: " + numero);
+		}
+	}
+
+	private void writeObject(ObjectOutputStream saida) throws IOException {
+		int capacidade = Math.max(1, tamanho);
+		donos = Arrays.copyOf(donos, capacidade);
+		requerentes = Arrays.copyOf(requerentes, capacidade);
+		itensEmprestados = Arrays.copyOf(itensEmprestados, capacidade);
+		diasEmprestimo = Arrays.copyOf(diasEmprestimo, capacidade);
+		periodos = Arrays.copyOf(periodos, capacidade);
+		diasDevolucao = Arrays.copyOf(diasDevolucao, capacidade);
+		saida.defaultWriteObject();
+	}
+
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		entrada.defaultReadObject();
+		idsUsuarios = new HashMap<>();
+		for (int i = 0; i < usuarios.size(); i++) {
+			idsUsuarios.put(usuarios.get(i), i);
+		}
+		idsItens = new HashMap<>();
+		for (int i = 0; i < itens.size(); i++) {
+			idsItens.put(itens.get(i), i);
+		}
+	}
+
+}
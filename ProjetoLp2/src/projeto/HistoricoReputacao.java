@@ -0,0 +1,303 @@
+package projeto;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import projeto.enums.TipoEventoReputacao;
+import projeto.utilitarios.Datas;
+import projeto.utilitarios.ListaInteiros;
+
+/**
+ * Historico das alteracoes de reputacao, guardado em colunas e apenas
+ * acrescido: cada evento e uma linha com o identificador do Usuario, o dia
+ * epoch, o tipo e a variacao da reputacao.
+ *
+ * Eventos sem data, como o cadastro de um item, recebem o dia mais recente ja
+ * registrado. Para cada Usuario sao mantidas as posicoes dos seus eventos em
+ * ordem de dia e, a cada INTERVALO_SOMAS eventos, a soma acumulada ate ali,
+ * de modo que a reputacao em uma data soma no maximo INTERVALO_SOMAS eventos.
+ * As somas seguem a ordem dos eventos, e por isso reproduzem exatamente a
+ * reputacao mantida no Usuario quando os eventos chegam em ordem de data.
+ *
+ * Os metodos sao sincronizados, ja que a reputacao de usuarios diferentes pode
+ * mudar ao mesmo tempo.
+ *
+ * @author caiosbl
+ *
+ */
+public class HistoricoReputacao implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 2675316022147436829L;
+	private static final int CAPACIDADE_INICIAL = 16;
+	/**
+	 * Numero de eventos de um Usuario entre duas somas acumuladas.
+	 */
+	public static final int INTERVALO_SOMAS = 32;
+
+	private int tamanho;
+	private int[] usuarios;
+	private int[] dias;
+	private byte[] tipos;
+	private double[] variacoes;
+	private transient int ultimoDia;
+	private transient List<EventosUsuario> eventosUsuarios;
+
+	/**
+	 * Construtor do historico vazio.
+	 */
+	public HistoricoReputacao() {
+		this.usuarios = new int[CAPACIDADE_INICIAL];
+		this.dias = new int[CAPACIDADE_INICIAL];
+		this.tipos = new byte[CAPACIDADE_INICIAL];
+		this.variacoes = new double[CAPACIDADE_INICIAL];
+		this.ultimoDia = Datas.SEM_DATA;
+		this.eventosUsuarios = new ArrayList<>();
+	}
+
+	/**
+	 * Registra um evento no fim do historico.
+	 *
+	 * @param usuario,
+	 *            identificador do Usuario.
+	 * @param dia,
+	 *            dia epoch do evento, ou Datas.SEM_DATA para o dia mais recente
+	 *            ja registrado.
+	 * @param tipo,
+	 *            tipo do evento.
+	 * @param variacao,
+	 *            variacao da reputacao.
+	 * @return numero do evento
+	 */
+	public synchronized int registrar(int usuario, int dia, TipoEventoReputacao tipo, double variacao) {
+		if (dia == Datas.SEM_DATA) {
+			dia = ultimoDia;
+		}
+		avancarDia(dia);
+		if (tamanho == usuarios.length) {
+			crescer();
+		}
+		int numero = tamanho++;
+		usuarios[numero] = usuario;
+		dias[numero] = dia;
+		tipos[numero] = (byte) tipo.ordinal();
+		variacoes[numero] = variacao;
+		indexar(numero);
+		return numero;
+	}
+
+	private void avancarDia(int dia) {
+		if (dia != Datas.SEM_DATA && (ultimoDia == Datas.SEM_DATA || dia > ultimoDia)) {
+			ultimoDia = dia;
+		}
+	}
+
+	private void crescer() {
+		int capacidade = usuarios.length * 2;
+		usuarios = Arrays.copyOf(usuarios, capacidade);
+		dias = Arrays.copyOf(dias, capacidade);
+		tipos = Arrays.copyOf(tipos, capacidade);
+		variacoes = Arrays.copyOf(variacoes, capacidade);
+	}
+
+	/**
+	 * Insere o evento entre os do seu Usuario, depois dos que tem dia menor ou
+	 * igual, e refaz as somas acumuladas a partir do trecho alterado.
+	 */
+	private void indexar(int numero) {
+		int usuario = usuarios[numero];
+		while (eventosUsuarios.size() <= usuario) {
+			eventosUsuarios.add(null);
+		}
+		EventosUsuario eventos = eventosUsuarios.get(usuario);
+		if (eventos == null) {
+			eventos = new EventosUsuario();
+			eventosUsuarios.set(usuario, eventos);
+		}
+		int posicao = eventos.contarAte(dias[numero]);
+		eventos.posicoes.adicionar(posicao, numero);
+		eventos.refazerSomas(posicao / INTERVALO_SOMAS);
+	}
+
+	/**
+	 * Retorna a reputacao de um Usuario ao fim de um dia: a soma das variacoes
+	 * dos eventos ate esse dia.
+	 *
+	 * @param usuario,
+	 *            identificador do Usuario.
+	 * @param dia,
+	 *            dia epoch.
+	 * @return reputacao
+	 */
+	public synchronized double reputacaoEm(int usuario, int dia) {
+		EventosUsuario eventos = usuario < eventosUsuarios.size() ? eventosUsuarios.get(usuario) : null;
+		if (eventos == null) {
+			return 0.0;
+		}
+		int fim = eventos.contarAte(dia);
+		int trecho = fim / INTERVALO_SOMAS;
+		double reputacao = trecho == 0 ? 0.0 : eventos.somas[trecho - 1];
+		for (int i = trecho * INTERVALO_SOMAS; i < fim; i++) {
+			reputacao += variacoes[eventos.posicoes.get(i)];
+		}
+		return reputacao;
+	}
+
+	/**
+	 * Recalcula a reputacao de todos os Usuarios a partir dos eventos, em
+	 * paralelo.
+	 *
+	 * @param numUsuarios,
+	 *            numero de identificadores de Usuario.
+	 * @return reputacoes, indexadas pelo identificador
+	 */
+	public synchronized double[] recalcular(int numUsuarios) {
+		double[] reputacoes = new double[numUsuarios];
+		IntStream.range(0, Math.min(numUsuarios, eventosUsuarios.size())).parallel().forEach(usuario -> {
+			EventosUsuario eventos = eventosUsuarios.get(usuario);
+			if (eventos != null) {
+				double reputacao = 0.0;
+				for (int i = 0; i < eventos.posicoes.tamanho(); i++) {
+					reputacao += variacoes[eventos.posicoes.get(i)];
+				}
+				reputacoes[usuario] = reputacao;
+			}
+		});
+		return reputacoes;
+	}
+
+	/**
+	 * Retorna o numero de eventos do historico.
+	 *
+	 * @return tamanho
+	 */
+	public synchronized int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Retorna o Usuario de um evento.
+	 *
+	 * @param numero,
+	 *            numero do evento.
+	 * @return identificador do Usuario
+	 */
+	public synchronized int getUsuario(int numero) {
+		checaNumero(numero);
+		return usuarios[numero];
+	}
+
+	/**
+	 * Retorna o dia de um evento.
+	 *
+	 * @param numero,
+	 *            numero do evento.
+	 * @return dia epoch, ou Datas.SEM_DATA se nenhum evento tinha data
+	 */
+	public synchronized int getDia(int numero) {
+		checaNumero(numero);
+		return dias[numero];
+	}
+
+	/**
+	 * Retorna o tipo de um evento.
+	 *
+	 * @param numero,
+	 *            numero do evento.
+	 * @return tipo
+	 */
+	public synchronized TipoEventoReputacao getTipo(int numero) {
+		checaNumero(numero);
+		return TipoEventoReputacao.doCodigo(tipos[numero]);
+	}
+
+	/**
+	 * Retorna a variacao de reputacao de um evento.
+	 *
+	 * @param numero,
+	 *            numero do evento.
+	 * @return variacao
+	 */
+	public synchronized double getVariacao(int numero) {
+		checaNumero(numero);
+		return variacoes[numero];
+	}
+
+	private void checaNumero(int numero) {
+		if (numero < 0 || numero >= tamanho) {
+			throw new IndexOutOfBoundsException("Evento inexistente: " + numero);
+		}
+	}
+
+	private synchronized void writeObject(ObjectOutputStream saida) throws IOException {
+		int capacidade = Math.max(1, tamanho);
+		usuarios = Arrays.copyOf(usuarios, capacidade);
+		dias = Arrays.copyOf(dias, capacidade);
+		tipos = Arrays.copyOf(tipos, capacidade);
+		variacoes = Arrays.copyOf(variacoes, capacidade);
+		saida.defaultWriteObject();
+	}
+
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		entrada.defaultReadObject();
+		ultimoDia = Datas.SEM_DATA;
+		eventosUsuarios = new ArrayList<>();
+		for (int numero = 0; numero < tamanho; numero++) {
+			avancarDia(dias[numero]);
+			indexar(numero);
+		}
+	}
+
+	/**
+	 * Eventos de um Usuario em ordem de dia e as somas acumuladas a cada
+	 * INTERVALO_SOMAS eventos.
+	 */
+	private class EventosUsuario {
+
+		private final ListaInteiros posicoes = new ListaInteiros();
+		private double[] somas = new double[0];
+
+		/**
+		 * Conta os eventos com dia menor ou igual ao informado.
+		 */
+		int contarAte(int dia) {
+			int inicio = 0;
+			int fim = posicoes.tamanho();
+			while (inicio < fim) {
+				int meio = (inicio + fim) >>> 1;
+				if (dias[posicoes.get(meio)] <= dia) {
+					inicio = meio + 1;
+				} else {
+					fim = meio;
+				}
+			}
+			return inicio;
+		}
+
+		/**
+		 * Refaz as somas acumuladas a partir de um trecho.
+		 */
+		void refazerSomas(int trecho) {
+			int numSomas = posicoes.tamanho() / INTERVALO_SOMAS;
+			if (somas.length < numSomas) {
+				somas = Arrays.copyOf(somas, Math.max(numSomas, somas.length * 2));
+			}
+			for (int t = trecho; t < numSomas; t++) {
+				double soma = t == 0 ? 0.0 : somas[t - 1];
+				for (int i = t * INTERVALO_SOMAS; i < (t + 1) * INTERVALO_SOMAS; i++) {
+					soma += variacoes[posicoes.get(i)];
+				}
+				somas[t] = soma;
+			}
+		}
+	}
+
+}
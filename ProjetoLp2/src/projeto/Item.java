@@ -1,10 +1,30 @@
 package projeto;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.util.Locale;
+
+import projeto.enums.ModoCacheLinhas;
+
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
+import projeto.utilitarios.Propriedades;
 
 /**
  * Define um item genérico.
  * 
+ * A linha que representa o item nas listagens é formatada uma vez e guardada
+ * até que o item seja alterado ou que o locale de formatação mude. Cada
+ * alteração incrementa a versão do item, e uma linha formatada em uma versão
+ * anterior é descartada. O modo de guardar as linhas vem da propriedade
+ * projeto.cacheLinhas (forte, suave, limitado ou desligado), por padrão forte;
+ * um valor inválido é ignorado com um aviso. No modo suave cada item guarda a
+ * sua linha em uma referência suave própria: não há limite de tamanho, e quem
+ * decide quais linhas descartar é o coletor de lixo. No modo limitado guardam
+ * linha no máximo projeto.cacheLinhas.maximo itens (por padrão 10000), e o
+ * algoritmo do relógio escolhe qual linha descartar para guardar uma nova.
+ * 
  * @author javanktl, igoratf
  *
  */
@@ -18,6 +38,15 @@ public abstract class Item implements Comparable<Item>,Serializable {
 	private int numEmprestimos;
 	private double valor;
 	private boolean estadoDeEmprestimo;
+	private int id;
+	private transient volatile int versao;
+	private transient volatile Object linha;
+	private transient int posicaoRelogio;
+
+	private static volatile ModoCacheLinhas modoCacheLinhas = Propriedades.lerEnum("projeto.cacheLinhas",
+			ModoCacheLinhas.FORTE);
+	private static final RelogioLinhas relogio = new RelogioLinhas(
+			Math.max(1, Integer.getInteger("projeto.cacheLinhas.maximo", 10000)));
 
 	/**
 	 * Constroi um item generico
@@ -32,6 +61,37 @@ public abstract class Item implements Comparable<Item>,Serializable {
 		this.estadoDeEmprestimo = false;
 		this.numEmprestimos = 0;
 	}
+
+	/**
+	 * Constroi um item a partir de um snapshot binario
+	 * @param entrada
+	 * 		entrada do snapshot
+	 * @throws IOException
+	 * 		caso a leitura falhe
+	 */
+	protected Item(EntradaBinaria entrada) throws IOException {
+		this.nome = entrada.lerTexto();
+		this.valor = entrada.lerReal();
+		this.numEmprestimos = entrada.lerTamanho();
+		this.estadoDeEmprestimo = entrada.lerBooleano();
+		this.id = entrada.lerTamanho();
+	}
+
+	/**
+	 * Escreve o estado do item em um snapshot binario. Subclasses acrescentam
+	 * seus atributos depois dos do item.
+	 * @param saida
+	 * 		saida do snapshot
+	 * @throws IOException
+	 * 		caso a escrita falhe
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		saida.escreverTexto(nome);
+		saida.escreverReal(valor);
+		saida.escreverTamanho(numEmprestimos);
+		saida.escreverBooleano(estadoDeEmprestimo);
+		saida.escreverTamanho(id);
+	}
 	
 	/**
 	 * Altera o estado de emprestimo de um item
@@ -40,6 +100,7 @@ public abstract class Item implements Comparable<Item>,Serializable {
 	 */
 	public void setEstadoDeEmprestimo(boolean estadoDeEmprestimo) {
 		this.estadoDeEmprestimo = estadoDeEmprestimo;
+		invalidarLinha();
 	}
 
 	/**
@@ -65,6 +126,7 @@ public abstract class Item implements Comparable<Item>,Serializable {
 	 */
 	public void setValor(double valor) {
 		this.valor = valor;
+		invalidarLinha();
 	}
 
 	/**
@@ -74,6 +136,7 @@ public abstract class Item implements Comparable<Item>,Serializable {
 	 */
 	public void setNome(String nome) {
 		this.nome = nome;
+		invalidarLinha();
 	}
 
 	/**
@@ -97,6 +160,33 @@ public abstract class Item implements Comparable<Item>,Serializable {
 		return this.numEmprestimos;
 	}
 	
+	/**
+	 * Busca o identificador do item, atribuido pelo controlador no cadastro
+	 * @return
+	 * 		retorna o identificador do item
+	 */
+	public int getId() {
+		return this.id;
+	}
+
+	/**
+	 * Altera o identificador do item
+	 * @param id
+	 * 		novo identificador do item
+	 */
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	/**
+	 * Busca os textos do item, alem do nome, usados na pesquisa de itens
+	 * @return
+	 * 		retorna os textos pesquisaveis do item
+	 */
+	public String[] getTextosBusca() {
+		return new String[0];
+	}
+
 	/**
 	 * Conta o numero de vezes que o item foi emprestado
 	 */
@@ -105,13 +195,101 @@ public abstract class Item implements Comparable<Item>,Serializable {
 	}
 
 	/**
-	 * retorna a String que representa o item
+	 * Descarta a linha formatada do item. Deve ser chamado depois de cada
+	 * alteração de um atributo que aparece na linha.
 	 */
-	@Override
-	public String toString() {
+	protected void invalidarLinha() {
+		this.versao++;
+		this.linha = null;
+	}
+
+	/**
+	 * Formata a String que representa o item
+	 * @return
+	 * 		retorna a linha do item
+	 */
+	protected String renderizar() {
 		return "Item [nome=" + nome + ", valor=" + valor + ", EstadoDeEmprestimo=" + estadoDeEmprestimo + "]";
 	}
 
+	/**
+	 * retorna a String que representa o item, guardada desde a ultima
+	 * alteracao quando o locale de formatacao e o mesmo
+	 */
+	@Override
+	public final String toString() {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		int versaoAtual = this.versao;
+		LinhaFormatada guardada = recuperar(this.linha);
+		if (guardada != null && guardada.versao == versaoAtual && guardada.locale.equals(locale)) {
+			if (!guardada.usada) {
+				guardada.usada = true;
+			}
+			return guardada.texto;
+		}
+		String texto = renderizar();
+		ModoCacheLinhas modo = modoCacheLinhas;
+		if (modo == ModoCacheLinhas.FORTE) {
+			this.linha = new LinhaFormatada(versaoAtual, locale, texto);
+		} else if (modo == ModoCacheLinhas.SUAVE) {
+			this.linha = new SoftReference<>(new LinhaFormatada(versaoAtual, locale, texto));
+		} else if (modo == ModoCacheLinhas.LIMITADO) {
+			relogio.guardar(this, new LinhaFormatada(versaoAtual, locale, texto));
+		}
+		return texto;
+	}
+
+	private static LinhaFormatada recuperar(Object linha) {
+		if (linha instanceof SoftReference) {
+			return (LinhaFormatada) ((SoftReference<?>) linha).get();
+		}
+		return (LinhaFormatada) linha;
+	}
+
+	/**
+	 * Busca o modo de guardar as linhas formatadas dos itens
+	 * @return
+	 * 		retorna o modo atual
+	 */
+	public static ModoCacheLinhas getModoCacheLinhas() {
+		return modoCacheLinhas;
+	}
+
+	/**
+	 * Altera o modo de guardar as linhas formatadas dos itens. As linhas ja
+	 * guardadas continuam validas ate a proxima alteracao de cada item.
+	 * @param modo
+	 * 		novo modo
+	 */
+	public static void setModoCacheLinhas(ModoCacheLinhas modo) {
+		if (modo == null) {
+			throw new NullPointerException("Modo nulo");
+		}
+		modoCacheLinhas = modo;
+	}
+
+	/**
+	 * Busca o numero maximo de linhas guardadas no modo limitado
+	 * @return
+	 * 		retorna o limite atual
+	 */
+	public static int getMaximoLinhas() {
+		return relogio.getMaximo();
+	}
+
+	/**
+	 * Altera o numero maximo de linhas guardadas no modo limitado. As linhas
+	 * guardadas nesse modo sao descartadas.
+	 * @param maximo
+	 * 		novo limite, maior que zero
+	 */
+	public static void setMaximoLinhas(int maximo) {
+		if (maximo <= 0) {
+			throw new IllegalArgumentException("Maximo de linhas invalido");
+		}
+		relogio.redimensionar(maximo);
+	}
+
 	/**
 	 * Sobrescreve o metodo compareTo para a classe item
 	 */
@@ -120,4 +298,79 @@ public abstract class Item implements Comparable<Item>,Serializable {
 		return this.nome.compareTo(item.nome);
 	}
 
+	/**
+	 * Linha formatada de um item, com a versao do item e o locale usados.
+	 */
+	private static final class LinhaFormatada {
+
+		private final int versao;
+		private final Locale locale;
+		private final String texto;
+		private volatile boolean usada;
+
+		LinhaFormatada(int versao, Locale locale, String texto) {
+			this.versao = versao;
+			this.locale = locale;
+			this.texto = texto;
+		}
+	}
+
+	/**
+	 * Itens que guardam linha no modo limitado, em uma lista circular com
+	 * capacidade fixa. Cada linha lida e marcada como usada; para abrir espaco,
+	 * o ponteiro percorre a lista desmarcando as linhas usadas e descarta a
+	 * primeira que encontra sem a marca. Um item ocupa no maximo uma posicao,
+	 * a indicada por posicaoRelogio quando a lista guarda o proprio item nela.
+	 */
+	private static final class RelogioLinhas {
+
+		private Item[] itens;
+		private int tamanho;
+		private int ponteiro;
+
+		RelogioLinhas(int maximo) {
+			this.itens = new Item[maximo];
+		}
+
+		synchronized int getMaximo() {
+			return itens.length;
+		}
+
+		synchronized void guardar(Item item, LinhaFormatada linha) {
+			int posicao = item.posicaoRelogio;
+			if (posicao >= itens.length || itens[posicao] != item) {
+				posicao = posicaoLivre();
+				itens[posicao] = item;
+				item.posicaoRelogio = posicao;
+			}
+			item.linha = linha;
+		}
+
+		private int posicaoLivre() {
+			if (tamanho < itens.length) {
+				return tamanho++;
+			}
+			while (true) {
+				int posicao = ponteiro;
+				ponteiro = (ponteiro + 1) % itens.length;
+				Object linha = itens[posicao].linha;
+				if (linha instanceof LinhaFormatada && ((LinhaFormatada) linha).usada) {
+					((LinhaFormatada) linha).usada = false;
+				} else {
+					itens[posicao].linha = null;
+					return posicao;
+				}
+			}
+		}
+
+		synchronized void redimensionar(int maximo) {
+			for (int i = 0; i < tamanho; i++) {
+				itens[i].linha = null;
+			}
+			this.itens = new Item[maximo];
+			this.tamanho = 0;
+			this.ponteiro = 0;
+		}
+	}
+
 }
@@ -1,13 +1,22 @@
 package projeto;
 
 import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
 import java.util.ArrayList;
 
 import easyaccept.EasyAccept;
+import projeto.roteiro.CompiladorRoteiro;
+import projeto.roteiro.Roteiro;
 
 public class Main {
 
 	public static void main(String[] args) throws Exception {
+		if (args.length > 0) {
+			executarRoteiros(args);
+			return;
+		}
+
 		ArrayList<String> testes = new ArrayList<>();
 		testes.add("diretorio_testes" + File.separator + "us1_test.txt");
 		EasyAccept.executeEasyAcceptTests("projeto.Facade", testes);
@@ -35,4 +44,23 @@ public class Main {
 
 	}
 
+	/**
+	 * Executa roteiros no formato do EasyAccept sem passar pelo EasyAccept: cada
+	 * roteiro é compilado uma vez e executado em uma Facade nova, e o resultado,
+	 * com os comandos por segundo, é impresso. Os roteiros são lidos na
+	 * codificação padrão da plataforma, como no EasyAccept.
+	 * 
+	 * @param caminhos
+	 *            caminhos dos roteiros
+	 */
+	private static void executarRoteiros(String[] caminhos) throws Exception {
+		for (String caminho : caminhos) {
+			Roteiro roteiro;
+			try (Reader origem = new FileReader(caminho)) {
+				roteiro = CompiladorRoteiro.compilar(origem);
+			}
+			System.out.println(caminho + ": " + roteiro.executar(new Facade()));
+		}
+	}
+
 }
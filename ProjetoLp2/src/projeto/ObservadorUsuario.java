@@ -0,0 +1,38 @@
+package projeto;
+
+import java.io.Serializable;
+
+/**
+ * Interface de quem acompanha as alterações de um Usuário, como os índices
+ * mantidos pelo controlador de usuários.
+ *
+ * @author caiosbl
+ * @version 1.0
+ *
+ */
+
+public interface ObservadorUsuario extends Serializable {
+
+	/**
+	 * Notifica que a reputação de um usuário foi alterada.
+	 *
+	 * @param usuario
+	 *            Usuário alterado, já com a nova reputação.
+	 * @param reputacaoAnterior
+	 *            Reputação antes da alteração.
+	 */
+	public void reputacaoAlterada(Usuario usuario, double reputacaoAnterior);
+
+	/**
+	 * Notifica que o nome ou o telefone de um usuário foi alterado.
+	 *
+	 * @param usuario
+	 *            Usuário alterado, já com os novos dados.
+	 * @param nomeAnterior
+	 *            Nome antes da alteração.
+	 * @param telefoneAnterior
+	 *            Telefone antes da alteração.
+	 */
+	public void identificacaoAlterada(Usuario usuario, String nomeAnterior, String telefoneAnterior);
+
+}
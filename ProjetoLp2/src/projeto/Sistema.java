@@ -1,19 +1,41 @@
 package projeto;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import projeto.controllers.ControllerEmprestimo;
 import projeto.controllers.ControllerItem;
 import projeto.controllers.ControllerUsuario;
+import projeto.importacao.LinhaImportacao;
+import projeto.importacao.RelatorioImportacao;
+import projeto.persistencia.Diario;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.RegistroDiario;
+import projeto.persistencia.SaidaBinaria;
 import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Datas;
+import projeto.utilitarios.Listagem;
+import projeto.utilitarios.Pagina;
+import projeto.utilitarios.RegistroUsuarios;
+import projeto.utilitarios.TravasSistema;
+import projeto.utilitarios.TravasSistema.Acao;
+import projeto.utilitarios.TravasSistema.Trava;
 
 /**
  * Sistema responsável por delegar os metodos, trabalhando em cima dos
  * controllers.
  * 
+ * O sistema pode ser usado por várias threads: operações sobre usuários
+ * diferentes rodam em paralelo, e cadastro e remoção de usuários e listagens
+ * rodam sozinhos (ver {@link TravasSistema}).
+ * 
  * @author javanktl
  *
  */
@@ -26,6 +48,8 @@ public class Sistema implements Serializable {
 	private ControllerUsuario cUsuario;
 	private ControllerItem cItem;
 	private ControllerEmprestimo cEmprestimo;
+	private transient TravasSistema travas;
+	private transient Diario diario;
 
 	/**
 	 * Construtor do sistema
@@ -35,10 +59,247 @@ public class Sistema implements Serializable {
 		this.cUsuario = new ControllerUsuario();
 		this.cItem = new ControllerItem();
 		this.cEmprestimo = new ControllerEmprestimo();
+		this.travas = new TravasSistema();
+
+	}
+
+	/**
+	 * Construtor do sistema a partir de um snapshot binário
+	 * 
+	 * @param entrada
+	 *            entrada do snapshot
+	 * @param versao
+	 *            versão do snapshot
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public Sistema(EntradaBinaria entrada, int versao) throws IOException {
+		this.cUsuario = new ControllerUsuario(entrada, versao);
+		this.cItem = new ControllerItem(entrada, cUsuario.getItensUsuarios());
+		this.cEmprestimo = new ControllerEmprestimo(entrada);
+		this.travas = new TravasSistema();
+	}
+
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		entrada.defaultReadObject();
+		// versões salvas antes do catálogo de itens
+		cItem.refazerCatalogo(cUsuario.getItensUsuarios());
+		this.travas = new TravasSistema();
+	}
+
+	/**
+	 * Escreve o sistema em um snapshot binário
+	 * 
+	 * @param saida
+	 *            saída do snapshot
+	 * @throws IOException
+	 *             caso a escrita falhe
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.escrever(saida);
+			cItem.escrever(saida);
+			cEmprestimo.escrever(saida);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Define o diário em que as operações que alteram o sistema são
+	 * registradas. Cada operação é acrescentada ao diário antes de liberar as
+	 * travas que a aplicaram, de modo que operações que dependem umas das
+	 * outras aparecem no diário na ordem em que foram aplicadas.
+	 * 
+	 * @param diario
+	 *            diário, ou null para não registrar as operações
+	 */
+	public void setDiario(Diario diario) {
+		Trava trava = travas.exclusiva();
+		try {
+			this.diario = diario;
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Executa uma ação com o sistema travado por inteiro, sem nenhuma operação
+	 * em andamento, como salvar o sistema junto com o número do último registro
+	 * do diário.
+	 * 
+	 * @param acao
+	 *            ação a ser executada
+	 * @throws E
+	 *             exceção lançada pela ação
+	 */
+	public <E extends Exception> void executarSozinho(Acao<E> acao) throws E {
+		Trava trava = travas.exclusiva();
+		try {
+			acao.executar();
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Aplica uma operação que altera o sistema com as travas já tomadas e a
+	 * acrescenta ao diário antes de liberá-las. A operação é codificada antes
+	 * de ser aplicada, de modo que um argumento que não cabe no diário é
+	 * recusado sem alterar o sistema. Uma operação que lança exceção é
+	 * registrada como falha, para que a reaplicação refaça o que ela alterou
+	 * antes de falhar. A sincronização do diário com o disco, quando devida,
+	 * é feita depois de liberar as travas.
+	 */
+	private <E extends Exception> void executar(Trava trava, Acao<E> acao, String operacao, Object... argumentos)
+			throws E {
+		Diario destino = diario;
+		long numero;
+		try {
+			byte[] registro = codificar(operacao, argumentos);
+			try {
+				acao.executar();
+			} catch (Throwable erro) {
+				acrescentar(registro, true);
+				throw erro;
+			}
+			numero = acrescentar(registro, false);
+		} finally {
+			trava.liberar();
+		}
+		concluir(destino, numero);
+	}
+
+	/**
+	 * Codifica uma operação para o diário, antes de aplicá-la.
+	 * 
+	 * @return operação codificada, ou null se não há diário
+	 * @throws IllegalArgumentException
+	 *             caso um argumento não caiba no diário
+	 */
+	private byte[] codificar(String operacao, Object... argumentos) {
+		if (diario == null) {
+			return null;
+		}
+		String[] textos = new String[argumentos.length];
+		for (int i = 0; i < argumentos.length; i++) {
+			textos[i] = argumentos[i] == null ? null : argumentos[i].toString();
+		}
+		try {
+			return Diario.codificar(operacao, textos);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Falha ao registrar operacao", e);
+		}
+	}
 
+	private long acrescentar(byte[] registro, boolean falhou) {
+		if (registro == null) {
+			return 0;
+		}
+		try {
+			return diario.acrescentar(registro, falhou);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Falha ao registrar operacao", e);
+		}
 	}
 
-	
+	private static void concluir(Diario destino, long numero) {
+		if (destino == null || numero == 0) {
+			return;
+		}
+		try {
+			destino.concluir(numero);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Falha ao registrar operacao", e);
+		}
+	}
+
+	/**
+	 * Reaplica ao sistema uma operação lida do diário. Uma operação que falhou
+	 * quando foi registrada é reaplicada para refazer o que ela alterou antes
+	 * de falhar, e a exceção que ela lança de novo é ignorada.
+	 * 
+	 * @param registro
+	 *            registro da operação
+	 * @throws ParseException
+	 *             Caso uma data do registro seja inválida.
+	 * @throws IOException
+	 *             Caso a operação seja desconhecida.
+	 */
+	public void reaplicar(RegistroDiario registro) throws ParseException, IOException {
+		try {
+			aplicar(registro);
+		} catch (RuntimeException | ParseException e) {
+			if (!registro.isFalhou()) {
+				throw e;
+			}
+		}
+	}
+
+	private void aplicar(RegistroDiario r) throws ParseException, IOException {
+		switch (r.getOperacao()) {
+		case "cadastrarUsuario":
+			cadastrarUsuario(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2));
+			break;
+		case "removerUsuario":
+			removerUsuario(r.getArgumento(0), r.getArgumento(1));
+			break;
+		case "atualizarUsuario":
+			atualizarUsuario(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2), r.getArgumento(3));
+			break;
+		case "cadastrarEletronico":
+			cadastrarEletronico(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2),
+					r.getArgumentoReal(3), r.getArgumento(4));
+			break;
+		case "cadastrarJogoTabuleiro":
+			cadastrarJogoTabuleiro(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2),
+					r.getArgumentoReal(3));
+			break;
+		case "cadastrarBluRaySerie":
+			cadastrarBluRaySerie(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2),
+					r.getArgumentoReal(3), r.getArgumento(4), r.getArgumentoInteiro(5), r.getArgumento(6),
+					r.getArgumento(7), r.getArgumentoInteiro(8));
+			break;
+		case "adicionarBluRay":
+			adicionarBluRay(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2),
+					r.getArgumentoInteiro(3));
+			break;
+		case "cadastrarBluRayFilme":
+			cadastrarBluRayFilme(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2),
+					r.getArgumentoReal(3), r.getArgumentoInteiro(4), r.getArgumento(5), r.getArgumento(6),
+					r.getArgumentoInteiro(7));
+			break;
+		case "cadastrarBluRayShow":
+			cadastrarBluRayShow(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2),
+					r.getArgumentoReal(3), r.getArgumentoInteiro(4), r.getArgumentoInteiro(5), r.getArgumento(6),
+					r.getArgumento(7));
+			break;
+		case "adicionarPecaPerdida":
+			adicionarPecaPerdida(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2), r.getArgumento(3));
+			break;
+		case "removerItem":
+			removerItem(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2));
+			break;
+		case "atualizarItem":
+			atualizarItem(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2), r.getArgumento(3),
+					r.getArgumento(4));
+			break;
+		case "registrarEmprestimo":
+			registrarEmprestimo(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2), r.getArgumento(3),
+					r.getArgumento(4), r.getArgumento(5), r.getArgumentoInteiro(6));
+			break;
+		case "recalcularReputacoes":
+			recalcularReputacoes();
+			break;
+		case "devolverItem":
+			devolverItem(r.getArgumento(0), r.getArgumento(1), r.getArgumento(2), r.getArgumento(3),
+					r.getArgumento(4), r.getArgumento(5), r.getArgumento(6));
+			break;
+		default:
+			throw new IOException("Operacao desconhecida no diario: " + r.getOperacao());
+		}
+	}
 
 	/**
 	 * Cadastra um usuário no sistema
@@ -51,7 +312,8 @@ public class Sistema implements Serializable {
 	 *            email do usuario
 	 */
 	public void cadastrarUsuario(String nome, String telefone, String email) {
-		cUsuario.cadastrarUsuario(nome, telefone, email);
+		executar(travas.exclusiva(), () -> cUsuario.cadastrarUsuario(nome, telefone, email),
+				"cadastrarUsuario", nome, telefone, email);
 	}
 
 	/**
@@ -66,7 +328,40 @@ public class Sistema implements Serializable {
 	 * @return Retorna a string que representa o atributo consultado
 	 */
 	public String getInfoUsuario(String nome, String telefone, String atributo) {
-		return cUsuario.getInfoUsuario(nome, telefone, atributo);
+		Trava trava = travas.usuario(nome, telefone);
+		try {
+			return cUsuario.getInfoUsuario(nome, telefone, atributo);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Consulta a reputação que um usuário tinha ao fim de uma data
+	 * 
+	 * @param nome
+	 *            nome do usuario a ser consultado
+	 * @param telefone
+	 *            telefone do usuario a ser consultado
+	 * @param data
+	 *            data da consulta, no formato dd/MM/yyyy
+	 * @return Retorna a reputação na data
+	 */
+	public String getReputacaoEm(String nome, String telefone, String data) {
+		Trava trava = travas.usuario(nome, telefone);
+		try {
+			return String.valueOf(cUsuario.getReputacaoEm(nome, telefone, data));
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Recalcula a reputação e o cartão de todos os usuários a partir do
+	 * histórico de reputação
+	 */
+	public void recalcularReputacoes() {
+		executar(travas.exclusiva(), cUsuario::recalcularReputacoes, "recalcularReputacoes");
 	}
 
 	/**
@@ -79,7 +374,12 @@ public class Sistema implements Serializable {
 	 * @return retorna Map de itens do usuario consultado
 	 */
 	public Map<String, Item> getItensUsuario(String nome, String telefone) {
-		return cUsuario.getItensUsuario(nome, telefone);
+		Trava trava = travas.usuario(nome, telefone);
+		try {
+			return cUsuario.getItensUsuario(nome, telefone);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -88,7 +388,12 @@ public class Sistema implements Serializable {
 	 * @return retorna a lista com os itens de todos usuarios
 	 */
 	public List<Item> getItensUsuarios() {
-		return cUsuario.getItensUsuarios();
+		Trava trava = travas.exclusiva();
+		try {
+			return cUsuario.getItensUsuarios();
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -100,7 +405,10 @@ public class Sistema implements Serializable {
 	 *            telefone do usuario a ser removido
 	 */
 	public void removerUsuario(String nome, String telefone) {
-		cUsuario.removerUsuario(nome, telefone);
+		executar(travas.exclusiva(), () -> {
+			Usuario removido = cUsuario.removerUsuario(nome, telefone);
+			cItem.removerItens(removido.getItens());
+		}, "removerUsuario", nome, telefone);
 	}
 
 	/**
@@ -116,7 +424,8 @@ public class Sistema implements Serializable {
 	 *            novo valor para o atributo a ser atualziado
 	 */
 	public void atualizarUsuario(String nome, String telefone, String atributo, String valor) {
-		cUsuario.atualizarUsuario(nome, telefone, atributo, valor);
+		executar(travas.exclusiva(), () -> cUsuario.atualizarUsuario(nome, telefone, atributo, valor),
+				"atualizarUsuario", nome, telefone, atributo, valor);
 	}
 
 	/**
@@ -129,7 +438,12 @@ public class Sistema implements Serializable {
 	 * @return retorna booleano confirmando se usuario existe ou não
 	 */
 	public boolean checaSeUsuarioJaExiste(String nome, String telefone) {
-		return cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+		Trava trava = travas.compartilhada();
+		try {
+			return cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -148,11 +462,17 @@ public class Sistema implements Serializable {
 	 */
 
 	public void cadastrarEletronico(String nome, String telefone, String nomeItem, double preco, String plataforma) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-
-		cItem.cadastrarEletronico(nomeItem, preco, plataforma, mapaItensDono);
-		cUsuario.addReputacaoItemAdicionado(nome, telefone, preco);
-		cUsuario.atualizaCartaoUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+			boolean primeiroItem = mapaItensDono.isEmpty();
+
+			cItem.cadastrarEletronico(nomeItem, preco, plataforma, mapaItensDono);
+			cUsuario.addReputacaoItemAdicionado(id, preco);
+			if (primeiroItem) {
+				cUsuario.atualizaCartaoUsuario(id);
+			}
+		}, "cadastrarEletronico", nome, telefone, nomeItem, preco, plataforma);
 	}
 
 	/**
@@ -169,11 +489,17 @@ public class Sistema implements Serializable {
 	 */
 
 	public void cadastrarJogoTabuleiro(String nome, String telefone, String nomeItem, double preco) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-
-		cItem.cadastrarJogoTabuleiro(nomeItem, preco, mapaItensDono);
-		cUsuario.addReputacaoItemAdicionado(nome, telefone, preco);
-		cUsuario.atualizaCartaoUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+			boolean primeiroItem = mapaItensDono.isEmpty();
+
+			cItem.cadastrarJogoTabuleiro(nomeItem, preco, mapaItensDono);
+			cUsuario.addReputacaoItemAdicionado(id, preco);
+			if (primeiroItem) {
+				cUsuario.atualizaCartaoUsuario(id);
+			}
+		}, "cadastrarJogoTabuleiro", nome, telefone, nomeItem, preco);
 	}
 
 	/**
@@ -200,12 +526,19 @@ public class Sistema implements Serializable {
 	 */
 	public void cadastrarBluRaySerie(String nome, String telefone, String nomeItem, double preco, String descricao,
 			int duracao, String classificacao, String genero, int temporada) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-
-		cItem.cadastrarBluraySerie(nomeItem, preco, descricao, duracao, classificacao, genero, temporada,
-				mapaItensDono);
-		cUsuario.atualizaCartaoUsuario(nome, telefone);
-		cUsuario.addReputacaoItemAdicionado(nome, telefone, preco);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+			boolean primeiroItem = mapaItensDono.isEmpty();
+
+			cItem.cadastrarBluraySerie(nomeItem, preco, descricao, duracao, classificacao, genero, temporada,
+					mapaItensDono);
+			cUsuario.addReputacaoItemAdicionado(id, preco);
+			if (primeiroItem) {
+				cUsuario.atualizaCartaoUsuario(id);
+			}
+		}, "cadastrarBluRaySerie", nome, telefone, nomeItem, preco, descricao, duracao, classificacao, genero,
+				temporada);
 	}
 
 	/**
@@ -221,9 +554,11 @@ public class Sistema implements Serializable {
 	 *            duracao do episodio a ser adicionado
 	 */
 	public void adicionarBluRay(String nome, String telefone, String serie, int duracao) {
-
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-		cItem.adicionarBluray(serie, duracao, mapaItensDono);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+			cItem.adicionarBluray(serie, duracao, mapaItensDono);
+		}, "adicionarBluRay", nome, telefone, serie, duracao);
 	}
 
 	/**
@@ -248,11 +583,17 @@ public class Sistema implements Serializable {
 	 */
 	public void cadastrarBluRayFilme(String nome, String telefone, String nomeItem, double preco, int duracao,
 			String genero, String classificacao, int anoLancamento) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-
-		cItem.cadastrarBluRayFilme(nomeItem, preco, duracao, genero, classificacao, anoLancamento, mapaItensDono);
-		cUsuario.addReputacaoItemAdicionado(nome, telefone, preco);
-		cUsuario.atualizaCartaoUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+			boolean primeiroItem = mapaItensDono.isEmpty();
+
+			cItem.cadastrarBluRayFilme(nomeItem, preco, duracao, genero, classificacao, anoLancamento, mapaItensDono);
+			cUsuario.addReputacaoItemAdicionado(id, preco);
+			if (primeiroItem) {
+				cUsuario.atualizaCartaoUsuario(id);
+			}
+		}, "cadastrarBluRayFilme", nome, telefone, nomeItem, preco, duracao, genero, classificacao, anoLancamento);
 	}
 
 	/**
@@ -277,11 +618,17 @@ public class Sistema implements Serializable {
 	 */
 	public void cadastrarBluRayShow(String nome, String telefone, String nomeItem, double preco, int duracao,
 			int numFaixas, String nomeArtista, String classificacao) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-
-		cItem.cadastrarBlurayShow(nomeItem, preco, duracao, numFaixas, nomeArtista, classificacao, mapaItensDono);
-		cUsuario.addReputacaoItemAdicionado(nome, telefone, preco);
-		cUsuario.atualizaCartaoUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+			boolean primeiroItem = mapaItensDono.isEmpty();
+
+			cItem.cadastrarBlurayShow(nomeItem, preco, duracao, numFaixas, nomeArtista, classificacao, mapaItensDono);
+			cUsuario.addReputacaoItemAdicionado(id, preco);
+			if (primeiroItem) {
+				cUsuario.atualizaCartaoUsuario(id);
+			}
+		}, "cadastrarBluRayShow", nome, telefone, nomeItem, preco, duracao, numFaixas, nomeArtista, classificacao);
 	}
 
 	/**
@@ -297,9 +644,12 @@ public class Sistema implements Serializable {
 	 *            é o nome da peça perdida
 	 */
 	public void adicionarPecaPerdida(String nome, String telefone, String nomeItem, String nomePeca) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
 
-		cItem.adicionarPecaPerdida(nomeItem, nomePeca, mapaItensDono);
+			cItem.adicionarPecaPerdida(nomeItem, nomePeca, mapaItensDono);
+		}, "adicionarPecaPerdida", nome, telefone, nomeItem, nomePeca);
 	}
 
 	/**
@@ -313,10 +663,15 @@ public class Sistema implements Serializable {
 	 *            nome do item a ser removido
 	 */
 	public void removerItem(String nome, String telefone, String nomeItem) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
-
-		cItem.removerItem(nomeItem, mapaItensDono);
-		cUsuario.atualizaCartaoUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+
+			cItem.removerItem(nomeItem, mapaItensDono);
+			if (mapaItensDono.isEmpty()) {
+				cUsuario.atualizaCartaoUsuario(id);
+			}
+		}, "removerItem", nome, telefone, nomeItem);
 	}
 
 	/**
@@ -334,9 +689,12 @@ public class Sistema implements Serializable {
 	 *            é o novo atributo atualizado após a modificação
 	 */
 	public void atualizarItem(String nome, String telefone, String nomeItem, String atributo, String valor) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
+		executar(travas.usuario(nome, telefone), () -> {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
 
-		cItem.atualizarItem(nomeItem, atributo, valor, mapaItensDono);
+			cItem.atualizarItem(nomeItem, atributo, valor, mapaItensDono);
+		}, "atualizarItem", nome, telefone, nomeItem, atributo, valor);
 	}
 
 	/**
@@ -353,30 +711,227 @@ public class Sistema implements Serializable {
 	 * @return informação correspondente a um atributo do item
 	 */
 	public String getInfoItem(String nome, String telefone, String nomeItem, String atributo) {
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nome, telefone);
+		Trava trava = travas.usuario(nome, telefone);
+		try {
+			int id = cUsuario.idUsuario(nome, telefone);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
 
-		return cItem.getInfoItem(nomeItem, atributo, mapaItensDono);
+			return cItem.getInfoItem(nomeItem, atributo, mapaItensDono);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
-	 * Lista os itens dos usuários ordenados por nome
+	 * Lista os itens dos usuários ordenados por nome. Toma a trava em modo
+	 * compartilhado, já que o índice de nomes pode ser lido durante cadastros
+	 * de itens.
 	 * 
 	 * @return informações dos itens ordenados por nome
 	 */
 	public String listarItensOrdenadosPorNome() {
-		List<Item> listItens = cUsuario.getItensUsuarios();
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarItensOrdenadosPorNome();
+		} finally {
+			trava.liberar();
+		}
+	}
 
-		return cItem.listarItensOrdenadosPorNome(listItens);
+	/**
+	 * Escreve os itens dos usuários ordenados por nome, com a trava em modo
+	 * compartilhado.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensOrdenadosPorNome(Appendable saida) throws IOException {
+		Trava trava = travas.compartilhada();
+		try {
+			cItem.listarItensOrdenadosPorNome(saida);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Lista uma página dos itens dos usuários ordenados por nome.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensOrdenadosPorNome(int tamanhoPagina, String cursor) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarItensOrdenadosPorNome(tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
-	 * Lista os itens dos usuários ordenados por valor
+	 * Lista os itens dos usuários ordenados por valor, com a trava em modo
+	 * compartilhado
 	 * 
 	 * @return informações dos itens ordenados por valor
 	 */
 	public String listarItensOrdenadosPorValor() {
-		List<Item> listItens = cUsuario.getItensUsuarios();
-		return cItem.listarItensOrdenadosPorValor(listItens);
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarItensOrdenadosPorValor();
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os itens dos usuários ordenados por valor.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensOrdenadosPorValor(Appendable saida) throws IOException {
+		Trava trava = travas.compartilhada();
+		try {
+			cItem.listarItensOrdenadosPorValor(saida);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Lista uma página dos itens dos usuários ordenados por valor.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensOrdenadosPorValor(int tamanhoPagina, String cursor) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarItensOrdenadosPorValor(tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Lista os itens dos usuários com valor entre os limites informados,
+	 * inclusive, ordenados por valor. Toma a trava em modo compartilhado, como
+	 * as listagens por nome e por valor.
+	 * 
+	 * @param valorMinimo
+	 *            menor valor da faixa
+	 * @param valorMaximo
+	 *            maior valor da faixa
+	 * @return informações dos itens da faixa ordenados por valor
+	 */
+	public String listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarItensPorFaixaDeValor(valorMinimo, valorMaximo);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os itens dos usuários com valor entre os limites informados,
+	 * inclusive, ordenados por valor.
+	 * 
+	 * @param valorMinimo
+	 *            Menor valor da faixa.
+	 * @param valorMaximo
+	 *            Maior valor da faixa.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo, Appendable saida)
+			throws IOException {
+		Trava trava = travas.compartilhada();
+		try {
+			cItem.listarItensPorFaixaDeValor(valorMinimo, valorMaximo, saida);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Lista uma página dos itens dos usuários com valor entre os limites
+	 * informados, inclusive, ordenados por valor.
+	 * 
+	 * @param valorMinimo
+	 *            Menor valor da faixa.
+	 * @param valorMaximo
+	 *            Maior valor da faixa.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo, int tamanhoPagina,
+			String cursor) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarItensPorFaixaDeValor(valorMinimo, valorMaximo, tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Pesquisa os itens dos usuários pelos termos da consulta, no nome, na
+	 * descrição de séries e no artista de shows. Toma a trava em modo
+	 * compartilhado; o índice de busca tem sincronização própria.
+	 * 
+	 * @param consulta
+	 *            termos pesquisados, cada um podendo ser o início de uma
+	 *            palavra
+	 * @param quantidade
+	 *            número máximo de itens listados
+	 * @return informações dos itens encontrados, do mais relevante ao menos
+	 *         relevante
+	 */
+	public String pesquisarItens(String consulta, int quantidade) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.pesquisarItens(consulta, quantidade);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os itens dos usuários encontrados pelos termos da consulta.
+	 * 
+	 * @param consulta
+	 *            termos pesquisados
+	 * @param quantidade
+	 *            número máximo de itens listados
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void pesquisarItens(String consulta, int quantidade, Appendable saida) throws IOException {
+		Trava trava = travas.compartilhada();
+		try {
+			cItem.pesquisarItens(consulta, quantidade, saida);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -391,8 +946,13 @@ public class Sistema implements Serializable {
 	 * @return representação textual do item
 	 */
 	public String pesquisarDetalhesItem(String nome, String telefone, String nomeItem) {
-		Map<String, Item> mapaItensUsuario = cUsuario.getItensUsuario(nome, telefone);
-		return cItem.pesquisarDetalhesItem(nomeItem, mapaItensUsuario);
+		Trava trava = travas.usuario(nome, telefone);
+		try {
+			Map<String, Item> mapaItensUsuario = cUsuario.getItensUsuario(cUsuario.idUsuario(nome, telefone));
+			return cItem.pesquisarDetalhesItem(nomeItem, mapaItensUsuario);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -417,18 +977,28 @@ public class Sistema implements Serializable {
 	 */
 	public void registrarEmprestimo(String nomeDono, String telefoneDono, String nomeRequerente,
 			String telefoneRequerente, String nomeItem, String dataEmprestimo, int periodo) throws ParseException {
-		checaSeUsuarioJaExiste(nomeDono, telefoneDono);
-		checaSeUsuarioJaExiste(nomeRequerente, telefoneRequerente);
+		executar(travas.usuarios(nomeDono, telefoneDono, nomeRequerente, telefoneRequerente), () -> {
+			int idDono = cUsuario.idUsuario(nomeDono, telefoneDono);
+			int idRequerente = cUsuario.idUsuario(nomeRequerente, telefoneRequerente);
+			emprestar(idDono, idRequerente, nomeItem, dataEmprestimo, periodo);
+		}, "registrarEmprestimo", nomeDono, telefoneDono, nomeRequerente, telefoneRequerente, nomeItem, dataEmprestimo,
+				periodo);
+	}
 
-		if (!cUsuario.podePegarItemEmprestado(nomeRequerente, telefoneRequerente)) {
+	/**
+	 * Registra um emprestimo entre dois usuarios ja encontrados.
+	 */
+	private void emprestar(int idDono, int idRequerente, String nomeItem, String dataEmprestimo, int periodo)
+			throws ParseException {
+		if (!cUsuario.podePegarItemEmprestado(idRequerente)) {
 			throw new IllegalArgumentException("Usuario nao pode pegar nenhum item emprestado");
-		} else if (!cUsuario.validaPeriodoEmprestimo(nomeRequerente, telefoneRequerente, periodo)) {
+		} else if (!cUsuario.validaPeriodoEmprestimo(idRequerente, periodo)) {
 			throw new IllegalArgumentException("Usuario impossiblitado de pegar emprestado por esse periodo");
 		}
 
-		ChaveUsuario dono = new ChaveUsuario(nomeDono, telefoneDono);
-		ChaveUsuario requerente = new ChaveUsuario(nomeRequerente, telefoneRequerente);
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nomeDono, telefoneDono);
+		ChaveUsuario dono = cUsuario.getChave(idDono);
+		ChaveUsuario requerente = cUsuario.getChave(idRequerente);
+		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(idDono);
 
 		this.cItem.emprestarItem(nomeItem, mapaItensDono);
 		double valorItem = mapaItensDono.get(nomeItem).getValor();
@@ -440,8 +1010,100 @@ public class Sistema implements Serializable {
 
 			throw new ParseException(e.getMessage(), 43);
 		}
-		cUsuario.addReputacaoItemEmprestado(nomeDono, telefoneDono, valorItem);
+		cUsuario.addReputacaoItemEmprestado(idDono, valorItem, Datas.paraDia(dataEmprestimo));
+	}
 
+	/**
+	 * Cadastra um item ja construido para um usuario ja encontrado. O cartao so
+	 * e recalculado quando o item e o primeiro do usuario.
+	 */
+	private void cadastrarItem(int id, Item item) {
+		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(id);
+		boolean primeiroItem = mapaItensDono.isEmpty();
+
+		cItem.cadastrarItem(item, mapaItensDono);
+		cUsuario.addReputacaoItemAdicionado(id, item.getValor());
+		if (primeiroItem) {
+			cUsuario.atualizaCartaoUsuario(id);
+		}
+	}
+
+	/**
+	 * Aplica um lote de linhas de importacao, na ordem, com o sistema travado
+	 * uma unica vez. Cada usuario e procurado no maximo uma vez por lote, e o
+	 * ranking de reputacao e o indice de popularidade sao atualizados ao fim do
+	 * lote. Cada linha aplicada e acrescentada ao diario ainda com o sistema
+	 * travado, e o diario e sincronizado depois de liberar a trava. Linhas
+	 * rejeitadas, na validacao ou na aplicacao, vao para o relatorio e nao
+	 * interrompem o lote.
+	 * 
+	 * @param lote
+	 *            linhas validadas, na ordem do arquivo
+	 * @param relatorio
+	 *            relatorio da importacao
+	 * @return linhas aplicadas, na ordem do arquivo
+	 */
+	public List<LinhaImportacao> importarLote(List<LinhaImportacao> lote, RelatorioImportacao relatorio) {
+		List<LinhaImportacao> aplicadas = new ArrayList<>(lote.size());
+		Map<ChaveUsuario, Integer> ids = new HashMap<>();
+		Trava trava = travas.exclusiva();
+		Diario destino = diario;
+		long numero = 0;
+		try {
+			cUsuario.iniciarLote();
+			cItem.iniciarLote();
+			try {
+				for (LinhaImportacao linha : lote) {
+					if (linha.isRejeitada()) {
+						relatorio.rejeitada(linha.getNumero(), linha.getMotivoRejeicao());
+						continue;
+					}
+					byte[] registro = null;
+					try {
+						registro = codificar(linha.getOperacao(), (Object[]) linha.getArgumentos());
+						aplicar(linha, ids);
+					} catch (RuntimeException | ParseException e) {
+						numero = Math.max(numero, acrescentar(registro, true));
+						relatorio.rejeitada(linha.getNumero(), e.getMessage());
+						continue;
+					}
+					numero = acrescentar(registro, false);
+					relatorio.aplicada();
+					aplicadas.add(linha);
+				}
+			} finally {
+				cItem.concluirLote();
+				cUsuario.concluirLote();
+			}
+		} finally {
+			trava.liberar();
+		}
+		concluir(destino, numero);
+		return aplicadas;
+	}
+
+	private void aplicar(LinhaImportacao linha, Map<ChaveUsuario, Integer> ids) throws ParseException {
+		switch (linha.getOperacao()) {
+		case "cadastrarUsuario":
+			int id = cUsuario.cadastrarUsuario(linha.getArgumento(0), linha.getArgumento(1), linha.getArgumento(2));
+			ids.put(linha.getDono(), id);
+			break;
+		case "registrarEmprestimo":
+			emprestar(idDoLote(linha.getDono(), ids), idDoLote(linha.getRequerente(), ids), linha.getArgumento(4),
+					linha.getArgumento(5), linha.getPeriodo());
+			break;
+		default:
+			cadastrarItem(idDoLote(linha.getDono(), ids), linha.getItem());
+		}
+	}
+
+	private int idDoLote(ChaveUsuario chave, Map<ChaveUsuario, Integer> ids) {
+		Integer id = ids.get(chave);
+		if (id == null) {
+			id = cUsuario.idUsuario(chave.getNome(), chave.getTelefone());
+			ids.put(chave, id);
+		}
+		return id;
 	}
 
 	/**
@@ -466,31 +1128,32 @@ public class Sistema implements Serializable {
 	 */
 	public void devolverItem(String nomeDono, String telefoneDono, String nomeRequerente, String telefoneRequerente,
 			String nomeItem, String dataEmprestimo, String dataDevolucao) throws ParseException {
+		executar(travas.usuarios(nomeDono, telefoneDono, nomeRequerente, telefoneRequerente), () -> {
+			int idDono = cUsuario.idUsuario(nomeDono, telefoneDono);
 
-		checaSeUsuarioJaExiste(nomeDono, telefoneDono);
+			int idRequerente = cUsuario.buscarIdUsuario(nomeRequerente, telefoneRequerente);
+			if (idRequerente == RegistroUsuarios.SEM_USUARIO) {
+				throw new IllegalArgumentException("Emprestimo nao encontrado");
+			}
 
-		ChaveUsuario dono = new ChaveUsuario(nomeDono, telefoneDono);
-		ChaveUsuario requerente = new ChaveUsuario(nomeRequerente, telefoneRequerente);
-		int diasAtraso = cEmprestimo.devolverItem(dono, requerente, nomeItem, dataEmprestimo, dataDevolucao);
+			ChaveUsuario dono = cUsuario.getChave(idDono);
+			ChaveUsuario requerente = cUsuario.getChave(idRequerente);
+			int diasAtraso = cEmprestimo.devolverItem(dono, requerente, nomeItem, dataEmprestimo, dataDevolucao);
 
-		Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(nomeDono, telefoneDono);
+			Map<String, Item> mapaItensDono = cUsuario.getItensUsuario(idDono);
 
-		double valorItem = mapaItensDono.get(nomeItem).getValor();
-
-		if (diasAtraso <= 0) {
-			cUsuario.addReputacaoItemDevolvidoNoPrazo(nomeRequerente, telefoneRequerente, valorItem);
-		} else {
-			cUsuario.addReputacaoItemDevolvidoAtrasado(nomeRequerente, telefoneRequerente, valorItem, diasAtraso);
-		}
-
-		try {
-			cEmprestimo.devolverItem(dono, requerente, nomeItem, dataEmprestimo, dataDevolucao);
-		} catch (ParseException e) {
+			double valorItem = mapaItensDono.get(nomeItem).getValor();
 
-			throw new ParseException(e.getMessage(), 43);
-		}
-		cItem.devolverItem(nomeItem, mapaItensDono);
+			int diaDevolucao = Datas.paraDia(dataDevolucao);
+			if (diasAtraso <= 0) {
+				cUsuario.addReputacaoItemDevolvidoNoPrazo(idRequerente, valorItem, diaDevolucao);
+			} else {
+				cUsuario.addReputacaoItemDevolvidoAtrasado(idRequerente, valorItem, diasAtraso, diaDevolucao);
+			}
 
+			cItem.devolverItem(nomeItem, mapaItensDono);
+		}, "devolverItem", nomeDono, telefoneDono, nomeRequerente, telefoneRequerente, nomeItem, dataEmprestimo,
+				dataDevolucao);
 	}
 
 	/**
@@ -503,8 +1166,60 @@ public class Sistema implements Serializable {
 	 *            emprestimos realizados em ordem lexicografica.
 	 */
 	public String listarEmprestimosUsuarioEmprestando(String nome, String telefone) {
-		cUsuario.checaSeUsuarioJaExiste(nome, telefone);
-		return cEmprestimo.listarEmprestimosUsuarioEmprestando(nome, telefone);
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+			return cEmprestimo.listarEmprestimosUsuarioEmprestando(nome, telefone);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os emprestimos em que o Usuario era o dono do item.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarEmprestimosUsuarioEmprestando(String nome, String telefone, Appendable saida) throws IOException {
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+			cEmprestimo.listarEmprestimosUsuarioEmprestando(nome, telefone, saida);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Lista uma página dos emprestimos em que o Usuario era o dono do item, sem
+	 * o cabeçalho da listagem completa.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarEmprestimosUsuarioEmprestando(String nome, String telefone, int tamanhoPagina,
+			String cursor) {
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+			return cEmprestimo.listarEmprestimosUsuarioEmprestando(nome, telefone, tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -519,9 +1234,62 @@ public class Sistema implements Serializable {
 	 */
 
 	public String listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone) {
-		cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+
+			return cEmprestimo.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os emprestimos em que o Usuario pegou um item emprestado.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone, Appendable saida)
+			throws IOException {
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+			cEmprestimo.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone, saida);
+		} finally {
+			trava.liberar();
+		}
+	}
 
-		return cEmprestimo.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone);
+	/**
+	 * Lista uma página dos emprestimos em que o Usuario pegou um item
+	 * emprestado, sem o cabeçalho da listagem completa.
+	 * 
+	 * @param nome
+	 *            Nome do Usuario.
+	 * @param telefone
+	 *            Telefone do Usuario.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone, int tamanhoPagina,
+			String cursor) {
+		Trava trava = travas.exclusiva();
+		try {
+			cUsuario.checaSeUsuarioJaExiste(nome, telefone);
+			return cEmprestimo.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone, tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -529,7 +1297,52 @@ public class Sistema implements Serializable {
 	 * mesmo. @return, retorna a lista de emprestimos encontrados naquele item.
 	 */
 	public String listarEmprestimosItem(String nomeItem) {
-		return cEmprestimo.listarEmprestimosItem(nomeItem);
+		Trava trava = travas.exclusiva();
+		try {
+			return cEmprestimo.listarEmprestimosItem(nomeItem);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os emprestimos associados ao item de acordo com o nome do mesmo.
+	 * 
+	 * @param nomeItem
+	 *            Nome do Item.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarEmprestimosItem(String nomeItem, Appendable saida) throws IOException {
+		Trava trava = travas.exclusiva();
+		try {
+			cEmprestimo.listarEmprestimosItem(nomeItem, saida);
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Lista uma página dos emprestimos associados ao item, sem o cabeçalho da
+	 * listagem completa.
+	 * 
+	 * @param nomeItem
+	 *            Nome do Item.
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarEmprestimosItem(String nomeItem, int tamanhoPagina, String cursor) {
+		Trava trava = travas.exclusiva();
+		try {
+			return cEmprestimo.listarEmprestimosItem(nomeItem, tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -537,22 +1350,69 @@ public class Sistema implements Serializable {
 	 * a lista de itens emprestados junto com o nome do dono.
 	 */
 	public String listarItensEmprestados() {
+		Trava trava = travas.exclusiva();
+		try {
+			return cEmprestimo.listarItensEmprestados();
+		} finally {
+			trava.liberar();
+		}
+	}
 
-		return cEmprestimo.listarItensEmprestados();
+	/**
+	 * Escreve todos os itens emprestados nesse momento, junto com o nome do dono.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensEmprestados(Appendable saida) throws IOException {
+		escreverCopia(travas.exclusiva(), cEmprestimo::listarItensEmprestados, saida);
+	}
+
+	/**
+	 * Lista uma página dos itens emprestados nesse momento, junto com o nome do
+	 * dono.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensEmprestados(int tamanhoPagina, String cursor) {
+		Trava trava = travas.exclusiva();
+		try {
+			return cEmprestimo.listarItensEmprestados(tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
 	 * Lista os 10 itens com maior quantidade de empréstimos em ordem decrescente
 	 * 
-	 * @param itensUsuarios
-	 *            lista de itens do usuario
 	 * @return retorna top 10 itens
 	 */
 	public String listarTop10Itens() {
+		Trava trava = travas.compartilhada();
+		try {
+			return cItem.listarTop10Itens();
+		} finally {
+			trava.liberar();
+		}
+	}
 
-		List<Item> listItens = cUsuario.getItensUsuarios();
-
-		return cItem.listarTop10Itens(listItens);
+	/**
+	 * Escreve os 10 itens com maior quantidade de empréstimos em ordem decrescente.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarTop10Itens(Appendable saida) throws IOException {
+		escreverCopia(travas.compartilhada(), cItem::listarTop10Itens, saida);
 	}
 
 	/**
@@ -563,11 +1423,42 @@ public class Sistema implements Serializable {
 	 * @return informações dos itens não emprestados ordenados por nome
 	 */
 	public String listarItensNaoEmprestados() {
+		Trava trava = travas.exclusiva();
+		try {
+			return cItem.listarItensNaoEmprestados();
+		} finally {
+			trava.liberar();
+		}
+	}
 
-		List<Item> listItens = cUsuario.getItensUsuarios();
-
-		return cItem.listarItensNaoEmprestados(listItens);
+	/**
+	 * Escreve os itens não emprestados ordenados por nome.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarItensNaoEmprestados(Appendable saida) throws IOException {
+		escreverCopia(travas.exclusiva(), cItem::listarItensNaoEmprestados, saida);
+	}
 
+	/**
+	 * Lista uma página dos itens não emprestados ordenados por nome.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarItensNaoEmprestados(int tamanhoPagina, String cursor) {
+		Trava trava = travas.exclusiva();
+		try {
+			return cItem.listarItensNaoEmprestados(tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -576,7 +1467,43 @@ public class Sistema implements Serializable {
 	 * @return lista de caloteiros
 	 */
 	public String listarCaloteiros() {
-		return cUsuario.listarCaloteiros();
+		Trava trava = travas.compartilhada();
+		try {
+			return cUsuario.listarCaloteiros();
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os usuários com reputação negativa.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarCaloteiros(Appendable saida) throws IOException {
+		escreverCopia(travas.compartilhada(), cUsuario::listarCaloteiros, saida);
+	}
+
+	/**
+	 * Lista uma página dos usuários com reputação negativa, ordenados por nome,
+	 * sem o cabeçalho da listagem completa.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarCaloteiros(int tamanhoPagina, String cursor) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cUsuario.listarCaloteiros(tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -585,7 +1512,43 @@ public class Sistema implements Serializable {
 	 * @return top 10 com melhores usuarios
 	 */
 	public String listarTop10MelhoresUsuarios() {
-		return cUsuario.listarTop10MelhoresUsuarios();
+		Trava trava = travas.compartilhada();
+		try {
+			return cUsuario.listarTop10MelhoresUsuarios();
+		} finally {
+			trava.liberar();
+		}
+	}
+
+	/**
+	 * Escreve os usuários com melhores reputações.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarTop10MelhoresUsuarios(Appendable saida) throws IOException {
+		escreverCopia(travas.compartilhada(), cUsuario::listarTop10MelhoresUsuarios, saida);
+	}
+
+	/**
+	 * Lista uma página do ranking de usuários, da maior para a menor reputação,
+	 * no formato do top 10 de melhores usuários e sem o limite de 10.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de linhas da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página da listagem
+	 */
+	public Pagina listarMelhoresUsuarios(int tamanhoPagina, String cursor) {
+		Trava trava = travas.compartilhada();
+		try {
+			return cUsuario.listarMelhoresUsuarios(tamanhoPagina, cursor);
+		} finally {
+			trava.liberar();
+		}
 	}
 
 	/**
@@ -594,9 +1557,50 @@ public class Sistema implements Serializable {
 	 * @return listagem
 	 */
 	public String listarTop10PioresUsuarios() {
-		return cUsuario.listarTop10PioresUsuarios();
+		Trava trava = travas.compartilhada();
+		try {
+			return cUsuario.listarTop10PioresUsuarios();
+		} finally {
+			trava.liberar();
+		}
 	}
 
+	/**
+	 * Escreve os 10 piores Usuários.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarTop10PioresUsuarios(Appendable saida) throws IOException {
+		escreverCopia(travas.compartilhada(), cUsuario::listarTop10PioresUsuarios, saida);
+	}
 
+	/**
+	 * Copia a listagem enquanto a trava está tomada e só a escreve no destino
+	 * depois de liberá-la, de modo que um destino lento não segura as demais
+	 * operações do sistema.
+	 * 
+	 * @param trava
+	 *            Trava tomada para a cópia, liberada antes da escrita.
+	 * @param listagem
+	 *            Listagem a ser copiada.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	private static void escreverCopia(Trava trava, Listagem listagem, Appendable saida) throws IOException {
+		List<String> trechos;
+		try {
+			trechos = Listagem.emTrechos(listagem);
+		} finally {
+			trava.liberar();
+		}
+		for (String trecho : trechos) {
+			saida.append(trecho);
+		}
+	}
 
 }
@@ -1,5 +1,6 @@
 package projeto;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Locale;
@@ -9,6 +10,9 @@ import projeto.cartao.BomAmigo;
 import projeto.cartao.Caloteiro;
 import projeto.cartao.FreeRyder;
 import projeto.cartao.Noob;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
+import projeto.persistencia.SnapshotBinario;
 import projeto.utilitarios.ValidaParametros;
 
 /**
@@ -27,9 +31,10 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	private String nome;
 	private String email;
 	private String numCelular;
-	private double reputacao;
-	private Cartao cartao;
+	private volatile double reputacao;
+	private volatile Cartao cartao;
 	private Map<String, Item> mapaItens;
+	private ObservadorUsuario observador;
 
 	/**
 	 * Construtor da Classe Usuário.
@@ -48,11 +53,70 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 		this.email = email.trim();
 		this.numCelular = numCelular.trim();
 		this.reputacao = 0.0;
-		this.cartao = new FreeRyder();
+		this.cartao = FreeRyder.INSTANCIA;
 		this.mapaItens = new HashMap<String, Item>();
 
 	}
 
+	/**
+	 * Construtor do Usuário a partir de um snapshot binário. O observador não
+	 * faz parte do snapshot e deve ser definido por quem restaura o Usuário.
+	 * 
+	 * @param entrada
+	 *            Entrada do snapshot.
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public Usuario(EntradaBinaria entrada) throws IOException {
+		this.nome = entrada.lerTexto();
+		this.email = entrada.lerTexto();
+		this.numCelular = entrada.lerTexto();
+		this.reputacao = entrada.lerReal();
+		this.cartao = cartaoDoTipo(entrada.lerTexto());
+		int numItens = entrada.lerTamanho();
+		this.mapaItens = new HashMap<String, Item>();
+		for (int i = 0; i < numItens; i++) {
+			String chave = entrada.lerTexto();
+			this.mapaItens.put(chave, SnapshotBinario.lerItem(entrada));
+		}
+	}
+
+	/**
+	 * Escreve o Usuário e seus itens em um snapshot binário.
+	 * 
+	 * @param saida
+	 *            Saída do snapshot.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		saida.escreverTexto(nome);
+		saida.escreverTexto(email);
+		saida.escreverTexto(numCelular);
+		saida.escreverReal(reputacao);
+		saida.escreverTexto(cartao.getTipo());
+		saida.escreverTamanho(mapaItens.size());
+		for (Map.Entry<String, Item> item : mapaItens.entrySet()) {
+			saida.escreverTexto(item.getKey());
+			SnapshotBinario.escreverItem(saida, item.getValue());
+		}
+	}
+
+	private static Cartao cartaoDoTipo(String tipo) throws IOException {
+		switch (tipo) {
+		case "BomAmigo":
+			return BomAmigo.INSTANCIA;
+		case "Caloteiro":
+			return Caloteiro.INSTANCIA;
+		case "FreeRyder":
+			return FreeRyder.INSTANCIA;
+		case "Noob":
+			return Noob.INSTANCIA;
+		default:
+			throw new IOException("Cartao invalido no snapshot");
+		}
+	}
+
 	/**
 	 * Retorna o nome do usuário.
 	 * 
@@ -69,7 +133,11 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	 *            Novo nome do Usuário.
 	 */
 	public void setNome(String nome) {
+		String nomeAnterior = this.nome;
 		this.nome = nome;
+		if (observador != null) {
+			observador.identificacaoAlterada(this, nomeAnterior, numCelular);
+		}
 	}
 
 	/**
@@ -107,7 +175,22 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	 *            Novo número de celular do Usuário.
 	 */
 	public void setNumCelular(String numCelular) {
+		String numCelularAnterior = this.numCelular;
 		this.numCelular = numCelular;
+		if (observador != null) {
+			observador.identificacaoAlterada(this, nome, numCelularAnterior);
+		}
+	}
+
+	/**
+	 * Define quem será notificado das alterações de reputação e de
+	 * identificação do Usuário.
+	 * 
+	 * @param observador
+	 *            Observador do Usuário.
+	 */
+	public void setObservador(ObservadorUsuario observador) {
+		this.observador = observador;
 	}
 
 	/**
@@ -134,10 +217,10 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	 * 
 	 * @param valorItem
 	 *            Valor do Item.
+	 * @return variação aplicada à reputação
 	 */
-	public void addReputacaoItemAdicionado(double valorItem) {
-		this.reputacao += valorItem * 0.05;
-		atualizaCartao();
+	public double addReputacaoItemAdicionado(double valorItem) {
+		return alteraReputacao(valorItem * 0.05);
 	}
 
 	/**
@@ -146,11 +229,10 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	 * 
 	 * @param valorItem
 	 *            Valor do Item.
+	 * @return variação aplicada à reputação
 	 */
-	public void addReputacaoItemEmprestado(double valorItem) {
-		this.reputacao += valorItem * 0.10;
-		atualizaCartao();
-
+	public double addReputacaoItemEmprestado(double valorItem) {
+		return alteraReputacao(valorItem * 0.10);
 	}
 
 	/**
@@ -159,11 +241,10 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	 * 
 	 * @param valorItem
 	 *            Valor do item devolvido.
+	 * @return variação aplicada à reputação
 	 */
-	public void addReputacaoItemDevolvidoNoPrazo(double valorItem) {
-		this.reputacao += valorItem * 0.05;
-		atualizaCartao();
-
+	public double addReputacaoItemDevolvidoNoPrazo(double valorItem) {
+		return alteraReputacao(valorItem * 0.05);
 	}
 
 	/**
@@ -175,10 +256,59 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 	 *            Valor do Item devolvido.
 	 * @param diasAtraso
 	 *            Dias em Atraso da devolução.
+	 * @return variação aplicada à reputação
+	 */
+	public double addReputacaoItemDevolvidoAtrasado(double valorItem, int diasAtraso) {
+		return alteraReputacao(-(valorItem * (0.01 * diasAtraso)));
+	}
+
+	/**
+	 * Soma uma variação à reputação e notifica o observador. O cartão só é
+	 * recalculado quando a reputação passa de uma faixa para outra, já que o
+	 * número de itens não muda aqui.
+	 * 
+	 * @param variacao
+	 *            Variação da reputação.
+	 * @return a variação
+	 */
+	private double alteraReputacao(double variacao) {
+		defineReputacao(this.reputacao + variacao);
+		return variacao;
+	}
+
+	/**
+	 * Substitui a reputação por um valor recalculado, atualizando o cartão e
+	 * notificando o observador como nas demais alterações.
+	 * 
+	 * @param reputacao
+	 *            Nova reputação.
 	 */
-	public void addReputacaoItemDevolvidoAtrasado(double valorItem, int diasAtraso) {
-		this.reputacao -= valorItem * (0.01 * diasAtraso);
-		atualizaCartao();
+	public void redefinirReputacao(double reputacao) {
+		if (Double.compare(reputacao, this.reputacao) != 0) {
+			defineReputacao(reputacao);
+		}
+	}
+
+	private void defineReputacao(double reputacao) {
+		double reputacaoAnterior = this.reputacao;
+		this.reputacao = reputacao;
+		if (faixaReputacao(reputacaoAnterior) != faixaReputacao(reputacao)) {
+			atualizaCartao();
+		}
+		if (observador != null) {
+			observador.reputacaoAlterada(this, reputacaoAnterior);
+		}
+	}
+
+	/**
+	 * Faixa de reputação que decide o cartão: negativa, até 100 ou acima de
+	 * 100.
+	 */
+	private static int faixaReputacao(double reputacao) {
+		if (reputacao < 0) {
+			return -1;
+		}
+		return reputacao > 100 ? 1 : 0;
 	}
 
 	/**
@@ -212,16 +342,18 @@ public class Usuario implements Comparable<Usuario>, Serializable {
 
 	/**
 	 * Atualiza o valor do cartão do usuário de acordo com sua situação atual.
+	 * Deve ser chamado quando o número de itens passa de zero para um ou volta a
+	 * zero; as mudanças de reputação atualizam o cartão sozinhas.
 	 */
 	public void atualizaCartao() {
 		if (reputacao < 0) {
-			this.cartao = new Caloteiro();
+			this.cartao = Caloteiro.INSTANCIA;
 		} else if (reputacao > 100) {
-			this.cartao = new BomAmigo();
+			this.cartao = BomAmigo.INSTANCIA;
 		} else if (mapaItens.size() > 0) {
-			this.cartao = new Noob();
+			this.cartao = Noob.INSTANCIA;
 		} else {
-			this.cartao = new FreeRyder();
+			this.cartao = FreeRyder.INSTANCIA;
 		}
 	}
 
@@ -1,7 +1,11 @@
 package projeto.bluray;
 
+import java.io.IOException;
+
 import projeto.Item;
 import projeto.enums.Classificacao;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
 
 /**
  * Classe que representa um Bluray genérico
@@ -37,6 +41,27 @@ public class Bluray extends Item {
 		this.classificacao = Classificacao.valueOf(classificacao);
 	}
 
+	/**
+	 * Construtor de objetos do tipo Bluray a partir de um snapshot binário
+	 * 
+	 * @param entrada
+	 *            é a entrada do snapshot
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public Bluray(EntradaBinaria entrada) throws IOException {
+		super(entrada);
+		this.duracao = entrada.lerTamanho();
+		this.classificacao = entrada.lerEnum(Classificacao.class);
+	}
+
+	@Override
+	public void escrever(SaidaBinaria saida) throws IOException {
+		super.escrever(saida);
+		saida.escreverTamanho(duracao);
+		saida.escreverEnum(classificacao);
+	}
+
 	/**
 	 * Busca duraçao do bluray
 	 * 
@@ -81,7 +106,7 @@ public class Bluray extends Item {
 	}
 
 	@Override
-	public String toString() {
+	protected String renderizar() {
 		return "Bluray [duracao=" + duracao + ", classificacao=" + classificacao + "]";
 	}
 
@@ -1,6 +1,10 @@
 package projeto.bluray;
 
+import java.io.IOException;
+
 import projeto.enums.Genero;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
 
 /**
  * Classe que serve como modelo para a criação de objetos do tipo BlurayFilme
@@ -43,8 +47,29 @@ public class BlurayFilme extends Bluray {
 
 	}
 
+	/**
+	 * Construtor de objetos do tipo BlurayFilme a partir de um snapshot binário
+	 * 
+	 * @param entrada
+	 *            é a entrada do snapshot
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public BlurayFilme(EntradaBinaria entrada) throws IOException {
+		super(entrada);
+		this.genero = entrada.lerEnum(Genero.class);
+		this.anoLancamento = entrada.lerInteiro();
+	}
+
+	@Override
+	public void escrever(SaidaBinaria saida) throws IOException {
+		super.escrever(saida);
+		saida.escreverEnum(genero);
+		saida.escreverInteiro(anoLancamento);
+	}
+
 	@Override
-	public String toString() {
+	protected String renderizar() {
 		return String.format("FILME: %s, R$ %.2f, %s, %d min, %s, %s, %d", getNome(), getValor(), getEstado(),
 				getDuracao(), getClassificao(), this.genero.getValor(), this.anoLancamento);
 	}
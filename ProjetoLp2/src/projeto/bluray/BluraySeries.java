@@ -1,8 +1,11 @@
 package projeto.bluray;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import projeto.enums.Genero;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
 
 /**
  * Classe que irá modelar objetos do tipo BluraySeries, que terá uma coleção de
@@ -51,6 +54,39 @@ public class BluraySeries extends Bluray {
 		this.temporada = temporada;
 	}
 
+	/**
+	 * Construtor de objetos do tipo BluraySeries a partir de um snapshot
+	 * binário
+	 * 
+	 * @param entrada
+	 *            é a entrada do snapshot
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public BluraySeries(EntradaBinaria entrada) throws IOException {
+		super(entrada);
+		this.descricao = entrada.lerTexto();
+		this.genero = entrada.lerEnum(Genero.class);
+		this.temporada = entrada.lerInteiro();
+		int numEpisodios = entrada.lerTamanho();
+		this.episodios = new ArrayList<BlurayEpisodio>(numEpisodios);
+		for (int i = 0; i < numEpisodios; i++) {
+			this.episodios.add(new BlurayEpisodio(entrada.lerTamanho()));
+		}
+	}
+
+	@Override
+	public void escrever(SaidaBinaria saida) throws IOException {
+		super.escrever(saida);
+		saida.escreverTexto(descricao);
+		saida.escreverEnum(genero);
+		saida.escreverInteiro(temporada);
+		saida.escreverTamanho(episodios.size());
+		for (BlurayEpisodio episodio : episodios) {
+			saida.escreverTamanho(episodio.duracao);
+		}
+	}
+
 	/**
 	 * Adiciona um BlurayEpisodio à lista de blurays
 	 * 
@@ -85,7 +121,12 @@ public class BluraySeries extends Bluray {
 	}
 
 	@Override
-	public String toString() {
+	public String[] getTextosBusca() {
+		return new String[] { this.descricao };
+	}
+
+	@Override
+	protected String renderizar() {
 		return String.format("SERIE: %s, R$ %.2f, %s, %d min, %s, %s, Temporada %d", getNome(), getValor(), getEstado(),
 				getDuracao(), getClassificao(), this.genero.getValor(), this.temporada);
 	}
@@ -1,5 +1,10 @@
 package projeto.bluray;
 
+import java.io.IOException;
+
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
+
 /**
  * Classe que modela a construção de objetos do tipo BlurayShow
  * 
@@ -40,8 +45,34 @@ public class BlurayShow extends Bluray {
 
 	}
 
+	/**
+	 * Construtor de objetos do tipo BlurayShow a partir de um snapshot binário
+	 * 
+	 * @param entrada
+	 *            é a entrada do snapshot
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public BlurayShow(EntradaBinaria entrada) throws IOException {
+		super(entrada);
+		this.nomeArtista = entrada.lerTexto();
+		this.numFaixas = entrada.lerInteiro();
+	}
+
+	@Override
+	public void escrever(SaidaBinaria saida) throws IOException {
+		super.escrever(saida);
+		saida.escreverTexto(nomeArtista);
+		saida.escreverInteiro(numFaixas);
+	}
+
+	@Override
+	public String[] getTextosBusca() {
+		return new String[] { this.nomeArtista };
+	}
+
 	@Override
-	public String toString() {
+	protected String renderizar() {
 		return String.format("SHOW: %s, R$ %.2f, %s, %d min, %s, %s, %d faixas", getNome(), getValor(), getEstado(),
 				getDuracao(), getClassificao(), this.nomeArtista, this.numFaixas);
 	}
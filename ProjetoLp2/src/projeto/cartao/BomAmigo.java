@@ -10,13 +10,30 @@ import projeto.Cartao;
  *
  */
 
-public class BomAmigo implements Cartao {
+public final class BomAmigo implements Cartao {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 2240242013756870518L;
 
+	/**
+	 * Única instância do cartão, compartilhada por todos os usuários.
+	 */
+	public static final BomAmigo INSTANCIA = new BomAmigo();
+
+	private BomAmigo() {
+	}
+
+	/**
+	 * Substitui o cartão desserializado pela instância compartilhada.
+	 * 
+	 * @return INSTANCIA
+	 */
+	private Object readResolve() {
+		return INSTANCIA;
+	}
+
 	/**
 	 * Retorna se o cartão pode pegar um item emprestado.
 	 * 
@@ -10,13 +10,30 @@ import projeto.Cartao;
  *
  */
 
-public class Caloteiro implements Cartao {
+public final class Caloteiro implements Cartao {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 2785723660903700843L;
 
+	/**
+	 * Única instância do cartão, compartilhada por todos os usuários.
+	 */
+	public static final Caloteiro INSTANCIA = new Caloteiro();
+
+	private Caloteiro() {
+	}
+
+	/**
+	 * Substitui o cartão desserializado pela instância compartilhada.
+	 * 
+	 * @return INSTANCIA
+	 */
+	private Object readResolve() {
+		return INSTANCIA;
+	}
+
 	/**
 	 * Retorna se o cartão pode pegar um item emprestado.
 	 * 
@@ -10,13 +10,30 @@ import projeto.Cartao;
  *
  */
 
-public class FreeRyder implements Cartao {
+public final class FreeRyder implements Cartao {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 5973316284682193410L;
 
+	/**
+	 * Única instância do cartão, compartilhada por todos os usuários.
+	 */
+	public static final FreeRyder INSTANCIA = new FreeRyder();
+
+	private FreeRyder() {
+	}
+
+	/**
+	 * Substitui o cartão desserializado pela instância compartilhada.
+	 * 
+	 * @return INSTANCIA
+	 */
+	private Object readResolve() {
+		return INSTANCIA;
+	}
+
 	/**
 	 * Retorna se o cartão pode pegar um item emprestado.
 	 * 
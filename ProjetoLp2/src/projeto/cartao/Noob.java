@@ -10,13 +10,30 @@ import projeto.Cartao;
  *
  */
 
-public class Noob implements Cartao {
+public final class Noob implements Cartao {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 7067049943461310050L;
 
+	/**
+	 * Única instância do cartão, compartilhada por todos os usuários.
+	 */
+	public static final Noob INSTANCIA = new Noob();
+
+	private Noob() {
+	}
+
+	/**
+	 * Substitui o cartão desserializado pela instância compartilhada.
+	 * 
+	 * @return INSTANCIA
+	 */
+	private Object readResolve() {
+		return INSTANCIA;
+	}
+
 	/**
 	 * Retorna se o cartão pode pegar um item emprestado.
 	 * 
@@ -0,0 +1,35 @@
+package projeto.comparadores;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import projeto.Emprestimo;
+
+/**
+ * Classe Comparadora de um Emprestimo pelo nome do Dono e, em caso de empate,
+ * pela ordem de registro.
+ * 
+ * @author lucasvsa
+ *
+ */
+
+public class ComparaEmprestimoDono implements Comparator<Emprestimo>, Serializable {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 3520917448318630541L;
+
+	@Override
+	/**
+	 * Compara os emprestimos pelo nome do dono e depois pelo numero.
+	 */
+	public int compare(Emprestimo emprestimo1, Emprestimo emprestimo2) {
+		int comparacao = emprestimo1.compareTo(emprestimo2);
+		if (comparacao == 0) {
+			comparacao = Integer.compare(emprestimo1.getNumero(), emprestimo2.getNumero());
+		}
+		return comparacao;
+	}
+
+}
@@ -1,21 +1,38 @@
 package projeto.controllers;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
 import java.io.Serializable;
 import java.text.ParseException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
 
 import projeto.Emprestimo;
+import projeto.HistoricoEmprestimos;
+import projeto.comparadores.ComparaEmprestimoDono;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
+import projeto.utilitarios.ChaveEmprestimo;
 import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Cursor;
+import projeto.utilitarios.Datas;
+import projeto.utilitarios.ListaInteiros;
+import projeto.utilitarios.Listagem;
+import projeto.utilitarios.Pagina;
 
 /**
  * Classe controladora de Emprestimo, responsável pelo gerenciamento de suas
  * funções para o sistema.
  * 
+ * O historico fica em um {@link HistoricoEmprestimos} em colunas, e os indices
+ * por dono e por requerente guardam apenas os numeros dos emprestimos.
+ * 
  * 
  * @author lucasvsa
  *
@@ -26,10 +43,143 @@ public class ControllerEmprestimo implements Serializable {
 	 * 
 	 */
 	private static final long serialVersionUID = 4868532650974621598L;
-	private List<Emprestimo> emprestimos;
+	private static final String CURSOR_DONO = "emprestimosPorDono";
+	private static final String CURSOR_REQUERENTE = "emprestimosPorRequerente";
+	private static final String CURSOR_ITEM = "emprestimosItem";
+	private static final String CURSOR_EM_ANDAMENTO = "itensEmprestados";
+	private HistoricoEmprestimos historico;
+	private transient Map<ChaveEmprestimo, Emprestimo> emprestimosEmAndamento;
+	private transient NavigableSet<Emprestimo> emprestimosEmAndamentoPorDono;
+	private Map<ChaveUsuario, ListaInteiros> emprestimosPorDono;
+	private Map<ChaveUsuario, ListaInteiros> emprestimosPorRequerente;
 
 	public ControllerEmprestimo() {
-		emprestimos = new ArrayList<>();
+		historico = new HistoricoEmprestimos();
+		emprestimosPorDono = new HashMap<>();
+		emprestimosPorRequerente = new HashMap<>();
+		emprestimosEmAndamento = new HashMap<>();
+		emprestimosEmAndamentoPorDono = new TreeSet<>(new ComparaEmprestimoDono());
+	}
+
+	/**
+	 * Construtor a partir de um snapshot binario. Os indices por dono e por
+	 * requerente sao lidos como posicoes no historico, e as tabelas de
+	 * emprestimos em andamento sao refeitas a partir dele.
+	 * 
+	 * @param entrada,
+	 *            entrada do snapshot.
+	 * @throws IOException
+	 *             caso a leitura falhe.
+	 */
+	public ControllerEmprestimo(EntradaBinaria entrada) throws IOException {
+		this();
+		int numEmprestimos = entrada.lerTamanho();
+		for (int i = 0; i < numEmprestimos; i++) {
+			historico.ler(entrada);
+		}
+		refazerEmAndamento();
+		lerIndice(entrada, emprestimosPorDono);
+		lerIndice(entrada, emprestimosPorRequerente);
+	}
+
+	/**
+	 * As tabelas de emprestimos em andamento nao sao serializadas; sao refeitas
+	 * a partir do historico. Versoes salvas antes do historico em colunas
+	 * guardavam uma lista de emprestimos, que e copiada para um novo historico,
+	 * e os indices por dono e por requerente sao refeitos.
+	 */
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField campos = entrada.readFields();
+		ObjectStreamClass formato = campos.getObjectStreamClass();
+		emprestimosEmAndamento = new HashMap<>();
+		emprestimosEmAndamentoPorDono = new TreeSet<>(new ComparaEmprestimoDono());
+		if (formato.getField("historico") != null) {
+			historico = (HistoricoEmprestimos) campos.get("historico", null);
+			emprestimosPorDono = lerIndiceSerializado(campos, "emprestimosPorDono");
+			emprestimosPorRequerente = lerIndiceSerializado(campos, "emprestimosPorRequerente");
+			refazerEmAndamento();
+			return;
+		}
+
+		List<?> antigos = (List<?>) campos.get("emprestimos", null);
+		historico = new HistoricoEmprestimos(antigos.size());
+		emprestimosPorDono = new HashMap<>();
+		emprestimosPorRequerente = new HashMap<>();
+		for (Object antigo : antigos) {
+			Emprestimo emprestimo = (Emprestimo) antigo;
+			int numero = historico.registrar(emprestimo.getDono(), emprestimo.getRequerente(), emprestimo.getItem(),
+					emprestimo.getDiaEmprestimo(), emprestimo.getPeriodo());
+			historico.setDiaDevolucao(numero, emprestimo.getDiaDevolucao());
+			indexarEmprestimo(numero);
+		}
+		refazerEmAndamento();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<ChaveUsuario, ListaInteiros> lerIndiceSerializado(ObjectInputStream.GetField campos, String nome)
+			throws IOException {
+		return (Map<ChaveUsuario, ListaInteiros>) campos.get(nome, null);
+	}
+
+	/**
+	 * Metodo para refazer as tabelas de emprestimos em andamento a partir do
+	 * historico.
+	 */
+	private void refazerEmAndamento() {
+		for (int numero = 0; numero < historico.tamanho(); numero++) {
+			Emprestimo emprestimo = historico.getEmprestimo(numero);
+			if (emprestimo.isEmAndamento()) {
+				emprestimosEmAndamento.put(emprestimo.getChave(), emprestimo);
+				emprestimosEmAndamentoPorDono.add(emprestimo);
+			}
+		}
+	}
+
+	/**
+	 * Metodo para escrever o historico e os indices em um snapshot binario.
+	 * 
+	 * @param saida,
+	 *            saida do snapshot.
+	 * @throws IOException
+	 *             caso a escrita falhe.
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		saida.escreverTamanho(historico.tamanho());
+		for (int numero = 0; numero < historico.tamanho(); numero++) {
+			historico.escrever(numero, saida);
+		}
+		escreverIndice(saida, emprestimosPorDono);
+		escreverIndice(saida, emprestimosPorRequerente);
+	}
+
+	private void escreverIndice(SaidaBinaria saida, Map<ChaveUsuario, ListaInteiros> indice) throws IOException {
+		saida.escreverTamanho(indice.size());
+		for (Map.Entry<ChaveUsuario, ListaInteiros> entrada : indice.entrySet()) {
+			saida.escreverTexto(entrada.getKey().getNome());
+			saida.escreverTexto(entrada.getKey().getTelefone());
+			ListaInteiros numeros = entrada.getValue();
+			saida.escreverTamanho(numeros.tamanho());
+			for (int i = 0; i < numeros.tamanho(); i++) {
+				saida.escreverTamanho(numeros.get(i));
+			}
+		}
+	}
+
+	private void lerIndice(EntradaBinaria entrada, Map<ChaveUsuario, ListaInteiros> indice) throws IOException {
+		int numChaves = entrada.lerTamanho();
+		for (int i = 0; i < numChaves; i++) {
+			ChaveUsuario chave = new ChaveUsuario(entrada.lerTexto(), entrada.lerTexto());
+			int numEmprestimos = entrada.lerTamanho();
+			ListaInteiros numeros = new ListaInteiros(numEmprestimos);
+			for (int j = 0; j < numEmprestimos; j++) {
+				int numero = entrada.lerTamanho();
+				if (numero >= historico.tamanho()) {
+					throw new IOException("Emprestimo invalido no snapshot");
+				}
+				numeros.adicionar(numero);
+			}
+			indice.put(chave, numeros);
+		}
 	}
 
 	/**
@@ -49,14 +199,82 @@ public class ControllerEmprestimo implements Serializable {
 	 */
 	public void registrarEmprestimo(ChaveUsuario dono, ChaveUsuario requerente, String nomeItem, String dataEmprestimo,
 			int periodo) throws ParseException {
-		Emprestimo emprestimo = new Emprestimo(dono, requerente, nomeItem, dataEmprestimo, periodo);
-		emprestimos.add(emprestimo);
+		Emprestimo.checaValidadeAtributos(dono, requerente, nomeItem, dataEmprestimo, periodo);
+		int dia = Datas.paraDia(dataEmprestimo);
+		synchronized (this) {
+			int numero = historico.registrar(dono, requerente, nomeItem, dia, periodo);
+			Emprestimo emprestimo = historico.getEmprestimo(numero);
+			emprestimosEmAndamento.put(emprestimo.getChave(), emprestimo);
+			emprestimosEmAndamentoPorDono.add(emprestimo);
+			indexarEmprestimo(numero);
+		}
+
+	}
+
+	/**
+	 * Metodo para registrar um emprestimo nos indices por dono e por requerente.
+	 * Os emprestimos de um dono tem todos o mesmo nome de dono, entao a ordem de
+	 * registro ja e a ordem da listagem. Os emprestimos de um requerente sao
+	 * inseridos apos o ultimo emprestimo com nome de dono menor ou igual, o que
+	 * equivale a ordenacao estavel por nome do dono: ficam em ordem de nome do
+	 * dono e, para o mesmo nome, de numero.
+	 * 
+	 * @param numero,
+	 *            numero do emprestimo a ser indexado.
+	 */
+	private void indexarEmprestimo(int numero) {
+		ChaveUsuario dono = historico.getDono(numero);
+		ListaInteiros doDono = emprestimosPorDono.get(dono);
+		if (doDono == null) {
+			doDono = new ListaInteiros();
+			emprestimosPorDono.put(dono, doDono);
+		}
+		doDono.adicionar(numero);
 
+		ChaveUsuario requerente = historico.getRequerente(numero);
+		ListaInteiros doRequerente = emprestimosPorRequerente.get(requerente);
+		if (doRequerente == null) {
+			doRequerente = new ListaInteiros();
+			emprestimosPorRequerente.put(requerente, doRequerente);
+		}
+		doRequerente.adicionar(posicaoDepoisDe(doRequerente, dono.getNome(), numero), numero);
+	}
+
+	/**
+	 * Busca binaria pela primeira posicao cujo emprestimo vem depois do nome de
+	 * dono e do numero informados, na ordem de nome do dono e numero. Serve
+	 * tanto para inserir um novo emprestimo quanto para continuar a listagem
+	 * paginada de um cursor.
+	 * 
+	 * @param lista,
+	 *            Lista de numeros de emprestimos ordenada por nome do dono e
+	 *            numero.
+	 * @param nomeDono,
+	 *            Nome do dono do emprestimo.
+	 * @param numero,
+	 *            Numero do emprestimo. @return, retorna a posicao.
+	 */
+	private int posicaoDepoisDe(ListaInteiros lista, String nomeDono, int numero) {
+		int inicio = 0;
+		int fim = lista.tamanho();
+		while (inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+			int numeroMeio = lista.get(meio);
+			int comparacao = historico.getDono(numeroMeio).getNome().compareTo(nomeDono);
+			if (comparacao < 0 || (comparacao == 0 && numeroMeio <= numero)) {
+				inicio = meio + 1;
+			} else {
+				fim = meio;
+			}
+		}
+		return inicio;
 	}
 
 	/**
 	 * Metodo para registrar um fechamento de um emprestimo realizado com a data de
-	 * devolução.
+	 * devolução. O emprestimo é buscado na tabela de emprestimos em andamento, sem
+	 * percorrer o historico. O historico e as tabelas sao compartilhados por todos
+	 * os usuarios, por isso sao alterados sob a trava do controller.
 	 * 
 	 * @param dono,
 	 *            ChaveUsuario passado por parametro.
@@ -67,29 +285,28 @@ public class ControllerEmprestimo implements Serializable {
 	 * @param dataEmprestimo,
 	 *            String passado por parametro.
 	 * @param dataDevolucao,
-	 *            String passado por parametro.
+	 *            String passado por parametro. @return, retorna os dias de
+	 *            atraso da devolução.
 	 * @throws ParseException
 	 */
 	public int devolverItem(ChaveUsuario dono, ChaveUsuario requerente, String nomeItem, String dataEmprestimo,
 			String dataDevolucao) throws ParseException {
-		Emprestimo emprestimo = new Emprestimo(dono, requerente, nomeItem, dataEmprestimo, 0);
-
-		if (!emprestimos.contains(emprestimo))
-			throw new IllegalArgumentException("Emprestimo nao encontrado");
-
-		getEmprestimoEspecifico(emprestimo).setDataDevolucao(dataDevolucao);
-
-		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		;
-
-		LocalDate dataEmprestimo1 = LocalDate.parse(dataEmprestimo, formatoData);
+		int inicio = Datas.paraDia(dataEmprestimo);
+		Emprestimo emprestimo;
+		int fim;
+		synchronized (this) {
+			emprestimo = emprestimosEmAndamento.get(new ChaveEmprestimo(dono, requerente, nomeItem, inicio));
 
-		LocalDate dataDevolucao1 = LocalDate.parse(dataDevolucao, formatoData);
+			if (emprestimo == null)
+				throw new IllegalArgumentException("Emprestimo nao encontrado");
 
-		int diasAtraso = (int) (ChronoUnit.DAYS.between(dataEmprestimo1, dataDevolucao1)
-				- getEmprestimoEspecifico(emprestimo).getPeriodo());
+			fim = Datas.paraDia(dataDevolucao);
+			emprestimo.setDiaDevolucao(fim);
+			emprestimosEmAndamento.remove(emprestimo.getChave());
+			emprestimosEmAndamentoPorDono.remove(emprestimo);
+		}
 
-		return diasAtraso;
+		return fim - inicio - emprestimo.getPeriodo();
 
 	}
 
@@ -102,14 +319,7 @@ public class ControllerEmprestimo implements Serializable {
 	 *            emprestimos realizado ordenados em ordem lexicografica.
 	 */
 	public ArrayList<Emprestimo> getEmprestimosFeitos(ChaveUsuario dono) {
-		ArrayList<Emprestimo> emprestimosTemp = new ArrayList<>();
-		for (Emprestimo emprestimo : emprestimos) {
-			if (emprestimo.getDono().equals(dono)) {
-				emprestimosTemp.add(emprestimo);
-			}
-		}
-		retornarEmprestimosOrdenadosPorNome(emprestimosTemp);
-		return emprestimosTemp;
+		return emprestimos(emprestimosPorDono.get(dono));
 	}
 
 	/**
@@ -121,14 +331,17 @@ public class ControllerEmprestimo implements Serializable {
 	 *            emprestimos realizado ordenados em ordem lexicografica.
 	 */
 	public ArrayList<Emprestimo> getEmprestimosPegos(ChaveUsuario requerente) {
-		ArrayList<Emprestimo> emprestimosTemp = new ArrayList<>();
-		for (Emprestimo emprestimo : emprestimos) {
-			if (emprestimo.getRequerente().equals(requerente)) {
-				emprestimosTemp.add(emprestimo);
+		return emprestimos(emprestimosPorRequerente.get(requerente));
+	}
+
+	private ArrayList<Emprestimo> emprestimos(ListaInteiros numeros) {
+		ArrayList<Emprestimo> lista = new ArrayList<>();
+		if (numeros != null) {
+			for (int i = 0; i < numeros.tamanho(); i++) {
+				lista.add(historico.getEmprestimo(numeros.get(i)));
 			}
 		}
-		retornarEmprestimosOrdenadosPorNome(emprestimosTemp);
-		return emprestimosTemp;
+		return lista;
 	}
 
 	/**
@@ -141,18 +354,25 @@ public class ControllerEmprestimo implements Serializable {
 	 *            emprestimos realizados em ordem lexicografica.
 	 */
 	public String listarEmprestimosUsuarioEmprestando(String nome, String telefone) {
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		String retorno = "Emprestimos: ";
-		ArrayList<Emprestimo> emprestimos = getEmprestimosFeitos(chave);
-		for (Emprestimo emprestimo : emprestimos) {
-			retorno += emprestimo.toString() + "|";
-		}
-		if (emprestimos.size() == 0) {
-			return "Nenhum item emprestado";
-		}
-
-		return retorno;
+		return Listagem.emTexto(saida -> listarEmprestimosUsuarioEmprestando(nome, telefone, saida));
+	}
 
+	/**
+	 * Escreve os emprestimos em que o Usuario era o dono do item.
+	 * 
+	 * @param nome,
+	 *            String passado por parametro.
+	 * @param telefone,
+	 *            String passado por parametro.
+	 * @param saida,
+	 *            destino da listagem.
+	 * @throws IOException
+	 *             caso o destino nao possa ser escrito.
+	 */
+	public void listarEmprestimosUsuarioEmprestando(String nome, String telefone, Appendable saida)
+			throws IOException {
+		ListaInteiros numeros = emprestimosPorDono.get(new ChaveUsuario(nome, telefone));
+		escreverEmprestimos(numeros, "Emprestimos: ", "Nenhum item emprestado", saida);
 	}
 
 	/**
@@ -166,33 +386,106 @@ public class ControllerEmprestimo implements Serializable {
 	 * 
 	 */
 	public String listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone) {
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		String retorno = "Emprestimos pegos: ";
-		ArrayList<Emprestimo> emprestimos = getEmprestimosPegos(chave);
-		for (Emprestimo emprestimo : emprestimos) {
-			retorno += emprestimo.toString() + "|";
-		}
-		if (emprestimos.size() == 0) {
-			return "Nenhum item pego emprestado";
-		}
+		return Listagem.emTexto(saida -> listarEmprestimosUsuarioPegandoEmprestado(nome, telefone, saida));
+	}
 
-		return retorno;
+	/**
+	 * Escreve os emprestimos em que o Usuario pegou um item emprestado.
+	 * 
+	 * @param nome,
+	 *            String passado por parametro.
+	 * @param telefone,
+	 *            String passado por parametro.
+	 * @param saida,
+	 *            destino da listagem.
+	 * @throws IOException
+	 *             caso o destino nao possa ser escrito.
+	 */
+	public void listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone, Appendable saida)
+			throws IOException {
+		ListaInteiros numeros = emprestimosPorRequerente.get(new ChaveUsuario(nome, telefone));
+		escreverEmprestimos(numeros, "Emprestimos pegos: ", "Nenhum item pego emprestado", saida);
 	}
 
 	/**
-	 * Metodo para encontrar um emprestimo em especifico no historico de emprestimos
-	 * do Controller.
+	 * Lista uma pagina dos emprestimos em que o Usuario era o dono do item, em
+	 * ordem de registro. Apenas as linhas dos emprestimos sao listadas, sem o
+	 * cabecalho da listagem completa.
 	 * 
-	 * @param emprestimo,
-	 *            Emprestimo passado por parametro. @return, retorna o emprestimo
-	 *            encontrado.
+	 * @param nome,
+	 *            String passado por parametro.
+	 * @param telefone,
+	 *            String passado por parametro.
+	 * @param tamanhoPagina,
+	 *            numero maximo de emprestimos da pagina.
+	 * @param cursor,
+	 *            cursor da pagina anterior, ou null para a primeira pagina.
+	 * @return pagina com os emprestimos.
+	 */
+	public Pagina listarEmprestimosUsuarioEmprestando(String nome, String telefone, int tamanhoPagina,
+			String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_DONO, cursor, 1);
+		ListaInteiros numeros = emprestimosPorDono.get(new ChaveUsuario(nome, telefone));
+		int posicao = numeros == null || inicio == null ? 0 : numeros.posicaoDepoisDe(inicio.getInteiro(0));
+		return paginarEmprestimos(numeros, posicao, tamanhoPagina,
+				ultimo -> Cursor.codificar(CURSOR_DONO, ultimo));
+	}
+
+	/**
+	 * Lista uma pagina dos emprestimos em que o Usuario pegou um item
+	 * emprestado, na ordem da listagem completa, por nome do dono e, para o
+	 * mesmo nome, por numero, sem o cabecalho da listagem completa. O cursor
+	 * guarda o nome do dono e o numero do ultimo emprestimo da pagina.
+	 * 
+	 * @param nome,
+	 *            String passado por parametro.
+	 * @param telefone,
+	 *            String passado por parametro.
+	 * @param tamanhoPagina,
+	 *            numero maximo de emprestimos da pagina.
+	 * @param cursor,
+	 *            cursor da pagina anterior, ou null para a primeira pagina.
+	 * @return pagina com os emprestimos.
+	 */
+	public Pagina listarEmprestimosUsuarioPegandoEmprestado(String nome, String telefone, int tamanhoPagina,
+			String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_REQUERENTE, cursor, 2);
+		ListaInteiros numeros = emprestimosPorRequerente.get(new ChaveUsuario(nome, telefone));
+		int posicao = numeros == null || inicio == null ? 0
+				: posicaoDepoisDe(numeros, inicio.getTexto(0), inicio.getInteiro(1));
+		return paginarEmprestimos(numeros, posicao, tamanhoPagina,
+				ultimo -> Cursor.codificar(CURSOR_REQUERENTE, historico.getDono(ultimo).getNome(), ultimo));
+	}
+
+	/**
+	 * Pagina uma lista de numeros de emprestimos a partir de uma posicao, ja
+	 * encontrada por busca binaria a partir do cursor da pagina anterior.
 	 */
-	public Emprestimo getEmprestimoEspecifico(Emprestimo emprestimo) {
-		for (Emprestimo emprestimoLista : emprestimos) {
-			if (emprestimoLista.equals(emprestimo))
-				return emprestimoLista;
+	private Pagina paginarEmprestimos(ListaInteiros numeros, int posicao, int tamanhoPagina,
+			IntFunction<String> cursorDepoisDe) {
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		if (numeros == null) {
+			return pagina.concluir(null);
+		}
+		for (; posicao < numeros.tamanho(); posicao++) {
+			if (pagina.cheia()) {
+				return pagina.concluir(cursorDepoisDe.apply(numeros.get(posicao - 1)));
+			}
+			pagina.adicionar(historico.getEmprestimo(numeros.get(posicao)).toString());
+		}
+		return pagina.concluir(null);
+	}
+
+	private void escreverEmprestimos(ListaInteiros numeros, String cabecalho, String vazio, Appendable saida)
+			throws IOException {
+		if (numeros == null || numeros.tamanho() == 0) {
+			saida.append(vazio);
+			return;
+		}
+		saida.append(cabecalho);
+		for (int i = 0; i < numeros.tamanho(); i++) {
+			saida.append(historico.getEmprestimo(numeros.get(i)).toString()).append('|');
 		}
-		throw new IllegalArgumentException("Emprestimo nao encontrado");
 	}
 
 	/**
@@ -200,15 +493,65 @@ public class ControllerEmprestimo implements Serializable {
 	 * mesmo. @return, retorna a lista de emprestimos encontrados naquele item.
 	 */
 	public String listarEmprestimosItem(String nomeItem) {
-		String retorno = "Emprestimos associados ao item: ";
-		for (Emprestimo emprestimo : emprestimos) {
-			if (emprestimo.getItem().equals(nomeItem))
-				retorno += emprestimo.toString() + "|";
+		return Listagem.emTexto(saida -> listarEmprestimosItem(nomeItem, saida));
+	}
+
+	/**
+	 * Metodo para escrever os emprestimos associados ao item de acordo com o nome
+	 * do mesmo.
+	 * 
+	 * @param nomeItem,
+	 *            nome do item.
+	 * @param saida,
+	 *            destino da listagem.
+	 * @throws IOException
+	 *             caso o destino nao possa ser escrito.
+	 */
+	public void listarEmprestimosItem(String nomeItem, Appendable saida) throws IOException {
+		boolean encontrou = false;
+		int idItem = historico.idItem(nomeItem);
+		for (int numero = 0; idItem >= 0 && numero < historico.tamanho(); numero++) {
+			if (historico.getIdItem(numero) == idItem) {
+				if (!encontrou) {
+					saida.append("Emprestimos associados ao item: ");
+					encontrou = true;
+				}
+				saida.append(historico.getEmprestimo(numero).toString()).append('|');
+			}
+		}
+		if (!encontrou) {
+			saida.append("Nenhum emprestimos associados ao item");
 		}
-		if (retorno.equals("Emprestimos associados ao item: "))
-			return "Nenhum emprestimos associados ao item";
+	}
 
-		return retorno;
+	/**
+	 * Metodo para listar uma pagina dos emprestimos associados ao item, em
+	 * ordem de registro, sem o cabecalho da listagem completa.
+	 * 
+	 * @param nomeItem,
+	 *            nome do item.
+	 * @param tamanhoPagina,
+	 *            numero maximo de emprestimos da pagina.
+	 * @param cursor,
+	 *            cursor da pagina anterior, ou null para a primeira pagina.
+	 * @return pagina com os emprestimos.
+	 */
+	public Pagina listarEmprestimosItem(String nomeItem, int tamanhoPagina, String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_ITEM, cursor, 1);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		int idItem = historico.idItem(nomeItem);
+		int ultimo = -1;
+		int numero = inicio == null ? 0 : Math.max(0, inicio.getInteiro(0) + 1);
+		for (; idItem >= 0 && numero < historico.tamanho(); numero++) {
+			if (historico.getIdItem(numero) == idItem) {
+				if (pagina.cheia()) {
+					return pagina.concluir(Cursor.codificar(CURSOR_ITEM, ultimo));
+				}
+				pagina.adicionar(historico.getEmprestimo(numero).toString());
+				ultimo = numero;
+			}
+		}
+		return pagina.concluir(null);
 	}
 
 	/**
@@ -216,30 +559,60 @@ public class ControllerEmprestimo implements Serializable {
 	 * a lista de itens emprestados junto com o nome do dono.
 	 */
 	public String listarItensEmprestados() {
-		String itens = "";
-		ArrayList<Emprestimo> emprestimosTemp = (ArrayList<Emprestimo>) emprestimos;
-		Collections.sort(emprestimosTemp);
-		for (Emprestimo emprestimo : emprestimosTemp) {
-			if (emprestimo.getDataDevolucao().equals("Emprestimo em andamento")) {
-				itens += "Dono do item: " + emprestimo.getDono().getNome() + ", Nome do item emprestado: "
-						+ emprestimo.getItem() + "|";
-			}
-		}
+		return Listagem.emTexto(saida -> listarItensEmprestados(saida));
+	}
 
-		return itens;
+	/**
+	 * Metodo para escrever todos os itens emprestados nesse momento, junto com o
+	 * nome do dono. Percorre apenas os emprestimos em andamento, ja ordenados por
+	 * nome do dono e, entre mesmos donos, por ordem de registro.
+	 * 
+	 * @param saida,
+	 *            destino da listagem.
+	 * @throws IOException
+	 *             caso o destino nao possa ser escrito.
+	 */
+	public void listarItensEmprestados(Appendable saida) throws IOException {
+		for (Emprestimo emprestimo : emprestimosEmAndamentoPorDono) {
+			saida.append("Dono do item: ").append(emprestimo.getDono().getNome())
+					.append(", Nome do item emprestado: ").append(emprestimo.getItem()).append('|');
+		}
 	}
 
 	/**
-	 * Metodo para ordenar uma lista de emprestimos por nome.
+	 * Metodo para listar uma pagina dos itens emprestados nesse momento, na
+	 * ordem da listagem completa. O cursor guarda o numero do ultimo
+	 * emprestimo listado, e a pagina seguinte comeca logo depois dele no
+	 * conjunto de emprestimos em andamento, mesmo que ele ja tenha sido
+	 * devolvido.
 	 * 
-	 * @param emprestimos,
-	 *            Lista de emprestimos passado por parametro. @return, retorna a
-	 *            lista ordenada.
+	 * @param tamanhoPagina,
+	 *            numero maximo de itens da pagina.
+	 * @param cursor,
+	 *            cursor da pagina anterior, ou null para a primeira pagina.
+	 * @return pagina com os itens emprestados.
 	 */
-	public List<Emprestimo> retornarEmprestimosOrdenadosPorNome(ArrayList<Emprestimo> emprestimos) {
-		ArrayList<Emprestimo> emprestimosTemp = emprestimos;
-		Collections.sort(emprestimosTemp);
-		return emprestimosTemp;
+	public Pagina listarItensEmprestados(int tamanhoPagina, String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_EM_ANDAMENTO, cursor, 1);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		Iterable<Emprestimo> emprestimos = emprestimosEmAndamentoPorDono;
+		if (inicio != null) {
+			int numero = inicio.getInteiro(0);
+			if (numero < 0 || numero >= historico.tamanho()) {
+				throw new IllegalArgumentException("Cursor invalido");
+			}
+			emprestimos = emprestimosEmAndamentoPorDono.tailSet(historico.getEmprestimo(numero), false);
+		}
+		Emprestimo ultimo = null;
+		for (Emprestimo emprestimo : emprestimos) {
+			if (pagina.cheia()) {
+				return pagina.concluir(Cursor.codificar(CURSOR_EM_ANDAMENTO, ultimo.getNumero()));
+			}
+			pagina.adicionar("Dono do item: " + emprestimo.getDono().getNome() + ", Nome do item emprestado: "
+					+ emprestimo.getItem());
+			ultimo = emprestimo;
+		}
+		return pagina.concluir(null);
 	}
 
 }
@@ -1,15 +1,28 @@
 package projeto.controllers;
 
 import java.util.List;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import projeto.Item;
 import projeto.bluray.*;
-import projeto.comparadores.ComparaItemNumEmprestimos;
-import projeto.comparadores.ComparaItemValor;
+import projeto.indices.IndiceBusca;
+import projeto.indices.IndiceNomes;
+import projeto.indices.IndicePopularidade;
+import projeto.indices.IndiceValores;
 import projeto.jogo.*;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
+import projeto.utilitarios.Cursor;
+import projeto.utilitarios.Listagem;
+import projeto.utilitarios.Pagina;
 import projeto.utilitarios.ValidaParametros;
 
 /**
@@ -26,8 +39,233 @@ public class ControllerItem implements Serializable{
 	 * 
 	 */
 	private static final long serialVersionUID = 6793766497955296982L;
+	private static final String CURSOR_NOME = "itensPorNome";
+	private static final String CURSOR_NAO_EMPRESTADOS = "itensNaoEmprestados";
+	private static final String CURSOR_VALOR = "itensPorValor";
+	private int proximoId;
+	private Map<Integer, Item> catalogo;
+	private IndicePopularidade popularidade;
+	private IndiceNomes nomes;
+	private IndiceValores valores;
+	private transient Map<Item, Integer> pendentesPopularidade;
+	private transient IndiceBusca busca;
 
 	public ControllerItem() {
+		this.proximoId = 1;
+		this.catalogo = new LinkedHashMap<>();
+		this.popularidade = new IndicePopularidade();
+		this.nomes = new IndiceNomes();
+		this.valores = new IndiceValores();
+		this.busca = new IndiceBusca();
+	}
+
+	/**
+	 * Construtor do controlador a partir de um snapshot binário. O catálogo e o
+	 * índice de popularidade são refeitos a partir dos itens dos usuários, já
+	 * lidos do snapshot.
+	 * 
+	 * @param entrada
+	 *            é a entrada do snapshot
+	 * @param itensUsuarios
+	 *            é a lista de itens de todos os usuários
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public ControllerItem(EntradaBinaria entrada, List<Item> itensUsuarios) throws IOException {
+		this();
+		this.proximoId = entrada.lerTamanho();
+		itensUsuarios.sort(Comparator.comparingInt(Item::getId));
+		for (Item item : itensUsuarios) {
+			catalogo.put(item.getId(), item);
+			popularidade.adicionar(item);
+			nomes.adicionar(item);
+			valores.adicionar(item);
+			busca.adicionar(item);
+		}
+	}
+
+	/**
+	 * Os índices que faltam são refeitos a partir do catálogo. Em versões
+	 * salvas antes do catálogo, eles são refeitos depois, por
+	 * {@link #refazerCatalogo(List)}, com os itens dos usuários.
+	 */
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		entrada.defaultReadObject();
+		if (catalogo != null) {
+			refazerIndices();
+		}
+	}
+
+	/**
+	 * Refaz o catálogo e o índice de popularidade de um controlador salvo antes
+	 * deles, a partir dos itens de todos os usuários. Itens salvos antes dos
+	 * identificadores recebem um na ordem dos usuários. Não faz nada se o
+	 * catálogo foi salvo.
+	 * 
+	 * @param itensUsuarios
+	 *            é a lista de itens de todos os usuários
+	 */
+	public void refazerCatalogo(List<Item> itensUsuarios) {
+		if (catalogo != null) {
+			return;
+		}
+		catalogo = new LinkedHashMap<>();
+		popularidade = new IndicePopularidade();
+		if (proximoId == 0) {
+			for (Item item : itensUsuarios) {
+				item.setId(proximoId++);
+			}
+		}
+		itensUsuarios.sort(Comparator.comparingInt(Item::getId));
+		for (Item item : itensUsuarios) {
+			catalogo.put(item.getId(), item);
+			popularidade.adicionar(item);
+		}
+		refazerIndices();
+	}
+
+	private void refazerIndices() {
+		if (nomes == null) {
+			// salvo antes do índice de nomes
+			nomes = new IndiceNomes();
+			for (Item item : catalogo.values()) {
+				nomes.adicionar(item);
+			}
+		}
+		if (valores == null) {
+			// salvo antes do índice de valores
+			valores = new IndiceValores();
+			for (Item item : catalogo.values()) {
+				valores.adicionar(item);
+			}
+		}
+		// o índice de busca não é gravado
+		busca = new IndiceBusca();
+		for (Item item : catalogo.values()) {
+			busca.adicionar(item);
+		}
+	}
+
+	/**
+	 * Escreve o estado próprio do controlador em um snapshot binário. Os itens
+	 * são escritos junto com seus donos.
+	 * 
+	 * @param saida
+	 *            é a saída do snapshot
+	 * @throws IOException
+	 *             caso a escrita falhe
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		saida.escreverTamanho(proximoId);
+	}
+
+	/**
+	 * Atribui um identificador ao item e o coloca no mapa do dono. Um item de
+	 * mesmo nome que já estivesse no mapa é substituído e sai dos índices.
+	 * Sincronizado porque o catálogo é compartilhado por todos os usuários.
+	 * 
+	 * @param item
+	 *            é o item a ser registrado
+	 * @param mapaItens
+	 *            é o mapa de itens do dono
+	 */
+	private synchronized void registrarItem(Item item, Map<String, Item> mapaItens) {
+		item.setId(proximoId++);
+		catalogo.put(item.getId(), item);
+		nomes.adicionar(item);
+		valores.adicionar(item);
+		busca.adicionar(item);
+		Item substituido = mapaItens.put(item.getNome(), item);
+		if (substituido != null) {
+			descartarItem(substituido);
+		}
+	}
+
+	/**
+	 * Retira dos índices um item que deixou o sistema.
+	 * 
+	 * @param item
+	 *            é o item descartado
+	 */
+	private synchronized void descartarItem(Item item) {
+		catalogo.remove(item.getId());
+		nomes.remover(item);
+		valores.remover(item);
+		busca.remover(item);
+		if (pendentesPopularidade != null) {
+			Integer numEmprestimosAnterior = pendentesPopularidade.remove(item);
+			if (numEmprestimosAnterior != null) {
+				popularidade.emprestimoContado(item, numEmprestimosAnterior);
+			}
+		}
+		popularidade.remover(item);
+	}
+
+	/**
+	 * Passa a adiar as atualizações do índice de popularidade até o fim do
+	 * lote. Cada item emprestado no lote é reposicionado uma única vez.
+	 */
+	public synchronized void iniciarLote() {
+		pendentesPopularidade = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Aplica ao índice de popularidade as atualizações adiadas desde
+	 * iniciarLote.
+	 */
+	public synchronized void concluirLote() {
+		Map<Item, Integer> pendentes = pendentesPopularidade;
+		pendentesPopularidade = null;
+		for (Map.Entry<Item, Integer> pendente : pendentes.entrySet()) {
+			popularidade.emprestimoContado(pendente.getKey(), pendente.getValue());
+		}
+	}
+
+	/**
+	 * Reposiciona no índice de popularidade um item que foi emprestado, ou adia
+	 * o reposicionamento caso um lote esteja em andamento.
+	 */
+	private synchronized void emprestimoContado(Item item, int numEmprestimosAnterior) {
+		if (pendentesPopularidade != null) {
+			pendentesPopularidade.putIfAbsent(item, numEmprestimosAnterior);
+		} else {
+			popularidade.emprestimoContado(item, numEmprestimosAnterior);
+		}
+	}
+
+	/**
+	 * Busca os itens de todos os usuários, na ordem de cadastro, a partir do
+	 * catálogo do sistema. A visão não pode ser alterada e acompanha o
+	 * catálogo, sem copiá-lo.
+	 * 
+	 * @return itens do catálogo
+	 */
+	public Collection<Item> getCatalogo() {
+		return Collections.unmodifiableCollection(catalogo.values());
+	}
+
+	/**
+	 * Retira dos índices todos os itens de um usuário removido do sistema.
+	 * 
+	 * @param mapaItens
+	 *            é o mapa de itens do usuário removido
+	 */
+	public void removerItens(Map<String, Item> mapaItens) {
+		for (Item item : mapaItens.values()) {
+			descartarItem(item);
+		}
+	}
+
+	/**
+	 * Cadastra no Usuario um item já construído e validado.
+	 * 
+	 * @param item
+	 *            é o item a ser cadastrado
+	 * @param mapaItens
+	 *            é o mapa de itens do dono
+	 */
+	public void cadastrarItem(Item item, Map<String, Item> mapaItens) {
+		registrarItem(item, mapaItens);
 	}
 
 	/**
@@ -47,7 +285,7 @@ public class ControllerItem implements Serializable{
 	public void cadastrarEletronico(String nomeItem, double preco, String plataforma, Map<String, Item> mapaItens) {
 		ValidaParametros.validaPreco(preco);
 		JogoEletronico jogoEletronico = new JogoEletronico(nomeItem, preco, plataforma);
-		mapaItens.put(nomeItem, jogoEletronico);
+		registrarItem(jogoEletronico, mapaItens);
 	}
 
 	/**
@@ -65,7 +303,7 @@ public class ControllerItem implements Serializable{
 	public void cadastrarJogoTabuleiro(String nomeItem, double preco, Map<String, Item> mapaItens) {
 		ValidaParametros.validaPreco(preco);
 		Item jogoTabuleiro = new JogoTabuleiro(nomeItem, preco);
-		mapaItens.put(nomeItem, jogoTabuleiro);
+		registrarItem(jogoTabuleiro, mapaItens);
 	}
 
 	/**
@@ -93,7 +331,7 @@ public class ControllerItem implements Serializable{
 			int anoLancamento, Map<String, Item> mapaItens) {
 		ValidaParametros.validaPreco(preco);
 		Bluray blurayFilme = new BlurayFilme(nomeItem, preco, duracao, classificacao, genero, anoLancamento);
-		mapaItens.put(nomeItem, blurayFilme);
+		registrarItem(blurayFilme, mapaItens);
 	}
 
 	/**
@@ -121,7 +359,7 @@ public class ControllerItem implements Serializable{
 			String classificacao, Map<String, Item> mapaItens) {
 		ValidaParametros.validaPreco(preco);
 		Bluray blurayShow = new BlurayShow(nomeItem, preco, duracao, numFaixas, nomeArtista, classificacao);
-		mapaItens.put(nomeItem, blurayShow);
+		registrarItem(blurayShow, mapaItens);
 	}
 
 	/**
@@ -151,7 +389,7 @@ public class ControllerItem implements Serializable{
 			String genero, int temporada, Map<String, Item> mapaItens) {
 		ValidaParametros.validaPreco(preco);
 		Bluray bluraySerie = new BluraySeries(nomeItem, preco, duracao, descricao, classificacao, genero, temporada);
-		mapaItens.put(nomeItem, bluraySerie);
+		registrarItem(bluraySerie, mapaItens);
 	}
 
 	/**
@@ -185,7 +423,7 @@ public class ControllerItem implements Serializable{
 	 */
 	public void removerItem(String nomeItem, Map<String, Item> mapaItens) {
 		ValidaParametros.validaItem(mapaItens, nomeItem);
-		mapaItens.remove(nomeItem);
+		descartarItem(mapaItens.remove(nomeItem));
 	}
 
 	/**
@@ -225,12 +463,20 @@ public class ControllerItem implements Serializable{
 		ValidaParametros.validaItem(mapaItens, nomeItem);
 		Item meuItem = mapaItens.get(nomeItem);
 		if (atributo.equalsIgnoreCase("preco")) {
+			double valorAnterior = meuItem.getValor();
 			meuItem.setValor(Float.parseFloat(valor));
+			valores.valorAlterado(meuItem, valorAnterior);
 		}
 		if (atributo.equalsIgnoreCase("nome")) {
 			mapaItens.remove(nomeItem);
 			meuItem.setNome(valor);
-			mapaItens.put(valor, meuItem);
+			Item substituido = mapaItens.put(valor, meuItem);
+			if (substituido != null && substituido != meuItem) {
+				descartarItem(substituido);
+			}
+			popularidade.nomeAlterado(meuItem, nomeItem);
+			nomes.nomeAlterado(meuItem, nomeItem);
+			busca.nomeAlterado(meuItem);
 		}
 	}
 
@@ -294,7 +540,9 @@ public class ControllerItem implements Serializable{
 			throw new IllegalArgumentException("Item emprestado no momento");
 		else {
 			meuItem.setEstadoDeEmprestimo(true);
+			int numEmprestimosAnterior = meuItem.getNumEmprestimos();
 			meuItem.contaEmprestimos();
+			emprestimoContado(meuItem, numEmprestimosAnterior);
 		}
 	}
 
@@ -322,91 +570,289 @@ public class ControllerItem implements Serializable{
 	}
 
 	/**
-	 * Lista os itens dos usuários ordenados por nome
+	 * Lista os itens do catálogo ordenados por nome, lidos do índice de nomes
 	 * 
 	 * @return informações dos itens ordenados por nome
 	 */
-	public String listarItensOrdenadosPorNome(List<Item> itensUsuarios) {
-		String itens = "";
+	public String listarItensOrdenadosPorNome() {
+		return Listagem.emTexto(saida -> listarItensOrdenadosPorNome(saida));
+	}
 
-		Collections.sort(itensUsuarios);
-		for (Item item : itensUsuarios) {
-			itens += item.toString() + "|";
+	/**
+	 * Escreve os itens do catálogo ordenados por nome, lidos do índice de
+	 * nomes. Pode ser chamado por várias threads, inclusive durante cadastros
+	 * e remoções de itens.
+	 * 
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void listarItensOrdenadosPorNome(Appendable saida) throws IOException {
+		for (Item item : nomes.emOrdem()) {
+			saida.append(item.toString()).append('|');
+		}
+	}
+
+	/**
+	 * Lista uma página dos itens do catálogo ordenados por nome, continuando
+	 * do cursor informado pelo índice de nomes
+	 * 
+	 * @param tamanhoPagina
+	 *            é o número máximo de itens da página
+	 * @param cursor
+	 *            é o cursor da página anterior, ou null para a primeira página
+	 * @return página com as informações dos itens
+	 */
+	public Pagina listarItensOrdenadosPorNome(int tamanhoPagina, String cursor) {
+		return paginarPorNome(CURSOR_NOME, null, tamanhoPagina, cursor);
+	}
+
+	private Pagina paginarPorNome(String tipoCursor, String estado, int tamanhoPagina, String cursor) {
+		Cursor inicio = Cursor.decodificar(tipoCursor, cursor, 2);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		Iterable<Item> itens = nomes.emOrdem();
+		if (inicio != null) {
+			itens = nomes.depoisDe(inicio.getTexto(0), inicio.getInteiro(1));
 		}
-		return itens;
+		Item ultimo = null;
+		for (Item item : itens) {
+			if (estado != null && !item.getEstado().equals(estado)) {
+				continue;
+			}
+			if (pagina.cheia()) {
+				return pagina.concluir(Cursor.codificar(tipoCursor, ultimo.getNome(), ultimo.getId()));
+			}
+			pagina.adicionar(item.toString());
+			ultimo = item;
+		}
+		return pagina.concluir(null);
 	}
 
 	/**
-	 * Lista os itens dos usuários ordenados por valor
+	 * Lista os itens do catálogo ordenados por valor, lidos do índice de
+	 * valores
 	 * 
 	 * @return informações dos itens ordenados por valor
 	 */
-	public String listarItensOrdenadosPorValor(List<Item> itensUsuarios) {
-		String itens = "";
-		itensUsuarios.sort(new ComparaItemValor());
-		for (Item item : itensUsuarios) {
-			itens += item.toString() + "|";
+	public String listarItensOrdenadosPorValor() {
+		return Listagem.emTexto(saida -> listarItensOrdenadosPorValor(saida));
+	}
+
+	/**
+	 * Escreve os itens do catálogo ordenados por valor, lidos do índice de
+	 * valores
+	 * 
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void listarItensOrdenadosPorValor(Appendable saida) throws IOException {
+		for (Item item : valores.emOrdem()) {
+			saida.append(item.toString()).append('|');
 		}
-		return itens;
 	}
 
-	/*
-	 * Alterar esse método, é diferente
+	/**
+	 * Lista uma página dos itens do catálogo ordenados por valor, continuando
+	 * do cursor informado pelo índice de valores
+	 * 
+	 * @param tamanhoPagina
+	 *            é o número máximo de itens da página
+	 * @param cursor
+	 *            é o cursor da página anterior, ou null para a primeira página
+	 * @return página com as informações dos itens
 	 */
+	public Pagina listarItensOrdenadosPorValor(int tamanhoPagina, String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_VALOR, cursor, 2);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		if (inicio == null) {
+			return paginarPorValor(valores.emOrdem(), pagina);
+		}
+		return paginarPorValor(valores.depoisDe(inicio.getReal(0), inicio.getInteiro(1)), pagina);
+	}
+
 	/**
-	 * Lista os itens emprestados ordenados por nome
+	 * Lista uma página dos itens do catálogo com valor entre os limites
+	 * informados, inclusive, ordenados por valor
 	 * 
-	 * @param itensUsuarios
-	 *            é a lista de itens de todos os usuários
-	 * @return informações dos itens emprestados ordenados por nome
+	 * @param valorMinimo
+	 *            é o menor valor da faixa
+	 * @param valorMaximo
+	 *            é o maior valor da faixa
+	 * @param tamanhoPagina
+	 *            é o número máximo de itens da página
+	 * @param cursor
+	 *            é o cursor da página anterior, ou null para a primeira página
+	 * @return página com as informações dos itens da faixa
 	 */
-	public String listarItensEmprestados(List<Item> itensUsuarios) {
-		String itens = "";
-		Collections.sort(itensUsuarios);
-		for (Item item : itensUsuarios) {
-			if (item.getEstado().equals("Emprestado")) {
-				itens += item.toString() + "|";
+	public Pagina listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo, int tamanhoPagina,
+			String cursor) {
+		ValidaParametros.validaFaixaDeValor(valorMinimo, valorMaximo);
+		Cursor inicio = Cursor.decodificar(CURSOR_VALOR, cursor, 2);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		if (inicio == null) {
+			return paginarPorValor(valores.faixa(valorMinimo, valorMaximo), pagina);
+		}
+		return paginarPorValor(
+				valores.faixaDepoisDe(valorMinimo, valorMaximo, inicio.getReal(0), inicio.getInteiro(1)), pagina);
+	}
+
+	private Pagina paginarPorValor(Iterable<Item> itens, Pagina.Montador pagina) {
+		Item ultimo = null;
+		for (Item item : itens) {
+			if (pagina.cheia()) {
+				return pagina.concluir(Cursor.codificar(CURSOR_VALOR, ultimo.getValor(), ultimo.getId()));
 			}
+			pagina.adicionar(item.toString());
+			ultimo = item;
 		}
-		return itens;
+		return pagina.concluir(null);
 	}
 
 	/**
-	 * Lista os itens não emprestados ordenados por nome
+	 * Lista os itens do catálogo com valor entre os limites informados,
+	 * inclusive, ordenados por valor
+	 * 
+	 * @param valorMinimo
+	 *            é o menor valor da faixa
+	 * @param valorMaximo
+	 *            é o maior valor da faixa
+	 * @return informações dos itens da faixa ordenados por valor
+	 */
+	public String listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo) {
+		return Listagem.emTexto(saida -> listarItensPorFaixaDeValor(valorMinimo, valorMaximo, saida));
+	}
+
+	/**
+	 * Escreve os itens do catálogo com valor entre os limites informados,
+	 * inclusive, ordenados por valor. Apenas os itens da faixa são
+	 * percorridos.
+	 * 
+	 * @param valorMinimo
+	 *            é o menor valor da faixa
+	 * @param valorMaximo
+	 *            é o maior valor da faixa
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void listarItensPorFaixaDeValor(double valorMinimo, double valorMaximo, Appendable saida)
+			throws IOException {
+		ValidaParametros.validaFaixaDeValor(valorMinimo, valorMaximo);
+		for (Item item : valores.faixa(valorMinimo, valorMaximo)) {
+			saida.append(item.toString()).append('|');
+		}
+	}
+
+	/**
+	 * Pesquisa os itens do catálogo pelos termos da consulta, no nome, na
+	 * descrição de séries e no artista de shows
+	 *
+	 * @param consulta
+	 *            são os termos pesquisados; cada um pode ser o início de uma
+	 *            palavra
+	 * @param quantidade
+	 *            é o número máximo de itens listados
+	 * @return informações dos itens encontrados, do mais relevante ao menos
+	 *         relevante
+	 */
+	public String pesquisarItens(String consulta, int quantidade) {
+		return Listagem.emTexto(saida -> pesquisarItens(consulta, quantidade, saida));
+	}
+
+	/**
+	 * Escreve os itens do catálogo que contêm todos os termos da consulta,
+	 * lidos do índice de busca, do mais relevante ao menos relevante
+	 *
+	 * @param consulta
+	 *            são os termos pesquisados; cada um pode ser o início de uma
+	 *            palavra
+	 * @param quantidade
+	 *            é o número máximo de itens listados
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void pesquisarItens(String consulta, int quantidade, Appendable saida) throws IOException {
+		ValidaParametros.validaConsulta(consulta, quantidade);
+		for (Item item : busca.pesquisar(consulta, quantidade)) {
+			saida.append(item.toString()).append('|');
+		}
+	}
+
+	/**
+	 * Lista os itens não emprestados do catálogo ordenados por nome
 	 * 
-	 * @param itensUsuarios
-	 *            é a lista de itens de todos os usuários
 	 * @return informações dos itens não emprestados ordenados por nome
 	 */
-	public String listarItensNaoEmprestados(List<Item> itensUsuarios) {
-		String itens = "";
-		Collections.sort(itensUsuarios);
-		for (Item item : itensUsuarios) {
+	public String listarItensNaoEmprestados() {
+		return Listagem.emTexto(saida -> listarItensNaoEmprestados(saida));
+	}
+
+	/**
+	 * Escreve os itens não emprestados do catálogo ordenados por nome, lidos
+	 * do índice de nomes
+	 * 
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void listarItensNaoEmprestados(Appendable saida) throws IOException {
+		for (Item item : nomes.emOrdem()) {
 			if (item.getEstado().equals("Nao emprestado")) {
-				itens += item.toString() + "|";
+				saida.append(item.toString()).append('|');
 			}
 		}
-		return itens;
 	}
 
 	/**
-	 * Lista os 10 itens com maior quantidade de empréstimos em ordem decrescente
+	 * Lista uma página dos itens não emprestados do catálogo ordenados por
+	 * nome, continuando do cursor informado pelo índice de nomes
+	 * 
+	 * @param tamanhoPagina
+	 *            é o número máximo de itens da página
+	 * @param cursor
+	 *            é o cursor da página anterior, ou null para a primeira página
+	 * @return página com as informações dos itens não emprestados
+	 */
+	public Pagina listarItensNaoEmprestados(int tamanhoPagina, String cursor) {
+		return paginarPorNome(CURSOR_NAO_EMPRESTADOS, "Nao emprestado", tamanhoPagina, cursor);
+	}
+
+	/**
+	 * Lista os 10 itens com maior quantidade de empréstimos em ordem
+	 * decrescente, lidos do índice de popularidade
 	 * 
-	 * @param itensUsuarios
-	 *            lista de itens do usuario
 	 * @return retorna top 10 itens
 	 */
-	public String listarTop10Itens(List<Item> itensUsuarios) {
-		String itens = "";
-		itensUsuarios.sort(new ComparaItemNumEmprestimos());
+	public String listarTop10Itens() {
+		return Listagem.emTexto(saida -> listarTop10Itens(saida));
+	}
+
+	/**
+	 * Escreve os 10 itens com maior quantidade de empréstimos em ordem
+	 * decrescente, lidos do índice de popularidade
+	 * 
+	 * @param saida
+	 *            destino da listagem
+	 * @throws IOException
+	 *             caso o destino não possa ser escrito
+	 */
+	public void listarTop10Itens(Appendable saida) throws IOException {
 		int i = 1;
-		while ((i <= 10) && (i <= itensUsuarios.size())) {
-			Item item = itensUsuarios.get(i - 1);
-			if (item.getNumEmprestimos() > 0) {
-				itens += i + ") " + item.getNumEmprestimos() + " emprestimos" + " - " + item.toString() + "|";
-			}
+		for (Item item : popularidade.maisEmprestados(10)) {
+			escreverPosicaoTop10(i, item, saida);
 			i++;
 		}
-		return itens;
+	}
+
+	private void escreverPosicaoTop10(int posicao, Item item, Appendable saida) throws IOException {
+		saida.append(Integer.toString(posicao)).append(") ").append(Integer.toString(item.getNumEmprestimos()))
+				.append(" emprestimos - ").append(item.toString()).append('|');
 	}
 }
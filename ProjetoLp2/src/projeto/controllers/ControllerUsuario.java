@@ -1,40 +1,226 @@
 package projeto.controllers;
 
-import java.io.Serializable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import projeto.HistoricoReputacao;
 import projeto.Item;
+import projeto.ObservadorUsuario;
 import projeto.Usuario;
-import projeto.comparadores.ComparaUsuarioReputacaoMelhorMenor;
-import projeto.comparadores.ComparaUsuarioReputacaoMenorMelhor;
+import projeto.enums.TipoEventoReputacao;
+import projeto.indices.ConjuntoCaloteiros;
+import projeto.indices.RankingReputacao;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
 import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Cursor;
+import projeto.utilitarios.Datas;
+import projeto.utilitarios.Listagem;
+import projeto.utilitarios.Pagina;
+import projeto.utilitarios.RegistroUsuarios;
 import projeto.utilitarios.ValidaParametros;
 
 /**
  * Classe Controladora de Usuarios
  * 
+ * Cada Usuario recebe no cadastro um identificador inteiro do
+ * {@link RegistroUsuarios}. O nome e o telefone sao resolvidos uma vez por
+ * operacao, e os demais metodos recebem o identificador.
+ * 
  * @author caiosbl
  * @version 2.0
  *
  */
 
-public class ControllerUsuario implements Serializable {
+public class ControllerUsuario implements ObservadorUsuario {
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = -6003150948410740512L;
-	private Map<ChaveUsuario, Usuario> mapaUsuarios;
+	private static final Locale LOCALE_BRASIL = new Locale("pt", "BR");
+	private static final String CURSOR_CALOTEIROS = "caloteiros";
+	private static final String CURSOR_MELHORES = "melhoresUsuarios";
+	private RegistroUsuarios registro;
+	private List<Usuario> usuarios;
+	private RankingReputacao ranking;
+	private ConjuntoCaloteiros caloteiros;
+	private HistoricoReputacao historicoReputacao;
+	private transient Map<Usuario, Double> pendentesRanking;
 
 	/**
 	 * Construtor de Usuario.
 	 */
 	public ControllerUsuario() {
-		this.mapaUsuarios = new HashMap<>();
+		this.registro = new RegistroUsuarios();
+		this.usuarios = new ArrayList<>();
+		this.ranking = new RankingReputacao();
+		this.caloteiros = new ConjuntoCaloteiros();
+		this.historicoReputacao = new HistoricoReputacao();
+	}
+
+	/**
+	 * Construtor do controlador a partir de um snapshot binário. O ranking e os
+	 * caloteiros são refeitos a partir dos usuários lidos. Snapshots da versão 1
+	 * não têm o histórico de reputação, que começa com a reputação lida.
+	 * 
+	 * @param entrada
+	 *            Entrada do snapshot.
+	 * @param versao
+	 *            Versão do snapshot.
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public ControllerUsuario(EntradaBinaria entrada, int versao) throws IOException {
+		this();
+		int numUsuarios = entrada.lerTamanho();
+		for (int i = 0; i < numUsuarios; i++) {
+			String nome = entrada.lerTexto();
+			String telefone = entrada.lerTexto();
+			Usuario usuario = new Usuario(entrada);
+			registro.registrar(nome, telefone);
+			usuarios.add(usuario);
+			ranking.adicionar(usuario);
+			caloteiros.adicionar(usuario);
+			usuario.setObservador(this);
+		}
+		if (versao < 2) {
+			iniciarHistoricoReputacao();
+			return;
+		}
+		int numEventos = entrada.lerTamanho();
+		for (int i = 0; i < numEventos; i++) {
+			int id = entrada.lerTamanho();
+			int dia = entrada.lerDia();
+			TipoEventoReputacao tipo = TipoEventoReputacao.doCodigo(entrada.lerTamanho());
+			historicoReputacao.registrar(id, dia, tipo, entrada.lerReal());
+		}
+	}
+
+	/**
+	 * Versoes salvas antes do registro de usuarios guardavam um mapa de chaves
+	 * para usuarios; nesse caso os usuarios sao registrados na ordem do mapa.
+	 * Versoes sem o ranking ou sem o conjunto de caloteiros os refazem a partir
+	 * dos usuarios, e versoes sem o historico de reputacao o comecam pela
+	 * reputacao atual. Versoes sem o ranking tambem nao guardavam o observador
+	 * de cada usuario, que volta a ser este controlador.
+	 */
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField campos = entrada.readFields();
+		ranking = (RankingReputacao) campos.get("ranking", null);
+		if (campos.getObjectStreamClass().getField("registro") != null) {
+			registro = (RegistroUsuarios) campos.get("registro", null);
+			usuarios = lerUsuarios(campos);
+		} else {
+			registro = new RegistroUsuarios();
+			usuarios = new ArrayList<>();
+			Map<?, ?> mapaUsuarios = (Map<?, ?>) campos.get("mapaUsuarios", null);
+			for (Map.Entry<?, ?> usuario : mapaUsuarios.entrySet()) {
+				ChaveUsuario chave = (ChaveUsuario) usuario.getKey();
+				registro.registrar(chave.getNome(), chave.getTelefone());
+				usuarios.add((Usuario) usuario.getValue());
+			}
+		}
+
+		if (ranking == null) {
+			ranking = new RankingReputacao();
+			for (Usuario usuario : usuarios) {
+				if (usuario != null) {
+					ranking.adicionar(usuario);
+					usuario.setObservador(this);
+				}
+			}
+		}
+
+		caloteiros = (ConjuntoCaloteiros) campos.get("caloteiros", null);
+		if (caloteiros == null) {
+			caloteiros = new ConjuntoCaloteiros();
+			for (Usuario usuario : usuarios) {
+				if (usuario != null) {
+					caloteiros.adicionar(usuario);
+				}
+			}
+		}
+
+		historicoReputacao = (HistoricoReputacao) campos.get("historicoReputacao", null);
+		if (historicoReputacao == null) {
+			historicoReputacao = new HistoricoReputacao();
+			iniciarHistoricoReputacao();
+		}
+	}
+
+	/**
+	 * Começa o histórico de reputação de um sistema salvo sem ele, com um evento
+	 * de saldo inicial sem data para cada usuário com reputação.
+	 */
+	private void iniciarHistoricoReputacao() {
+		for (int id = 0; id < usuarios.size(); id++) {
+			Usuario usuario = usuarios.get(id);
+			if (usuario != null && usuario.getReputacao() != 0) {
+				historicoReputacao.registrar(id, Datas.SEM_DATA, TipoEventoReputacao.SALDO_INICIAL,
+						usuario.getReputacao());
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Usuario> lerUsuarios(ObjectInputStream.GetField campos) throws IOException {
+		return (List<Usuario>) campos.get("usuarios", null);
+	}
+
+	/**
+	 * Escreve os usuários em um snapshot binário.
+	 * 
+	 * @param saida
+	 *            Saída do snapshot.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escrever(SaidaBinaria saida) throws IOException {
+		int[] novosIds = new int[usuarios.size()];
+		saida.escreverTamanho(registro.numUsuarios());
+		int numEscritos = 0;
+		for (int id = 0; id < usuarios.size(); id++) {
+			Usuario usuario = usuarios.get(id);
+			if (usuario != null) {
+				ChaveUsuario chave = registro.getChave(id);
+				saida.escreverTexto(chave.getNome());
+				saida.escreverTexto(chave.getTelefone());
+				usuario.escrever(saida);
+				novosIds[id] = numEscritos++;
+			} else {
+				novosIds[id] = RegistroUsuarios.SEM_USUARIO;
+			}
+		}
+		escreverHistoricoReputacao(saida, novosIds);
+	}
+
+	/**
+	 * Escreve os eventos de reputação dos usuários escritos, com os
+	 * identificadores que eles recebem na leitura.
+	 */
+	private void escreverHistoricoReputacao(SaidaBinaria saida, int[] novosIds) throws IOException {
+		HistoricoReputacao historico = historicoReputacao;
+		int numEventos = 0;
+		for (int i = 0; i < historico.tamanho(); i++) {
+			if (novosIds[historico.getUsuario(i)] != RegistroUsuarios.SEM_USUARIO) {
+				numEventos++;
+			}
+		}
+		saida.escreverTamanho(numEventos);
+		for (int i = 0; i < historico.tamanho(); i++) {
+			int id = novosIds[historico.getUsuario(i)];
+			if (id != RegistroUsuarios.SEM_USUARIO) {
+				saida.escreverTamanho(id);
+				saida.escreverDia(historico.getDia(i));
+				saida.escreverTamanho(historico.getTipo(i).ordinal());
+				saida.escreverReal(historico.getVariacao(i));
+			}
+		}
 	}
 
 	/**
@@ -46,17 +232,45 @@ public class ControllerUsuario implements Serializable {
 	 *            Telefone do Usuario.
 	 * @param email
 	 *            Email do Usuario.
+	 * @return identificador do Usuario.
 	 * @throws IllegalArgumentException
 	 *             Caso o usuario ja esteja cadastrado.
 	 */
-	public void cadastrarUsuario(String nome, String telefone, String email) {
+	public int cadastrarUsuario(String nome, String telefone, String email) {
 		Usuario usuario = new Usuario(nome, email, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
+		int id = registro.registrar(nome, telefone);
+		usuarios.add(usuario);
+		if (pendentesRanking != null) {
+			pendentesRanking.put(usuario, Double.NaN);
+		} else {
+			ranking.adicionar(usuario);
+		}
+		usuario.setObservador(this);
+		return id;
+	}
+
+	/**
+	 * Passa a adiar as atualizações do ranking até o fim do lote. Cada usuário
+	 * alterado no lote é reposicionado uma única vez, a partir da reputação que
+	 * tinha antes do lote.
+	 */
+	public void iniciarLote() {
+		pendentesRanking = new IdentityHashMap<>();
+	}
 
-		if (mapaUsuarios.containsKey(chave)) {
-			throw new IllegalArgumentException("Usuario ja cadastrado");
+	/**
+	 * Aplica ao ranking as atualizações adiadas desde iniciarLote.
+	 */
+	public void concluirLote() {
+		Map<Usuario, Double> pendentes = pendentesRanking;
+		pendentesRanking = null;
+		for (Map.Entry<Usuario, Double> pendente : pendentes.entrySet()) {
+			if (pendente.getValue().isNaN()) {
+				ranking.adicionar(pendente.getKey());
+			} else {
+				ranking.reputacaoAlterada(pendente.getKey(), pendente.getValue());
+			}
 		}
-		mapaUsuarios.put(chave, usuario);
 	}
 
 	/**
@@ -74,10 +288,7 @@ public class ControllerUsuario implements Serializable {
 	 */
 	public String getInfoUsuario(String nome, String telefone, String atributo) {
 		ValidaParametros.validaParametrosGetInfoUsuario(nome, telefone, atributo);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		checaSeUsuarioJaExiste(nome, telefone);
-
-		Usuario usuario = mapaUsuarios.get(chave);
+		Usuario usuario = getUsuario(idUsuario(nome, telefone));
 
 		switch (atributo) {
 		case "Email":
@@ -103,17 +314,20 @@ public class ControllerUsuario implements Serializable {
 	 *            Nome do usuario.
 	 * @param telefone
 	 *            Telefone do Usuario.
+	 * @return Usuario removido.
 	 * @throws IllegalArgumentException
 	 *             Caso os dados nao remetam a um usuario valido.
 	 */
-	public void removerUsuario(String nome, String telefone) {
+	public Usuario removerUsuario(String nome, String telefone) {
 		ValidaParametros.validaDados(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-
-		if (!mapaUsuarios.containsKey(chave)) {
-			throw new IllegalArgumentException("Usuario invalido");
-		}
-		mapaUsuarios.remove(chave);
+		int id = idUsuario(nome, telefone);
+
+		Usuario usuario = usuarios.set(id, null);
+		registro.remover(id);
+		usuario.setObservador(null);
+		ranking.remover(usuario);
+		caloteiros.remover(usuario);
+		return usuario;
 	}
 
 	/**
@@ -134,28 +348,20 @@ public class ControllerUsuario implements Serializable {
 	 */
 	public void atualizarUsuario(String nome, String telefone, String atributo, String valor) {
 		ValidaParametros.validaParametrosRemoverUsuario(nome, telefone, atributo, valor);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		if (!mapaUsuarios.containsKey(chave)) {
-			throw new IllegalArgumentException("Usuario invalido");
-		}
+		int id = idUsuario(nome, telefone);
+		Usuario usuario = usuarios.get(id);
 
 		switch (atributo) {
 		case "Nome":
-			mapaUsuarios.get(chave).setNome(valor);
-			Usuario usuarioTemporario = mapaUsuarios.get(chave);
-			mapaUsuarios.remove(chave);
-			chave.setNome(valor);
-			mapaUsuarios.put(chave, usuarioTemporario);
+			registro.alterar(id, valor, telefone);
+			usuario.setNome(valor);
 			break;
 		case "Telefone":
-			mapaUsuarios.get(chave).setNumCelular(valor);
-			usuarioTemporario = mapaUsuarios.get(chave);
-			mapaUsuarios.remove(chave);
-			chave.setTelefone(valor);
-			mapaUsuarios.put(chave, usuarioTemporario);
+			registro.alterar(id, nome, valor);
+			usuario.setNumCelular(valor);
 			break;
 		case "Email":
-			mapaUsuarios.get(chave).setEmail(valor);
+			usuario.setEmail(valor);
 			break;
 
 		default:
@@ -172,11 +378,52 @@ public class ControllerUsuario implements Serializable {
 	 *             Excecao informando que o usuario nao esta cadastrado.
 	 */
 	public boolean checaSeUsuarioJaExiste(String nome, String telefone) {
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		if (!this.mapaUsuarios.containsKey(chave)) {
+		idUsuario(nome, telefone);
+		return true;
+	}
+
+	/**
+	 * Retorna o identificador de um Usuário cadastrado.
+	 * 
+	 * @param nome
+	 *            Nome do Usuário.
+	 * @param telefone
+	 *            Telefone do Usuário.
+	 * @return identificador
+	 * @throws IllegalArgumentException
+	 *             Caso o usuario nao esteja cadastrado.
+	 */
+	public int idUsuario(String nome, String telefone) {
+		int id = registro.id(nome, telefone);
+		if (id == RegistroUsuarios.SEM_USUARIO) {
 			throw new IllegalArgumentException("Usuario invalido");
 		}
-		return true;
+		return id;
+	}
+
+	/**
+	 * Retorna o identificador de um Usuário, sem exigir que esteja cadastrado.
+	 * 
+	 * @param nome
+	 *            Nome do Usuário.
+	 * @param telefone
+	 *            Telefone do Usuário.
+	 * @return identificador, ou RegistroUsuarios.SEM_USUARIO caso o usuario nao
+	 *         esteja cadastrado
+	 */
+	public int buscarIdUsuario(String nome, String telefone) {
+		return registro.id(nome, telefone);
+	}
+
+	/**
+	 * Retorna a chave de um Usuário cadastrado, sem criar um novo objeto.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @return chave
+	 */
+	public ChaveUsuario getChave(int id) {
+		return registro.getChave(id);
 	}
 
 	/**
@@ -189,9 +436,18 @@ public class ControllerUsuario implements Serializable {
 	 * @return Usuário.
 	 */
 	public Usuario getUsuario(String nome, String telefone) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		return mapaUsuarios.get(chave);
+		return getUsuario(idUsuario(nome, telefone));
+	}
+
+	/**
+	 * Retorna um Usuário a partir do identificador.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @return Usuário.
+	 */
+	public Usuario getUsuario(int id) {
+		return usuarios.get(id);
 	}
 
 	/**
@@ -204,9 +460,18 @@ public class ControllerUsuario implements Serializable {
 	 * @return Mapa de Itens.
 	 */
 	public Map<String, Item> getItensUsuario(String nome, String telefone) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		return mapaUsuarios.get(chave).getItens();
+		return getItensUsuario(idUsuario(nome, telefone));
+	}
+
+	/**
+	 * Retorna o mapa de itens de um Usuário a partir do identificador.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @return Mapa de Itens.
+	 */
+	public Map<String, Item> getItensUsuario(int id) {
+		return usuarios.get(id).getItens();
 	}
 
 	/**
@@ -216,10 +481,9 @@ public class ControllerUsuario implements Serializable {
 	 */
 	public List<Item> getItensUsuarios() {
 		ArrayList<Item> itensUsuarios = new ArrayList<>();
-		for (Usuario usuario : mapaUsuarios.values()) {
-			ArrayList<Item> itensUsuario = new ArrayList<>(usuario.getItens().values());
-			for (Item item : itensUsuario) {
-				itensUsuarios.add(item);
+		for (Usuario usuario : usuarios) {
+			if (usuario != null) {
+				itensUsuarios.addAll(usuario.getItens().values());
 			}
 		}
 		return itensUsuarios;
@@ -237,9 +501,21 @@ public class ControllerUsuario implements Serializable {
 	 *            Valor do Item.
 	 */
 	public void addReputacaoItemAdicionado(String nome, String telefone, double valorItem) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		mapaUsuarios.get(chave).addReputacaoItemAdicionado(valorItem);
+		addReputacaoItemAdicionado(idUsuario(nome, telefone), valorItem);
+	}
+
+	/**
+	 * Adiciona à reputação de um Usuário, a partir do identificador, 5% do valor
+	 * do item adicionado.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @param valorItem
+	 *            Valor do Item.
+	 */
+	public void addReputacaoItemAdicionado(int id, double valorItem) {
+		double variacao = usuarios.get(id).addReputacaoItemAdicionado(valorItem);
+		historicoReputacao.registrar(id, Datas.SEM_DATA, TipoEventoReputacao.ITEM_ADICIONADO, variacao);
 	}
 
 	/**
@@ -254,10 +530,23 @@ public class ControllerUsuario implements Serializable {
 	 *            Valor do Item.
 	 */
 	public void addReputacaoItemEmprestado(String nome, String telefone, double valorItem) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		Usuario usuario = this.mapaUsuarios.get(chave);
-		usuario.addReputacaoItemEmprestado(valorItem);
+		addReputacaoItemEmprestado(idUsuario(nome, telefone), valorItem, Datas.SEM_DATA);
+	}
+
+	/**
+	 * Adiciona à reputação de um Usuário, a partir do identificador, 10% do
+	 * valor do item emprestado.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @param valorItem
+	 *            Valor do Item.
+	 * @param dia
+	 *            Dia epoch do empréstimo, ou Datas.SEM_DATA.
+	 */
+	public void addReputacaoItemEmprestado(int id, double valorItem, int dia) {
+		double variacao = usuarios.get(id).addReputacaoItemEmprestado(valorItem);
+		historicoReputacao.registrar(id, dia, TipoEventoReputacao.ITEM_EMPRESTADO, variacao);
 	}
 
 	/**
@@ -272,9 +561,23 @@ public class ControllerUsuario implements Serializable {
 	 *            Valor do item devolvido.
 	 */
 	public void addReputacaoItemDevolvidoNoPrazo(String nome, String telefone, double valorItem) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		mapaUsuarios.get(chave).addReputacaoItemDevolvidoNoPrazo(valorItem);
+		addReputacaoItemDevolvidoNoPrazo(idUsuario(nome, telefone), valorItem, Datas.SEM_DATA);
+	}
+
+	/**
+	 * Adiciona à reputação de um Usuário, a partir do identificador, 5% do valor
+	 * do Item devolvido.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @param valorItem
+	 *            Valor do item devolvido.
+	 * @param dia
+	 *            Dia epoch da devolução, ou Datas.SEM_DATA.
+	 */
+	public void addReputacaoItemDevolvidoNoPrazo(int id, double valorItem, int dia) {
+		double variacao = usuarios.get(id).addReputacaoItemDevolvidoNoPrazo(valorItem);
+		historicoReputacao.registrar(id, dia, TipoEventoReputacao.DEVOLVIDO_NO_PRAZO, variacao);
 	}
 
 	/**
@@ -288,9 +591,70 @@ public class ControllerUsuario implements Serializable {
 	 *            Dias em Atraso da devolução.
 	 */
 	public void addReputacaoItemDevolvidoAtrasado(String nome, String telefone, double valorItem, int diasAtraso) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		mapaUsuarios.get(chave).addReputacaoItemDevolvidoAtrasado(valorItem, diasAtraso);
+		addReputacaoItemDevolvidoAtrasado(idUsuario(nome, telefone), valorItem, diasAtraso, Datas.SEM_DATA);
+	}
+
+	/**
+	 * Decrementa a reputação de um Usuário, a partir do identificador, pela
+	 * devolução atrasada de um Item.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @param valorItem
+	 *            Valor do Item devolvido.
+	 * @param diasAtraso
+	 *            Dias em Atraso da devolução.
+	 * @param dia
+	 *            Dia epoch da devolução, ou Datas.SEM_DATA.
+	 */
+	public void addReputacaoItemDevolvidoAtrasado(int id, double valorItem, int diasAtraso, int dia) {
+		double variacao = usuarios.get(id).addReputacaoItemDevolvidoAtrasado(valorItem, diasAtraso);
+		historicoReputacao.registrar(id, dia, TipoEventoReputacao.DEVOLVIDO_ATRASADO, variacao);
+	}
+
+	/**
+	 * Retorna a reputação que um Usuário tinha ao fim de uma data, calculada a
+	 * partir do histórico de reputação.
+	 * 
+	 * @param nome
+	 *            Nome do Usuário.
+	 * @param telefone
+	 *            Telefone do Usuário.
+	 * @param data
+	 *            Data no formato dd/MM/yyyy.
+	 * @return reputação na data
+	 * @throws IllegalArgumentException
+	 *             Caso o usuário seja inválido.
+	 * @throws java.time.format.DateTimeParseException
+	 *             Caso a data seja inválida.
+	 */
+	public double getReputacaoEm(String nome, String telefone, String data) {
+		ValidaParametros.validaDados(nome, telefone);
+		int id = idUsuario(nome, telefone);
+		return historicoReputacao.reputacaoEm(id, Datas.paraDia(data));
+	}
+
+	/**
+	 * Recalcula a reputação e o cartão de todos os Usuários a partir do
+	 * histórico de reputação.
+	 */
+	public void recalcularReputacoes() {
+		double[] reputacoes = historicoReputacao.recalcular(usuarios.size());
+		for (int id = 0; id < usuarios.size(); id++) {
+			Usuario usuario = usuarios.get(id);
+			if (usuario != null) {
+				usuario.redefinirReputacao(reputacoes[id]);
+			}
+		}
+	}
+
+	/**
+	 * Retorna o histórico de reputação.
+	 * 
+	 * @return histórico
+	 */
+	public HistoricoReputacao getHistoricoReputacao() {
+		return historicoReputacao;
 	}
 
 	/**
@@ -302,9 +666,17 @@ public class ControllerUsuario implements Serializable {
 	 *            Telefone do Usuário.
 	 */
 	public void atualizaCartaoUsuario(String nome, String telefone) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		mapaUsuarios.get(chave).atualizaCartao();
+		atualizaCartaoUsuario(idUsuario(nome, telefone));
+	}
+
+	/**
+	 * Atualiza o Cartão de um Usuário a partir do identificador.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 */
+	public void atualizaCartaoUsuario(int id) {
+		usuarios.get(id).atualizaCartao();
 	}
 
 	/**
@@ -318,10 +690,19 @@ public class ControllerUsuario implements Serializable {
 	 * @return valor Booleano.
 	 */
 	public boolean podePegarItemEmprestado(String nome, String telefone) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-		Usuario usuario = mapaUsuarios.get(chave);
-		return usuario.emprestimoLiberado();
+		return podePegarItemEmprestado(idUsuario(nome, telefone));
+	}
+
+	/**
+	 * Retorna se o usuário, dado pelo identificador, pode pegar um item
+	 * emprestado.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @return valor Booleano.
+	 */
+	public boolean podePegarItemEmprestado(int id) {
+		return usuarios.get(id).emprestimoLiberado();
 	}
 
 	/**
@@ -337,12 +718,21 @@ public class ControllerUsuario implements Serializable {
 	 * @return boolean
 	 */
 	public boolean validaPeriodoEmprestimo(String nome, String telefone, int periodo) {
-		checaSeUsuarioJaExiste(nome, telefone);
-		ChaveUsuario chave = new ChaveUsuario(nome, telefone);
-
-		Usuario usuario = mapaUsuarios.get(chave);
-		return usuario.validaPeriodoEmprestimo(periodo);
+		return validaPeriodoEmprestimo(idUsuario(nome, telefone), periodo);
+	}
 
+	/**
+	 * Retorna se o período de empréstimo é válido para o cartão do Usuário dado
+	 * pelo identificador.
+	 * 
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @param periodo
+	 *            Período de Empréstimo.
+	 * @return boolean
+	 */
+	public boolean validaPeriodoEmprestimo(int id, int periodo) {
+		return usuarios.get(id).validaPeriodoEmprestimo(periodo);
 	}
 
 	/**
@@ -351,19 +741,96 @@ public class ControllerUsuario implements Serializable {
 	 * @return lista de caloteiros
 	 */
 	public String listarCaloteiros() {
-		String listagem = "Lista de usuarios com reputacao negativa: ";
-		ArrayList<Usuario> listaCaloteiros = new ArrayList<>();
-		for (Usuario usuario : mapaUsuarios.values()) {
-			if (usuario.getReputacao() < 0) {
-				listaCaloteiros.add(usuario);
-			}
+		return Listagem.emTexto(saida -> listarCaloteiros(saida));
+	}
+
+	/**
+	 * Escreve os usuários com reputação negativa.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void listarCaloteiros(Appendable saida) throws IOException {
+		saida.append("Lista de usuarios com reputacao negativa: ");
+		for (Usuario usuario : caloteiros.listar()) {
+			saida.append(usuario.toString()).append('|');
+		}
+	}
+
+	/**
+	 * Lista uma página dos usuários com reputação negativa, ordenados por nome,
+	 * sem o cabeçalho da listagem completa.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de usuários da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página de caloteiros
+	 */
+	public Pagina listarCaloteiros(int tamanhoPagina, String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_CALOTEIROS, cursor, 2);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		List<Usuario> usuarios;
+		if (inicio == null) {
+			usuarios = caloteiros.listar(null, null, comProxima(tamanhoPagina));
+		} else {
+			usuarios = caloteiros.listar(inicio.getTexto(0), inicio.getTexto(1), comProxima(tamanhoPagina));
+		}
+		for (int i = 0; i < usuarios.size() && !pagina.cheia(); i++) {
+			pagina.adicionar(usuarios.get(i).toString());
+		}
+		if (usuarios.size() <= tamanhoPagina) {
+			return pagina.concluir(null);
+		}
+		Usuario ultimo = usuarios.get(tamanhoPagina - 1);
+		return pagina.concluir(Cursor.codificar(CURSOR_CALOTEIROS, ultimo.getNome(), ultimo.getNumCelular()));
+	}
+
+	/**
+	 * Lista uma página do ranking de usuários, da maior para a menor
+	 * reputação, numerada e formatada como o top 10 de melhores usuários. O
+	 * cursor guarda a posição do último usuário listado no ranking, de modo que
+	 * a numeração continua na página seguinte.
+	 * 
+	 * @param tamanhoPagina
+	 *            Número máximo de usuários da página.
+	 * @param cursor
+	 *            Cursor da página anterior, ou null para a primeira página.
+	 * @return página do ranking
+	 */
+	public Pagina listarMelhoresUsuarios(int tamanhoPagina, String cursor) {
+		Cursor inicio = Cursor.decodificar(CURSOR_MELHORES, cursor, 4);
+		Pagina.Montador pagina = new Pagina.Montador(tamanhoPagina);
+		List<Usuario> usuarios;
+		int posicao = 0;
+		if (inicio == null) {
+			usuarios = ranking.melhores(comProxima(tamanhoPagina));
+		} else {
+			usuarios = ranking.melhoresDepoisDe(inicio.getReal(0), inicio.getTexto(1), inicio.getTexto(2),
+					comProxima(tamanhoPagina));
+			posicao = inicio.getInteiro(3);
 		}
-		Collections.sort(listaCaloteiros);
-		for (Usuario usuario : listaCaloteiros) {
-			listagem += usuario.toString() + "|";
+		for (int i = 0; i < usuarios.size() && !pagina.cheia(); i++) {
+			Usuario usuario = usuarios.get(i);
+			pagina.adicionar(String.format(LOCALE_BRASIL, "%d: %s - Reputacao: %.2f", posicao + i + 1,
+					usuario.getNome(), usuario.getReputacao()));
 		}
+		if (usuarios.size() <= tamanhoPagina) {
+			return pagina.concluir(null);
+		}
+		Usuario ultimo = usuarios.get(tamanhoPagina - 1);
+		return pagina.concluir(Cursor.codificar(CURSOR_MELHORES, ultimo.getReputacao(), ultimo.getNome(),
+				ultimo.getNumCelular(), posicao + tamanhoPagina));
+	}
 
-		return listagem;
+	/**
+	 * Número de usuários a buscar para uma página: um a mais que o tamanho,
+	 * para saber se há página seguinte.
+	 */
+	private static int comProxima(int tamanhoPagina) {
+		return tamanhoPagina == Integer.MAX_VALUE ? tamanhoPagina : tamanhoPagina + 1;
 	}
 
 	/**
@@ -372,23 +839,28 @@ public class ControllerUsuario implements Serializable {
 	 * @return listagem
 	 * @throws IndexOutOfBoundsException
 	 *             Lança a exceção se tiver menos que 10 usuários cadastrados no
-	 *             mapaUsuarios
+	 *             sistema
 	 */
 	public String listarTop10MelhoresUsuarios() {
-		if (mapaUsuarios.size() < 10) {
+		return Listagem.emTexto(saida -> listarTop10MelhoresUsuarios(saida));
+	}
+
+	/**
+	 * Escreve os usuários com melhores reputações.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 * @throws IndexOutOfBoundsException
+	 *             Lança a exceção se tiver menos que 10 usuários cadastrados no
+	 *             sistema
+	 */
+	public void listarTop10MelhoresUsuarios(Appendable saida) throws IOException {
+		if (registro.numUsuarios() < 10) {
 			throw new IndexOutOfBoundsException("Menos de 10 usuários cadastrados!");
 		}
-		String listagem = "";
-		Locale.setDefault(new Locale("pt", "BR"));
-		ArrayList<Usuario> listaTop10Usuarios = new ArrayList<>(mapaUsuarios.values());
-		listaTop10Usuarios.sort(new ComparaUsuarioReputacaoMelhorMenor());
-
-		for (int i = 0; i < 10; i++) {
-			Usuario usuario = listaTop10Usuarios.get(i);
-			listagem += String.format("%d: %s - Reputacao: %.2f|", i + 1, usuario.getNome(), usuario.getReputacao());
-		}
-		return listagem;
-
+		listarRanking(ranking.melhores(10), saida);
 	}
 
 	/**
@@ -397,23 +869,71 @@ public class ControllerUsuario implements Serializable {
 	 * @return listagem
 	 * @throws IndexOutOfBoundsException
 	 *             Lança a exceção se tiver menos que 10 usuários cadastrados no
-	 *             mapaUsuarios
+	 *             sistema
 	 */
 	public String listarTop10PioresUsuarios() {
-		if (mapaUsuarios.size() < 10) {
+		return Listagem.emTexto(saida -> listarTop10PioresUsuarios(saida));
+	}
+
+	/**
+	 * Escreve os 10 piores Usuários.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 * @throws IndexOutOfBoundsException
+	 *             Lança a exceção se tiver menos que 10 usuários cadastrados no
+	 *             sistema
+	 */
+	public void listarTop10PioresUsuarios(Appendable saida) throws IOException {
+		if (registro.numUsuarios() < 10) {
 			throw new IndexOutOfBoundsException("Menos de 10 usuários cadastrados!");
 		}
-		String listagem = "";
-		Locale.setDefault(new Locale("pt", "BR"));
-		ArrayList<Usuario> listaTop10PioresUsuarios = new ArrayList<>(mapaUsuarios.values());
-		listaTop10PioresUsuarios.sort(new ComparaUsuarioReputacaoMenorMelhor());
-
-		for (int i = 0; i < 10; i++) {
-			Usuario usuario = listaTop10PioresUsuarios.get(i);
-			listagem += String.format("%d: %s - Reputacao: %.2f|", i + 1, usuario.getNome(), usuario.getReputacao());
+		listarRanking(ranking.piores(10), saida);
+	}
+
+	/**
+	 * Escreve a listagem numerada de um trecho do ranking, com a reputação
+	 * formatada no padrão brasileiro.
+	 * 
+	 * @param usuarios
+	 *            Usuários na ordem da listagem.
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	private void listarRanking(List<Usuario> usuarios, Appendable saida) throws IOException {
+		for (int i = 0; i < usuarios.size(); i++) {
+			Usuario usuario = usuarios.get(i);
+			saida.append(String.format(LOCALE_BRASIL, "%d: %s - Reputacao: %.2f|", i + 1, usuario.getNome(),
+					usuario.getReputacao()));
+		}
+	}
+
+	/**
+	 * Reposiciona no ranking um usuário que teve a reputação alterada e, se a
+	 * reputação trocou de sinal, atualiza os caloteiros.
+	 */
+	@Override
+	public void reputacaoAlterada(Usuario usuario, double reputacaoAnterior) {
+		caloteiros.reputacaoAlterada(usuario, reputacaoAnterior);
+		if (pendentesRanking != null) {
+			pendentesRanking.putIfAbsent(usuario, reputacaoAnterior);
+		} else {
+			ranking.reputacaoAlterada(usuario, reputacaoAnterior);
 		}
+	}
 
-		return listagem;
+	/**
+	 * Reposiciona no ranking e nos caloteiros um usuário que teve nome ou
+	 * telefone alterado.
+	 */
+	@Override
+	public void identificacaoAlterada(Usuario usuario, String nomeAnterior, String telefoneAnterior) {
+		ranking.identificacaoAlterada(usuario, nomeAnterior, telefoneAnterior);
+		caloteiros.identificacaoAlterada(usuario, nomeAnterior, telefoneAnterior);
 	}
 
 }
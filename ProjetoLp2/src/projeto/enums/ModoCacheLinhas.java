@@ -0,0 +1,34 @@
+package projeto.enums;
+
+/**
+ * Formas de guardar a linha já formatada de cada item, usada nas listagens.
+ *
+ * @author igoratf
+ *
+ */
+
+public enum ModoCacheLinhas {
+
+	/**
+	 * A linha fica guardada no item até que ele seja alterado.
+	 */
+	FORTE,
+	/**
+	 * A linha fica guardada em uma referência suave, que o coletor de lixo
+	 * libera quando falta memória. Não é um cache limitado: há uma referência
+	 * por item, e o número de linhas guardadas depende só da memória livre.
+	 */
+	SUAVE,
+	/**
+	 * A linha fica guardada no item, mas o número de linhas guardadas é
+	 * limitado: quando o limite é atingido, a linha de um item que não foi
+	 * listado recentemente é descartada, escolhida pelo algoritmo do relógio.
+	 * Indicado para catálogos muito grandes.
+	 */
+	LIMITADO,
+	/**
+	 * A linha é formatada a cada listagem.
+	 */
+	DESLIGADO;
+
+}
@@ -0,0 +1,48 @@
+package projeto.enums;
+
+/**
+ * Tipos de evento do histórico de reputação, um para cada forma de alterar a
+ * reputação de um Usuário.
+ *
+ * @author caiosbl
+ *
+ */
+
+public enum TipoEventoReputacao {
+
+	/**
+	 * Reputação que o Usuário já tinha quando o histórico começou a ser
+	 * mantido.
+	 */
+	SALDO_INICIAL,
+	/**
+	 * Cadastro de um item do Usuário.
+	 */
+	ITEM_ADICIONADO,
+	/**
+	 * Empréstimo de um item do Usuário.
+	 */
+	ITEM_EMPRESTADO,
+	/**
+	 * Devolução no prazo de um item que o Usuário pegou emprestado.
+	 */
+	DEVOLVIDO_NO_PRAZO,
+	/**
+	 * Devolução atrasada de um item que o Usuário pegou emprestado.
+	 */
+	DEVOLVIDO_ATRASADO;
+
+	private static final TipoEventoReputacao[] VALORES = values();
+
+	/**
+	 * Retorna o tipo pelo seu código, a posição na declaração.
+	 *
+	 * @param codigo
+	 *            Código do tipo.
+	 * @return tipo
+	 */
+	public static TipoEventoReputacao doCodigo(int codigo) {
+		return VALORES[codigo];
+	}
+
+}
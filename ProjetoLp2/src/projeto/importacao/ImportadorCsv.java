@@ -0,0 +1,114 @@
+package projeto.importacao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import projeto.Sistema;
+
+/**
+ * Importação em lote de usuários, itens e empréstimos a partir de um arquivo
+ * CSV (ver {@link LinhaImportacao} para o formato das linhas).
+ *
+ * O arquivo é lido em lotes. As linhas de um lote são validadas em paralelo e
+ * as válidas são aplicadas ao sistema em ordem, de uma só vez (ver
+ * {@link Sistema#importarLote}). Linhas rejeitadas na validação ou na
+ * aplicação não interrompem a importação e vão para o relatório.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class ImportadorCsv {
+
+	/**
+	 * Número de linhas por lote quando nenhum outro é informado.
+	 */
+	public static final int LOTE_PADRAO = 1000;
+
+	private final Sistema sistema;
+	private final int tamanhoLote;
+
+	/**
+	 * Construtor do importador.
+	 *
+	 * @param sistema
+	 *            Sistema que recebe as linhas.
+	 * @param tamanhoLote
+	 *            Número de linhas por lote.
+	 */
+	public ImportadorCsv(Sistema sistema, int tamanhoLote) {
+		if (tamanhoLote < 1) {
+			throw new IllegalArgumentException("Tamanho de lote invalido");
+		}
+		this.sistema = sistema;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	/**
+	 * Importa um arquivo CSV. As linhas aplicadas são registradas no diário do
+	 * sistema, se houver um.
+	 *
+	 * @param origem
+	 *            Texto CSV.
+	 * @return relatório da importação
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public RelatorioImportacao importar(Reader origem) throws IOException {
+		return importar(origem, linha -> {
+		});
+	}
+
+	/**
+	 * Importa um arquivo CSV, avisando cada linha aplicada.
+	 *
+	 * @param origem
+	 *            Texto CSV.
+	 * @param aoAplicar
+	 *            Recebe cada linha aplicada, na ordem do arquivo, ao fim do seu
+	 *            lote.
+	 * @return relatório da importação
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public RelatorioImportacao importar(Reader origem, Consumer<LinhaImportacao> aoAplicar) throws IOException {
+		RelatorioImportacao relatorio = new RelatorioImportacao();
+		LeitorCsv leitor = new LeitorCsv(origem);
+		List<Supplier<LinhaImportacao>> lote = new ArrayList<>(tamanhoLote);
+		boolean fim = false;
+		while (!fim) {
+			try {
+				String[] campos = leitor.lerLinha();
+				int numero = leitor.getNumeroLinha();
+				if (campos == null) {
+					fim = true;
+				} else {
+					lote.add(() -> LinhaImportacao.validar(numero, campos));
+				}
+			} catch (IllegalArgumentException e) {
+				int numero = leitor.getNumeroLinha();
+				String motivo = e.getMessage();
+				lote.add(() -> LinhaImportacao.rejeitada(numero, motivo));
+			}
+			if (lote.size() == tamanhoLote || (fim && !lote.isEmpty())) {
+				aplicarLote(lote, relatorio, aoAplicar);
+				lote.clear();
+			}
+		}
+		return relatorio;
+	}
+
+	private void aplicarLote(List<Supplier<LinhaImportacao>> lote, RelatorioImportacao relatorio,
+			Consumer<LinhaImportacao> aoAplicar) {
+		List<LinhaImportacao> linhas = lote.parallelStream().map(Supplier::get).collect(Collectors.toList());
+		for (LinhaImportacao aplicada : sistema.importarLote(linhas, relatorio)) {
+			aoAplicar.accept(aplicada);
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package projeto.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de arquivos CSV linha a linha, sem carregar o arquivo inteiro.
+ *
+ * Os campos são separados por vírgula. Um campo entre aspas pode conter
+ * vírgulas, e aspas dentro dele são escritas duplicadas. Linhas em branco são
+ * ignoradas, e um campo entre aspas não pode continuar na linha seguinte.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class LeitorCsv implements AutoCloseable {
+
+	private final BufferedReader origem;
+	private int numeroLinha;
+
+	/**
+	 * Construtor do leitor.
+	 *
+	 * @param origem
+	 *            Texto CSV a ser lido.
+	 */
+	public LeitorCsv(Reader origem) {
+		this.origem = origem instanceof BufferedReader ? (BufferedReader) origem : new BufferedReader(origem);
+	}
+
+	/**
+	 * Lê os campos da próxima linha não vazia.
+	 *
+	 * @return campos da linha, ou null no fim do arquivo
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 * @throws IllegalArgumentException
+	 *             Caso uma aspa não seja fechada. A leitura pode continuar na
+	 *             linha seguinte.
+	 */
+	public String[] lerLinha() throws IOException {
+		String linha;
+		do {
+			linha = origem.readLine();
+			if (linha == null) {
+				return null;
+			}
+			numeroLinha++;
+		} while (linha.trim().isEmpty());
+		return separar(linha);
+	}
+
+	/**
+	 * Retorna o número, a partir de 1, da última linha lida.
+	 *
+	 * @return número da linha
+	 */
+	public int getNumeroLinha() {
+		return numeroLinha;
+	}
+
+	private String[] separar(String linha) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		for (int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if (entreAspas) {
+				if (c != '"') {
+					campo.append(c);
+				} else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				} else {
+					entreAspas = false;
+				}
+			} else if (c == '"') {
+				entreAspas = true;
+			} else if (c == ',') {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			} else {
+				campo.append(c);
+			}
+		}
+		if (entreAspas) {
+			throw new IllegalArgumentException("Aspas nao fechadas");
+		}
+		campos.add(campo.toString());
+		return campos.toArray(new String[campos.size()]);
+	}
+
+	@Override
+	public void close() throws IOException {
+		origem.close();
+	}
+
+}
@@ -0,0 +1,257 @@
+package projeto.importacao;
+
+import java.util.Arrays;
+
+import projeto.Emprestimo;
+import projeto.Item;
+import projeto.bluray.BlurayFilme;
+import projeto.bluray.BluraySeries;
+import projeto.bluray.BlurayShow;
+import projeto.jogo.JogoEletronico;
+import projeto.jogo.JogoTabuleiro;
+import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Datas;
+import projeto.utilitarios.ValidaParametros;
+
+/**
+ * Linha de um arquivo de importação, já validada.
+ *
+ * O primeiro campo é o nome da operação da Facade e os demais são os seus
+ * argumentos, na mesma ordem: cadastrarUsuario, cadastrarEletronico,
+ * cadastrarJogoTabuleiro, cadastrarBluRayFilme, cadastrarBluRayShow,
+ * cadastrarBluRaySerie e registrarEmprestimo. A validação não depende do
+ * estado do sistema, o que permite validar várias linhas ao mesmo tempo; os
+ * itens já saem construídos.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class LinhaImportacao {
+
+	private final int numero;
+	private final String operacao;
+	private final String[] argumentos;
+	private String motivoRejeicao;
+	private ChaveUsuario dono;
+	private ChaveUsuario requerente;
+	private Item item;
+	private int periodo;
+
+	private LinhaImportacao(int numero, String[] campos) {
+		this.numero = numero;
+		this.operacao = campos.length == 0 ? "" : campos[0].trim();
+		this.argumentos = campos.length == 0 ? campos : Arrays.copyOfRange(campos, 1, campos.length);
+	}
+
+	/**
+	 * Valida uma linha do arquivo. Uma linha inválida não lança exceção; ela
+	 * volta rejeitada, com o motivo.
+	 *
+	 * @param numero
+	 *            Número da linha no arquivo.
+	 * @param campos
+	 *            Campos da linha.
+	 * @return linha validada ou rejeitada
+	 */
+	public static LinhaImportacao validar(int numero, String[] campos) {
+		LinhaImportacao linha = new LinhaImportacao(numero, campos);
+		try {
+			linha.validar();
+		} catch (RuntimeException e) {
+			linha.motivoRejeicao = e.getMessage();
+		}
+		return linha;
+	}
+
+	/**
+	 * Cria uma linha rejeitada antes da validação, como uma linha que não pôde
+	 * ser separada em campos.
+	 *
+	 * @param numero
+	 *            Número da linha no arquivo.
+	 * @param motivo
+	 *            Motivo da rejeição.
+	 * @return linha rejeitada
+	 */
+	public static LinhaImportacao rejeitada(int numero, String motivo) {
+		LinhaImportacao linha = new LinhaImportacao(numero, new String[0]);
+		linha.motivoRejeicao = motivo;
+		return linha;
+	}
+
+	private void validar() {
+		switch (operacao) {
+		case "cadastrarUsuario":
+			checaNumArgumentos(3);
+			ValidaParametros.validaParametrosUsuario(argumentos[0], argumentos[2], argumentos[1]);
+			dono = chave(0);
+			break;
+		case "cadastrarEletronico":
+			checaNumArgumentos(5);
+			dono = chave(0);
+			item = new JogoEletronico(argumentos[2], preco(3), argumentos[4]);
+			break;
+		case "cadastrarJogoTabuleiro":
+			checaNumArgumentos(4);
+			dono = chave(0);
+			item = new JogoTabuleiro(argumentos[2], preco(3));
+			break;
+		case "cadastrarBluRayFilme":
+			checaNumArgumentos(8);
+			dono = chave(0);
+			item = new BlurayFilme(argumentos[2], preco(3), inteiro(4), argumentos[6], argumentos[5], inteiro(7));
+			break;
+		case "cadastrarBluRayShow":
+			checaNumArgumentos(8);
+			dono = chave(0);
+			item = new BlurayShow(argumentos[2], preco(3), inteiro(4), inteiro(5), argumentos[6], argumentos[7]);
+			break;
+		case "cadastrarBluRaySerie":
+			checaNumArgumentos(9);
+			dono = chave(0);
+			item = new BluraySeries(argumentos[2], preco(3), inteiro(5), argumentos[4], argumentos[6], argumentos[7],
+					inteiro(8));
+			break;
+		case "registrarEmprestimo":
+			checaNumArgumentos(7);
+			dono = chave(0);
+			requerente = chave(2);
+			periodo = inteiro(6);
+			Emprestimo.checaValidadeAtributos(dono, requerente, argumentos[4], argumentos[5], periodo);
+			Datas.paraDia(argumentos[5]);
+			break;
+		default:
+			throw new IllegalArgumentException("Operacao invalida");
+		}
+	}
+
+	private void checaNumArgumentos(int esperado) {
+		if (argumentos.length != esperado) {
+			throw new IllegalArgumentException("Numero de campos invalido");
+		}
+	}
+
+	private ChaveUsuario chave(int indice) {
+		return new ChaveUsuario(argumentos[indice], argumentos[indice + 1]);
+	}
+
+	private double preco(int indice) {
+		double preco;
+		try {
+			preco = Double.parseDouble(argumentos[indice].trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Preco invalido");
+		}
+		ValidaParametros.validaPreco(preco);
+		argumentos[indice] = Double.toString(preco);
+		return preco;
+	}
+
+	private int inteiro(int indice) {
+		int valor;
+		try {
+			valor = Integer.parseInt(argumentos[indice].trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Numero invalido: " + argumentos[indice]);
+		}
+		argumentos[indice] = Integer.toString(valor);
+		return valor;
+	}
+
+	/**
+	 * Retorna o número da linha no arquivo.
+	 *
+	 * @return número da linha
+	 */
+	public int getNumero() {
+		return numero;
+	}
+
+	/**
+	 * Retorna o nome da operação da Facade.
+	 *
+	 * @return operação
+	 */
+	public String getOperacao() {
+		return operacao;
+	}
+
+	/**
+	 * Retorna os argumentos da operação, na ordem da Facade. Preços e números
+	 * validados vêm no texto do valor aplicado, sem os espaços do arquivo, de
+	 * modo que podem ser registrados no diário e lidos de volta.
+	 *
+	 * @return argumentos
+	 */
+	public String[] getArgumentos() {
+		return argumentos.clone();
+	}
+
+	/**
+	 * Retorna um argumento da operação.
+	 *
+	 * @param indice
+	 *            Posição do argumento.
+	 * @return argumento
+	 */
+	public String getArgumento(int indice) {
+		return argumentos[indice];
+	}
+
+	/**
+	 * Retorna se a linha foi rejeitada na validação.
+	 *
+	 * @return boolean
+	 */
+	public boolean isRejeitada() {
+		return motivoRejeicao != null;
+	}
+
+	/**
+	 * Retorna o motivo da rejeição.
+	 *
+	 * @return motivo, ou null se a linha é válida
+	 */
+	public String getMotivoRejeicao() {
+		return motivoRejeicao;
+	}
+
+	/**
+	 * Retorna a chave do usuário cadastrado, do dono do item ou do dono do item
+	 * emprestado.
+	 *
+	 * @return chave
+	 */
+	public ChaveUsuario getDono() {
+		return dono;
+	}
+
+	/**
+	 * Retorna a chave do requerente de um empréstimo.
+	 *
+	 * @return chave, ou null se a linha não é um empréstimo
+	 */
+	public ChaveUsuario getRequerente() {
+		return requerente;
+	}
+
+	/**
+	 * Retorna o item a ser cadastrado.
+	 *
+	 * @return item, ou null se a linha não cadastra um item
+	 */
+	public Item getItem() {
+		return item;
+	}
+
+	/**
+	 * Retorna o período de um empréstimo.
+	 *
+	 * @return período em dias
+	 */
+	public int getPeriodo() {
+		return periodo;
+	}
+
+}
@@ -0,0 +1,77 @@
+package projeto.importacao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma importação: quantas linhas foram aplicadas e quais foram
+ * rejeitadas, com o número da linha e o motivo.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class RelatorioImportacao {
+
+	private int numAplicadas;
+	private final List<String> rejeicoes;
+
+	/**
+	 * Construtor do relatório vazio.
+	 */
+	public RelatorioImportacao() {
+		this.rejeicoes = new ArrayList<>();
+	}
+
+	/**
+	 * Conta uma linha aplicada ao sistema.
+	 */
+	public void aplicada() {
+		numAplicadas++;
+	}
+
+	/**
+	 * Registra uma linha rejeitada.
+	 *
+	 * @param numeroLinha
+	 *            Número da linha no arquivo.
+	 * @param motivo
+	 *            Motivo da rejeição.
+	 */
+	public void rejeitada(int numeroLinha, String motivo) {
+		rejeicoes.add("Linha " + numeroLinha + ": " + motivo);
+	}
+
+	/**
+	 * Retorna o número de linhas aplicadas.
+	 *
+	 * @return número de linhas
+	 */
+	public int getNumAplicadas() {
+		return numAplicadas;
+	}
+
+	/**
+	 * Retorna as linhas rejeitadas, na ordem do arquivo.
+	 *
+	 * @return rejeições no formato "Linha n: motivo"
+	 */
+	public List<String> getRejeicoes() {
+		return Collections.unmodifiableList(rejeicoes);
+	}
+
+	/**
+	 * Retorna o relatório em texto, com as rejeições separadas por "|".
+	 */
+	@Override
+	public String toString() {
+		StringBuilder texto = new StringBuilder();
+		texto.append("Linhas importadas: ").append(numAplicadas).append(", rejeitadas: ").append(rejeicoes.size());
+		for (String rejeicao : rejeicoes) {
+			texto.append('|').append(rejeicao);
+		}
+		return texto.toString();
+	}
+
+}
@@ -0,0 +1,172 @@
+package projeto.indices;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import projeto.Usuario;
+
+/**
+ * Usuários com reputação negativa, ordenados por nome, para que a listagem de
+ * caloteiros percorra apenas os caloteiros.
+ *
+ * Um usuário só entra ou sai do conjunto quando a reputação troca de sinal.
+ * Usuários de mesmo nome são listados por telefone. Os métodos são
+ * sincronizados, já que a reputação de usuários diferentes pode mudar ao mesmo
+ * tempo.
+ *
+ * @author caiosbl
+ * @version 1.0
+ *
+ */
+
+public class ConjuntoCaloteiros implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 4731259914800352077L;
+	private TreeMap<Chave, Usuario> caloteiros;
+
+	/**
+	 * Construtor do conjunto vazio.
+	 */
+	public ConjuntoCaloteiros() {
+		this.caloteiros = new TreeMap<>();
+	}
+
+	/**
+	 * Adiciona um usuário ao conjunto, caso a reputação dele seja negativa.
+	 *
+	 * @param usuario
+	 *            Usuário a ser adicionado.
+	 */
+	public synchronized void adicionar(Usuario usuario) {
+		if (usuario.getReputacao() < 0) {
+			caloteiros.put(new Chave(usuario.getNome(), usuario.getNumCelular()), usuario);
+		}
+	}
+
+	/**
+	 * Remove um usuário do conjunto, caso ele esteja nele.
+	 *
+	 * @param usuario
+	 *            Usuário a ser removido.
+	 */
+	public synchronized void remover(Usuario usuario) {
+		if (usuario.getReputacao() < 0) {
+			caloteiros.remove(new Chave(usuario.getNome(), usuario.getNumCelular()));
+		}
+	}
+
+	/**
+	 * Atualiza o conjunto quando a reputação de um usuário troca de sinal.
+	 *
+	 * @param usuario
+	 *            Usuário com a nova reputação.
+	 * @param reputacaoAnterior
+	 *            Reputação antes da alteração.
+	 */
+	public synchronized void reputacaoAlterada(Usuario usuario, double reputacaoAnterior) {
+		boolean eraCaloteiro = reputacaoAnterior < 0;
+		boolean ehCaloteiro = usuario.getReputacao() < 0;
+		if (eraCaloteiro == ehCaloteiro) {
+			return;
+		}
+		Chave chave = new Chave(usuario.getNome(), usuario.getNumCelular());
+		if (ehCaloteiro) {
+			caloteiros.put(chave, usuario);
+		} else {
+			caloteiros.remove(chave);
+		}
+	}
+
+	/**
+	 * Reposiciona um caloteiro cujo nome ou telefone foi alterado.
+	 *
+	 * @param usuario
+	 *            Usuário com os novos dados.
+	 * @param nomeAnterior
+	 *            Nome antes da alteração.
+	 * @param telefoneAnterior
+	 *            Telefone antes da alteração.
+	 */
+	public synchronized void identificacaoAlterada(Usuario usuario, String nomeAnterior, String telefoneAnterior) {
+		if (caloteiros.remove(new Chave(nomeAnterior, telefoneAnterior)) != null) {
+			caloteiros.put(new Chave(usuario.getNome(), usuario.getNumCelular()), usuario);
+		}
+	}
+
+	/**
+	 * Retorna os caloteiros ordenados por nome.
+	 *
+	 * @return lista de usuários
+	 */
+	public synchronized List<Usuario> listar() {
+		return new ArrayList<>(caloteiros.values());
+	}
+
+	/**
+	 * Retorna os caloteiros ordenados por nome que vêm depois do nome e do
+	 * telefone informados, para continuar uma listagem paginada.
+	 *
+	 * @param nome
+	 *            Nome do último caloteiro já listado, ou null para começar do
+	 *            primeiro.
+	 * @param telefone
+	 *            Telefone do último caloteiro já listado.
+	 * @param quantidade
+	 *            Número máximo de caloteiros.
+	 * @return lista de usuários
+	 */
+	public synchronized List<Usuario> listar(String nome, String telefone, int quantidade) {
+		List<Usuario> lista = new ArrayList<>();
+		Map<Chave, Usuario> seguintes = caloteiros;
+		if (nome != null) {
+			seguintes = caloteiros.tailMap(new Chave(nome, telefone), false);
+		}
+		for (Usuario usuario : seguintes.values()) {
+			if (lista.size() == quantidade) {
+				break;
+			}
+			lista.add(usuario);
+		}
+		return lista;
+	}
+
+	/**
+	 * Retorna o número de caloteiros.
+	 *
+	 * @return tamanho
+	 */
+	public synchronized int tamanho() {
+		return caloteiros.size();
+	}
+
+	/**
+	 * Chave imutável de um caloteiro: nome e telefone crescentes.
+	 */
+	private static class Chave implements Comparable<Chave>, Serializable {
+
+		private static final long serialVersionUID = -1390746250186334530L;
+		private final String nome;
+		private final String telefone;
+
+		Chave(String nome, String telefone) {
+			this.nome = nome;
+			this.telefone = telefone;
+		}
+
+		@Override
+		public int compareTo(Chave outra) {
+			int comparacao = nome.compareTo(outra.nome);
+			if (comparacao == 0) {
+				comparacao = telefone.compareTo(outra.telefone);
+			}
+			return comparacao;
+		}
+	}
+
+}
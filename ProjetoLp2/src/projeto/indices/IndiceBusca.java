@@ -0,0 +1,341 @@
+package projeto.indices;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import projeto.Item;
+import projeto.utilitarios.ListaInteiros;
+
+/**
+ * Índice invertido para a pesquisa de itens por texto: cada termo aponta para
+ * os identificadores, em ordem crescente, dos itens que o contêm no nome ou em
+ * outro texto pesquisável, como a descrição de uma série ou o artista de um
+ * show.
+ *
+ * Os termos são as sequências de letras e dígitos do texto, em minúsculas e sem
+ * acentos. Uma pesquisa retorna os itens que contêm todos os termos da
+ * consulta, cada um como prefixo de algum termo do item. Apenas os itens do
+ * termo da consulta com menos ocorrências são visitados; os demais termos são
+ * conferidos nos termos do próprio item.
+ *
+ * O índice é refeito a partir do catálogo e não é gravado. Os métodos são
+ * sincronizados porque itens de usuários diferentes podem ser cadastrados ao
+ * mesmo tempo.
+ *
+ * @author igoratf
+ *
+ */
+
+public class IndiceBusca {
+
+	private static final int PONTOS_NOME_EXATO = 4;
+	private static final int PONTOS_NOME_PREFIXO = 3;
+	private static final int PONTOS_TEXTO_EXATO = 2;
+	private static final int PONTOS_TEXTO_PREFIXO = 1;
+
+	/**
+	 * Ordem dos resultados: mais pontos primeiro, depois nome e identificador
+	 * crescentes.
+	 */
+	private static final Comparator<Resultado> MELHOR_PRIMEIRO = Comparator
+			.comparingInt((Resultado resultado) -> -resultado.pontos)
+			.thenComparing(resultado -> resultado.item.getNome())
+			.thenComparingInt(resultado -> resultado.item.getId());
+
+	private TreeMap<String, ListaInteiros> termos;
+	private Map<Integer, Entrada> entradas;
+
+	/**
+	 * Construtor do índice.
+	 */
+	public IndiceBusca() {
+		this.termos = new TreeMap<>();
+		this.entradas = new HashMap<>();
+	}
+
+	/**
+	 * Adiciona um item ao índice.
+	 *
+	 * @param item
+	 *            é o item a ser adicionado
+	 */
+	public synchronized void adicionar(Item item) {
+		Entrada entrada = new Entrada(item);
+		if (entradas.putIfAbsent(item.getId(), entrada) != null) {
+			return;
+		}
+		for (String termo : entrada.todos) {
+			ListaInteiros ids = termos.get(termo);
+			if (ids == null) {
+				ids = new ListaInteiros(1);
+				termos.put(termo, ids);
+			}
+			ids.adicionar(ids.posicaoDepoisDe(item.getId()), item.getId());
+		}
+	}
+
+	/**
+	 * Remove um item do índice.
+	 *
+	 * @param item
+	 *            é o item a ser removido
+	 * @return true se o item estava no índice
+	 */
+	public synchronized boolean remover(Item item) {
+		Entrada entrada = entradas.get(item.getId());
+		if (entrada == null || entrada.item != item) {
+			return false;
+		}
+		entradas.remove(item.getId());
+		for (String termo : entrada.todos) {
+			ListaInteiros ids = termos.get(termo);
+			ids.remover(ids.posicaoDepoisDe(item.getId()) - 1);
+			if (ids.tamanho() == 0) {
+				termos.remove(termo);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Refaz os termos de um item que teve o nome alterado.
+	 *
+	 * @param item
+	 *            é o item com o novo nome
+	 */
+	public synchronized void nomeAlterado(Item item) {
+		if (remover(item)) {
+			adicionar(item);
+		}
+	}
+
+	/**
+	 * Pesquisa os itens que contêm todos os termos da consulta, cada um como
+	 * prefixo de um termo do item. Os itens são pontuados por termo da
+	 * consulta: termo igual a um termo do nome vale 4, prefixo de um termo do
+	 * nome vale 3, e nos demais textos 2 e 1. Empates são listados por nome e,
+	 * depois, por identificador.
+	 *
+	 * @param consulta
+	 *            é o texto da consulta
+	 * @param quantidade
+	 *            é o número máximo de itens retornados
+	 * @return os itens de maior pontuação, do melhor para o pior
+	 */
+	public synchronized List<Item> pesquisar(String consulta, int quantidade) {
+		String[] prefixos = termos(consulta);
+		if (prefixos.length == 0 || quantidade <= 0) {
+			return Collections.emptyList();
+		}
+		String guia = null;
+		int menorOcorrencias = Integer.MAX_VALUE;
+		for (String prefixo : prefixos) {
+			int ocorrencias = contarOcorrencias(prefixo, menorOcorrencias);
+			if (ocorrencias < menorOcorrencias) {
+				menorOcorrencias = ocorrencias;
+				guia = prefixo;
+			}
+		}
+		if (menorOcorrencias == 0) {
+			return Collections.emptyList();
+		}
+
+		PriorityQueue<Resultado> melhores = new PriorityQueue<>(Math.min(quantidade, menorOcorrencias) + 1,
+				MELHOR_PRIMEIRO.reversed());
+		for (Map.Entry<String, ListaInteiros> termo : comPrefixo(guia).entrySet()) {
+			ListaInteiros ids = termo.getValue();
+			for (int i = 0; i < ids.tamanho(); i++) {
+				Entrada entrada = entradas.get(ids.get(i));
+				// um item com vários termos de mesmo prefixo é visitado uma vez
+				if (!termo.getKey().equals(entrada.primeiroComPrefixo(guia))) {
+					continue;
+				}
+				int pontos = entrada.pontuar(prefixos);
+				if (pontos == 0) {
+					continue;
+				}
+				Resultado resultado = new Resultado(entrada.item, pontos);
+				if (melhores.size() < quantidade) {
+					melhores.add(resultado);
+				} else if (MELHOR_PRIMEIRO.compare(resultado, melhores.peek()) < 0) {
+					melhores.poll();
+					melhores.add(resultado);
+				}
+			}
+		}
+
+		List<Resultado> ordenados = new ArrayList<>(melhores);
+		ordenados.sort(MELHOR_PRIMEIRO);
+		List<Item> itens = new ArrayList<>(ordenados.size());
+		for (Resultado resultado : ordenados) {
+			itens.add(resultado.item);
+		}
+		return itens;
+	}
+
+	/**
+	 * Retorna o número de termos distintos do índice.
+	 *
+	 * @return número de termos
+	 */
+	public synchronized int numTermos() {
+		return termos.size();
+	}
+
+	/**
+	 * Retorna o número de itens do índice.
+	 *
+	 * @return tamanho
+	 */
+	public synchronized int tamanho() {
+		return entradas.size();
+	}
+
+	/**
+	 * Separa um texto nos termos usados pelo índice: sequências de letras e
+	 * dígitos, em minúsculas e sem acentos, sem repetições.
+	 *
+	 * @param texto
+	 *            é o texto a ser separado
+	 * @return termos do texto, na ordem em que aparecem
+	 */
+	public static String[] termos(String texto) {
+		if (texto == null) {
+			return new String[0];
+		}
+		String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+		List<String> termos = new ArrayList<>();
+		StringBuilder termo = new StringBuilder();
+		for (int i = 0; i <= decomposto.length(); i++) {
+			char c = i < decomposto.length() ? decomposto.charAt(i) : ' ';
+			if (Character.isLetterOrDigit(c)) {
+				termo.append(Character.toLowerCase(c));
+			} else if (Character.getType(c) != Character.NON_SPACING_MARK && termo.length() > 0) {
+				String novo = termo.toString();
+				if (!termos.contains(novo)) {
+					termos.add(novo);
+				}
+				termo.setLength(0);
+			}
+		}
+		return termos.toArray(new String[termos.size()]);
+	}
+
+	private NavigableMap<String, ListaInteiros> comPrefixo(String prefixo) {
+		return termos.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+	}
+
+	/**
+	 * Conta as ocorrências dos termos com o prefixo informado, parando ao
+	 * atingir o limite.
+	 */
+	private int contarOcorrencias(String prefixo, int limite) {
+		int ocorrencias = 0;
+		for (ListaInteiros ids : comPrefixo(prefixo).values()) {
+			ocorrencias += ids.tamanho();
+			if (ocorrencias >= limite) {
+				return limite;
+			}
+		}
+		return ocorrencias;
+	}
+
+	/**
+	 * Termos de um item, guardados para conferir os demais termos da consulta
+	 * e para retirar o item do índice sem depender do nome atual.
+	 */
+	private static class Entrada {
+
+		private final Item item;
+		private final String[] nome;
+		private final String[] textos;
+		private final String[] todos;
+
+		Entrada(Item item) {
+			this.item = item;
+			this.nome = ordenados(termos(item.getNome()));
+			TreeSet<String> textos = new TreeSet<>();
+			for (String texto : item.getTextosBusca()) {
+				textos.addAll(Arrays.asList(termos(texto)));
+			}
+			this.textos = textos.toArray(new String[textos.size()]);
+			textos.addAll(Arrays.asList(this.nome));
+			this.todos = textos.toArray(new String[textos.size()]);
+		}
+
+		private static String[] ordenados(String[] termos) {
+			Arrays.sort(termos);
+			return termos;
+		}
+
+		/**
+		 * Retorna o menor termo do item com o prefixo informado, ou null.
+		 */
+		String primeiroComPrefixo(String prefixo) {
+			int posicao = Arrays.binarySearch(todos, prefixo);
+			if (posicao < 0) {
+				posicao = -posicao - 1;
+			}
+			if (posicao < todos.length && todos[posicao].startsWith(prefixo)) {
+				return todos[posicao];
+			}
+			return null;
+		}
+
+		/**
+		 * Soma os pontos de cada prefixo da consulta, ou retorna 0 se algum
+		 * não estiver no item.
+		 */
+		int pontuar(String[] prefixos) {
+			int total = 0;
+			for (String prefixo : prefixos) {
+				int pontos = pontos(nome, prefixo, PONTOS_NOME_EXATO, PONTOS_NOME_PREFIXO);
+				if (pontos == 0) {
+					pontos = pontos(textos, prefixo, PONTOS_TEXTO_EXATO, PONTOS_TEXTO_PREFIXO);
+				}
+				if (pontos == 0) {
+					return 0;
+				}
+				total += pontos;
+			}
+			return total;
+		}
+
+		private static int pontos(String[] termos, String prefixo, int exato, int comPrefixo) {
+			int posicao = Arrays.binarySearch(termos, prefixo);
+			if (posicao >= 0) {
+				return exato;
+			}
+			posicao = -posicao - 1;
+			if (posicao < termos.length && termos[posicao].startsWith(prefixo)) {
+				return comPrefixo;
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Item encontrado e sua pontuação.
+	 */
+	private static class Resultado {
+
+		private final Item item;
+		private final int pontos;
+
+		Resultado(Item item, int pontos) {
+			this.item = item;
+			this.pontos = pontos;
+		}
+	}
+
+}
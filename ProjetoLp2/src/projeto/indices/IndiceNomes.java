@@ -0,0 +1,134 @@
+package projeto.indices;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import projeto.Item;
+
+/**
+ * Índice de todos os itens do catálogo, sempre ordenado por nome, para que a
+ * listagem por nome seja lida diretamente, sem ordenar o catálogo.
+ *
+ * Itens de mesmo nome são listados por identificador, isto é, na ordem de
+ * cadastro. O índice é uma skip list concorrente: a listagem pode percorrê-lo
+ * em várias threads enquanto itens são cadastrados, removidos e renomeados,
+ * sem exceções e sem travar quem altera. O percurso não é um retrato do
+ * índice: um item cadastrado ou removido durante ele pode aparecer ou não, e
+ * como a renomeação retira o item e o adiciona na nova posição, um item
+ * renomeado durante o percurso pode ser visto duas vezes, uma com cada nome,
+ * ou nenhuma.
+ *
+ * @author igoratf
+ *
+ */
+
+public class IndiceNomes implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -2290845136620478317L;
+	private ConcurrentSkipListMap<Chave, Item> indice;
+
+	/**
+	 * Construtor do índice.
+	 */
+	public IndiceNomes() {
+		this.indice = new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * Adiciona um item ao índice.
+	 *
+	 * @param item
+	 *            é o item a ser adicionado
+	 */
+	public void adicionar(Item item) {
+		indice.put(new Chave(item.getNome(), item.getId()), item);
+	}
+
+	/**
+	 * Remove um item do índice.
+	 *
+	 * @param item
+	 *            é o item a ser removido
+	 */
+	public void remover(Item item) {
+		indice.remove(new Chave(item.getNome(), item.getId()), item);
+	}
+
+	/**
+	 * Reposiciona um item que teve o nome alterado, retirando-o da posição
+	 * anterior e adicionando-o na nova; as duas operações não são atômicas.
+	 *
+	 * @param item
+	 *            é o item com o novo nome
+	 * @param nomeAnterior
+	 *            é o nome antes da alteração
+	 */
+	public void nomeAlterado(Item item, String nomeAnterior) {
+		if (indice.remove(new Chave(nomeAnterior, item.getId()), item)) {
+			adicionar(item);
+		}
+	}
+
+	/**
+	 * Retorna os itens ordenados por nome. A coleção acompanha o índice, e
+	 * percorrê-la não impede alterações concorrentes.
+	 *
+	 * @return itens ordenados por nome
+	 */
+	public Collection<Item> emOrdem() {
+		return indice.values();
+	}
+
+	/**
+	 * Retorna os itens ordenados por nome que vêm depois da chave informada,
+	 * para continuar uma listagem paginada. A chave não precisa estar no
+	 * índice.
+	 *
+	 * @param nome
+	 *            é o nome da última chave já listada
+	 * @param id
+	 *            é o identificador da última chave já listada
+	 * @return itens seguintes ordenados por nome
+	 */
+	public Collection<Item> depoisDe(String nome, int id) {
+		return indice.tailMap(new Chave(nome, id), false).values();
+	}
+
+	/**
+	 * Retorna o número de itens do índice.
+	 *
+	 * @return tamanho
+	 */
+	public int tamanho() {
+		return indice.size();
+	}
+
+	/**
+	 * Chave imutável de um item no índice: nome e identificador crescentes.
+	 */
+	private static class Chave implements Comparable<Chave>, Serializable {
+
+		private static final long serialVersionUID = 5813207724401672209L;
+		private final String nome;
+		private final int id;
+
+		Chave(String nome, int id) {
+			this.nome = nome;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(Chave outra) {
+			int comparacao = nome.compareTo(outra.nome);
+			if (comparacao == 0) {
+				comparacao = Integer.compare(id, outra.id);
+			}
+			return comparacao;
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package projeto.indices;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import projeto.Item;
+
+/**
+ * Índice dos itens já emprestados, ordenado pelo número de empréstimos, para
+ * que o top 10 de itens seja lido diretamente, sem ordenar o catálogo.
+ *
+ * Empates são listados por nome do item e, depois, por identificador. Os
+ * métodos são sincronizados porque itens de usuários diferentes podem ser
+ * emprestados ao mesmo tempo.
+ *
+ * @author igoratf
+ *
+ */
+
+public class IndicePopularidade implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 8119563209457046170L;
+	private TreeMap<Posicao, Item> indice;
+
+	/**
+	 * Construtor do índice.
+	 */
+	public IndicePopularidade() {
+		this.indice = new TreeMap<>();
+	}
+
+	/**
+	 * Reposiciona um item cujo número de empréstimos foi alterado.
+	 *
+	 * @param item
+	 *            é o item com o novo número de empréstimos
+	 * @param numEmprestimosAnterior
+	 *            é o número de empréstimos antes da alteração
+	 */
+	public synchronized void emprestimoContado(Item item, int numEmprestimosAnterior) {
+		indice.remove(new Posicao(numEmprestimosAnterior, item.getNome(), item.getId()));
+		adicionar(item);
+	}
+
+	/**
+	 * Reposiciona um item que teve o nome alterado.
+	 *
+	 * @param item
+	 *            é o item com o novo nome
+	 * @param nomeAnterior
+	 *            é o nome antes da alteração
+	 */
+	public synchronized void nomeAlterado(Item item, String nomeAnterior) {
+		if (indice.remove(new Posicao(item.getNumEmprestimos(), nomeAnterior, item.getId())) != null) {
+			adicionar(item);
+		}
+	}
+
+	/**
+	 * Adiciona um item ao índice, caso ele já tenha sido emprestado.
+	 *
+	 * @param item
+	 *            é o item a ser adicionado
+	 */
+	public synchronized void adicionar(Item item) {
+		if (item.getNumEmprestimos() > 0) {
+			indice.put(new Posicao(item.getNumEmprestimos(), item.getNome(), item.getId()), item);
+		}
+	}
+
+	/**
+	 * Remove um item do índice.
+	 *
+	 * @param item
+	 *            é o item a ser removido
+	 */
+	public synchronized void remover(Item item) {
+		indice.remove(new Posicao(item.getNumEmprestimos(), item.getNome(), item.getId()));
+	}
+
+	/**
+	 * Retorna os itens mais emprestados, em ordem decrescente de empréstimos.
+	 *
+	 * @param quantidade
+	 *            é o número máximo de itens
+	 * @return lista de itens
+	 */
+	public synchronized List<Item> maisEmprestados(int quantidade) {
+		List<Item> lista = new ArrayList<>(quantidade);
+		for (Item item : indice.values()) {
+			if (lista.size() == quantidade) {
+				break;
+			}
+			lista.add(item);
+		}
+		return lista;
+	}
+
+	/**
+	 * Posição imutável de um item no índice: número de empréstimos decrescente,
+	 * depois nome e identificador crescentes.
+	 */
+	private static class Posicao implements Comparable<Posicao>, Serializable {
+
+		private static final long serialVersionUID = -4635178196305470772L;
+		private final int numEmprestimos;
+		private final String nome;
+		private final int id;
+
+		Posicao(int numEmprestimos, String nome, int id) {
+			this.numEmprestimos = numEmprestimos;
+			this.nome = nome;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(Posicao outra) {
+			int comparacao = Integer.compare(outra.numEmprestimos, numEmprestimos);
+			if (comparacao == 0) {
+				comparacao = nome.compareTo(outra.nome);
+			}
+			if (comparacao == 0) {
+				comparacao = Integer.compare(id, outra.id);
+			}
+			return comparacao;
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+package projeto.indices;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import projeto.Item;
+
+/**
+ * Índice de todos os itens do catálogo, sempre ordenado por valor, para que a
+ * listagem por valor seja lida diretamente e a busca por faixa de valor
+ * percorra apenas os itens da faixa.
+ *
+ * Itens de mesmo valor são listados por identificador, isto é, na ordem de
+ * cadastro. Como o índice de nomes, é uma skip list concorrente, que pode ser
+ * percorrida enquanto itens são cadastrados, removidos ou têm o valor
+ * alterado, com as mesmas garantias fracas: um item cujo valor muda durante o
+ * percurso pode ser visto duas vezes, uma com cada valor, ou nenhuma.
+ *
+ * @author igoratf
+ *
+ */
+
+public class IndiceValores implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 3349150512907164218L;
+	private ConcurrentSkipListMap<Chave, Item> indice;
+
+	/**
+	 * Construtor do índice.
+	 */
+	public IndiceValores() {
+		this.indice = new ConcurrentSkipListMap<>();
+	}
+
+	/**
+	 * Adiciona um item ao índice.
+	 *
+	 * @param item
+	 *            é o item a ser adicionado
+	 */
+	public void adicionar(Item item) {
+		indice.put(new Chave(item.getValor(), item.getId()), item);
+	}
+
+	/**
+	 * Remove um item do índice.
+	 *
+	 * @param item
+	 *            é o item a ser removido
+	 */
+	public void remover(Item item) {
+		indice.remove(new Chave(item.getValor(), item.getId()), item);
+	}
+
+	/**
+	 * Reposiciona um item que teve o valor alterado, retirando-o da posição
+	 * anterior e adicionando-o na nova; as duas operações não são atômicas.
+	 *
+	 * @param item
+	 *            é o item com o novo valor
+	 * @param valorAnterior
+	 *            é o valor antes da alteração
+	 */
+	public void valorAlterado(Item item, double valorAnterior) {
+		if (indice.remove(new Chave(valorAnterior, item.getId()), item)) {
+			adicionar(item);
+		}
+	}
+
+	/**
+	 * Retorna os itens ordenados por valor. A coleção acompanha o índice, e
+	 * percorrê-la não impede alterações concorrentes.
+	 *
+	 * @return itens ordenados por valor
+	 */
+	public Collection<Item> emOrdem() {
+		return indice.values();
+	}
+
+	/**
+	 * Retorna, ordenados por valor, os itens com valor entre os limites
+	 * informados, inclusive. A faixa é localizada em tempo logarítmico e
+	 * percorrida sem visitar itens fora dela.
+	 *
+	 * @param valorMinimo
+	 *            é o menor valor da faixa
+	 * @param valorMaximo
+	 *            é o maior valor da faixa
+	 * @return itens da faixa ordenados por valor
+	 */
+	public Collection<Item> faixa(double valorMinimo, double valorMaximo) {
+		return indice.subMap(new Chave(valorMinimo, Integer.MIN_VALUE), true, new Chave(valorMaximo, Integer.MAX_VALUE),
+				true).values();
+	}
+
+	/**
+	 * Retorna os itens ordenados por valor que vêm depois da chave informada,
+	 * para continuar uma listagem paginada. A chave não precisa estar no
+	 * índice.
+	 *
+	 * @param valor
+	 *            é o valor da última chave já listada
+	 * @param id
+	 *            é o identificador da última chave já listada
+	 * @return itens seguintes ordenados por valor
+	 */
+	public Collection<Item> depoisDe(double valor, int id) {
+		return indice.tailMap(new Chave(valor, id), false).values();
+	}
+
+	/**
+	 * Retorna os itens da faixa de valor que vêm depois da chave informada,
+	 * para continuar uma busca paginada.
+	 *
+	 * @param valorMinimo
+	 *            é o menor valor da faixa
+	 * @param valorMaximo
+	 *            é o maior valor da faixa
+	 * @param valor
+	 *            é o valor da última chave já listada
+	 * @param id
+	 *            é o identificador da última chave já listada
+	 * @return itens seguintes da faixa ordenados por valor
+	 */
+	public Collection<Item> faixaDepoisDe(double valorMinimo, double valorMaximo, double valor, int id) {
+		Chave inicio = new Chave(valor, id);
+		Chave fim = new Chave(valorMaximo, Integer.MAX_VALUE);
+		if (inicio.compareTo(new Chave(valorMinimo, Integer.MIN_VALUE)) < 0) {
+			return faixa(valorMinimo, valorMaximo);
+		}
+		if (inicio.compareTo(fim) >= 0) {
+			return Collections.emptyList();
+		}
+		return indice.subMap(inicio, false, fim, true).values();
+	}
+
+	/**
+	 * Retorna o número de itens do índice.
+	 *
+	 * @return tamanho
+	 */
+	public int tamanho() {
+		return indice.size();
+	}
+
+	/**
+	 * Chave imutável de um item no índice: valor e identificador crescentes.
+	 */
+	private static class Chave implements Comparable<Chave>, Serializable {
+
+		private static final long serialVersionUID = -7069317813457290652L;
+		private final double valor;
+		private final int id;
+
+		Chave(double valor, int id) {
+			this.valor = valor;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(Chave outra) {
+			int comparacao = Double.compare(valor, outra.valor);
+			if (comparacao == 0) {
+				comparacao = Integer.compare(id, outra.id);
+			}
+			return comparacao;
+		}
+	}
+
+}
@@ -0,0 +1,211 @@
+package projeto.indices;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import projeto.Usuario;
+
+/**
+ * Ranking de Usuários ordenado por reputação, mantido a cada alteração de
+ * reputação para que as listagens de melhores e piores usuários não precisem
+ * ordenar todos os usuários.
+ *
+ * Empates de reputação são listados por nome e telefone, tanto entre os
+ * melhores quanto entre os piores. Os métodos são sincronizados, já que a
+ * reputação de usuários diferentes pode mudar ao mesmo tempo.
+ *
+ * @author caiosbl
+ * @version 1.0
+ *
+ */
+
+public class RankingReputacao implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -2217470861960839127L;
+	private TreeMap<Posicao, Usuario> ranking;
+
+	/**
+	 * Construtor do Ranking.
+	 */
+	public RankingReputacao() {
+		this.ranking = new TreeMap<>();
+	}
+
+	/**
+	 * Adiciona um usuário ao ranking.
+	 *
+	 * @param usuario
+	 *            Usuário a ser adicionado.
+	 */
+	public synchronized void adicionar(Usuario usuario) {
+		ranking.put(new Posicao(usuario.getReputacao(), usuario.getNome(), usuario.getNumCelular()), usuario);
+	}
+
+	/**
+	 * Remove um usuário do ranking.
+	 *
+	 * @param usuario
+	 *            Usuário a ser removido.
+	 */
+	public synchronized void remover(Usuario usuario) {
+		ranking.remove(new Posicao(usuario.getReputacao(), usuario.getNome(), usuario.getNumCelular()));
+	}
+
+	/**
+	 * Reposiciona um usuário cuja reputação foi alterada.
+	 *
+	 * @param usuario
+	 *            Usuário com a nova reputação.
+	 * @param reputacaoAnterior
+	 *            Reputação antes da alteração.
+	 */
+	public synchronized void reputacaoAlterada(Usuario usuario, double reputacaoAnterior) {
+		ranking.remove(new Posicao(reputacaoAnterior, usuario.getNome(), usuario.getNumCelular()));
+		adicionar(usuario);
+	}
+
+	/**
+	 * Reposiciona um usuário cujo nome ou telefone foi alterado.
+	 *
+	 * @param usuario
+	 *            Usuário com os novos dados.
+	 * @param nomeAnterior
+	 *            Nome antes da alteração.
+	 * @param telefoneAnterior
+	 *            Telefone antes da alteração.
+	 */
+	public synchronized void identificacaoAlterada(Usuario usuario, String nomeAnterior, String telefoneAnterior) {
+		ranking.remove(new Posicao(usuario.getReputacao(), nomeAnterior, telefoneAnterior));
+		adicionar(usuario);
+	}
+
+	/**
+	 * Retorna os usuários de maior reputação, da maior para a menor.
+	 *
+	 * @param quantidade
+	 *            Número máximo de usuários.
+	 * @return lista de usuários
+	 */
+	public synchronized List<Usuario> melhores(int quantidade) {
+		List<Usuario> lista = new ArrayList<>(Math.min(quantidade, ranking.size()));
+		for (Usuario usuario : ranking.values()) {
+			if (lista.size() == quantidade) {
+				break;
+			}
+			lista.add(usuario);
+		}
+		return lista;
+	}
+
+	/**
+	 * Retorna os usuários de maior reputação que vêm depois da posição
+	 * informada, para continuar uma listagem paginada do ranking.
+	 *
+	 * @param reputacao
+	 *            Reputação do último usuário já listado.
+	 * @param nome
+	 *            Nome do último usuário já listado.
+	 * @param telefone
+	 *            Telefone do último usuário já listado.
+	 * @param quantidade
+	 *            Número máximo de usuários.
+	 * @return lista de usuários
+	 */
+	public synchronized List<Usuario> melhoresDepoisDe(double reputacao, String nome, String telefone,
+			int quantidade) {
+		List<Usuario> lista = new ArrayList<>();
+		for (Usuario usuario : ranking.tailMap(new Posicao(reputacao, nome, telefone), false).values()) {
+			if (lista.size() == quantidade) {
+				break;
+			}
+			lista.add(usuario);
+		}
+		return lista;
+	}
+
+	/**
+	 * Retorna os usuários de menor reputação, da menor para a maior.
+	 *
+	 * @param quantidade
+	 *            Número máximo de usuários.
+	 * @return lista de usuários
+	 */
+	public synchronized List<Usuario> piores(int quantidade) {
+		List<Usuario> lista = new ArrayList<>(quantidade);
+		Map.Entry<Posicao, Usuario> ultimo = ranking.lastEntry();
+		while (ultimo != null && lista.size() < quantidade) {
+			Posicao inicioDoGrupo = Posicao.inicio(ultimo.getKey().reputacao);
+			for (Usuario usuario : ranking.subMap(inicioDoGrupo, true, ultimo.getKey(), true).values()) {
+				if (lista.size() == quantidade) {
+					break;
+				}
+				lista.add(usuario);
+			}
+			ultimo = ranking.lowerEntry(inicioDoGrupo);
+		}
+		return lista;
+	}
+
+	/**
+	 * Retorna o número de usuários no ranking.
+	 *
+	 * @return tamanho
+	 */
+	public synchronized int tamanho() {
+		return ranking.size();
+	}
+
+	/**
+	 * Posição imutável de um usuário no ranking: reputação decrescente, depois
+	 * nome e telefone crescentes.
+	 */
+	private static class Posicao implements Comparable<Posicao>, Serializable {
+
+		private static final long serialVersionUID = 5520416370947260353L;
+		private final double reputacao;
+		private final String nome;
+		private final String telefone;
+
+		Posicao(double reputacao, String nome, String telefone) {
+			this.reputacao = reputacao;
+			this.nome = nome;
+			this.telefone = telefone;
+		}
+
+		/**
+		 * Posição que antecede todos os usuários com a reputação informada.
+		 */
+		static Posicao inicio(double reputacao) {
+			return new Posicao(reputacao, null, null);
+		}
+
+		@Override
+		public int compareTo(Posicao outra) {
+			int comparacao = Double.compare(outra.reputacao, reputacao);
+			if (comparacao == 0) {
+				comparacao = comparaNulosPrimeiro(nome, outra.nome);
+			}
+			if (comparacao == 0) {
+				comparacao = comparaNulosPrimeiro(telefone, outra.telefone);
+			}
+			return comparacao;
+		}
+
+		private static int comparaNulosPrimeiro(String a, String b) {
+			if (a == null) {
+				return b == null ? 0 : -1;
+			}
+			if (b == null) {
+				return 1;
+			}
+			return a.compareTo(b);
+		}
+	}
+
+}
@@ -1,7 +1,11 @@
 package projeto.jogo;
 
+import java.io.IOException;
+
 import projeto.Item;
 import projeto.enums.Plataforma;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
 
 /**
  * Classe criada referente ao jogo eletronico que é uma subclasse de Item.
@@ -33,6 +37,25 @@ public class JogoEletronico extends Item {
 		this.plataforma = Plataforma.valueOf(plataforma);
 	}
 
+	/**
+	 * Construtor de JogoEletronico a partir de um snapshot binário.
+	 * 
+	 * @param entrada,
+	 *            entrada do snapshot.
+	 * @throws IOException
+	 *             caso a leitura falhe.
+	 */
+	public JogoEletronico(EntradaBinaria entrada) throws IOException {
+		super(entrada);
+		this.plataforma = entrada.lerEnum(Plataforma.class);
+	}
+
+	@Override
+	public void escrever(SaidaBinaria saida) throws IOException {
+		super.escrever(saida);
+		saida.escreverEnum(plataforma);
+	}
+
 	/**
 	 * Metodo para retornar a plataforma desse objeto. @return, retorna a String
 	 * plataforma.
@@ -69,11 +92,11 @@ public class JogoEletronico extends Item {
 	}
 
 	/**
-	 * Metodo sobreescrito do toString() para mostrar o nome do Jogo com padrão
+	 * Metodo sobreescrito do renderizar() para mostrar o nome do Jogo com padrão
 	 * alterado.
 	 */
 	@Override
-	public String toString() {
+	protected String renderizar() {
 		return String.format("JOGO ELETRONICO: %s, R$ %.1f, %s, %s", getNome(), getValor(), getEstado(),
 				this.plataforma.getPlataforma());
 	}
@@ -1,10 +1,13 @@
 package projeto.jogo;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import projeto.Item;
+import projeto.persistencia.EntradaBinaria;
+import projeto.persistencia.SaidaBinaria;
 
 /**
  * Classe correspondente a um jogo de tabuleiro, um tipo de item que pode ser
@@ -36,6 +39,34 @@ public class JogoTabuleiro extends Item {
 
 	}
 
+	/**
+	 * Construtor de um jogo de tabuleiro a partir de um snapshot binário
+	 * 
+	 * @param entrada
+	 *            é a entrada do snapshot
+	 * @throws IOException
+	 *             caso a leitura falhe
+	 */
+	public JogoTabuleiro(EntradaBinaria entrada) throws IOException {
+		super(entrada);
+		this.completo = entrada.lerBooleano();
+		int numPecas = entrada.lerTamanho();
+		this.pecasPerdidas = new ArrayList<String>(numPecas);
+		for (int i = 0; i < numPecas; i++) {
+			this.pecasPerdidas.add(entrada.lerTexto());
+		}
+	}
+
+	@Override
+	public void escrever(SaidaBinaria saida) throws IOException {
+		super.escrever(saida);
+		saida.escreverBooleano(completo);
+		saida.escreverTamanho(pecasPerdidas.size());
+		for (String peca : pecasPerdidas) {
+			saida.escreverTexto(peca);
+		}
+	}
+
 	/**
 	 * Método que compara uma lista de peças perdidas com a lista de peças
 	 * perdidas do jogo
@@ -102,6 +133,7 @@ public class JogoTabuleiro extends Item {
 	 */
 	public void adicionarPecaPerdida(String pecaPerdida) {
 		this.pecasPerdidas.add(pecaPerdida);
+		invalidarLinha();
 	}
 
 	/**
@@ -114,7 +146,7 @@ public class JogoTabuleiro extends Item {
 	}
 
 	@Override
-	public String toString() {
+	protected String renderizar() {
 		return String.format("JOGO DE TABULEIRO: %s, R$ %.1f, %s, %s", getNome(), getValor(), getEstado(),
 				existePecasPerdidas());
 	}
@@ -0,0 +1,152 @@
+package projeto.metricas;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências, em nanossegundos, de zero a uma hora, sem travas.
+ *
+ * As faixas são logarítmicas com subdivisões lineares: até 63 ns cada valor
+ * tem a sua faixa, e cada potência de 2 acima disso é dividida em 32 faixas
+ * iguais, de modo que um percentil é informado com erro relativo de no máximo
+ * 1/32. Latências acima de uma hora são contadas na última faixa.
+ *
+ * Registrar uma latência incrementa uma posição de um vetor atômico e dois
+ * acumuladores; várias threads podem registrar ao mesmo tempo sem se
+ * bloquear. As leituras percorrem o vetor enquanto outras threads registram,
+ * e por isso não são um retrato instantâneo.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class HistogramaLatencia {
+
+	private static final int BITS_SUBFAIXA = 5;
+	private static final long LATENCIA_MAXIMA = TimeUnit.HOURS.toNanos(1);
+	private static final int NUM_FAIXAS = faixa(LATENCIA_MAXIMA) + 1;
+
+	private final AtomicLongArray contagens;
+	private final LongAdder soma;
+	private final LongAccumulator maxima;
+
+	/**
+	 * Construtor do histograma vazio.
+	 */
+	public HistogramaLatencia() {
+		this.contagens = new AtomicLongArray(NUM_FAIXAS);
+		this.soma = new LongAdder();
+		this.maxima = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Registra uma latência.
+	 *
+	 * @param nanos
+	 *            Latência em nanossegundos; valores negativos contam como 0.
+	 */
+	public void registrar(long nanos) {
+		long latencia = Math.max(0, Math.min(nanos, LATENCIA_MAXIMA));
+		contagens.incrementAndGet(faixa(latencia));
+		soma.add(latencia);
+		maxima.accumulate(latencia);
+	}
+
+	/**
+	 * Retorna o número de latências registradas.
+	 *
+	 * @return contagem
+	 */
+	public long getContagem() {
+		long contagem = 0;
+		for (int i = 0; i < NUM_FAIXAS; i++) {
+			contagem += contagens.get(i);
+		}
+		return contagem;
+	}
+
+	/**
+	 * Retorna a latência média.
+	 *
+	 * @return média em nanossegundos, ou 0 se não houver registros
+	 */
+	public double getMedia() {
+		long contagem = getContagem();
+		return contagem == 0 ? 0 : (double) soma.sum() / contagem;
+	}
+
+	/**
+	 * Retorna a maior latência registrada.
+	 *
+	 * @return máxima em nanossegundos
+	 */
+	public long getMaxima() {
+		return maxima.get();
+	}
+
+	/**
+	 * Retorna a latência abaixo da qual está o percentual informado dos
+	 * registros, arredondada para o limite superior da sua faixa.
+	 *
+	 * @param percentual
+	 *            Percentual entre 0 e 100.
+	 * @return latência em nanossegundos, ou 0 se não houver registros
+	 */
+	public long percentil(double percentual) {
+		if (Double.isNaN(percentual) || percentual < 0 || percentual > 100) {
+			throw new IllegalArgumentException("Percentual invalido");
+		}
+		long[] retrato = new long[NUM_FAIXAS];
+		long contagem = 0;
+		for (int i = 0; i < NUM_FAIXAS; i++) {
+			retrato[i] = contagens.get(i);
+			contagem += retrato[i];
+		}
+		if (contagem == 0) {
+			return 0;
+		}
+		long posicao = Math.max(1, (long) Math.ceil(percentual / 100 * contagem));
+		long acumulado = 0;
+		for (int i = 0; i < NUM_FAIXAS; i++) {
+			acumulado += retrato[i];
+			if (acumulado >= posicao) {
+				return Math.min(limiteSuperior(i), getMaxima());
+			}
+		}
+		return getMaxima();
+	}
+
+	/**
+	 * Esvazia o histograma. Registros feitos durante a limpeza podem ser
+	 * mantidos ou descartados.
+	 */
+	public void zerar() {
+		for (int i = 0; i < NUM_FAIXAS; i++) {
+			contagens.set(i, 0);
+		}
+		soma.reset();
+		maxima.reset();
+	}
+
+	/**
+	 * Calcula a faixa de uma latência: o deslocamento deixa os 6 bits mais
+	 * significativos, e cada deslocamento ocupa 32 faixas.
+	 */
+	private static int faixa(long latencia) {
+		int bits = 64 - Long.numberOfLeadingZeros(latencia);
+		int deslocamento = Math.max(0, bits - BITS_SUBFAIXA - 1);
+		return (int) ((deslocamento << BITS_SUBFAIXA) + (latencia >>> deslocamento));
+	}
+
+	/**
+	 * Retorna a maior latência contada na faixa informada.
+	 */
+	private static long limiteSuperior(int faixa) {
+		int deslocamento = Math.max(0, (faixa >> BITS_SUBFAIXA) - 1);
+		long base = faixa - ((long) deslocamento << BITS_SUBFAIXA);
+		return ((base + 1) << deslocamento) - 1;
+	}
+
+}
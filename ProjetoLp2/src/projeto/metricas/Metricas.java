@@ -0,0 +1,209 @@
+package projeto.metricas;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import projeto.utilitarios.Listagem;
+
+/**
+ * Métricas das operações da Facade: para cada operação, chamadas, erros e
+ * latências, medidas em volta da chamada ao Sistema.
+ *
+ * As métricas do processo ficam em global(), publicadas como MBeans no
+ * servidor JMX da plataforma: projeto:type=Metricas para o conjunto e
+ * projeto:type=Operacao,name=&lt;operacao&gt; para cada operação, criada na
+ * primeira chamada. A medição custa duas leituras do relógio e alguns
+ * incrementos sem trava, e pode ser desligada com a propriedade
+ * projeto.metricas=false.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class Metricas implements MetricasMBean {
+
+	private static final String DOMINIO = "projeto";
+	private static final Metricas GLOBAL = criarGlobal();
+
+	/**
+	 * Chamada medida que retorna um valor.
+	 */
+	@FunctionalInterface
+	public interface Chamada<T, E extends Exception> {
+		T executar() throws E;
+	}
+
+	/**
+	 * Chamada medida sem valor de retorno.
+	 */
+	@FunctionalInterface
+	public interface Acao<E extends Exception> {
+		void executar() throws E;
+	}
+
+	private final boolean ativas;
+	private final boolean publicadas;
+	private final ConcurrentHashMap<String, MetricasOperacao> operacoes;
+
+	/**
+	 * Construtor de um conjunto de métricas ativo e não publicado no JMX.
+	 */
+	public Metricas() {
+		this(true, false);
+	}
+
+	private Metricas(boolean ativas, boolean publicadas) {
+		this.ativas = ativas;
+		this.publicadas = publicadas;
+		this.operacoes = new ConcurrentHashMap<>();
+	}
+
+	private static Metricas criarGlobal() {
+		Metricas metricas = new Metricas(Boolean.parseBoolean(System.getProperty("projeto.metricas", "true")), true);
+		metricas.publicar(metricas, "type=Metricas");
+		return metricas;
+	}
+
+	/**
+	 * Retorna as métricas do processo, compartilhadas por todas as Facades.
+	 *
+	 * @return métricas globais
+	 */
+	public static Metricas global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Retorna as métricas de uma operação, criando-as na primeira vez.
+	 *
+	 * @param nome
+	 *            Nome da operação.
+	 * @return métricas da operação
+	 */
+	public MetricasOperacao operacao(String nome) {
+		MetricasOperacao metricas = operacoes.get(nome);
+		if (metricas == null) {
+			MetricasOperacao nova = new MetricasOperacao(nome);
+			metricas = operacoes.putIfAbsent(nome, nova);
+			if (metricas == null) {
+				metricas = nova;
+				publicar(nova, "type=Operacao,name=" + nome);
+			}
+		}
+		return metricas;
+	}
+
+	/**
+	 * Executa uma chamada registrando sua latência e, se ela lançar uma
+	 * exceção, o erro, que é relançado.
+	 *
+	 * @param nome
+	 *            Nome da operação.
+	 * @param chamada
+	 *            Chamada medida.
+	 * @return valor retornado pela chamada
+	 * @throws E
+	 *             Exceção lançada pela chamada.
+	 */
+	public <T, E extends Exception> T medir(String nome, Chamada<T, E> chamada) throws E {
+		if (!ativas) {
+			return chamada.executar();
+		}
+		MetricasOperacao metricas = operacao(nome);
+		long inicio = System.nanoTime();
+		T resultado;
+		try {
+			resultado = chamada.executar();
+		} catch (Throwable erro) {
+			metricas.registrarErro(System.nanoTime() - inicio, erro);
+			throw erro;
+		}
+		metricas.registrar(System.nanoTime() - inicio);
+		return resultado;
+	}
+
+	/**
+	 * Executa uma chamada sem valor de retorno registrando sua latência e, se
+	 * ela lançar uma exceção, o erro, que é relançado.
+	 *
+	 * @param nome
+	 *            Nome da operação.
+	 * @param acao
+	 *            Chamada medida.
+	 * @throws E
+	 *             Exceção lançada pela chamada.
+	 */
+	public <E extends Exception> void medir(String nome, Acao<E> acao) throws E {
+		if (!ativas) {
+			acao.executar();
+			return;
+		}
+		MetricasOperacao metricas = operacao(nome);
+		long inicio = System.nanoTime();
+		try {
+			acao.executar();
+		} catch (Throwable erro) {
+			metricas.registrarErro(System.nanoTime() - inicio, erro);
+			throw erro;
+		}
+		metricas.registrar(System.nanoTime() - inicio);
+	}
+
+	@Override
+	public String[] getOperacoes() {
+		return new TreeMap<>(operacoes).keySet().toArray(new String[0]);
+	}
+
+	/**
+	 * Escreve uma tabela com as métricas de cada operação, em ordem
+	 * alfabética, com as latências em microssegundos.
+	 *
+	 * @param saida
+	 *            Destino da tabela.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void escrever(Appendable saida) throws IOException {
+		saida.append(String.format(Locale.ROOT, "%-45s %10s %8s %10s %10s %10s %10s %10s %10s  %s%n", "operacao",
+				"chamadas", "erros", "media", "p50", "p90", "p99", "p99.9", "maxima", "erros por tipo"));
+		for (Map.Entry<String, MetricasOperacao> operacao : new TreeMap<>(operacoes).entrySet()) {
+			MetricasOperacao metricas = operacao.getValue();
+			saida.append(String.format(Locale.ROOT, "%-45s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f  %s%n",
+					operacao.getKey(), metricas.getChamadas(), metricas.getErros(), metricas.getLatenciaMedia(),
+					metricas.getLatenciaP50(), metricas.getLatenciaP90(), metricas.getLatenciaP99(),
+					metricas.getLatenciaP999(), metricas.getLatenciaMaxima(), metricas.getErrosPorTipo()));
+		}
+	}
+
+	@Override
+	public String emTexto() {
+		return Listagem.emTexto(this::escrever);
+	}
+
+	@Override
+	public void zerar() {
+		for (MetricasOperacao metricas : operacoes.values()) {
+			metricas.zerar();
+		}
+	}
+
+	private void publicar(Object mbean, String propriedades) {
+		if (!publicadas) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mbean,
+					new ObjectName(DOMINIO + ":" + propriedades));
+		} catch (JMException | SecurityException e) {
+			// as métricas continuam disponíveis em texto
+		}
+	}
+
+}
@@ -0,0 +1,18 @@
+package projeto.metricas;
+
+/**
+ * Interface JMX do conjunto de métricas das operações da Facade.
+ *
+ * @author caiosbl
+ *
+ */
+
+public interface MetricasMBean {
+
+	public String[] getOperacoes();
+
+	public String emTexto();
+
+	public void zerar();
+
+}
@@ -0,0 +1,142 @@
+package projeto.metricas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de uma operação: número de chamadas, número de erros por tipo de
+ * exceção e histograma de latências. Chamadas que terminam em erro também
+ * entram no histograma.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class MetricasOperacao implements MetricasOperacaoMBean {
+
+	private static final double NANOS_POR_MICRO = 1_000.0;
+
+	private final String nome;
+	private final HistogramaLatencia latencias;
+	private final LongAdder erros;
+	private final ConcurrentHashMap<String, LongAdder> errosPorTipo;
+
+	/**
+	 * Construtor das métricas vazias.
+	 *
+	 * @param nome
+	 *            Nome da operação.
+	 */
+	public MetricasOperacao(String nome) {
+		this.nome = nome;
+		this.latencias = new HistogramaLatencia();
+		this.erros = new LongAdder();
+		this.errosPorTipo = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Registra uma chamada concluída.
+	 *
+	 * @param nanos
+	 *            Latência da chamada em nanossegundos.
+	 */
+	public void registrar(long nanos) {
+		latencias.registrar(nanos);
+	}
+
+	/**
+	 * Registra uma chamada que lançou uma exceção.
+	 *
+	 * @param nanos
+	 *            Latência da chamada em nanossegundos.
+	 * @param erro
+	 *            Exceção lançada.
+	 */
+	public void registrarErro(long nanos, Throwable erro) {
+		latencias.registrar(nanos);
+		erros.increment();
+		errosPorTipo.computeIfAbsent(erro.getClass().getSimpleName(), tipo -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Retorna o histograma de latências, em nanossegundos.
+	 *
+	 * @return histograma
+	 */
+	public HistogramaLatencia getLatencias() {
+		return latencias;
+	}
+
+	@Override
+	public String getNome() {
+		return nome;
+	}
+
+	@Override
+	public long getChamadas() {
+		return latencias.getContagem();
+	}
+
+	@Override
+	public long getErros() {
+		return erros.sum();
+	}
+
+	/**
+	 * Retorna o número de erros de cada tipo de exceção.
+	 *
+	 * @return erros por nome simples da classe da exceção, em ordem alfabética
+	 */
+	public Map<String, Long> contarErrosPorTipo() {
+		Map<String, Long> contagens = new TreeMap<>();
+		for (Map.Entry<String, LongAdder> tipo : errosPorTipo.entrySet()) {
+			contagens.put(tipo.getKey(), tipo.getValue().sum());
+		}
+		return contagens;
+	}
+
+	@Override
+	public String getErrosPorTipo() {
+		return contarErrosPorTipo().toString();
+	}
+
+	@Override
+	public double getLatenciaMedia() {
+		return latencias.getMedia() / NANOS_POR_MICRO;
+	}
+
+	@Override
+	public double getLatenciaP50() {
+		return latencias.percentil(50) / NANOS_POR_MICRO;
+	}
+
+	@Override
+	public double getLatenciaP90() {
+		return latencias.percentil(90) / NANOS_POR_MICRO;
+	}
+
+	@Override
+	public double getLatenciaP99() {
+		return latencias.percentil(99) / NANOS_POR_MICRO;
+	}
+
+	@Override
+	public double getLatenciaP999() {
+		return latencias.percentil(99.9) / NANOS_POR_MICRO;
+	}
+
+	@Override
+	public double getLatenciaMaxima() {
+		return latencias.getMaxima() / NANOS_POR_MICRO;
+	}
+
+	@Override
+	public void zerar() {
+		latencias.zerar();
+		erros.reset();
+		errosPorTipo.clear();
+	}
+
+}
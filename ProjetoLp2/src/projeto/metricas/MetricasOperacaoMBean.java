@@ -0,0 +1,35 @@
+package projeto.metricas;
+
+/**
+ * Interface JMX das métricas de uma operação da Facade. As latências são
+ * informadas em microssegundos.
+ *
+ * @author caiosbl
+ *
+ */
+
+public interface MetricasOperacaoMBean {
+
+	public String getNome();
+
+	public long getChamadas();
+
+	public long getErros();
+
+	public String getErrosPorTipo();
+
+	public double getLatenciaMedia();
+
+	public double getLatenciaP50();
+
+	public double getLatenciaP90();
+
+	public double getLatenciaP99();
+
+	public double getLatenciaP999();
+
+	public double getLatenciaMaxima();
+
+	public void zerar();
+
+}
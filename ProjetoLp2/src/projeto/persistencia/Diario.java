@@ -0,0 +1,376 @@
+package projeto.persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de operações do sistema, gravado apenas por acréscimo. Cada operação
+ * que altera o sistema vira um registro com tamanho, CRC32 e conteúdo,
+ * entregue ao sistema operacional assim que gravado. A sincronização com o
+ * disco (fsync) é feita quando um lote de registros se completa ou, se houver
+ * um intervalo, periodicamente por uma thread própria, o que limita o tempo
+ * que um registro fica sem sincronizar mesmo com poucas operações. O diário
+ * pode ser usado por várias threads ao mesmo tempo.
+ * 
+ * A gravação de um registro e a sincronização são separadas: quem grava sob
+ * as travas do sistema chama {@link #concluir(long)} depois de liberá-las, e
+ * quem chega a uma sincronização já em andamento espera por ela e não repete
+ * o fsync se o seu registro já foi coberto.
+ * 
+ * Na leitura, um registro incompleto ou com CRC inválido marca o fim do
+ * diário: ele e o que vier depois são descartados.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public class Diario {
+
+	/**
+	 * Quantidade padrão de registros por sincronização com o disco.
+	 */
+	public static final int LOTE_PADRAO = 32;
+	/**
+	 * Intervalo padrão, em milissegundos, entre sincronizações periódicas.
+	 */
+	public static final long INTERVALO_PADRAO = 1000;
+	private static final int TAMANHO_MAXIMO_REGISTRO = 1 << 20;
+
+	private final FileChannel canal;
+	private final int lote;
+	private final Object sincronizacao;
+	private final ScheduledExecutorService agendador;
+	private long ultimoNumero;
+	private volatile long sincronizado;
+	private volatile IOException falhaAgendada;
+
+	/**
+	 * Abre o diário para acréscimo de registros.
+	 * 
+	 * @param arquivo
+	 *            Arquivo do diário.
+	 * @param ultimoNumero
+	 *            Número do último registro já aplicado ao sistema.
+	 * @param lote
+	 *            Quantidade de registros por sincronização com o disco.
+	 * @throws IOException
+	 *             Caso o arquivo não possa ser aberto.
+	 */
+	public Diario(File arquivo, long ultimoNumero, int lote) throws IOException {
+		this(arquivo, ultimoNumero, lote, 0);
+	}
+
+	/**
+	 * Abre o diário para acréscimo de registros, sincronizando os registros
+	 * pendentes periodicamente.
+	 * 
+	 * @param arquivo
+	 *            Arquivo do diário.
+	 * @param ultimoNumero
+	 *            Número do último registro já aplicado ao sistema.
+	 * @param lote
+	 *            Quantidade de registros por sincronização com o disco.
+	 * @param intervalo
+	 *            Intervalo máximo, em milissegundos, entre a gravação de um
+	 *            registro e a sua sincronização, ou 0 para sincronizar apenas
+	 *            por lote.
+	 * @throws IOException
+	 *             Caso o arquivo não possa ser aberto.
+	 */
+	public Diario(File arquivo, long ultimoNumero, int lote, long intervalo) throws IOException {
+		if (lote < 1) {
+			throw new IllegalArgumentException("Lote de sincronizacao invalido");
+		}
+		if (intervalo < 0) {
+			throw new IllegalArgumentException("Intervalo de sincronizacao invalido");
+		}
+		this.canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		this.canal.position(canal.size());
+		this.lote = lote;
+		this.sincronizacao = new Object();
+		this.ultimoNumero = ultimoNumero;
+		this.sincronizado = ultimoNumero;
+		if (intervalo == 0) {
+			this.agendador = null;
+		} else {
+			this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+				Thread thread = new Thread(tarefa, "diario-sincronizacao");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.agendador.scheduleWithFixedDelay(this::sincronizarAgendado, intervalo, intervalo,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Acrescenta uma operação ao diário.
+	 * 
+	 * @param operacao
+	 *            Nome da operação.
+	 * @param argumentos
+	 *            Argumentos da operação em texto.
+	 * @throws IOException
+	 *             Caso o registro não possa ser gravado.
+	 */
+	public void registrar(String operacao, String... argumentos) throws IOException {
+		concluir(acrescentar(codificar(operacao, argumentos), false));
+	}
+
+	/**
+	 * Codifica uma operação para ser acrescentada depois ao diário, o que
+	 * permite validá-la antes de aplicá-la ao sistema.
+	 * 
+	 * @param operacao
+	 *            Nome da operação.
+	 * @param argumentos
+	 *            Argumentos da operação em texto.
+	 * @return operação codificada
+	 * @throws IOException
+	 *             Caso a operação não possa ser codificada.
+	 */
+	public static byte[] codificar(String operacao, String... argumentos) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream conteudo = new DataOutputStream(bytes);
+		try {
+			conteudo.writeUTF(operacao);
+			conteudo.writeShort(argumentos.length);
+			for (String argumento : argumentos) {
+				conteudo.writeBoolean(argumento != null);
+				if (argumento != null) {
+					conteudo.writeUTF(argumento);
+				}
+			}
+		} catch (UTFDataFormatException e) {
+			throw new IllegalArgumentException("Argumento muito grande");
+		}
+		conteudo.close();
+		if (bytes.size() + 9 > TAMANHO_MAXIMO_REGISTRO) {
+			throw new IllegalArgumentException("Argumento muito grande");
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Acrescenta ao diário uma operação já codificada, com o próximo número de
+	 * registro. O número e a gravação são feitos juntos, de modo que a ordem
+	 * dos números é a ordem no arquivo mesmo com várias threads gravando. O
+	 * registro não é sincronizado aqui: quem grava chama
+	 * {@link #concluir(long)} com o número retornado.
+	 * 
+	 * Uma operação que lançou exceção também é registrada, marcada como
+	 * falha, porque pode ter alterado o sistema antes de falhar.
+	 * 
+	 * @param operacao
+	 *            Operação codificada por {@link #codificar(String, String...)}.
+	 * @param falhou
+	 *            Se a operação lançou exceção ao ser aplicada.
+	 * @return número do registro
+	 * @throws IOException
+	 *             Caso o registro não possa ser gravado ou a última
+	 *             sincronização periódica tenha falhado.
+	 */
+	public synchronized long acrescentar(byte[] operacao, boolean falhou) throws IOException {
+		IOException falha = falhaAgendada;
+		if (falha != null) {
+			throw new IOException("Falha na sincronizacao do diario", falha);
+		}
+		byte[] dados = ByteBuffer.allocate(9 + operacao.length).putLong(ultimoNumero + 1).put(operacao)
+				.put((byte) (falhou ? 1 : 0)).array();
+		ByteBuffer registro = ByteBuffer.allocate(8 + dados.length);
+		registro.putInt(dados.length);
+		registro.putInt(crc(dados));
+		registro.put(dados);
+		registro.flip();
+		while (registro.hasRemaining()) {
+			canal.write(registro);
+		}
+
+		ultimoNumero++;
+		return ultimoNumero;
+	}
+
+	/**
+	 * Sincroniza o diário com o disco se o registro informado completou um
+	 * lote desde a última sincronização. Deve ser chamado sem as travas do
+	 * sistema, para que o fsync não segure as outras operações.
+	 * 
+	 * @param numero
+	 *            Número retornado por {@link #acrescentar(byte[], boolean)}.
+	 * @throws IOException
+	 *             Caso a sincronização falhe.
+	 */
+	public void concluir(long numero) throws IOException {
+		if (numero - sincronizado >= lote) {
+			sincronizarAte(numero);
+		}
+	}
+
+	/**
+	 * Força a gravação em disco dos registros pendentes.
+	 * 
+	 * @throws IOException
+	 *             Caso a sincronização falhe.
+	 */
+	public void sincronizar() throws IOException {
+		sincronizarAte(getUltimoNumero());
+	}
+
+	/**
+	 * Força a gravação em disco até o registro informado. Os registros
+	 * gravados até o início do fsync são cobertos por ele, e quem esperava
+	 * por um registro já coberto não repete o fsync.
+	 */
+	private void sincronizarAte(long numero) throws IOException {
+		synchronized (sincronizacao) {
+			if (sincronizado >= numero || !canal.isOpen()) {
+				return;
+			}
+			long ate = getUltimoNumero();
+			canal.force(false);
+			sincronizado = ate;
+		}
+	}
+
+	private void sincronizarAgendado() {
+		try {
+			sincronizar();
+		} catch (IOException e) {
+			falhaAgendada = e;
+		}
+	}
+
+	/**
+	 * Esvazia o diário, depois que o sistema foi salvo por completo.
+	 * 
+	 * @throws IOException
+	 *             Caso o arquivo não possa ser truncado.
+	 */
+	public void truncar() throws IOException {
+		synchronized (sincronizacao) {
+			synchronized (this) {
+				canal.truncate(0);
+				canal.position(0);
+				canal.force(true);
+				sincronizado = ultimoNumero;
+			}
+		}
+	}
+
+	/**
+	 * Sincroniza e fecha o diário.
+	 * 
+	 * @throws IOException
+	 *             Caso a sincronização falhe.
+	 */
+	public void fechar() throws IOException {
+		if (agendador != null) {
+			agendador.shutdown();
+		}
+		synchronized (sincronizacao) {
+			try {
+				sincronizar();
+			} finally {
+				canal.close();
+			}
+		}
+	}
+
+	/**
+	 * Retorna o número do último registro gravado.
+	 * 
+	 * @return número do registro
+	 */
+	public synchronized long getUltimoNumero() {
+		return ultimoNumero;
+	}
+
+	/**
+	 * Retorna o número do último registro sincronizado com o disco.
+	 * 
+	 * @return número do registro
+	 */
+	public long getUltimoSincronizado() {
+		return sincronizado;
+	}
+
+	/**
+	 * Lê os registros válidos de um diário. Caso o final do arquivo esteja
+	 * incompleto ou corrompido, ele é truncado no último registro válido.
+	 * 
+	 * @param arquivo
+	 *            Arquivo do diário.
+	 * @return registros na ordem em que foram gravados
+	 * @throws IOException
+	 *             Caso o arquivo não possa ser lido.
+	 */
+	public static List<RegistroDiario> ler(File arquivo) throws IOException {
+		List<RegistroDiario> registros = new ArrayList<>();
+		if (!arquivo.exists()) {
+			return registros;
+		}
+
+		long tamanhoValido = 0;
+		try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+			while (true) {
+				int tamanho = entrada.readInt();
+				int crcEsperado = entrada.readInt();
+				if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_REGISTRO) {
+					break;
+				}
+				byte[] dados = new byte[tamanho];
+				entrada.readFully(dados);
+				if (crc(dados) != crcEsperado) {
+					break;
+				}
+				registros.add(decodificar(dados));
+				tamanhoValido += 8 + tamanho;
+			}
+		} catch (EOFException e) {
+			// fim do diário ou registro incompleto
+		}
+
+		if (tamanhoValido < arquivo.length()) {
+			try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.WRITE)) {
+				canal.truncate(tamanhoValido);
+			}
+		}
+		return registros;
+	}
+
+	private static RegistroDiario decodificar(byte[] dados) throws IOException {
+		DataInputStream conteudo = new DataInputStream(new ByteArrayInputStream(dados));
+		long numero = conteudo.readLong();
+		String operacao = conteudo.readUTF();
+		String[] argumentos = new String[conteudo.readShort()];
+		for (int i = 0; i < argumentos.length; i++) {
+			argumentos[i] = conteudo.readBoolean() ? conteudo.readUTF() : null;
+		}
+		boolean falhou = conteudo.available() > 0 && conteudo.readBoolean();
+		return new RegistroDiario(numero, operacao, argumentos, falhou);
+	}
+
+	private static int crc(byte[] dados) {
+		CRC32 crc = new CRC32();
+		crc.update(dados, 0, dados.length);
+		return (int) crc.getValue();
+	}
+
+}
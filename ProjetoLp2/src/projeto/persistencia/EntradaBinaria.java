@@ -0,0 +1,175 @@
+package projeto.persistencia;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import projeto.utilitarios.Datas;
+
+/**
+ * Entrada do formato binário de snapshot, simétrica a SaidaBinaria.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public class EntradaBinaria {
+
+	private final DataInputStream entrada;
+	private final List<String> tabelaTextos;
+
+	/**
+	 * Construtor da entrada.
+	 * 
+	 * @param entrada
+	 *            Origem dos bytes.
+	 */
+	public EntradaBinaria(InputStream entrada) {
+		this.entrada = new DataInputStream(entrada);
+		this.tabelaTextos = new ArrayList<>();
+	}
+
+	/**
+	 * Lê um inteiro não negativo escrito por escreverTamanho.
+	 * 
+	 * @return inteiro
+	 * @throws IOException
+	 *             Caso a leitura falhe ou o valor seja inválido.
+	 */
+	public int lerTamanho() throws IOException {
+		long valor = lerVariavel();
+		if (valor > Integer.MAX_VALUE) {
+			throw new IOException("Tamanho invalido no snapshot");
+		}
+		return (int) valor;
+	}
+
+	/**
+	 * Lê um inteiro escrito por escreverInteiro.
+	 * 
+	 * @return inteiro
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public int lerInteiro() throws IOException {
+		int valor = (int) lerVariavel();
+		return (valor >>> 1) ^ -(valor & 1);
+	}
+
+	/**
+	 * Lê um inteiro longo escrito por escreverLongo.
+	 * 
+	 * @return inteiro longo
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public long lerLongo() throws IOException {
+		long valor = lerVariavel();
+		return (valor >>> 1) ^ -(valor & 1);
+	}
+
+	public double lerReal() throws IOException {
+		return entrada.readDouble();
+	}
+
+	public boolean lerBooleano() throws IOException {
+		return entrada.readBoolean();
+	}
+
+	/**
+	 * Lê um texto escrito por escreverTexto.
+	 * 
+	 * @return texto, possivelmente nulo
+	 * @throws IOException
+	 *             Caso a leitura falhe ou o índice seja inválido.
+	 */
+	public String lerTexto() throws IOException {
+		int codigo = lerTamanho();
+		if (codigo == SaidaBinaria.TEXTO_NULO) {
+			return null;
+		}
+		if (codigo == SaidaBinaria.TEXTO_NOVO) {
+			String texto = entrada.readUTF();
+			tabelaTextos.add(texto);
+			return texto;
+		}
+		int indice = codigo - SaidaBinaria.PRIMEIRO_INDICE;
+		if (indice >= tabelaTextos.size()) {
+			throw new IOException("Texto invalido no snapshot");
+		}
+		return tabelaTextos.get(indice);
+	}
+
+	/**
+	 * Lê uma data escrita por escreverData.
+	 * 
+	 * @return data, possivelmente nula
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public LocalDate lerData() throws IOException {
+		if (!entrada.readBoolean()) {
+			return null;
+		}
+		return LocalDate.ofEpochDay(lerLongo());
+	}
+
+	/**
+	 * Lê um dia epoch escrito por escreverDia ou escreverData.
+	 * 
+	 * @return dia epoch, ou Datas.SEM_DATA para uma data nula
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 */
+	public int lerDia() throws IOException {
+		if (!entrada.readBoolean()) {
+			return Datas.SEM_DATA;
+		}
+		long dia = lerLongo();
+		if (dia != (int) dia || dia == Datas.SEM_DATA) {
+			throw new IOException("Data invalida no snapshot");
+		}
+		return (int) dia;
+	}
+
+	/**
+	 * Lê uma constante de enum escrita por escreverEnum.
+	 * 
+	 * @param tipo
+	 *            Classe do enum.
+	 * @return constante, possivelmente nula
+	 * @throws IOException
+	 *             Caso a leitura falhe ou a posição seja inválida.
+	 */
+	public <E extends Enum<E>> E lerEnum(Class<E> tipo) throws IOException {
+		int codigo = lerTamanho();
+		if (codigo == 0) {
+			return null;
+		}
+		E[] constantes = tipo.getEnumConstants();
+		if (codigo > constantes.length) {
+			throw new IOException("Constante invalida no snapshot");
+		}
+		return constantes[codigo - 1];
+	}
+
+	public int lerInteiroFixo() throws IOException {
+		return entrada.readInt();
+	}
+
+	private long lerVariavel() throws IOException {
+		long valor = 0;
+		for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+			int b = entrada.readUnsignedByte();
+			valor |= (long) (b & 0x7F) << deslocamento;
+			if ((b & 0x80) == 0) {
+				return valor;
+			}
+		}
+		throw new IOException("Inteiro invalido no snapshot");
+	}
+
+}
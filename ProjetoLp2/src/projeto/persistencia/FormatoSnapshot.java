@@ -0,0 +1,100 @@
+package projeto.persistencia;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import projeto.Sistema;
+
+/**
+ * Formatos em que o sistema pode ser salvo. Cada formato usa o seu próprio
+ * arquivo, o que permite carregar um sistema salvo em um formato e salvá-lo
+ * no outro.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public enum FormatoSnapshot {
+
+	/**
+	 * Serialização padrão do Java, no arquivo sistema.dat.
+	 */
+	SERIALIZADO("sistema.dat") {
+		@Override
+		public Snapshot ler(InputStream origem) throws IOException, ClassNotFoundException {
+			ObjectInputStream obj = new ObjectInputStream(origem);
+			Sistema sistema = (Sistema) obj.readObject();
+			long ultimoRegistro;
+			try {
+				ultimoRegistro = obj.readLong();
+			} catch (EOFException e) {
+				// salvo antes do diário de operações
+				ultimoRegistro = 0;
+			}
+			return new Snapshot(sistema, ultimoRegistro);
+		}
+
+		@Override
+		public void gravar(Snapshot snapshot, OutputStream destino) throws IOException {
+			ObjectOutputStream obj = new ObjectOutputStream(destino);
+			obj.writeObject(snapshot.getSistema());
+			obj.writeLong(snapshot.getUltimoRegistro());
+			obj.flush();
+		}
+	},
+
+	/**
+	 * Formato binário próprio, no arquivo sistema.bin.
+	 */
+	BINARIO("sistema.bin") {
+		@Override
+		public Snapshot ler(InputStream origem) throws IOException {
+			return SnapshotBinario.ler(origem);
+		}
+
+		@Override
+		public void gravar(Snapshot snapshot, OutputStream destino) throws IOException {
+			SnapshotBinario.gravar(snapshot, destino);
+		}
+	};
+
+	private final String nomeArquivo;
+
+	FormatoSnapshot(String nomeArquivo) {
+		this.nomeArquivo = nomeArquivo;
+	}
+
+	public String getNomeArquivo() {
+		return nomeArquivo;
+	}
+
+	/**
+	 * Lê um snapshot neste formato.
+	 * 
+	 * @param origem
+	 *            Origem dos bytes.
+	 * @return snapshot lido
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 * @throws ClassNotFoundException
+	 *             Caso uma classe do snapshot não seja encontrada.
+	 */
+	public abstract Snapshot ler(InputStream origem) throws IOException, ClassNotFoundException;
+
+	/**
+	 * Grava um snapshot neste formato. O destino não é fechado.
+	 * 
+	 * @param snapshot
+	 *            Snapshot a ser gravado.
+	 * @param destino
+	 *            Destino dos bytes.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public abstract void gravar(Snapshot snapshot, OutputStream destino) throws IOException;
+
+}
@@ -0,0 +1,98 @@
+package projeto.persistencia;
+
+import java.util.Arrays;
+
+/**
+ * Registro de uma operação do diário: número de sequência, nome da operação do
+ * Sistema, seus argumentos em texto e se ela falhou ao ser aplicada.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public class RegistroDiario {
+
+	private final long numero;
+	private final String operacao;
+	private final String[] argumentos;
+	private final boolean falhou;
+
+	/**
+	 * Construtor do registro.
+	 * 
+	 * @param numero
+	 *            Número de sequência do registro.
+	 * @param operacao
+	 *            Nome da operação.
+	 * @param argumentos
+	 *            Argumentos da operação.
+	 * @param falhou
+	 *            Se a operação lançou exceção ao ser aplicada.
+	 */
+	public RegistroDiario(long numero, String operacao, String[] argumentos, boolean falhou) {
+		this.numero = numero;
+		this.operacao = operacao;
+		this.argumentos = argumentos.clone();
+		this.falhou = falhou;
+	}
+
+	public long getNumero() {
+		return numero;
+	}
+
+	public String getOperacao() {
+		return operacao;
+	}
+
+	/**
+	 * Retorna um argumento da operação.
+	 * 
+	 * @param indice
+	 *            Posição do argumento.
+	 * @return argumento
+	 */
+	public String getArgumento(int indice) {
+		return argumentos[indice];
+	}
+
+	/**
+	 * Retorna um argumento inteiro da operação.
+	 * 
+	 * @param indice
+	 *            Posição do argumento.
+	 * @return argumento
+	 */
+	public int getArgumentoInteiro(int indice) {
+		return Integer.parseInt(argumentos[indice]);
+	}
+
+	/**
+	 * Retorna um argumento real da operação.
+	 * 
+	 * @param indice
+	 *            Posição do argumento.
+	 * @return argumento
+	 */
+	public double getArgumentoReal(int indice) {
+		return Double.parseDouble(argumentos[indice]);
+	}
+
+	public int getNumArgumentos() {
+		return argumentos.length;
+	}
+
+	/**
+	 * Retorna se a operação lançou exceção ao ser aplicada.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isFalhou() {
+		return falhou;
+	}
+
+	@Override
+	public String toString() {
+		return numero + " " + operacao + " " + Arrays.toString(argumentos) + (falhou ? " (falhou)" : "");
+	}
+
+}
@@ -0,0 +1,185 @@
+package projeto.persistencia;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import projeto.utilitarios.Datas;
+
+/**
+ * Saída do formato binário de snapshot. Inteiros são gravados em tamanho
+ * variável, datas como dias desde 1970-01-01, enums pela posição da constante
+ * e textos por uma tabela: cada texto é escrito por completo só na primeira
+ * ocorrência e depois referenciado pelo seu índice.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public class SaidaBinaria {
+
+	static final int TEXTO_NULO = 0;
+	static final int TEXTO_NOVO = 1;
+	static final int PRIMEIRO_INDICE = 2;
+
+	private final DataOutputStream saida;
+	private final Map<String, Integer> tabelaTextos;
+
+	/**
+	 * Construtor da saída.
+	 * 
+	 * @param saida
+	 *            Destino dos bytes.
+	 */
+	public SaidaBinaria(OutputStream saida) {
+		this.saida = new DataOutputStream(saida);
+		this.tabelaTextos = new HashMap<>();
+	}
+
+	/**
+	 * Escreve um inteiro não negativo em tamanho variável.
+	 * 
+	 * @param valor
+	 *            Inteiro não negativo.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverTamanho(int valor) throws IOException {
+		if (valor < 0) {
+			throw new IllegalArgumentException("Tamanho invalido");
+		}
+		escreverVariavel(valor);
+	}
+
+	/**
+	 * Escreve um inteiro qualquer em tamanho variável.
+	 * 
+	 * @param valor
+	 *            Inteiro.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverInteiro(int valor) throws IOException {
+		escreverVariavel(((valor << 1) ^ (valor >> 31)) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Escreve um inteiro longo qualquer em tamanho variável.
+	 * 
+	 * @param valor
+	 *            Inteiro longo.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverLongo(long valor) throws IOException {
+		escreverVariavel((valor << 1) ^ (valor >> 63));
+	}
+
+	public void escreverReal(double valor) throws IOException {
+		saida.writeDouble(valor);
+	}
+
+	public void escreverBooleano(boolean valor) throws IOException {
+		saida.writeBoolean(valor);
+	}
+
+	/**
+	 * Escreve um texto, possivelmente nulo, pela tabela de textos.
+	 * 
+	 * @param texto
+	 *            Texto a ser escrito.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverTexto(String texto) throws IOException {
+		if (texto == null) {
+			escreverVariavel(TEXTO_NULO);
+			return;
+		}
+		Integer indice = tabelaTextos.get(texto);
+		if (indice != null) {
+			escreverVariavel(PRIMEIRO_INDICE + indice);
+			return;
+		}
+		tabelaTextos.put(texto, tabelaTextos.size());
+		escreverVariavel(TEXTO_NOVO);
+		saida.writeUTF(texto);
+	}
+
+	/**
+	 * Escreve uma data, possivelmente nula.
+	 * 
+	 * @param data
+	 *            Data a ser escrita.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverData(LocalDate data) throws IOException {
+		saida.writeBoolean(data != null);
+		if (data != null) {
+			escreverLongo(data.toEpochDay());
+		}
+	}
+
+	/**
+	 * Escreve um dia epoch no mesmo formato de escreverData; Datas.SEM_DATA é
+	 * escrito como data nula.
+	 * 
+	 * @param dia
+	 *            Dia epoch a ser escrito.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverDia(int dia) throws IOException {
+		saida.writeBoolean(dia != Datas.SEM_DATA);
+		if (dia != Datas.SEM_DATA) {
+			escreverLongo(dia);
+		}
+	}
+
+	/**
+	 * Escreve uma constante de enum, possivelmente nula.
+	 * 
+	 * @param constante
+	 *            Constante a ser escrita.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverEnum(Enum<?> constante) throws IOException {
+		escreverVariavel(constante == null ? 0 : constante.ordinal() + 1);
+	}
+
+	/**
+	 * Escreve um inteiro de 32 bits em tamanho fixo.
+	 * 
+	 * @param valor
+	 *            Inteiro.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void escreverInteiroFixo(int valor) throws IOException {
+		saida.writeInt(valor);
+	}
+
+	/**
+	 * Descarrega os bytes pendentes no destino.
+	 * 
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public void descarregar() throws IOException {
+		saida.flush();
+	}
+
+	private void escreverVariavel(long valor) throws IOException {
+		while ((valor & ~0x7FL) != 0) {
+			saida.writeByte((int) ((valor & 0x7F) | 0x80));
+			valor >>>= 7;
+		}
+		saida.writeByte((int) valor);
+	}
+
+}
@@ -0,0 +1,39 @@
+package projeto.persistencia;
+
+import projeto.Sistema;
+
+/**
+ * Versão salva do sistema, junto com o número do último registro do diário
+ * que ela já inclui.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public class Snapshot {
+
+	private final Sistema sistema;
+	private final long ultimoRegistro;
+
+	/**
+	 * Construtor do snapshot.
+	 * 
+	 * @param sistema
+	 *            Sistema salvo.
+	 * @param ultimoRegistro
+	 *            Número do último registro do diário incluído no sistema.
+	 */
+	public Snapshot(Sistema sistema, long ultimoRegistro) {
+		this.sistema = sistema;
+		this.ultimoRegistro = ultimoRegistro;
+	}
+
+	public Sistema getSistema() {
+		return sistema;
+	}
+
+	public long getUltimoRegistro() {
+		return ultimoRegistro;
+	}
+
+}
@@ -0,0 +1,152 @@
+package projeto.persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import projeto.Item;
+import projeto.Sistema;
+import projeto.bluray.Bluray;
+import projeto.bluray.BlurayFilme;
+import projeto.bluray.BluraySeries;
+import projeto.bluray.BlurayShow;
+import projeto.jogo.JogoEletronico;
+import projeto.jogo.JogoTabuleiro;
+
+/**
+ * Formato binário de snapshot do sistema. O arquivo começa com uma assinatura
+ * e a versão do formato, seguidas do número do último registro do diário e do
+ * sistema, escrito por Sistema.escrever.
+ * 
+ * @author caiosbl
+ *
+ */
+
+public final class SnapshotBinario {
+
+	/**
+	 * Assinatura do formato: "LP2S" em ASCII.
+	 */
+	public static final int ASSINATURA = 0x4C503253;
+	/**
+	 * Versão atual do formato. A versão 2 acrescenta o histórico de reputação
+	 * depois dos usuários; snapshots da versão 1 continuam sendo lidos.
+	 */
+	public static final int VERSAO = 2;
+
+	private static final int JOGO_ELETRONICO = 1;
+	private static final int JOGO_TABULEIRO = 2;
+	private static final int BLURAY = 3;
+	private static final int BLURAY_FILME = 4;
+	private static final int BLURAY_SHOW = 5;
+	private static final int BLURAY_SERIES = 6;
+
+	private SnapshotBinario() {
+	}
+
+	/**
+	 * Grava um snapshot no formato binário.
+	 * 
+	 * @param snapshot
+	 *            Snapshot a ser gravado.
+	 * @param destino
+	 *            Destino dos bytes.
+	 * @throws IOException
+	 *             Caso a escrita falhe.
+	 */
+	public static void gravar(Snapshot snapshot, OutputStream destino) throws IOException {
+		SaidaBinaria saida = new SaidaBinaria(new BufferedOutputStream(destino));
+		saida.escreverInteiroFixo(ASSINATURA);
+		saida.escreverTamanho(VERSAO);
+		saida.escreverLongo(snapshot.getUltimoRegistro());
+		snapshot.getSistema().escrever(saida);
+		saida.descarregar();
+	}
+
+	/**
+	 * Lê um snapshot no formato binário.
+	 * 
+	 * @param origem
+	 *            Origem dos bytes.
+	 * @return snapshot lido
+	 * @throws IOException
+	 *             Caso a leitura falhe ou o arquivo não esteja no formato.
+	 */
+	public static Snapshot ler(InputStream origem) throws IOException {
+		EntradaBinaria entrada = new EntradaBinaria(new BufferedInputStream(origem));
+		if (entrada.lerInteiroFixo() != ASSINATURA) {
+			throw new IOException("Arquivo nao e um snapshot binario");
+		}
+		int versao = entrada.lerTamanho();
+		if (versao < 1 || versao > VERSAO) {
+			throw new IOException("Versao de snapshot nao suportada: " + versao);
+		}
+		long ultimoRegistro = entrada.lerLongo();
+		return new Snapshot(new Sistema(entrada, versao), ultimoRegistro);
+	}
+
+	/**
+	 * Escreve um item precedido do código do seu tipo.
+	 * 
+	 * @param saida
+	 *            Saída do snapshot.
+	 * @param item
+	 *            Item a ser escrito.
+	 * @throws IOException
+	 *             Caso a escrita falhe ou o tipo seja desconhecido.
+	 */
+	public static void escreverItem(SaidaBinaria saida, Item item) throws IOException {
+		saida.escreverTamanho(tipoDoItem(item));
+		item.escrever(saida);
+	}
+
+	/**
+	 * Lê um item escrito por escreverItem.
+	 * 
+	 * @param entrada
+	 *            Entrada do snapshot.
+	 * @return item lido
+	 * @throws IOException
+	 *             Caso a leitura falhe ou o tipo seja desconhecido.
+	 */
+	public static Item lerItem(EntradaBinaria entrada) throws IOException {
+		int tipo = entrada.lerTamanho();
+		switch (tipo) {
+		case JOGO_ELETRONICO:
+			return new JogoEletronico(entrada);
+		case JOGO_TABULEIRO:
+			return new JogoTabuleiro(entrada);
+		case BLURAY:
+			return new Bluray(entrada);
+		case BLURAY_FILME:
+			return new BlurayFilme(entrada);
+		case BLURAY_SHOW:
+			return new BlurayShow(entrada);
+		case BLURAY_SERIES:
+			return new BluraySeries(entrada);
+		default:
+			throw new IOException("Tipo de item invalido no snapshot: " + tipo);
+		}
+	}
+
+	private static int tipoDoItem(Item item) throws IOException {
+		Class<?> classe = item.getClass();
+		if (classe == JogoEletronico.class) {
+			return JOGO_ELETRONICO;
+		} else if (classe == JogoTabuleiro.class) {
+			return JOGO_TABULEIRO;
+		} else if (classe == Bluray.class) {
+			return BLURAY;
+		} else if (classe == BlurayFilme.class) {
+			return BLURAY_FILME;
+		} else if (classe == BlurayShow.class) {
+			return BLURAY_SHOW;
+		} else if (classe == BluraySeries.class) {
+			return BLURAY_SERIES;
+		}
+		throw new IOException("Tipo de item sem codigo no snapshot: " + classe.getName());
+	}
+
+}
@@ -0,0 +1,27 @@
+package projeto.roteiro;
+
+import projeto.Facade;
+
+/**
+ * Comando de um roteiro, já com os argumentos convertidos e ligado ao método
+ * correspondente da Facade.
+ *
+ * @author caiosbl
+ *
+ */
+
+@FunctionalInterface
+public interface Comando {
+
+	/**
+	 * Executa o comando.
+	 *
+	 * @param facade
+	 *            Facade que recebe o comando.
+	 * @return retorno do método da Facade, ou null se o método não retorna nada
+	 * @throws Exception
+	 *             A exceção lançada pela Facade.
+	 */
+	String executar(Facade facade) throws Exception;
+
+}
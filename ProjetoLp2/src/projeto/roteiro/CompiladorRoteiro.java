@@ -0,0 +1,398 @@
+package projeto.roteiro;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compila roteiros no formato do EasyAccept (os arquivos us*_test.txt) em
+ * comandos ligados diretamente aos métodos da Facade.
+ *
+ * Cada linha é lida uma única vez: o comando é escolhido pelo nome e os
+ * argumentos são convertidos para o tipo do parâmetro na compilação, de modo
+ * que a execução não depende de reflexão nem de conversões de texto. Os
+ * argumentos são passados na ordem em que aparecem na linha; os nomes antes
+ * de "=" servem apenas de documentação. Linhas em branco e linhas iniciadas
+ * por "#" são ignoradas. Textos repetidos no roteiro são guardados uma única
+ * vez.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class CompiladorRoteiro {
+
+	private static final String EXPECT = "expect";
+	private static final String EXPECT_ERROR = "expectError";
+
+	private final Map<String, String> textos;
+	private String[] argumentos;
+
+	private CompiladorRoteiro() {
+		this.textos = new HashMap<>();
+	}
+
+	/**
+	 * Compila um roteiro.
+	 *
+	 * @param origem
+	 *            Texto do roteiro.
+	 * @return roteiro compilado
+	 * @throws IOException
+	 *             Caso a leitura falhe.
+	 * @throws IllegalArgumentException
+	 *             Caso uma linha seja inválida, com o número da linha.
+	 */
+	public static Roteiro compilar(Reader origem) throws IOException {
+		CompiladorRoteiro compilador = new CompiladorRoteiro();
+		BufferedReader leitor = origem instanceof BufferedReader ? (BufferedReader) origem
+				: new BufferedReader(origem);
+		Roteiro roteiro = new Roteiro();
+		int numeroLinha = 0;
+		String linha;
+		while ((linha = leitor.readLine()) != null) {
+			numeroLinha++;
+			String conteudo = linha.trim();
+			if (conteudo.isEmpty() || conteudo.startsWith("#")) {
+				continue;
+			}
+			try {
+				roteiro.adicionar(compilador.compilarLinha(numeroLinha, conteudo));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Linha " + numeroLinha + ": " + e.getMessage());
+			}
+		}
+		return roteiro;
+	}
+
+	private Passo compilarLinha(int numeroLinha, String linha) {
+		List<String> tokens = separar(linha);
+		int inicio = 0;
+		String esperado = null;
+		boolean esperaErro = false;
+		if (tokens.get(0).equals(EXPECT) || tokens.get(0).equals(EXPECT_ERROR)) {
+			if (tokens.size() < 3) {
+				throw new IllegalArgumentException("Comando ausente");
+			}
+			esperaErro = tokens.get(0).equals(EXPECT_ERROR);
+			esperado = texto(tokens.get(1));
+			inicio = 2;
+		}
+		String operacao = tokens.get(inicio);
+		argumentos = tokens.subList(inicio + 1, tokens.size()).toArray(new String[tokens.size() - inicio - 1]);
+		return new Passo(numeroLinha, comando(operacao), esperado, esperaErro);
+	}
+
+	/**
+	 * Separa a linha em palavras. Um valor entre aspas pode conter espaços, e
+	 * aspas ou barras dentro dele são precedidas de "\". Em "nome=valor", só o
+	 * valor é mantido.
+	 */
+	private static List<String> separar(String linha) {
+		List<String> tokens = new ArrayList<>();
+		StringBuilder token = new StringBuilder();
+		int i = 0;
+		while (i < linha.length()) {
+			while (i < linha.length() && Character.isWhitespace(linha.charAt(i))) {
+				i++;
+			}
+			if (i == linha.length()) {
+				break;
+			}
+			token.setLength(0);
+			boolean entreAspas = false;
+			boolean valorIniciado = false;
+			for (; i < linha.length() && (entreAspas || !Character.isWhitespace(linha.charAt(i))); i++) {
+				char c = linha.charAt(i);
+				if (c == '"') {
+					entreAspas = !entreAspas;
+					valorIniciado = true;
+				} else if (entreAspas && c == '\\' && i + 1 < linha.length()) {
+					token.append(linha.charAt(++i));
+				} else if (c == '=' && !entreAspas && !valorIniciado) {
+					token.setLength(0);
+					valorIniciado = true;
+				} else {
+					token.append(c);
+				}
+			}
+			if (entreAspas) {
+				throw new IllegalArgumentException("Aspas nao fechadas");
+			}
+			tokens.add(token.toString());
+		}
+		return tokens;
+	}
+
+	private Comando comando(String operacao) {
+		switch (operacao) {
+		case "iniciarSistema": {
+			checaNumArgumentos(0);
+			return f -> {
+				f.iniciarSistema();
+				return null;
+			};
+		}
+		case "fecharSistema": {
+			checaNumArgumentos(0);
+			return f -> {
+				f.fecharSistema();
+				return null;
+			};
+		}
+		case "cadastrarUsuario": {
+			checaNumArgumentos(3);
+			String nome = texto(0), telefone = texto(1), email = texto(2);
+			return f -> {
+				f.cadastrarUsuario(nome, telefone, email);
+				return null;
+			};
+		}
+		case "getInfoUsuario": {
+			checaNumArgumentos(3);
+			String nome = texto(0), telefone = texto(1), atributo = texto(2);
+			return f -> f.getInfoUsuario(nome, telefone, atributo);
+		}
+		case "getReputacaoEm": {
+			checaNumArgumentos(3);
+			String nome = texto(0), telefone = texto(1), data = texto(2);
+			return f -> f.getReputacaoEm(nome, telefone, data);
+		}
+		case "recalcularReputacoes":
+			checaNumArgumentos(0);
+			return f -> {
+				f.recalcularReputacoes();
+				return null;
+			};
+		case "removerUsuario": {
+			checaNumArgumentos(2);
+			String nome = texto(0), telefone = texto(1);
+			return f -> {
+				f.removerUsuario(nome, telefone);
+				return null;
+			};
+		}
+		case "atualizarUsuario": {
+			checaNumArgumentos(4);
+			String nome = texto(0), telefone = texto(1), atributo = texto(2), valor = texto(3);
+			return f -> {
+				f.atualizarUsuario(nome, telefone, atributo, valor);
+				return null;
+			};
+		}
+		case "cadastrarEletronico": {
+			checaNumArgumentos(5);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), plataforma = texto(4);
+			double preco = real(3);
+			return f -> {
+				f.cadastrarEletronico(nome, telefone, nomeItem, preco, plataforma);
+				return null;
+			};
+		}
+		case "cadastrarJogoTabuleiro": {
+			checaNumArgumentos(4);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2);
+			double preco = real(3);
+			return f -> {
+				f.cadastrarJogoTabuleiro(nome, telefone, nomeItem, preco);
+				return null;
+			};
+		}
+		case "cadastrarBluRaySerie": {
+			checaNumArgumentos(9);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), descricao = texto(4),
+					classificacao = texto(6), genero = texto(7);
+			double preco = real(3);
+			int duracao = inteiro(5), temporada = inteiro(8);
+			return f -> {
+				f.cadastrarBluRaySerie(nome, telefone, nomeItem, preco, descricao, duracao, classificacao, genero,
+						temporada);
+				return null;
+			};
+		}
+		case "adicionarBluRay": {
+			checaNumArgumentos(4);
+			String nome = texto(0), telefone = texto(1), nomeBlurayTemporada = texto(2);
+			int duracao = inteiro(3);
+			return f -> {
+				f.adicionarBluRay(nome, telefone, nomeBlurayTemporada, duracao);
+				return null;
+			};
+		}
+		case "cadastrarBluRayFilme": {
+			checaNumArgumentos(8);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), genero = texto(5),
+					classificacao = texto(6);
+			double preco = real(3);
+			int duracao = inteiro(4), anoLancamento = inteiro(7);
+			return f -> {
+				f.cadastrarBluRayFilme(nome, telefone, nomeItem, preco, duracao, genero, classificacao,
+						anoLancamento);
+				return null;
+			};
+		}
+		case "cadastrarBluRayShow": {
+			checaNumArgumentos(8);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), nomeArtista = texto(6),
+					classificacao = texto(7);
+			double preco = real(3);
+			int duracao = inteiro(4), numFaixas = inteiro(5);
+			return f -> {
+				f.cadastrarBluRayShow(nome, telefone, nomeItem, preco, duracao, numFaixas, nomeArtista,
+						classificacao);
+				return null;
+			};
+		}
+		case "adicionarPecaPerdida": {
+			checaNumArgumentos(4);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), nomePeca = texto(3);
+			return f -> {
+				f.adicionarPecaPerdida(nome, telefone, nomeItem, nomePeca);
+				return null;
+			};
+		}
+		case "removerItem": {
+			checaNumArgumentos(3);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2);
+			return f -> {
+				f.removerItem(nome, telefone, nomeItem);
+				return null;
+			};
+		}
+		case "atualizarItem": {
+			checaNumArgumentos(5);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), atributo = texto(3),
+					valor = texto(4);
+			return f -> {
+				f.atualizarItem(nome, telefone, nomeItem, atributo, valor);
+				return null;
+			};
+		}
+		case "getInfoItem": {
+			checaNumArgumentos(4);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2), atributo = texto(3);
+			return f -> f.getInfoItem(nome, telefone, nomeItem, atributo);
+		}
+		case "pesquisarDetalhesItem": {
+			checaNumArgumentos(3);
+			String nome = texto(0), telefone = texto(1), nomeItem = texto(2);
+			return f -> f.pesquisarDetalhesItem(nome, telefone, nomeItem);
+		}
+		case "registrarEmprestimo": {
+			checaNumArgumentos(7);
+			String nomeDono = texto(0), telefoneDono = texto(1), nomeRequerente = texto(2),
+					telefoneRequerente = texto(3), nomeItem = texto(4), dataEmprestimo = texto(5);
+			int periodo = inteiro(6);
+			return f -> {
+				f.registrarEmprestimo(nomeDono, telefoneDono, nomeRequerente, telefoneRequerente, nomeItem,
+						dataEmprestimo, periodo);
+				return null;
+			};
+		}
+		case "devolverItem": {
+			checaNumArgumentos(7);
+			String nomeDono = texto(0), telefoneDono = texto(1), nomeRequerente = texto(2),
+					telefoneRequerente = texto(3), nomeItem = texto(4), dataEmprestimo = texto(5),
+					dataDevolucao = texto(6);
+			return f -> {
+				f.devolverItem(nomeDono, telefoneDono, nomeRequerente, telefoneRequerente, nomeItem, dataEmprestimo,
+						dataDevolucao);
+				return null;
+			};
+		}
+		case "listarEmprestimosUsuarioEmprestando": {
+			checaNumArgumentos(2);
+			String nome = texto(0), telefone = texto(1);
+			return f -> f.listarEmprestimosUsuarioEmprestando(nome, telefone);
+		}
+		case "listarEmprestimosUsuarioPegandoEmprestado": {
+			checaNumArgumentos(2);
+			String nome = texto(0), telefone = texto(1);
+			return f -> f.listarEmprestimosUsuarioPegandoEmprestado(nome, telefone);
+		}
+		case "listarEmprestimosItem": {
+			checaNumArgumentos(1);
+			String nomeItem = texto(0);
+			return f -> f.listarEmprestimosItem(nomeItem);
+		}
+		case "importarCsv": {
+			checaNumArgumentos(1);
+			String caminho = texto(0);
+			return f -> f.importarCsv(caminho);
+		}
+		case "listarItensOrdenadosPorNome":
+			checaNumArgumentos(0);
+			return f -> f.listarItensOrdenadosPorNome();
+		case "listarItensOrdenadosPorValor":
+			checaNumArgumentos(0);
+			return f -> f.listarItensOrdenadosPorValor();
+		case "listarItensPorFaixaDeValor": {
+			checaNumArgumentos(2);
+			double valorMinimo = real(0), valorMaximo = real(1);
+			return f -> f.listarItensPorFaixaDeValor(valorMinimo, valorMaximo);
+		}
+		case "pesquisarItens": {
+			checaNumArgumentos(2);
+			String consulta = texto(0);
+			int quantidade = inteiro(1);
+			return f -> f.pesquisarItens(consulta, quantidade);
+		}
+		case "listarItensEmprestados":
+			checaNumArgumentos(0);
+			return f -> f.listarItensEmprestados();
+		case "listarItensNaoEmprestados":
+			checaNumArgumentos(0);
+			return f -> f.listarItensNaoEmprestados();
+		case "listarTop10Itens":
+			checaNumArgumentos(0);
+			return f -> f.listarTop10Itens();
+		case "listarCaloteiros":
+			checaNumArgumentos(0);
+			return f -> f.listarCaloteiros();
+		case "listarTop10MelhoresUsuarios":
+			checaNumArgumentos(0);
+			return f -> f.listarTop10MelhoresUsuarios();
+		case "listarTop10PioresUsuarios":
+			checaNumArgumentos(0);
+			return f -> f.listarTop10PioresUsuarios();
+		default:
+			throw new IllegalArgumentException("Comando invalido: " + operacao);
+		}
+	}
+
+	private void checaNumArgumentos(int esperado) {
+		if (argumentos.length != esperado) {
+			throw new IllegalArgumentException("Numero de argumentos invalido");
+		}
+	}
+
+	private String texto(int indice) {
+		return texto(argumentos[indice]);
+	}
+
+	private String texto(String valor) {
+		String existente = textos.putIfAbsent(valor, valor);
+		return existente == null ? valor : existente;
+	}
+
+	private double real(int indice) {
+		try {
+			return Double.parseDouble(argumentos[indice]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Numero invalido: " + argumentos[indice]);
+		}
+	}
+
+	private int inteiro(int indice) {
+		try {
+			return Integer.parseInt(argumentos[indice]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Numero invalido: " + argumentos[indice]);
+		}
+	}
+
+}
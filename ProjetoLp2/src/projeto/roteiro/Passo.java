@@ -0,0 +1,54 @@
+package projeto.roteiro;
+
+import projeto.Facade;
+
+/**
+ * Linha de um roteiro: um comando e, se houver, o retorno ou a mensagem de
+ * erro esperados.
+ *
+ * @author caiosbl
+ *
+ */
+
+class Passo {
+
+	private final int linha;
+	private final Comando comando;
+	private final String esperado;
+	private final boolean esperaErro;
+
+	Passo(int linha, Comando comando, String esperado, boolean esperaErro) {
+		this.linha = linha;
+		this.comando = comando;
+		this.esperado = esperado;
+		this.esperaErro = esperaErro;
+	}
+
+	/**
+	 * Executa o comando e confere o resultado, registrando uma falha caso ele
+	 * não seja o esperado.
+	 */
+	void executar(Facade facade, ResultadoRoteiro resultado) {
+		String obtido;
+		try {
+			obtido = comando.executar(facade);
+		} catch (Exception e) {
+			if (!esperaErro) {
+				resultado.falha(linha, "Erro inesperado \"" + e.getMessage() + "\"");
+			} else if (!esperado.equals(e.getMessage())) {
+				resultado.falha(linha, "Esperado erro \"" + esperado + "\", obtido \"" + e.getMessage() + "\"");
+			} else {
+				resultado.sucesso();
+			}
+			return;
+		}
+		if (esperaErro) {
+			resultado.falha(linha, "Esperado erro \"" + esperado + "\", mas o comando foi executado");
+		} else if (esperado != null && !esperado.equals(obtido)) {
+			resultado.falha(linha, "Esperado \"" + esperado + "\", obtido \"" + obtido + "\"");
+		} else {
+			resultado.sucesso();
+		}
+	}
+
+}
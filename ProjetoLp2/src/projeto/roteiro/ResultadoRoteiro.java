@@ -0,0 +1,115 @@
+package projeto.roteiro;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado da execução de um roteiro: comandos executados, falhas e
+ * comandos por segundo.
+ *
+ * Só as primeiras falhas são guardadas com o número da linha e o motivo; as
+ * demais são apenas contadas, para que um roteiro longo com muitas falhas não
+ * acumule mensagens.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class ResultadoRoteiro {
+
+	/**
+	 * Número máximo de falhas guardadas com a descrição.
+	 */
+	public static final int MAX_FALHAS_DESCRITAS = 100;
+
+	private long numComandos;
+	private long numFalhas;
+	private long duracaoNanos;
+	private final List<String> falhas;
+
+	ResultadoRoteiro() {
+		this.falhas = new ArrayList<>();
+	}
+
+	void sucesso() {
+		numComandos++;
+	}
+
+	void falha(int linha, String motivo) {
+		numComandos++;
+		numFalhas++;
+		if (falhas.size() < MAX_FALHAS_DESCRITAS) {
+			falhas.add("Linha " + linha + ": " + motivo);
+		}
+	}
+
+	void setDuracao(long duracaoNanos) {
+		this.duracaoNanos = duracaoNanos;
+	}
+
+	/**
+	 * Retorna o número de comandos executados.
+	 *
+	 * @return número de comandos
+	 */
+	public long getNumComandos() {
+		return numComandos;
+	}
+
+	/**
+	 * Retorna o número de comandos cujo resultado não foi o esperado.
+	 *
+	 * @return número de falhas
+	 */
+	public long getNumFalhas() {
+		return numFalhas;
+	}
+
+	/**
+	 * Retorna as primeiras falhas, na ordem do roteiro.
+	 *
+	 * @return falhas no formato "Linha n: motivo"
+	 */
+	public List<String> getFalhas() {
+		return Collections.unmodifiableList(falhas);
+	}
+
+	/**
+	 * Retorna a duração da execução em nanossegundos.
+	 *
+	 * @return duração
+	 */
+	public long getDuracaoNanos() {
+		return duracaoNanos;
+	}
+
+	/**
+	 * Retorna a vazão da execução.
+	 *
+	 * @return comandos por segundo
+	 */
+	public double getComandosPorSegundo() {
+		if (duracaoNanos == 0) {
+			return 0;
+		}
+		return numComandos * (double) TimeUnit.SECONDS.toNanos(1) / duracaoNanos;
+	}
+
+	/**
+	 * Retorna o resultado em texto, com as falhas separadas por "|".
+	 */
+	@Override
+	public String toString() {
+		StringBuilder texto = new StringBuilder();
+		texto.append("Comandos: ").append(numComandos).append(", falhas: ").append(numFalhas)
+				.append(", comandos por segundo: ").append(String.format(Locale.ROOT, "%.0f", getComandosPorSegundo()));
+		for (String falha : falhas) {
+			texto.append('|').append(falha);
+		}
+		return texto.toString();
+	}
+
+}
@@ -0,0 +1,55 @@
+package projeto.roteiro;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import projeto.Facade;
+
+/**
+ * Roteiro compilado por {@link CompiladorRoteiro}, pronto para ser executado
+ * quantas vezes for preciso sem ser lido de novo.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class Roteiro {
+
+	private final List<Passo> passos;
+
+	Roteiro() {
+		this.passos = new ArrayList<>();
+	}
+
+	void adicionar(Passo passo) {
+		passos.add(passo);
+	}
+
+	/**
+	 * Retorna o número de comandos do roteiro.
+	 *
+	 * @return número de comandos
+	 */
+	public int getNumComandos() {
+		return passos.size();
+	}
+
+	/**
+	 * Executa os comandos do roteiro, em ordem, conferindo os valores de expect
+	 * e expectError. Uma falha não interrompe a execução.
+	 *
+	 * @param facade
+	 *            Facade que recebe os comandos.
+	 * @return resultado da execução
+	 */
+	public ResultadoRoteiro executar(Facade facade) {
+		ResultadoRoteiro resultado = new ResultadoRoteiro();
+		long inicio = System.nanoTime();
+		for (Passo passo : passos) {
+			passo.executar(facade, resultado);
+		}
+		resultado.setDuracao(System.nanoTime() - inicio);
+		return resultado;
+	}
+
+}
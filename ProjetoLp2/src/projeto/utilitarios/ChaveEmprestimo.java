@@ -0,0 +1,105 @@
+package projeto.utilitarios;
+
+import java.io.Serializable;
+
+/**
+ * Chave de um Emprestimo, formada pelos mesmos campos usados em
+ * Emprestimo.equals: dono, requerente, item e data do emprestimo.
+ *
+ * @author lucasvsa
+ *
+ */
+
+public class ChaveEmprestimo implements Serializable {
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 3385016329771120894L;
+	private ChaveUsuario dono;
+	private ChaveUsuario requerente;
+	private String item;
+	private int diaEmprestimo;
+
+	/**
+	 * Construtor da Classe.
+	 *
+	 * @param dono
+	 *            Chave do dono do item.
+	 * @param requerente
+	 *            Chave do requerente do item.
+	 * @param item
+	 *            Nome do item emprestado.
+	 * @param diaEmprestimo
+	 *            Dia epoch em que o emprestimo foi feito.
+	 */
+	public ChaveEmprestimo(ChaveUsuario dono, ChaveUsuario requerente, String item, int diaEmprestimo) {
+		this.dono = dono;
+		this.requerente = requerente;
+		this.item = item;
+		this.diaEmprestimo = diaEmprestimo;
+	}
+
+	/**
+	 * Calcula o HashCode da Chave.
+	 */
+	@Override
+	public int hashCode() {
+		return hashCode(dono, requerente, item, diaEmprestimo);
+	}
+
+	/**
+	 * Calcula o HashCode de uma chave a partir dos seus campos, sem criá-la.
+	 *
+	 * @param dono
+	 *            Chave do dono do item.
+	 * @param requerente
+	 *            Chave do requerente do item.
+	 * @param item
+	 *            Nome do item emprestado.
+	 * @param diaEmprestimo
+	 *            Dia epoch em que o emprestimo foi feito.
+	 * @return HashCode igual ao da chave com esses campos
+	 */
+	public static int hashCode(ChaveUsuario dono, ChaveUsuario requerente, String item, int diaEmprestimo) {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + diaEmprestimo;
+		result = prime * result + ((dono == null) ? 0 : dono.hashCode());
+		result = prime * result + ((item == null) ? 0 : item.hashCode());
+		result = prime * result + ((requerente == null) ? 0 : requerente.hashCode());
+		return result;
+	}
+
+	/**
+	 * Método Equals da Chave.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ChaveEmprestimo other = (ChaveEmprestimo) obj;
+		if (dono == null) {
+			if (other.dono != null)
+				return false;
+		} else if (!dono.equals(other.dono))
+			return false;
+		if (requerente == null) {
+			if (other.requerente != null)
+				return false;
+		} else if (!requerente.equals(other.requerente))
+			return false;
+		if (item == null) {
+			if (other.item != null)
+				return false;
+		} else if (!item.equals(other.item))
+			return false;
+		if (diaEmprestimo != other.diaEmprestimo)
+			return false;
+		return true;
+	}
+
+}
@@ -0,0 +1,134 @@
+package projeto.utilitarios;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Cursor de continuação das listagens paginadas: a chave da última linha de
+ * uma página, da qual a página seguinte continua.
+ *
+ * Para quem lista, o cursor é um texto opaco. Ele guarda o tipo da listagem e
+ * os campos da chave, codificados em Base64 sem caracteres reservados de URL.
+ * Um cursor de outra listagem, ou que não possa ser decodificado, é recusado.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class Cursor {
+
+	private final String[] campos;
+
+	private Cursor(String[] campos) {
+		this.campos = campos;
+	}
+
+	/**
+	 * Codifica um cursor.
+	 *
+	 * @param tipo
+	 *            Tipo da listagem.
+	 * @param campos
+	 *            Campos da chave da última linha.
+	 * @return cursor codificado
+	 */
+	public static String codificar(String tipo, Object... campos) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(bytes)) {
+			saida.writeUTF(tipo);
+			saida.writeByte(campos.length);
+			for (Object campo : campos) {
+				saida.writeUTF(String.valueOf(campo));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * Decodifica um cursor.
+	 *
+	 * @param tipo
+	 *            Tipo da listagem.
+	 * @param cursor
+	 *            Cursor codificado, ou nulo ou vazio para a primeira página.
+	 * @param numCampos
+	 *            Número de campos da chave.
+	 * @return cursor, ou null para a primeira página
+	 * @throws IllegalArgumentException
+	 *             Caso o cursor não seja um cursor válido da listagem.
+	 */
+	public static Cursor decodificar(String tipo, String cursor, int numCampos) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try (DataInputStream entrada = new DataInputStream(
+				new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+			if (!entrada.readUTF().equals(tipo) || entrada.readByte() != numCampos) {
+				throw new IllegalArgumentException("Cursor invalido");
+			}
+			String[] campos = new String[numCampos];
+			for (int i = 0; i < numCampos; i++) {
+				campos[i] = entrada.readUTF();
+			}
+			if (entrada.available() > 0) {
+				throw new IllegalArgumentException("Cursor invalido");
+			}
+			return new Cursor(campos);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Cursor invalido");
+		}
+	}
+
+	/**
+	 * Retorna um campo de texto.
+	 *
+	 * @param campo
+	 *            Posição do campo.
+	 * @return texto
+	 */
+	public String getTexto(int campo) {
+		return campos[campo];
+	}
+
+	/**
+	 * Retorna um campo inteiro.
+	 *
+	 * @param campo
+	 *            Posição do campo.
+	 * @return inteiro
+	 * @throws IllegalArgumentException
+	 *             Caso o campo não seja um inteiro.
+	 */
+	public int getInteiro(int campo) {
+		try {
+			return Integer.parseInt(campos[campo]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Cursor invalido");
+		}
+	}
+
+	/**
+	 * Retorna um campo real.
+	 *
+	 * @param campo
+	 *            Posição do campo.
+	 * @return real
+	 * @throws IllegalArgumentException
+	 *             Caso o campo não seja um real.
+	 */
+	public double getReal(int campo) {
+		try {
+			return Double.parseDouble(campos[campo]);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Cursor invalido");
+		}
+	}
+
+}
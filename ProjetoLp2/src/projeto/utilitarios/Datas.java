@@ -0,0 +1,125 @@
+package projeto.utilitarios;
+
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversão entre datas no formato dd/MM/yyyy e dias contados a partir de
+ * 01/01/1970 (dia epoch), sem criar formatadores nem objetos de data.
+ *
+ * A leitura segue o formatador dd/MM/yyyy do java.time no modo padrão: dia e
+ * mês com dois dígitos, ano com quatro, e um dia que passa do fim do mês (como
+ * 30/02) é trocado pelo último dia do mês.
+ *
+ * @author lucasvsa
+ *
+ */
+public class Datas {
+
+	/**
+	 * Valor usado no lugar de uma data ausente.
+	 */
+	public static final int SEM_DATA = Integer.MIN_VALUE;
+
+	private static final int TAMANHO = 10;
+	private static final int DIAS_POR_ERA = 146097;
+	private static final int DIAS_ATE_1970 = 719468;
+
+	private Datas() {
+	}
+
+	/**
+	 * Converte uma data dd/MM/yyyy em dia epoch.
+	 *
+	 * @param texto
+	 *            Data a ser convertida.
+	 * @return dia epoch da data
+	 * @throws DateTimeParseException
+	 *             Caso o texto não seja uma data válida.
+	 */
+	public static int paraDia(String texto) {
+		if (texto.length() != TAMANHO || texto.charAt(2) != '/' || texto.charAt(5) != '/') {
+			throw invalida(texto);
+		}
+		int dia = numero(texto, 0, 2);
+		int mes = numero(texto, 3, 5);
+		int ano = numero(texto, 6, 10);
+		if (dia < 1 || dia > 31 || mes < 1 || mes > 12 || ano < 1) {
+			throw invalida(texto);
+		}
+		return diaEpoch(ano, mes, Math.min(dia, diasNoMes(ano, mes)));
+	}
+
+	/**
+	 * Escreve um dia epoch no formato dd/MM/yyyy.
+	 *
+	 * @param diaEpoch
+	 *            Dia a ser escrito.
+	 * @return data formatada
+	 */
+	public static String formatar(int diaEpoch) {
+		char[] texto = new char[TAMANHO];
+		int dias = diaEpoch + DIAS_ATE_1970;
+		int era = Math.floorDiv(dias, DIAS_POR_ERA);
+		int diaDaEra = dias - era * DIAS_POR_ERA;
+		int anoDaEra = (diaDaEra - diaDaEra / 1460 + diaDaEra / 36524 - diaDaEra / 146096) / 365;
+		int diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+		int mesDesdeMarco = (5 * diaDoAno + 2) / 153;
+		int dia = diaDoAno - (153 * mesDesdeMarco + 2) / 5 + 1;
+		int mes = mesDesdeMarco < 10 ? mesDesdeMarco + 3 : mesDesdeMarco - 9;
+		int ano = anoDaEra + era * 400 + (mes <= 2 ? 1 : 0);
+
+		digitos(texto, 0, 2, dia);
+		texto[2] = '/';
+		digitos(texto, 3, 2, mes);
+		texto[5] = '/';
+		digitos(texto, 6, 4, ano);
+		return new String(texto);
+	}
+
+	private static int diaEpoch(int ano, int mes, int dia) {
+		int anoDesdeMarco = mes <= 2 ? ano - 1 : ano;
+		int era = Math.floorDiv(anoDesdeMarco, 400);
+		int anoDaEra = anoDesdeMarco - era * 400;
+		int diaDoAno = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + dia - 1;
+		int diaDaEra = anoDaEra * 365 + anoDaEra / 4 - anoDaEra / 100 + diaDoAno;
+		return era * DIAS_POR_ERA + diaDaEra - DIAS_ATE_1970;
+	}
+
+	private static int diasNoMes(int ano, int mes) {
+		switch (mes) {
+		case 2:
+			return (ano % 4 == 0 && ano % 100 != 0) || ano % 400 == 0 ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	private static int numero(String texto, int inicio, int fim) {
+		int valor = 0;
+		for (int i = inicio; i < fim; i++) {
+			int digito = texto.charAt(i) - '0';
+			if (digito < 0 || digito > 9) {
+				throw invalida(texto);
+			}
+			valor = valor * 10 + digito;
+		}
+		return valor;
+	}
+
+	private static void digitos(char[] texto, int inicio, int quantidade, int valor) {
+		for (int i = inicio + quantidade - 1; i >= inicio; i--) {
+			texto[i] = (char) ('0' + valor % 10);
+			valor /= 10;
+		}
+	}
+
+	private static DateTimeParseException invalida(String texto) {
+		return new DateTimeParseException("Data invalida", texto, 0);
+	}
+
+}
@@ -0,0 +1,137 @@
+package projeto.utilitarios;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Lista de inteiros guardada em um vetor primitivo, sem um objeto por
+ * elemento.
+ *
+ * @author lucasvsa
+ *
+ */
+public class ListaInteiros implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -3190287214402760218L;
+	private static final int CAPACIDADE_INICIAL = 4;
+
+	private int[] valores;
+	private int tamanho;
+
+	/**
+	 * Construtor da lista vazia.
+	 */
+	public ListaInteiros() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	/**
+	 * Construtor da lista vazia com capacidade inicial.
+	 *
+	 * @param capacidade
+	 *            Número de elementos reservados.
+	 */
+	public ListaInteiros(int capacidade) {
+		this.valores = new int[Math.max(1, capacidade)];
+	}
+
+	/**
+	 * Adiciona um valor ao fim da lista.
+	 *
+	 * @param valor
+	 *            Valor a ser adicionado.
+	 */
+	public void adicionar(int valor) {
+		adicionar(tamanho, valor);
+	}
+
+	/**
+	 * Adiciona um valor em uma posição, deslocando os seguintes.
+	 *
+	 * @param posicao
+	 *            Posição do novo valor.
+	 * @param valor
+	 *            Valor a ser adicionado.
+	 */
+	public void adicionar(int posicao, int valor) {
+		if (posicao < 0 || posicao > tamanho) {
+			throw new IndexOutOfBoundsException("Posicao invalida");
+		}
+		if (tamanho == valores.length) {
+			valores = Arrays.copyOf(valores, valores.length * 2);
+		}
+		System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+		valores[posicao] = valor;
+		tamanho++;
+	}
+
+	/**
+	 * Remove o valor de uma posição, deslocando os seguintes.
+	 *
+	 * @param posicao
+	 *            Posição do valor a ser removido.
+	 */
+	public void remover(int posicao) {
+		if (posicao < 0 || posicao >= tamanho) {
+			throw new IndexOutOfBoundsException("Posicao invalida");
+		}
+		System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao - 1);
+		tamanho--;
+	}
+
+	/**
+	 * Retorna o valor de uma posição.
+	 *
+	 * @param posicao
+	 *            Posição do valor.
+	 * @return valor
+	 */
+	public int get(int posicao) {
+		if (posicao < 0 || posicao >= tamanho) {
+			throw new IndexOutOfBoundsException("Posicao invalida");
+		}
+		return valores[posicao];
+	}
+
+	/**
+	 * Retorna o número de valores na lista.
+	 *
+	 * @return tamanho
+	 */
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Busca, em uma lista em ordem crescente, a primeira posição com valor
+	 * maior que o informado.
+	 *
+	 * @param valor
+	 *            Valor procurado.
+	 * @return posição, ou o tamanho se não houver valor maior
+	 */
+	public int posicaoDepoisDe(int valor) {
+		int inicio = 0;
+		int fim = tamanho;
+		while (inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+			if (valores[meio] <= valor) {
+				inicio = meio + 1;
+			} else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	}
+
+	private void writeObject(ObjectOutputStream saida) throws IOException {
+		valores = Arrays.copyOf(valores, Math.max(1, tamanho));
+		saida.defaultWriteObject();
+	}
+
+}
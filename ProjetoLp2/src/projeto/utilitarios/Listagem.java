@@ -0,0 +1,102 @@
+package projeto.utilitarios;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listagem escrita de forma incremental em um destino de texto, usada pelas
+ * variantes das listagens que recebem um Appendable.
+ * 
+ * @author caiosbl
+ *
+ */
+
+@FunctionalInterface
+public interface Listagem {
+
+	/**
+	 * Tamanho, em caracteres, a partir do qual um trecho copiado é encerrado.
+	 */
+	public static final int TAMANHO_TRECHO = 8192;
+
+	/**
+	 * Escreve a listagem no destino informado.
+	 * 
+	 * @param saida
+	 *            Destino da listagem.
+	 * @throws IOException
+	 *             Caso o destino não possa ser escrito.
+	 */
+	public void escrever(Appendable saida) throws IOException;
+
+	/**
+	 * Escreve a listagem em memória e a retorna como texto.
+	 * 
+	 * @param listagem
+	 *            Listagem a ser escrita.
+	 * @return texto da listagem
+	 */
+	public static String emTexto(Listagem listagem) {
+		StringBuilder texto = new StringBuilder();
+		try {
+			listagem.escrever(texto);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * Escreve a listagem em memória, dividida em trechos de até alguns
+	 * kilobytes, para que ela seja copiada enquanto o sistema está travado e
+	 * escrita no destino final só depois que a trava for liberada.
+	 * 
+	 * @param listagem
+	 *            Listagem a ser escrita.
+	 * @return trechos da listagem, na ordem em que foram escritos
+	 */
+	public static List<String> emTrechos(Listagem listagem) {
+		List<String> trechos = new ArrayList<>();
+		StringBuilder trecho = new StringBuilder();
+		Appendable copia = new Appendable() {
+
+			@Override
+			public Appendable append(CharSequence texto) {
+				trecho.append(texto);
+				return encerrarTrecho();
+			}
+
+			@Override
+			public Appendable append(CharSequence texto, int inicio, int fim) {
+				trecho.append(texto, inicio, fim);
+				return encerrarTrecho();
+			}
+
+			@Override
+			public Appendable append(char caractere) {
+				trecho.append(caractere);
+				return encerrarTrecho();
+			}
+
+			private Appendable encerrarTrecho() {
+				if (trecho.length() >= TAMANHO_TRECHO) {
+					trechos.add(trecho.toString());
+					trecho.setLength(0);
+				}
+				return this;
+			}
+		};
+		try {
+			listagem.escrever(copia);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (trecho.length() > 0) {
+			trechos.add(trecho.toString());
+		}
+		return trechos;
+	}
+
+}
@@ -0,0 +1,138 @@
+package projeto.utilitarios;
+
+/**
+ * Página de uma listagem paginada: as linhas da página, no mesmo formato
+ * separado por '|' da listagem completa, e o cursor da página seguinte.
+ *
+ * As páginas são paginadas por chave: o cursor guarda a chave da última linha,
+ * e a página seguinte começa logo depois dela no índice da listagem, sem
+ * percorrer as páginas anteriores. Alterações entre duas páginas não
+ * repetem nem pulam as linhas que não foram alteradas.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class Pagina {
+
+	private final String linhas;
+	private final int numLinhas;
+	private final String proximoCursor;
+
+	/**
+	 * Construtor da página.
+	 *
+	 * @param linhas
+	 *            Linhas da página, cada uma terminada por '|'.
+	 * @param numLinhas
+	 *            Número de linhas.
+	 * @param proximoCursor
+	 *            Cursor da página seguinte, ou null se esta for a última.
+	 */
+	public Pagina(String linhas, int numLinhas, String proximoCursor) {
+		this.linhas = linhas;
+		this.numLinhas = numLinhas;
+		this.proximoCursor = proximoCursor;
+	}
+
+	/**
+	 * Retorna as linhas da página.
+	 *
+	 * @return linhas separadas por '|'
+	 */
+	public String getLinhas() {
+		return linhas;
+	}
+
+	/**
+	 * Retorna o número de linhas da página.
+	 *
+	 * @return número de linhas
+	 */
+	public int getNumLinhas() {
+		return numLinhas;
+	}
+
+	/**
+	 * Retorna o cursor da página seguinte.
+	 *
+	 * @return cursor, ou null se esta for a última página
+	 */
+	public String getProximoCursor() {
+		return proximoCursor;
+	}
+
+	/**
+	 * Informa se há uma página seguinte.
+	 *
+	 * @return true se houver
+	 */
+	public boolean temProxima() {
+		return proximoCursor != null;
+	}
+
+	@Override
+	public String toString() {
+		return linhas;
+	}
+
+	/**
+	 * Monta uma página linha a linha. A listagem acrescenta linhas enquanto a
+	 * página não estiver cheia; se ainda houver linhas, conclui a página com o
+	 * cursor da última linha acrescentada.
+	 */
+	public static class Montador {
+
+		private final int tamanhoPagina;
+		private final StringBuilder linhas;
+		private int numLinhas;
+
+		/**
+		 * Construtor do montador.
+		 *
+		 * @param tamanhoPagina
+		 *            Número máximo de linhas da página.
+		 * @throws IllegalArgumentException
+		 *             Caso o tamanho não seja positivo.
+		 */
+		public Montador(int tamanhoPagina) {
+			if (tamanhoPagina <= 0) {
+				throw new IllegalArgumentException("Tamanho de pagina invalido");
+			}
+			this.tamanhoPagina = tamanhoPagina;
+			this.linhas = new StringBuilder();
+		}
+
+		/**
+		 * Informa se a página já tem o número máximo de linhas.
+		 *
+		 * @return true se estiver cheia
+		 */
+		public boolean cheia() {
+			return numLinhas == tamanhoPagina;
+		}
+
+		/**
+		 * Acrescenta uma linha à página, seguida de '|'.
+		 *
+		 * @param linha
+		 *            Linha a ser acrescentada.
+		 */
+		public void adicionar(CharSequence linha) {
+			linhas.append(linha).append('|');
+			numLinhas++;
+		}
+
+		/**
+		 * Conclui a página.
+		 *
+		 * @param proximoCursor
+		 *            Cursor da página seguinte, ou null se esta for a última.
+		 * @return página
+		 */
+		public Pagina concluir(String proximoCursor) {
+			return new Pagina(linhas.toString(), numLinhas, proximoCursor);
+		}
+	}
+
+}
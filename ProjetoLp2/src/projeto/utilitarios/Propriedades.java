@@ -0,0 +1,43 @@
+package projeto.utilitarios;
+
+import java.util.Locale;
+
+/**
+ * Classe utilitária para ler as propriedades de configuração do sistema.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class Propriedades {
+
+	private Propriedades() {
+	}
+
+	/**
+	 * Lê uma propriedade cujo valor é o nome de uma constante de um enum, sem
+	 * diferenciar maiúsculas de minúsculas. Um valor que não corresponde a
+	 * nenhuma constante é ignorado com um aviso, e o padrão é usado, para que
+	 * uma configuração errada não impeça a carga das classes que a leem.
+	 *
+	 * @param nome
+	 *            Nome da propriedade.
+	 * @param padrao
+	 *            Valor usado quando a propriedade não existe ou é inválida.
+	 * @return constante lida, ou o padrão
+	 */
+	public static <E extends Enum<E>> E lerEnum(String nome, E padrao) {
+		String valor = System.getProperty(nome);
+		if (valor == null) {
+			return padrao;
+		}
+		try {
+			return Enum.valueOf(padrao.getDeclaringClass(), valor.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			System.err.println("Valor invalido para " + nome + ": " + valor + "; usando "
+					+ padrao.name().toLowerCase(Locale.ROOT));
+			return padrao;
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package projeto.utilitarios;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro das chaves de Usuário, que atribui a cada Usuário cadastrado um
+ * identificador inteiro denso e estável.
+ *
+ * A busca por nome e telefone percorre um mapa de nomes para mapas de
+ * telefones, sem criar uma ChaveUsuario por consulta. Identificadores de
+ * usuários removidos não são reaproveitados.
+ *
+ * @author caiosbl
+ *
+ */
+
+public class RegistroUsuarios implements Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 2704598833156702118L;
+
+	/**
+	 * Identificador devolvido quando não há Usuário com a chave procurada.
+	 */
+	public static final int SEM_USUARIO = -1;
+
+	private List<ChaveUsuario> chaves;
+	private int numUsuarios;
+	private transient Map<String, Map<String, Integer>> ids;
+
+	/**
+	 * Construtor do Registro vazio.
+	 */
+	public RegistroUsuarios() {
+		this.chaves = new ArrayList<>();
+		this.ids = new HashMap<>();
+	}
+
+	/**
+	 * Retorna o identificador de um Usuário.
+	 *
+	 * @param nome
+	 *            Nome do Usuário.
+	 * @param telefone
+	 *            Telefone do Usuário.
+	 * @return identificador, ou SEM_USUARIO caso não esteja registrado
+	 */
+	public int id(String nome, String telefone) {
+		ValidaParametros.validaChaveUsuario(nome, telefone);
+		Map<String, Integer> telefones = ids.get(nome);
+		if (telefones == null) {
+			return SEM_USUARIO;
+		}
+		Integer id = telefones.get(telefone);
+		return id == null ? SEM_USUARIO : id;
+	}
+
+	/**
+	 * Registra um Usuário e atribui a ele o próximo identificador.
+	 *
+	 * @param nome
+	 *            Nome do Usuário.
+	 * @param telefone
+	 *            Telefone do Usuário.
+	 * @return identificador atribuído
+	 * @throws IllegalArgumentException
+	 *             Caso o Usuário já esteja registrado.
+	 */
+	public int registrar(String nome, String telefone) {
+		if (id(nome, telefone) != SEM_USUARIO) {
+			throw new IllegalArgumentException("Usuario ja cadastrado");
+		}
+		int id = chaves.size();
+		chaves.add(new ChaveUsuario(nome, telefone));
+		indexar(nome, telefone, id);
+		numUsuarios++;
+		return id;
+	}
+
+	/**
+	 * Remove um Usuário do registro. O identificador não volta a ser usado.
+	 *
+	 * @param id
+	 *            Identificador do Usuário.
+	 */
+	public void remover(int id) {
+		ChaveUsuario chave = chaves.set(id, null);
+		if (chave != null) {
+			desindexar(chave.getNome(), chave.getTelefone());
+			numUsuarios--;
+		}
+	}
+
+	/**
+	 * Altera o nome e o telefone de um Usuário, mantendo seu identificador.
+	 *
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @param nome
+	 *            Novo nome.
+	 * @param telefone
+	 *            Novo telefone.
+	 * @throws IllegalArgumentException
+	 *             Caso outro Usuário já esteja registrado com a nova chave.
+	 */
+	public void alterar(int id, String nome, String telefone) {
+		int outro = id(nome, telefone);
+		if (outro == id) {
+			return;
+		}
+		if (outro != SEM_USUARIO) {
+			throw new IllegalArgumentException("Usuario ja cadastrado");
+		}
+		ChaveUsuario anterior = chaves.get(id);
+		desindexar(anterior.getNome(), anterior.getTelefone());
+		chaves.set(id, new ChaveUsuario(nome, telefone));
+		indexar(nome, telefone, id);
+	}
+
+	/**
+	 * Retorna a chave de um Usuário registrado.
+	 *
+	 * @param id
+	 *            Identificador do Usuário.
+	 * @return chave, ou null caso o Usuário tenha sido removido
+	 */
+	public ChaveUsuario getChave(int id) {
+		return chaves.get(id);
+	}
+
+	/**
+	 * Retorna o número de identificadores já atribuídos, incluindo os de
+	 * usuários removidos.
+	 *
+	 * @return limite dos identificadores
+	 */
+	public int limite() {
+		return chaves.size();
+	}
+
+	/**
+	 * Retorna o número de Usuários registrados.
+	 *
+	 * @return número de Usuários
+	 */
+	public int numUsuarios() {
+		return numUsuarios;
+	}
+
+	private void indexar(String nome, String telefone, int id) {
+		Map<String, Integer> telefones = ids.get(nome);
+		if (telefones == null) {
+			telefones = new HashMap<>(2);
+			ids.put(nome, telefones);
+		}
+		telefones.put(telefone, id);
+	}
+
+	private void desindexar(String nome, String telefone) {
+		Map<String, Integer> telefones = ids.get(nome);
+		telefones.remove(telefone);
+		if (telefones.isEmpty()) {
+			ids.remove(nome);
+		}
+	}
+
+	private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+		entrada.defaultReadObject();
+		ids = new HashMap<>();
+		for (int id = 0; id < chaves.size(); id++) {
+			ChaveUsuario chave = chaves.get(id);
+			if (chave != null) {
+				indexar(chave.getNome(), chave.getTelefone(), id);
+			}
+		}
+	}
+
+}
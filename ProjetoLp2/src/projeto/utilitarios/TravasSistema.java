@@ -0,0 +1,150 @@
+package projeto.utilitarios;
+
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Travas do Sistema para uso por várias threads.
+ *
+ * Operações sobre usuários já cadastrados tomam a trava global em modo
+ * compartilhado e a faixa de cada usuário envolvido, de modo que operações em
+ * usuários diferentes rodam em paralelo. Operações que alteram o conjunto de
+ * usuários e as listagens globais de itens e empréstimos tomam a trava global
+ * em modo exclusivo e enxergam o sistema sem nenhuma operação em andamento.
+ *
+ * Os rankings e a lista de caloteiros são lidos dos próprios índices, que são
+ * sincronizados, com a trava global em modo compartilhado: não esperam pelos
+ * empréstimos em andamento e podem refletir um deles só em parte.
+ *
+ * Quando dois usuários são travados juntos, as faixas são tomadas em ordem
+ * crescente de índice, o que evita impasse entre empréstimos cruzados.
+ *
+ * Cada método toma as travas ao ser chamado; quem chama as libera com
+ * {@link Trava#liberar()} em um bloco finally.
+ *
+ * @author caiosbl
+ *
+ */
+public class TravasSistema {
+
+	private static final int NUM_FAIXAS = 64;
+
+	private final ReentrantReadWriteLock global;
+	private final ReentrantLock[] faixas;
+
+	/**
+	 * Construtor das travas.
+	 */
+	public TravasSistema() {
+		this.global = new ReentrantReadWriteLock();
+		this.faixas = new ReentrantLock[NUM_FAIXAS];
+		for (int i = 0; i < NUM_FAIXAS; i++) {
+			faixas[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Trava o sistema inteiro.
+	 *
+	 * @return trava a ser liberada ao fim da operação
+	 */
+	public Trava exclusiva() {
+		return new Trava(global.writeLock(), null, null);
+	}
+
+	/**
+	 * Trava o sistema em modo compartilhado, sem nenhuma faixa de usuário.
+	 *
+	 * @return trava a ser liberada ao fim da operação
+	 */
+	public Trava compartilhada() {
+		return new Trava(global.readLock(), null, null);
+	}
+
+	/**
+	 * Trava um usuário.
+	 *
+	 * @param nome
+	 *            Nome do Usuário.
+	 * @param telefone
+	 *            Telefone do Usuário.
+	 * @return trava a ser liberada ao fim da operação
+	 */
+	public Trava usuario(String nome, String telefone) {
+		return new Trava(global.readLock(), faixas[faixa(nome, telefone)], null);
+	}
+
+	/**
+	 * Trava dois usuários, tomando as faixas em ordem crescente de índice.
+	 *
+	 * @param nomeA
+	 *            Nome do primeiro Usuário.
+	 * @param telefoneA
+	 *            Telefone do primeiro Usuário.
+	 * @param nomeB
+	 *            Nome do segundo Usuário.
+	 * @param telefoneB
+	 *            Telefone do segundo Usuário.
+	 * @return trava a ser liberada ao fim da operação
+	 */
+	public Trava usuarios(String nomeA, String telefoneA, String nomeB, String telefoneB) {
+		int a = faixa(nomeA, telefoneA);
+		int b = faixa(nomeB, telefoneB);
+		if (a == b) {
+			return new Trava(global.readLock(), faixas[a], null);
+		}
+		return new Trava(global.readLock(), faixas[Math.min(a, b)], faixas[Math.max(a, b)]);
+	}
+
+	private static int faixa(String nome, String telefone) {
+		int hash = 31 * Objects.hashCode(nome) + Objects.hashCode(telefone);
+		return (hash ^ (hash >>> 16)) & (NUM_FAIXAS - 1);
+	}
+
+	/**
+	 * Ação executada com as travas tomadas.
+	 */
+	@FunctionalInterface
+	public interface Acao<E extends Exception> {
+		void executar() throws E;
+	}
+
+	/**
+	 * Conjunto de travas tomadas por uma operação, liberadas em ordem inversa.
+	 */
+	public static class Trava {
+
+		private final Lock global;
+		private final Lock primeira;
+		private final Lock segunda;
+
+		private Trava(Lock global, Lock primeira, Lock segunda) {
+			this.global = global;
+			this.primeira = primeira;
+			this.segunda = segunda;
+			global.lock();
+			if (primeira != null) {
+				primeira.lock();
+			}
+			if (segunda != null) {
+				segunda.lock();
+			}
+		}
+
+		/**
+		 * Libera as travas da operação.
+		 */
+		public void liberar() {
+			if (segunda != null) {
+				segunda.unlock();
+			}
+			if (primeira != null) {
+				primeira.unlock();
+			}
+			global.unlock();
+		}
+	}
+
+}
@@ -131,6 +131,40 @@ public class ValidaParametros implements Serializable {
 		}
 	}
 
+	/**
+	 * Valida uma faixa de valores
+	 * 
+	 * @param valorMinimo
+	 *            Menor valor da faixa
+	 * @param valorMaximo
+	 *            Maior valor da faixa
+	 */
+	public static void validaFaixaDeValor(double valorMinimo, double valorMaximo) {
+		if (Double.isNaN(valorMinimo) || Double.isNaN(valorMaximo) || valorMinimo < 0) {
+			throw new IllegalArgumentException("Valor invalido");
+		}
+		if (valorMinimo > valorMaximo) {
+			throw new IllegalArgumentException("Faixa de valor invalida");
+		}
+	}
+
+	/**
+	 * Valida uma consulta de busca de itens
+	 *
+	 * @param consulta
+	 *            Termos da consulta
+	 * @param quantidade
+	 *            Número máximo de resultados
+	 */
+	public static void validaConsulta(String consulta, int quantidade) {
+		if (consulta == null || consulta.trim().isEmpty()) {
+			throw new IllegalArgumentException("Consulta invalida");
+		}
+		if (quantidade <= 0) {
+			throw new IllegalArgumentException("Quantidade invalida");
+		}
+	}
+
 	/**
 	 * Verifica se um item está no mapa.
 	 * 
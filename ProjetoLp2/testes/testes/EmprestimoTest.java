@@ -9,15 +9,14 @@ import org.junit.Test;
 
 
 import projeto.Emprestimo;
+import projeto.HistoricoEmprestimos;
 
 
 import projeto.jogo.JogoTabuleiro;
 import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Datas;
 
 public class EmprestimoTest {
-	@SuppressWarnings("unused")
-	private Emprestimo emprestimo;
-
 	/**
 	 * Teste de validade do Objeto dono caso seja nulo.
 	 * @throws ParseException 
@@ -28,7 +27,7 @@ public class EmprestimoTest {
 			ChaveUsuario dono = null;
 			ChaveUsuario requerente = new ChaveUsuario("Carlos",  "83955558877");
 			JogoTabuleiro item = new JogoTabuleiro("Uar", 89.99);
-			emprestimo = new Emprestimo(dono, requerente, item.getNome(), "10/08/2017", 5);
+			Emprestimo.checaValidadeAtributos(dono, requerente, item.getNome(), "10/08/2017", 5);
 			fail("Exceção de dono nulo não lançada!");
 		} catch(NullPointerException e){
 			assertEquals("Dono nulo", e.getMessage());
@@ -44,7 +43,7 @@ public class EmprestimoTest {
 			ChaveUsuario dono = new ChaveUsuario("Joao","8399995555" );
 			ChaveUsuario requerente = null;
 			JogoTabuleiro item = new JogoTabuleiro("Uar", 89.99);
-			emprestimo = new Emprestimo(dono, requerente, item.getNome(), "10/08/2017", 5);
+			Emprestimo.checaValidadeAtributos(dono, requerente, item.getNome(), "10/08/2017", 5);
 			fail("Exceção de Requerente nulo não lançada!");
 		} catch(NullPointerException e){
 			assertEquals("Requerente nulo", e.getMessage());
@@ -61,7 +60,7 @@ public class EmprestimoTest {
 			ChaveUsuario dono = new ChaveUsuario("Joao","8399995555" );
 			ChaveUsuario requerente = new ChaveUsuario("Carlos", "83955558877");
 			String item = null;
-			emprestimo = new Emprestimo(dono, requerente, item, "10/08/2017", 5);
+			Emprestimo.checaValidadeAtributos(dono, requerente, item, "10/08/2017", 5);
 			fail("Exceção de Item nulo não lançada!");
 		} catch(NullPointerException e){
 			assertEquals("Item nulo", e.getMessage());
@@ -78,7 +77,7 @@ public class EmprestimoTest {
 			ChaveUsuario dono = new ChaveUsuario("Joao","8399995555" );
 			ChaveUsuario requerente = new ChaveUsuario("Carlos", "83955558877");
 			JogoTabuleiro item = new JogoTabuleiro("Uar", 89.99);
-			emprestimo = new Emprestimo(dono, requerente, item.getNome(), null, 5);
+			Emprestimo.checaValidadeAtributos(dono, requerente, item.getNome(), null, 5);
 		
 		}
 	
@@ -92,7 +91,7 @@ public class EmprestimoTest {
 			ChaveUsuario dono = new ChaveUsuario("Joao","8399995555" );
 			ChaveUsuario requerente = new ChaveUsuario("Carlos", "83955558877");
 			JogoTabuleiro item = new JogoTabuleiro("Uar", 89.99);
-			emprestimo = new Emprestimo(dono, requerente, item.getNome(), "  ", 5);
+			Emprestimo.checaValidadeAtributos(dono, requerente, item.getNome(), "  ", 5);
 			fail("Exceção de data inicial vazia não lançada!");
 		} catch(IllegalArgumentException e){
 			assertEquals("Data inicial vazia", e.getMessage());
@@ -109,7 +108,7 @@ public class EmprestimoTest {
 			ChaveUsuario dono = new ChaveUsuario("Joao","8399995555" );
 			ChaveUsuario requerente = new ChaveUsuario("Carlos", "83955558877");
 			JogoTabuleiro item = new JogoTabuleiro("Uar", 89.99);
-			emprestimo = new Emprestimo(dono, requerente, item.getNome(), "10/08/2017", -1);
+			Emprestimo.checaValidadeAtributos(dono, requerente, item.getNome(), "10/08/2017", -1);
 			fail("Exceção de periodo invalido não lançada!");
 		} catch(IllegalArgumentException e){
 			assertEquals("Periodo invalido", e.getMessage());
@@ -127,8 +126,11 @@ public class EmprestimoTest {
 			ChaveUsuario dono = new ChaveUsuario("Joao","8399995555" );
 			ChaveUsuario requerente = new ChaveUsuario("Carlos", "83955558877");
 			JogoTabuleiro item = new JogoTabuleiro("Uar", 89.99);
-			Emprestimo emprestimo1 = new Emprestimo(dono, requerente, item.getNome(), "10/08/2017", 7);
-			Emprestimo emprestimo2 = new Emprestimo(dono, requerente, item.getNome(), "10/08/2017", 5);
+			HistoricoEmprestimos historico = new HistoricoEmprestimos();
+			Emprestimo emprestimo1 = historico.getEmprestimo(
+					historico.registrar(dono, requerente, item.getNome(), Datas.paraDia("10/08/2017"), 7));
+			Emprestimo emprestimo2 = historico.getEmprestimo(
+					historico.registrar(dono, requerente, item.getNome(), Datas.paraDia("10/08/2017"), 5));
 		
 			assertTrue(emprestimo1.equals(emprestimo2));
 		}
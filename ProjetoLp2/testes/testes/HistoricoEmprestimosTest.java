@@ -0,0 +1,80 @@
+package testes;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Emprestimo;
+import projeto.HistoricoEmprestimos;
+import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.Datas;
+
+/**
+ * Testes da classe HistoricoEmprestimos.
+ *
+ * @author lucasvsa
+ *
+ */
+public class HistoricoEmprestimosTest {
+
+	private HistoricoEmprestimos historico;
+	private ChaveUsuario ana;
+	private ChaveUsuario bia;
+
+	@Before
+	public void setUp() {
+		historico = new HistoricoEmprestimos(1);
+		ana = new ChaveUsuario("Ana", "1");
+		bia = new ChaveUsuario("Bia", "2");
+	}
+
+	/**
+	 * Testa se os emprestimos sao numerados em ordem de registro e se usuarios
+	 * e itens repetidos recebem o mesmo identificador.
+	 */
+	@Test
+	public void testRegistrar() {
+		int primeiro = historico.registrar(ana, bia, "Dota", Datas.paraDia("01/02/2018"), 5);
+		int segundo = historico.registrar(bia, ana, "Dota", Datas.paraDia("03/02/2018"), 7);
+		int terceiro = historico.registrar(ana, bia, "War", Datas.paraDia("04/02/2018"), 2);
+
+		assertEquals(0, primeiro);
+		assertEquals(1, segundo);
+		assertEquals(2, terceiro);
+		assertEquals(3, historico.tamanho());
+		assertEquals(historico.getIdItem(primeiro), historico.getIdItem(segundo));
+		assertNotEquals(historico.getIdItem(primeiro), historico.getIdItem(terceiro));
+		assertEquals(ana, historico.getDono(primeiro));
+		assertEquals(ana, historico.getRequerente(segundo));
+		assertEquals(7, historico.getPeriodo(segundo));
+		assertEquals(-1, historico.idItem("Xadrez"));
+	}
+
+	/**
+	 * Testa se a visao Emprestimo le e altera a linha do historico.
+	 */
+	@Test
+	public void testVisao() {
+		int numero = historico.registrar(ana, bia, "Dota", Datas.paraDia("01/02/2018"), 5);
+		Emprestimo emprestimo = historico.getEmprestimo(numero);
+
+		assertTrue(emprestimo.isEmAndamento());
+		assertEquals("01/02/2018", emprestimo.getDataEmprestimo());
+
+		emprestimo.setDiaDevolucao(Datas.paraDia("09/02/2018"));
+		assertEquals(Datas.paraDia("09/02/2018"), historico.getDiaDevolucao(numero));
+		assertFalse(historico.getEmprestimo(numero).isEmAndamento());
+		assertEquals("EMPRESTIMO - De: Ana, Para: Bia, Dota, 01/02/2018, 5 dias, ENTREGA: 09/02/2018",
+				historico.getEmprestimo(numero).toString());
+	}
+
+	/**
+	 * Testa se um numero fora do historico e rejeitado.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testNumeroInexistente() {
+		historico.getEmprestimo(0);
+	}
+
+}
@@ -0,0 +1,163 @@
+package testes;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.text.ParseException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.HistoricoReputacao;
+import projeto.Sistema;
+import projeto.controllers.ControllerUsuario;
+import projeto.enums.TipoEventoReputacao;
+import projeto.utilitarios.Datas;
+
+/**
+ * Testes da classe HistoricoReputacao.
+ *
+ * @author caiosbl
+ *
+ */
+public class HistoricoReputacaoTest {
+
+	private static final int DIA = Datas.paraDia("01/01/2018");
+
+	private HistoricoReputacao historico;
+
+	@Before
+	public void setUp() {
+		historico = new HistoricoReputacao();
+	}
+
+	/**
+	 * Testa a reputacao em cada dia, com mais eventos que o intervalo entre as
+	 * somas acumuladas, contra a soma de todos os eventos ate o dia.
+	 */
+	@Test
+	public void testReputacaoEm() {
+		int numEventos = HistoricoReputacao.INTERVALO_SOMAS * 3 + 5;
+		double[] esperadas = new double[numEventos];
+		double soma = 0.0;
+		for (int i = 0; i < numEventos; i++) {
+			double variacao = (i % 7 - 3) * 0.1;
+			historico.registrar(0, DIA + i, TipoEventoReputacao.ITEM_EMPRESTADO, variacao);
+			historico.registrar(1, DIA + i, TipoEventoReputacao.ITEM_ADICIONADO, 1.0);
+			soma += variacao;
+			esperadas[i] = soma;
+		}
+
+		assertEquals(0.0, historico.reputacaoEm(0, DIA - 1), 0.0);
+		for (int i = 0; i < numEventos; i++) {
+			assertEquals(esperadas[i], historico.reputacaoEm(0, DIA + i), 0.0);
+			assertEquals(i + 1, historico.reputacaoEm(1, DIA + i), 0.0);
+		}
+		assertEquals(soma, historico.reputacaoEm(0, Integer.MAX_VALUE), 0.0);
+		assertEquals(0.0, historico.reputacaoEm(7, DIA), 0.0);
+	}
+
+	/**
+	 * Testa eventos fora de ordem de data e eventos sem data, que recebem o dia
+	 * mais recente ja registrado.
+	 */
+	@Test
+	public void testForaDeOrdem() {
+		historico.registrar(0, Datas.SEM_DATA, TipoEventoReputacao.ITEM_ADICIONADO, 1.0);
+		for (int i = 0; i < HistoricoReputacao.INTERVALO_SOMAS * 2; i++) {
+			historico.registrar(0, DIA + 10 + i, TipoEventoReputacao.ITEM_EMPRESTADO, 2.0);
+		}
+		historico.registrar(0, DIA, TipoEventoReputacao.DEVOLVIDO_ATRASADO, -5.0);
+		int numero = historico.registrar(0, Datas.SEM_DATA, TipoEventoReputacao.ITEM_ADICIONADO, 3.0);
+
+		assertEquals(Datas.SEM_DATA, historico.getDia(0));
+		assertEquals(DIA + 10 + HistoricoReputacao.INTERVALO_SOMAS * 2 - 1, historico.getDia(numero));
+		assertEquals(TipoEventoReputacao.ITEM_ADICIONADO, historico.getTipo(numero));
+		assertEquals(-4.0, historico.reputacaoEm(0, DIA), 0.0);
+		assertEquals(-2.0, historico.reputacaoEm(0, DIA + 10), 0.0);
+		assertEquals(1.0 - 5.0 + 2.0 * HistoricoReputacao.INTERVALO_SOMAS * 2 + 3.0,
+				historico.reputacaoEm(0, Integer.MAX_VALUE), 0.0);
+	}
+
+	/**
+	 * Testa o recalculo de todas as reputacoes e a leitura de um historico
+	 * serializado, que refaz as somas acumuladas.
+	 */
+	@Test
+	public void testRecalcularESerializar() throws IOException, ClassNotFoundException {
+		for (int i = 0; i < 100; i++) {
+			historico.registrar(i % 3, DIA + i, TipoEventoReputacao.ITEM_EMPRESTADO, i);
+		}
+		double[] reputacoes = historico.recalcular(4);
+		assertEquals(4, reputacoes.length);
+		assertEquals(historico.reputacaoEm(0, Integer.MAX_VALUE), reputacoes[0], 0.0);
+		assertEquals(historico.reputacaoEm(2, Integer.MAX_VALUE), reputacoes[2], 0.0);
+		assertEquals(0.0, reputacoes[3], 0.0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+			saida.writeObject(historico);
+		}
+		HistoricoReputacao lido;
+		try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			lido = (HistoricoReputacao) entrada.readObject();
+		}
+		assertEquals(100, lido.tamanho());
+		assertEquals(historico.reputacaoEm(1, DIA + 50), lido.reputacaoEm(1, DIA + 50), 0.0);
+		lido.registrar(1, Datas.SEM_DATA, TipoEventoReputacao.ITEM_ADICIONADO, 1.0);
+		assertEquals(DIA + 99, lido.getDia(100));
+	}
+
+	/**
+	 * Testa se o controlador registra cada alteracao de reputacao e se o
+	 * recalculo desfaz uma reputacao alterada fora do historico, com o cartao.
+	 */
+	@Test
+	public void testControllerUsuario() {
+		ControllerUsuario controller = new ControllerUsuario();
+		int id = controller.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		controller.addReputacaoItemAdicionado(id, 100);
+		controller.addReputacaoItemEmprestado(id, 100, DIA);
+		controller.addReputacaoItemDevolvidoAtrasado(id, 100, 30, DIA + 5);
+
+		HistoricoReputacao eventos = controller.getHistoricoReputacao();
+		assertEquals(3, eventos.tamanho());
+		assertEquals(DIA + 5, eventos.getDia(2));
+		assertEquals(-30.0, eventos.getVariacao(2), 0.0);
+		assertEquals(15.0, controller.getReputacaoEm("Ana", "1", "01/01/2018"), 0.0);
+		assertEquals("-15.0", controller.getInfoUsuario("Ana", "1", "Reputacao"));
+
+		controller.getUsuario(id).redefinirReputacao(500);
+		assertEquals("BomAmigo", controller.getInfoUsuario("Ana", "1", "Cartao"));
+		controller.recalcularReputacoes();
+		assertEquals("-15.0", controller.getInfoUsuario("Ana", "1", "Reputacao"));
+		assertEquals("Caloteiro", controller.getInfoUsuario("Ana", "1", "Cartao"));
+		assertEquals("Lista de usuarios com reputacao negativa: Ana, ana@ana.com, 1|", controller.listarCaloteiros());
+	}
+
+	/**
+	 * Testa a consulta pela data dos emprestimos e devolucoes do sistema. O
+	 * item cadastrado antes de qualquer data fica sem data e conta em todas.
+	 */
+	@Test
+	public void testSistema() throws ParseException {
+		Sistema sistema = new Sistema();
+		sistema.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		sistema.cadastrarUsuario("Bia", "2", "bia@bia.com");
+		sistema.cadastrarEletronico("Ana", "1", "Dota", 100, "PC");
+		sistema.registrarEmprestimo("Ana", "1", "Bia", "2", "Dota", "01/02/2018", 5);
+		sistema.devolverItem("Ana", "1", "Bia", "2", "Dota", "01/02/2018", "10/02/2018");
+
+		assertEquals("5.0", sistema.getReputacaoEm("Ana", "1", "31/12/2017"));
+		assertEquals("15.0", sistema.getReputacaoEm("Ana", "1", "01/02/2018"));
+		assertEquals("0.0", sistema.getReputacaoEm("Bia", "2", "09/02/2018"));
+		assertEquals("-4.0", sistema.getReputacaoEm("Bia", "2", "10/02/2018"));
+		sistema.recalcularReputacoes();
+		assertEquals("-4.0", sistema.getInfoUsuario("Bia", "2", "Reputacao"));
+	}
+
+}
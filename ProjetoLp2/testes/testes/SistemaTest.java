@@ -5,9 +5,15 @@ import static org.junit.Assert.*;
  * Classe de Testes de Sistema
  */
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -17,6 +23,8 @@ import projeto.Item;
 import projeto.Sistema;
 import projeto.bluray.BluraySeries;
 import projeto.jogo.JogoTabuleiro;
+import projeto.persistencia.Diario;
+import projeto.persistencia.RegistroDiario;
 
 public class SistemaTest {
 
@@ -564,6 +572,79 @@ public class SistemaTest {
 				sis.listarTop10Itens());
 	}
 
+	/**
+	 * Testa se as listagens escritas em um Appendable produzem o mesmo texto das
+	 * listagens que retornam String
+	 */
+	@Test
+	public void listagensEmAppendableTest() throws ParseException, IOException {
+		Sistema sis = new Sistema();
+
+		sis.cadastrarUsuario("Javan", "87008519", "javan.lacerda@ccc.ufcg.edu.br");
+		sis.cadastrarUsuario("Joao", "11112222", "joao@joao.com");
+		sis.cadastrarJogoTabuleiro("Javan", "87008519", "Xadrez", 70);
+		sis.cadastrarJogoTabuleiro("Javan", "87008519", "Dama", 20);
+		sis.registrarEmprestimo("Javan", "87008519", "Joao", "11112222", "Xadrez", "22/07/2017", 5);
+
+		StringWriter saida = new StringWriter();
+		sis.listarItensOrdenadosPorNome(saida);
+		assertEquals(sis.listarItensOrdenadosPorNome(), saida.toString());
+
+		saida = new StringWriter();
+		sis.listarEmprestimosUsuarioEmprestando("Javan", "87008519", saida);
+		assertEquals(sis.listarEmprestimosUsuarioEmprestando("Javan", "87008519"), saida.toString());
+
+		saida = new StringWriter();
+		sis.listarEmprestimosItem("Dama", saida);
+		assertEquals("Nenhum emprestimos associados ao item", saida.toString());
+
+		StringBuilder top10 = new StringBuilder();
+		sis.listarTop10Itens(top10);
+		assertEquals(sis.listarTop10Itens(), top10.toString());
+	}
+
+	/**
+	 * Testa se as listagens escritas em um Appendable liberam as travas antes de
+	 * escrever: o destino cadastra um usuário em outra thread e espera por ele.
+	 */
+	@Test
+	public void listagensEscrevemForaDaTravaTest() throws Exception {
+		sistema.cadastrarJogoTabuleiro("Magaiver", "333", "War", 10);
+		List<String> cadastrados = new ArrayList<>();
+		Appendable saida = new Appendable() {
+
+			@Override
+			public Appendable append(CharSequence texto) {
+				String nome = "Usuario " + cadastrados.size();
+				Thread cadastro = new Thread(() -> sistema.cadastrarUsuario(nome, "1", "usuario@lp2.com"));
+				cadastro.start();
+				try {
+					cadastro.join(5000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				assertFalse(cadastro.isAlive());
+				cadastrados.add(nome);
+				return this;
+			}
+
+			@Override
+			public Appendable append(CharSequence texto, int inicio, int fim) {
+				return append(texto.subSequence(inicio, fim));
+			}
+
+			@Override
+			public Appendable append(char caractere) {
+				return append(String.valueOf(caractere));
+			}
+		};
+
+		sistema.listarItensNaoEmprestados(saida);
+		sistema.listarCaloteiros(saida);
+		assertEquals(2, cadastrados.size());
+		assertTrue(sistema.checaSeUsuarioJaExiste("Usuario 1", "1"));
+	}
+
 	/**
 	 * Testa se o metodo listarItensNaoEmprestados está retornando a lista de itens
 	 * que não estao emprestados
@@ -655,7 +736,7 @@ public class SistemaTest {
 		sis.devolverItem("Javan", "87008519", "Joao", "11112222", "Xadrez", "22/07/2017", "30/10/2017");
 
 		assertEquals(
-				"1: Javan - Reputacao: 13,50|2: Jesica - Reputacao: 0,00|3: Juca - Reputacao: 0,00|4: Jyca - Reputacao: 0,00|5: Jaca - Reputacao: 0,00|6: Jica - Reputacao: 0,00|7: Jwaca - Reputacao: 0,00|8: Jeca - Reputacao: 0,00|9: Joca - Reputacao: -0,66|10: Joao - Reputacao: -62,30|",
+				"1: Javan - Reputacao: 13,50|2: Jaca - Reputacao: 0,00|3: Jeca - Reputacao: 0,00|4: Jesica - Reputacao: 0,00|5: Jica - Reputacao: 0,00|6: Juca - Reputacao: 0,00|7: Jwaca - Reputacao: 0,00|8: Jyca - Reputacao: 0,00|9: Joca - Reputacao: -0,66|10: Joao - Reputacao: -62,30|",
 				sis.listarTop10MelhoresUsuarios());
 	}
 
@@ -693,8 +774,120 @@ public class SistemaTest {
 		sis.devolverItem("Javan", "87008519", "Joao", "11112222", "Xadrez", "22/07/2017", "30/10/2017");
 
 		assertEquals(
-				"1: Joao - Reputacao: -62,30|2: Joca - Reputacao: -0,66|3: Jesica - Reputacao: 0,00|4: Juca - Reputacao: 0,00|5: Jyca - Reputacao: 0,00|6: Jaca - Reputacao: 0,00|7: Jica - Reputacao: 0,00|8: Jwaca - Reputacao: 0,00|9: Jeca - Reputacao: 0,00|10: Javan - Reputacao: 13,50|",
+				"1: Joao - Reputacao: -62,30|2: Joca - Reputacao: -0,66|3: Jaca - Reputacao: 0,00|4: Jeca - Reputacao: 0,00|5: Jesica - Reputacao: 0,00|6: Jica - Reputacao: 0,00|7: Juca - Reputacao: 0,00|8: Jwaca - Reputacao: 0,00|9: Jyca - Reputacao: 0,00|10: Javan - Reputacao: 13,50|",
 				sis.listarTop10PioresUsuarios());
 	}
 
+	/**
+	 * Testa operações simultâneas em pares de usuários, com empréstimos cruzados
+	 * entre os dois usuários de cada par, comparando com a mesma sequência
+	 * executada em uma única thread.
+	 */
+	@Test
+	public void operacoesConcorrentesTest() throws InterruptedException, ParseException {
+		Sistema concorrente = new Sistema();
+		Sistema sequencial = new Sistema();
+		for (int i = 0; i < 8; i++) {
+			concorrente.cadastrarUsuario("Usuario " + i, "9" + i, "usuario@lp2.com");
+			sequencial.cadastrarUsuario("Usuario " + i, "9" + i, "usuario@lp2.com");
+		}
+
+		List<Throwable> falhas = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			int dono = i;
+			int requerente = i ^ 1;
+			Thread thread = new Thread(() -> {
+				try {
+					emprestarEDevolver(concorrente, dono, requerente);
+				} catch (Throwable e) {
+					falhas.add(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join(30000);
+			assertFalse(thread.isAlive());
+		}
+		assertTrue(falhas.isEmpty());
+
+		for (int i = 0; i < 8; i++) {
+			emprestarEDevolver(sequencial, i, i ^ 1);
+		}
+		for (int i = 0; i < 8; i++) {
+			assertEquals(sequencial.getInfoUsuario("Usuario " + i, "9" + i, "Reputacao"),
+					concorrente.getInfoUsuario("Usuario " + i, "9" + i, "Reputacao"));
+			assertEquals(200, concorrente.getItensUsuario("Usuario " + i, "9" + i).size());
+		}
+		assertEquals("", concorrente.listarItensEmprestados());
+		assertEquals(sequencial.listarTop10Itens(), concorrente.listarTop10Itens());
+	}
+
+	private void emprestarEDevolver(Sistema sis, int dono, int requerente) throws ParseException {
+		for (int j = 0; j < 200; j++) {
+			String item = "Jogo " + dono + "-" + j;
+			sis.cadastrarJogoTabuleiro("Usuario " + dono, "9" + dono, item, 10);
+			sis.registrarEmprestimo("Usuario " + dono, "9" + dono, "Usuario " + requerente, "9" + requerente, item,
+					"01/01/2018", 5);
+			sis.devolverItem("Usuario " + dono, "9" + dono, "Usuario " + requerente, "9" + requerente, item,
+					"01/01/2018", "03/01/2018");
+		}
+	}
+
+	/**
+	 * Testa se uma operação com argumento que não cabe no diário é recusada sem
+	 * alterar o sistema, se uma operação que falhou é registrada e ignorada na
+	 * reaplicação e se uma falha inesperada na reaplicação é lançada.
+	 */
+	@Test
+	public void diarioTest() throws IOException, ParseException {
+		File arquivo = File.createTempFile("sistema", ".diario");
+		arquivo.deleteOnExit();
+		Diario diario = new Diario(arquivo, 0, 1);
+		sistema.setDiario(diario);
+		char[] nome = new char[70000];
+		Arrays.fill(nome, 'a');
+		try {
+			sistema.cadastrarJogoTabuleiro("Magaiver", "333", new String(nome), 10);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Argumento muito grande", e.getMessage());
+		}
+		assertTrue(sistema.getItensUsuario("Magaiver", "333").isEmpty());
+
+		sistema.cadastrarJogoTabuleiro("Magaiver", "333", "War", 10);
+		try {
+			sistema.cadastrarJogoTabuleiro("Magaiver", "333", "Xadrez", -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Preco invalido", e.getMessage());
+		}
+		sistema.setDiario(null);
+		diario.fechar();
+
+		List<RegistroDiario> registros = Diario.ler(arquivo);
+		assertEquals(2, registros.size());
+		assertFalse(registros.get(0).isFalhou());
+		assertTrue(registros.get(1).isFalhou());
+
+		Sistema reaplicado = new Sistema();
+		reaplicado.cadastrarUsuario("Magaiver", "333", "magaiver@gmail.com");
+		for (RegistroDiario registro : registros) {
+			reaplicado.reaplicar(registro);
+		}
+		assertEquals(sistema.getInfoUsuario("Magaiver", "333", "Reputacao"),
+				reaplicado.getInfoUsuario("Magaiver", "333", "Reputacao"));
+		assertEquals(1, reaplicado.getItensUsuario("Magaiver", "333").size());
+
+		try {
+			reaplicado.reaplicar(
+					new RegistroDiario(3, "cadastrarJogoTabuleiro", new String[] { "Ana", "1", "War", "10.0" }, false));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Usuario invalido", e.getMessage());
+		}
+	}
+
 }
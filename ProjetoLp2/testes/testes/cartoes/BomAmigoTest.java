@@ -18,7 +18,7 @@ public class BomAmigoTest {
 
 	@Before
 	public void instancia() {
-		this.bomAmigo = new BomAmigo();
+		this.bomAmigo = BomAmigo.INSTANCIA;
 	}
 
 	/**
@@ -18,7 +18,7 @@ public class CaloteiroTest {
 
 	@Before
 	public void instancia() {
-		caloteiro = new Caloteiro();
+		caloteiro = Caloteiro.INSTANCIA;
 	}
 
 	/**
@@ -17,7 +17,7 @@ public class FreeRyderTest {
 
 	@Before
 	public void instancia() {
-		freeRyder = new FreeRyder();
+		freeRyder = FreeRyder.INSTANCIA;
 	}
 
 	/**
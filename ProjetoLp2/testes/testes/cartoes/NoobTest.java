@@ -1,6 +1,13 @@
 package testes.cartoes;
 
 import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.Before;
 import org.junit.Test;
 import projeto.cartao.Noob;
@@ -17,7 +24,7 @@ public class NoobTest {
 
 	@Before
 	public void instancia() {
-		noob = new Noob();
+		noob = Noob.INSTANCIA;
 	}
 
 	/**
@@ -59,4 +66,18 @@ public class NoobTest {
 
 	}
 
+	/**
+	 * Testa se o cartão desserializado é a instância compartilhada.
+	 */
+	@Test
+	public void desserializacaoTest() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+			saida.writeObject(noob);
+		}
+		try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertSame(Noob.INSTANCIA, entrada.readObject());
+		}
+	}
+
 }
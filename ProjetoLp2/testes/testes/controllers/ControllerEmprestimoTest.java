@@ -70,4 +70,79 @@ public class ControllerEmprestimoTest {
 			}
 	}
 
+
+	/**
+	 * Testa se os emprestimos pegos por um requerente sao listados em ordem de
+	 * nome do dono, mantendo a ordem de registro entre emprestimos do mesmo dono.
+	 */
+	@Test
+	public void testOrdemEmprestimosPegos() throws ParseException {
+		ChaveUsuario requerente = new ChaveUsuario("Chester", "51999995555");
+		ChaveUsuario zeca = new ChaveUsuario("Zeca", "1111");
+		ChaveUsuario ana = new ChaveUsuario("Ana", "2222");
+
+		cEmprestimo.registrarEmprestimo(zeca, requerente, "War", "10/02/2018", 7);
+		cEmprestimo.registrarEmprestimo(ana, requerente, "Dota", "11/02/2018", 5);
+		cEmprestimo.registrarEmprestimo(zeca, requerente, "Xadrez", "12/02/2018", 3);
+		cEmprestimo.registrarEmprestimo(ana, requerente, "Uno", "13/02/2018", 2);
+
+		assertEquals("Emprestimos pegos: EMPRESTIMO - De: Ana, Para: Chester, Dota, 11/02/2018, 5 dias, ENTREGA: Emprestimo em andamento|"
+				+ "EMPRESTIMO - De: Ana, Para: Chester, Uno, 13/02/2018, 2 dias, ENTREGA: Emprestimo em andamento|"
+				+ "EMPRESTIMO - De: Zeca, Para: Chester, War, 10/02/2018, 7 dias, ENTREGA: Emprestimo em andamento|"
+				+ "EMPRESTIMO - De: Zeca, Para: Chester, Xadrez, 12/02/2018, 3 dias, ENTREGA: Emprestimo em andamento|",
+				cEmprestimo.listarEmprestimosUsuarioPegandoEmprestado("Chester", "51999995555"));
+		assertEquals("Emprestimos: EMPRESTIMO - De: Zeca, Para: Chester, War, 10/02/2018, 7 dias, ENTREGA: Emprestimo em andamento|"
+				+ "EMPRESTIMO - De: Zeca, Para: Chester, Xadrez, 12/02/2018, 3 dias, ENTREGA: Emprestimo em andamento|",
+				cEmprestimo.listarEmprestimosUsuarioEmprestando("Zeca", "1111"));
+	}
+
+	/**
+	 * Testa se um emprestimo ja devolvido nao pode ser devolvido novamente e se
+	 * um novo emprestimo com os mesmos dados pode ser devolvido.
+	 */
+	@Test
+	public void testDevolucaoEmprestimoFechado() throws ParseException {
+		ChaveUsuario dono = new ChaveUsuario("MC Lon", "51996995555");
+		ChaveUsuario requerente = new ChaveUsuario("Chester", "51999995555");
+		cEmprestimo.registrarEmprestimo(dono, requerente, "War", "10/02/2018", 7);
+		assertEquals(-3, cEmprestimo.devolverItem(dono, requerente, "War", "10/02/2018", "14/02/2018"));
+
+		try {
+			cEmprestimo.devolverItem(dono, requerente, "War", "10/02/2018", "15/02/2018");
+			fail("Exceção não lançada");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Emprestimo nao encontrado", e.getMessage());
+		}
+
+		cEmprestimo.registrarEmprestimo(dono, requerente, "War", "10/02/2018", 2);
+		assertEquals(3, cEmprestimo.devolverItem(dono, requerente, "War", "10/02/2018", "15/02/2018"));
+		assertEquals("Emprestimos: EMPRESTIMO - De: MC Lon, Para: Chester, War, 10/02/2018, 7 dias, ENTREGA: 14/02/2018|"
+				+ "EMPRESTIMO - De: MC Lon, Para: Chester, War, 10/02/2018, 2 dias, ENTREGA: 15/02/2018|",
+				cEmprestimo.listarEmprestimosUsuarioEmprestando("MC Lon", "51996995555"));
+	}
+
+	/**
+	 * Testa se os itens emprestados sao listados por nome do dono, na ordem de
+	 * registro entre emprestimos do mesmo dono, sem reordenar o historico usado
+	 * pela listagem de emprestimos de um item.
+	 */
+	@Test
+	public void testItensEmprestadosSemReordenarHistorico() throws ParseException {
+		ChaveUsuario zeca = new ChaveUsuario("Zeca", "1111");
+		ChaveUsuario ana = new ChaveUsuario("Ana", "2222");
+		ChaveUsuario requerente = new ChaveUsuario("Chester", "51999995555");
+		cEmprestimo.registrarEmprestimo(zeca, requerente, "War", "10/02/2018", 7);
+		cEmprestimo.registrarEmprestimo(ana, requerente, "War", "11/02/2018", 7);
+		cEmprestimo.registrarEmprestimo(zeca, requerente, "Dota", "12/02/2018", 7);
+		cEmprestimo.registrarEmprestimo(ana, requerente, "Xadrez", "13/02/2018", 7);
+		cEmprestimo.devolverItem(ana, requerente, "Xadrez", "13/02/2018", "14/02/2018");
+
+		assertEquals("Dono do item: Ana, Nome do item emprestado: War|Dono do item: Zeca, Nome do item emprestado: War|"
+				+ "Dono do item: Zeca, Nome do item emprestado: Dota|", cEmprestimo.listarItensEmprestados());
+		assertEquals("Emprestimos associados ao item: "
+				+ "EMPRESTIMO - De: Zeca, Para: Chester, War, 10/02/2018, 7 dias, ENTREGA: Emprestimo em andamento|"
+				+ "EMPRESTIMO - De: Ana, Para: Chester, War, 11/02/2018, 7 dias, ENTREGA: Emprestimo em andamento|",
+				cEmprestimo.listarEmprestimosItem("War"));
+	}
+
 }
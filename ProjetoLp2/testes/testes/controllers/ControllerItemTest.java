@@ -2,7 +2,7 @@ package testes.controllers;
 
 import static org.junit.Assert.*;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
 
 import org.junit.Before;
@@ -349,10 +349,9 @@ public class ControllerItemTest {
 		Map<String, Item> mapaItens = sistema.getItensUsuario("Magaiver", "333");
 		cItem.cadastrarEletronico("Pokemon Ruby", 99.0, "PC", mapaItens);
 		cItem.cadastrarJogoTabuleiro("Zombiecide", 300.0, mapaItens);
-		List<Item> itensUsuarios = sistema.getItensUsuarios();
 		assertEquals(
 				"JOGO ELETRONICO: Pokemon Ruby, R$ 99.0, Nao emprestado, PC|JOGO DE TABULEIRO: Zombiecide, R$ 300.0, Nao emprestado, COMPLETO|",
-				cItem.listarItensOrdenadosPorNome(itensUsuarios));
+				cItem.listarItensOrdenadosPorNome());
 	}
 
 	/**
@@ -365,10 +364,9 @@ public class ControllerItemTest {
 		cItem.cadastrarJogoTabuleiro("Dead of Winter", 300.0, mapaItens);
 		cItem.cadastrarJogoTabuleiro("Sheriff of Nottingham", 179.0, mapaItens);
 		cItem.cadastrarEletronico("Fifa 17", 79.99, "PS4", mapaItens);
-		List<Item> itensUsuarios = sistema.getItensUsuarios();
 		assertEquals(
 				"JOGO ELETRONICO: Fifa 17, R$ 80.0, Nao emprestado, PS4|JOGO DE TABULEIRO: Sheriff of Nottingham, R$ 179.0, Nao emprestado, COMPLETO|JOGO DE TABULEIRO: Dead of Winter, R$ 300.0, Nao emprestado, COMPLETO|",
-				cItem.listarItensOrdenadosPorValor(itensUsuarios));
+				cItem.listarItensOrdenadosPorValor());
 	}
 
 	/**
@@ -383,10 +381,10 @@ public class ControllerItemTest {
 		cItem.cadastrarJogoTabuleiro("Zombiecide", 300.0, mapaItens);
 		cItem.emprestarItem("Zombiecide", mapaItens);
 		cItem.emprestarItem("Diablo 3", mapaItens);
-		List<Item> itensUsuarios = sistema.getItensUsuarios();
-		assertEquals(
-				"JOGO ELETRONICO: Diablo 3, R$ 120.0, Emprestado, PC|JOGO DE TABULEIRO: Zombiecide, R$ 300.0, Emprestado, COMPLETO|",
-				cItem.listarItensEmprestados(itensUsuarios));
+		assertEquals("Emprestado", mapaItens.get("Diablo 3").getEstado());
+		assertEquals("Emprestado", mapaItens.get("Zombiecide").getEstado());
+		assertEquals("Nao emprestado", mapaItens.get("Dota 2").getEstado());
+		assertFalse(cItem.listarItensNaoEmprestados().contains("Diablo 3"));
 	}
 
 	/**
@@ -402,10 +400,9 @@ public class ControllerItemTest {
 		cItem.cadastrarJogoTabuleiro("Zombiecide", 300.0, mapaItens);
 		cItem.emprestarItem("Zombiecide", mapaItens);
 		cItem.emprestarItem("Diablo 3", mapaItens);
-		List<Item> itensUsuarios = sistema.getItensUsuarios();
 		assertEquals(
 				"JOGO DE TABULEIRO: Bloodrage, R$ 300.0, Nao emprestado, COMPLETO|JOGO ELETRONICO: Dota 2, R$ 10.0, Nao emprestado, PC|",
-				cItem.listarItensNaoEmprestados(itensUsuarios));
+				cItem.listarItensNaoEmprestados());
 	}
 
 	/**
@@ -419,10 +416,37 @@ public class ControllerItemTest {
 		cItem.emprestarItem("Pokemon Ruby", mapaItens);
 		cItem.cadastrarJogoTabuleiro("Zombiecide", 300.00, mapaItens);
 		cItem.emprestarItem("Zombiecide", mapaItens);
-		List<Item> itensUsuarios = sistema.getItensUsuarios();
 		assertEquals(
 				"1) 1 emprestimos - JOGO ELETRONICO: Pokemon Ruby, R$ 20.0, Emprestado, PS4|2) 1 emprestimos - JOGO DE TABULEIRO: Zombiecide, R$ 300.0, Emprestado, COMPLETO|",
-				cItem.listarTop10Itens(itensUsuarios));
+				cItem.listarTop10Itens());
+	}
+
+	/**
+	 * Verifica se o catálogo acompanha cadastro, atualização e remoção de itens
+	 * e se as listagens sem parâmetro o utilizam
+	 */
+	@Test
+	public void catalogoTest() {
+		Map<String, Item> mapaItens = sistema.getItensUsuario("Magaiver", "333");
+		cItem.cadastrarEletronico("Pokemon Ruby", 99.0, "PC", mapaItens);
+		cItem.cadastrarJogoTabuleiro("Zombiecide", 300.0, mapaItens);
+		cItem.cadastrarJogoTabuleiro("Bloodrage", 150.0, mapaItens);
+		Collection<Item> catalogo = cItem.getCatalogo();
+		assertEquals(3, catalogo.size());
+
+		cItem.removerItem("Bloodrage", mapaItens);
+		cItem.atualizarItem("Pokemon Ruby", "Nome", "Pokemon Sapphire", mapaItens);
+		cItem.cadastrarJogoTabuleiro("Zombiecide", 250.0, mapaItens);
+		assertEquals(2, catalogo.size());
+		try {
+			catalogo.clear();
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertEquals(2, cItem.getCatalogo().size());
+		}
+		assertEquals(
+				"JOGO ELETRONICO: Pokemon Sapphire, R$ 99.0, Nao emprestado, PC|JOGO DE TABULEIRO: Zombiecide, R$ 250.0, Nao emprestado, COMPLETO|",
+				cItem.listarItensOrdenadosPorNome());
 	}
 
 }
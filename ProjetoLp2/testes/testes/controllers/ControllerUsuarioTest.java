@@ -149,6 +149,46 @@ public class ControllerUsuarioTest {
 
 	}
 
+	/**
+	 * Testa se a atualização recusa o nome ou telefone que levaria à chave de
+	 * outro usuário, sem alterar nenhum dos dois
+	 */
+	@Test
+	public void atualizarUsuarioChaveExistenteTest() {
+		controllerUsuario.cadastrarUsuario("Igor", "190", "igor@ventila.com");
+		controllerUsuario.cadastrarUsuario("Lucas", "190", "lucas@ventila.com");
+		controllerUsuario.cadastrarUsuario("Lucas", "999", "lucas2@ventila.com");
+
+		try {
+			controllerUsuario.atualizarUsuario("Igor", "190", "Nome", "Lucas");
+			fail("Chave de outro usuario aceita");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Usuario ja cadastrado", e.getMessage());
+		}
+		try {
+			controllerUsuario.atualizarUsuario("Lucas", "190", "Telefone", "999");
+			fail("Chave de outro usuario aceita");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Usuario ja cadastrado", e.getMessage());
+		}
+		assertEquals("igor@ventila.com", controllerUsuario.getInfoUsuario("Igor", "190", "Email"));
+		assertEquals("lucas@ventila.com", controllerUsuario.getInfoUsuario("Lucas", "190", "Email"));
+		assertEquals("lucas2@ventila.com", controllerUsuario.getInfoUsuario("Lucas", "999", "Email"));
+
+		Sistema sistema = new Sistema();
+		sistema.cadastrarUsuario("Igor", "190", "igor@ventila.com");
+		sistema.cadastrarUsuario("Lucas", "190", "lucas@ventila.com");
+		sistema.cadastrarJogoTabuleiro("Lucas", "190", "War", 50.0);
+		try {
+			sistema.atualizarUsuario("Igor", "190", "Nome", "Lucas");
+			fail("Chave de outro usuario aceita");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Usuario ja cadastrado", e.getMessage());
+		}
+		assertEquals("War", sistema.getInfoItem("Lucas", "190", "War", "Nome"));
+		assertTrue(sistema.listarItensOrdenadosPorNome().contains("War"));
+	}
+
 	/**
 	 * Testa se o método chaca corretamente se um usuário existe no mapa de
 	 * Usuários, e caso não existe, lança a devida exceção.
@@ -0,0 +1,158 @@
+package testes.importacao;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Sistema;
+import projeto.importacao.ImportadorCsv;
+import projeto.importacao.LinhaImportacao;
+import projeto.importacao.RelatorioImportacao;
+import projeto.persistencia.Diario;
+import projeto.persistencia.RegistroDiario;
+
+/**
+ * Testes da classe ImportadorCsv.
+ *
+ * @author caiosbl
+ *
+ */
+public class ImportadorCsvTest {
+
+	private Sistema sistema;
+	private List<String> aplicadas;
+
+	@Before
+	public void setUp() {
+		sistema = new Sistema();
+		aplicadas = new ArrayList<>();
+	}
+
+	private RelatorioImportacao importar(String csv, int tamanhoLote) throws IOException {
+		ImportadorCsv importador = new ImportadorCsv(sistema, tamanhoLote);
+		return importador.importar(new StringReader(csv), this::aplicada);
+	}
+
+	private void aplicada(LinhaImportacao linha) {
+		aplicadas.add(linha.getOperacao() + Arrays.toString(linha.getArgumentos()));
+	}
+
+	/**
+	 * Testa se usuários, itens e empréstimos são importados em lotes pequenos,
+	 * com usuários cadastrados em um lote e usados no seguinte.
+	 */
+	@Test
+	public void testImportar() throws IOException {
+		String csv = "cadastrarUsuario,Ana,1,ana@ana.com\n" + "cadastrarUsuario,Bia,2,bia@bia.com\n"
+				+ "cadastrarEletronico,Ana,1,Dota,100.0,PC\n" + "\n"
+				+ "cadastrarBluRayFilme,Ana,1,\"Avatar, o filme\",10.5,60,ACAO,LIVRE,2010\n"
+				+ "registrarEmprestimo,Ana,1,Bia,2,Dota,01/02/2018,5\n";
+		RelatorioImportacao relatorio = importar(csv, 2);
+
+		assertEquals(5, relatorio.getNumAplicadas());
+		assertTrue(relatorio.getRejeicoes().isEmpty());
+		assertEquals("Noob", sistema.getInfoUsuario("Ana", "1", "Cartao"));
+		assertEquals("15.525", sistema.getInfoUsuario("Ana", "1", "Reputacao"));
+		assertEquals("Dono do item: Ana, Nome do item emprestado: Dota|", sistema.listarItensEmprestados());
+		assertEquals(5, aplicadas.size());
+		assertEquals("cadastrarBluRayFilme[Ana, 1, Avatar, o filme, 10.5, 60, ACAO, LIVRE, 2010]", aplicadas.get(3));
+	}
+
+	/**
+	 * Testa se linhas inválidas são rejeitadas com o número da linha no arquivo,
+	 * sem interromper a importação.
+	 */
+	@Test
+	public void testRejeicoes() throws IOException {
+		String csv = "cadastrarUsuario,Ana,1,ana@ana.com\n" + "cadastrarEletronico,Ana,1,Dota,abc,PC\n"
+				+ "cadastrarUsuario,Ana,1,ana@ana.com\n" + "\n" + "cadastrarJogoTabuleiro,Caio,9,War,10\n"
+				+ "cadastrarJogoTabuleiro,Ana,1,\"War,10\n" + "removerUsuario,Ana,1\n"
+				+ "cadastrarJogoTabuleiro,Ana,1,War\n" + "cadastrarJogoTabuleiro,Ana,1,War,10\n";
+		RelatorioImportacao relatorio = importar(csv, 3);
+
+		assertEquals(2, relatorio.getNumAplicadas());
+		assertEquals(Arrays.asList("Linha 2: Preco invalido", "Linha 3: Usuario ja cadastrado",
+				"Linha 5: Usuario invalido", "Linha 6: Aspas nao fechadas", "Linha 7: Operacao invalida",
+				"Linha 8: Numero de campos invalido"), relatorio.getRejeicoes());
+		assertEquals("Linhas importadas: 2, rejeitadas: 6|Linha 2: Preco invalido|Linha 3: Usuario ja cadastrado"
+				+ "|Linha 5: Usuario invalido|Linha 6: Aspas nao fechadas|Linha 7: Operacao invalida"
+				+ "|Linha 8: Numero de campos invalido", relatorio.toString());
+		assertEquals(2, aplicadas.size());
+	}
+
+	/**
+	 * Testa se o ranking e o índice de popularidade, atualizados só ao fim de
+	 * cada lote, ficam iguais aos de um sistema montado operação por operação.
+	 */
+	@Test
+	public void testIndicesIguaisAoCadastroUmAUm() throws IOException, ParseException {
+		Sistema esperado = new Sistema();
+		StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < 12; i++) {
+			String nome = "Usuario" + i;
+			String telefone = String.valueOf(i);
+			esperado.cadastrarUsuario(nome, telefone, "u@u.com");
+			esperado.cadastrarEletronico(nome, telefone, "Jogo" + i, 10.0 * (i + 1), "PC");
+			csv.append("cadastrarUsuario,").append(nome).append(',').append(telefone).append(",u@u.com\n");
+			csv.append("cadastrarEletronico,").append(nome).append(',').append(telefone).append(",Jogo").append(i)
+					.append(',').append(10.0 * (i + 1)).append(",PC\n");
+		}
+		for (int i = 0; i < 12; i += 2) {
+			esperado.registrarEmprestimo("Usuario" + i, String.valueOf(i), "Usuario" + (i + 1),
+					String.valueOf(i + 1), "Jogo" + i, "01/01/2018", 5);
+			csv.append("registrarEmprestimo,Usuario").append(i).append(',').append(i).append(",Usuario")
+					.append(i + 1).append(',').append(i + 1).append(",Jogo").append(i).append(",01/01/2018,5\n");
+		}
+		RelatorioImportacao relatorio = importar(csv.toString(), 5);
+
+		assertEquals(30, relatorio.getNumAplicadas());
+		assertEquals(esperado.listarTop10MelhoresUsuarios(), sistema.listarTop10MelhoresUsuarios());
+		assertEquals(esperado.listarTop10PioresUsuarios(), sistema.listarTop10PioresUsuarios());
+		assertEquals(esperado.listarTop10Itens(), sistema.listarTop10Itens());
+		assertEquals(esperado.listarItensOrdenadosPorNome(), sistema.listarItensOrdenadosPorNome());
+	}
+
+	/**
+	 * Testa se as linhas importadas vão para o diário com os valores aplicados,
+	 * e não com os espaços do arquivo, de modo que o sistema reaplicado a partir
+	 * do diário, como ao reiniciar, fica igual ao importado.
+	 */
+	@Test
+	public void testImportarEReiniciar() throws IOException, ParseException {
+		File arquivo = File.createTempFile("sistema", ".diario");
+		arquivo.deleteOnExit();
+		Diario diario = new Diario(arquivo, 0, Diario.LOTE_PADRAO);
+		sistema.setDiario(diario);
+		String csv = "cadastrarUsuario,Ana,1,ana@ana.com\n" + "cadastrarUsuario,Bia,2,bia@bia.com\n"
+				+ "cadastrarBluRaySerie,Ana,1,Dark, 60 ,Viagem no tempo, 50 ,DEZESSEIS_ANOS,SUSPENSE, 1\n"
+				+ "cadastrarJogoTabuleiro,Ana,1,War, 10\n" + "registrarEmprestimo,Ana,1,Bia,2,War,01/02/2018, 5 \n";
+		RelatorioImportacao relatorio = importar(csv, 2);
+		sistema.setDiario(null);
+		diario.fechar();
+		assertEquals(5, relatorio.getNumAplicadas());
+		assertEquals("cadastrarBluRaySerie[Ana, 1, Dark, 60.0, Viagem no tempo, 50, DEZESSEIS_ANOS, SUSPENSE, 1]",
+				aplicadas.get(2));
+
+		Sistema reiniciado = new Sistema();
+		for (RegistroDiario registro : Diario.ler(arquivo)) {
+			reiniciado.reaplicar(registro);
+		}
+		assertEquals(sistema.getInfoUsuario("Bia", "2", "Reputacao"),
+				reiniciado.getInfoUsuario("Bia", "2", "Reputacao"));
+		assertEquals(sistema.getInfoItem("Ana", "1", "Dark", "Preco"),
+				reiniciado.getInfoItem("Ana", "1", "Dark", "Preco"));
+		assertEquals(sistema.listarItensEmprestados(), reiniciado.listarItensEmprestados());
+		assertEquals(sistema.listarEmprestimosUsuarioEmprestando("Ana", "1"),
+				reiniciado.listarEmprestimosUsuarioEmprestando("Ana", "1"));
+	}
+
+}
@@ -0,0 +1,95 @@
+package testes.indices;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Usuario;
+import projeto.indices.ConjuntoCaloteiros;
+
+/**
+ * Testes da classe ConjuntoCaloteiros.
+ *
+ * @author caiosbl
+ *
+ */
+public class ConjuntoCaloteirosTest {
+
+	private ConjuntoCaloteiros caloteiros;
+	private Usuario caio;
+	private Usuario ana;
+	private Usuario bia;
+
+	@Before
+	public void setUp() {
+		caloteiros = new ConjuntoCaloteiros();
+		caio = new Usuario("Caio", "caio@caio.com", "190");
+		ana = new Usuario("Ana", "ana@ana.com", "191");
+		bia = new Usuario("Bia", "bia@bia.com", "192");
+		caloteiros.adicionar(caio);
+		caloteiros.adicionar(ana);
+		caloteiros.adicionar(bia);
+	}
+
+	private void atrasar(Usuario usuario, double valorItem, int diasAtraso) {
+		double anterior = usuario.getReputacao();
+		usuario.addReputacaoItemDevolvidoAtrasado(valorItem, diasAtraso);
+		caloteiros.reputacaoAlterada(usuario, anterior);
+	}
+
+	/**
+	 * Testa se usuários com reputação não negativa ficam fora do conjunto.
+	 */
+	@Test
+	public void testSemCaloteiros() {
+		assertEquals(0, caloteiros.tamanho());
+		assertTrue(caloteiros.listar().isEmpty());
+	}
+
+	/**
+	 * Testa se os usuários entram e saem do conjunto quando a reputação troca
+	 * de sinal, e se são listados por nome.
+	 */
+	@Test
+	public void testTrocaDeSinal() {
+		atrasar(caio, 100, 2);
+		atrasar(ana, 100, 1);
+		assertEquals(2, caloteiros.tamanho());
+		assertEquals("Ana", caloteiros.listar().get(0).getNome());
+		assertEquals("Caio", caloteiros.listar().get(1).getNome());
+
+		atrasar(ana, 100, 1);
+		assertEquals(2, caloteiros.tamanho());
+
+		double anterior = caio.getReputacao();
+		caio.addReputacaoItemAdicionado(1000);
+		caloteiros.reputacaoAlterada(caio, anterior);
+		assertEquals(1, caloteiros.tamanho());
+		assertEquals("Ana", caloteiros.listar().get(0).getNome());
+	}
+
+	/**
+	 * Testa se o conjunto acompanha alterações de nome e remoções.
+	 */
+	@Test
+	public void testAlteracoes() {
+		atrasar(ana, 100, 1);
+		atrasar(bia, 100, 1);
+
+		ana.setNome("Zoe");
+		caloteiros.identificacaoAlterada(ana, "Ana", "191");
+		assertEquals("Bia", caloteiros.listar().get(0).getNome());
+		assertEquals("Zoe", caloteiros.listar().get(1).getNome());
+
+		caio.setNome("Davi");
+		caloteiros.identificacaoAlterada(caio, "Caio", "190");
+		assertEquals(2, caloteiros.tamanho());
+
+		caloteiros.remover(bia);
+		caloteiros.remover(caio);
+		assertEquals(1, caloteiros.tamanho());
+		assertEquals("Zoe", caloteiros.listar().get(0).getNome());
+	}
+
+}
@@ -0,0 +1,148 @@
+package testes.indices;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Item;
+import projeto.Sistema;
+import projeto.bluray.BluraySeries;
+import projeto.bluray.BlurayShow;
+import projeto.indices.IndiceBusca;
+import projeto.jogo.JogoTabuleiro;
+
+/**
+ * Testes da classe IndiceBusca.
+ *
+ * @author igoratf
+ *
+ */
+public class IndiceBuscaTest {
+
+	private IndiceBusca indice;
+	private Item xadrez;
+	private Item xadrezChines;
+	private Item serie;
+	private Item show;
+
+	@Before
+	public void setUp() {
+		indice = new IndiceBusca();
+		xadrez = new JogoTabuleiro("Xadrez", 50.0);
+		xadrez.setId(1);
+		xadrezChines = new JogoTabuleiro("Xadrez Chinês", 40.0);
+		xadrezChines.setId(2);
+		serie = new BluraySeries("Dark", 60.0, 50, "Viagem no tempo em uma cidade alemã", "DEZESSEIS_ANOS",
+				"SUSPENSE", 1);
+		serie.setId(3);
+		show = new BlurayShow("Ao Vivo", 30.0, 90, 12, "Chico Buarque", "LIVRE");
+		show.setId(4);
+		indice.adicionar(xadrez);
+		indice.adicionar(xadrezChines);
+		indice.adicionar(serie);
+		indice.adicionar(show);
+	}
+
+	/**
+	 * Testa a separação em termos: minúsculas, sem acentos e sem repetições.
+	 */
+	@Test
+	public void testTermos() {
+		assertEquals(Arrays.asList("xadrez", "chines", "2"),
+				Arrays.asList(IndiceBusca.termos("Xadrez-Chinês 2, xadrez")));
+		assertEquals(0, IndiceBusca.termos(" !? ").length);
+		assertEquals(0, IndiceBusca.termos(null).length);
+	}
+
+	/**
+	 * Testa a busca por prefixo no nome, na descrição e no artista.
+	 */
+	@Test
+	public void testPrefixos() {
+		List<Item> itens = indice.pesquisar("xad", 10);
+		assertEquals(2, itens.size());
+		assertSame(xadrez, itens.get(0));
+		assertSame(xadrezChines, itens.get(1));
+
+		assertSame(serie, indice.pesquisar("alema", 10).get(0));
+		assertSame(show, indice.pesquisar("BUAR", 10).get(0));
+		assertTrue(indice.pesquisar("banco", 10).isEmpty());
+	}
+
+	/**
+	 * Testa se todos os termos da consulta precisam estar no item e se um
+	 * termo igual ao do nome vale mais que um prefixo.
+	 */
+	@Test
+	public void testVariosTermosEPontuacao() {
+		List<Item> itens = indice.pesquisar("xadrez chin", 10);
+		assertEquals(1, itens.size());
+		assertSame(xadrezChines, itens.get(0));
+		assertTrue(indice.pesquisar("xadrez tempo", 10).isEmpty());
+
+		Item xadrezes = new JogoTabuleiro("Xadrezes", 10.0);
+		xadrezes.setId(5);
+		indice.adicionar(xadrezes);
+		assertSame(xadrezes, indice.pesquisar("xadre", 10).get(2));
+		List<Item> exatos = indice.pesquisar("xadrez", 10);
+		assertSame(xadrez, exatos.get(0));
+		assertSame(xadrezes, exatos.get(2));
+		assertEquals(1, indice.pesquisar("xadrez", 1).size());
+	}
+
+	/**
+	 * Testa se o índice acompanha renomeações e remoções.
+	 */
+	@Test
+	public void testAlteracoes() {
+		int numTermos = indice.numTermos();
+		xadrez.setNome("Gamão");
+		indice.nomeAlterado(xadrez);
+		assertEquals(1, indice.pesquisar("xadrez", 10).size());
+		assertSame(xadrez, indice.pesquisar("gamao", 10).get(0));
+
+		indice.remover(xadrez);
+		indice.remover(xadrezChines);
+		assertEquals(2, indice.tamanho());
+		assertTrue(indice.pesquisar("gam", 10).isEmpty());
+		assertTrue(indice.numTermos() < numTermos);
+	}
+
+	/**
+	 * Testa a pesquisa do sistema, depois de uma renomeação, e a validação da
+	 * consulta.
+	 */
+	@Test
+	public void testPesquisaSistema() {
+		Sistema sistema = new Sistema();
+		sistema.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "War", 10.0);
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "Xadrez", 20.0);
+		sistema.cadastrarBluRayShow("Ana", "1", "Acustico", 30.0, 60, 10, "Warren Zevon", "LIVRE");
+		sistema.atualizarItem("Ana", "1", "Xadrez", "Nome", "War II");
+
+		String encontrados = sistema.pesquisarItens("war", 10);
+		assertTrue(encontrados.startsWith("JOGO DE TABULEIRO: War,"));
+		assertTrue(encontrados.contains("JOGO DE TABULEIRO: War II"));
+		assertTrue(encontrados.endsWith("Warren Zevon, 10 faixas|"));
+		assertEquals("", sistema.pesquisarItens("xadrez", 10));
+
+		try {
+			sistema.pesquisarItens(" ", 10);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Consulta invalida", e.getMessage());
+		}
+		try {
+			sistema.pesquisarItens("war", 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Quantidade invalida", e.getMessage());
+		}
+	}
+
+}
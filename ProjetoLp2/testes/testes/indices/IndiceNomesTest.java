@@ -0,0 +1,115 @@
+package testes.indices;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Item;
+import projeto.Sistema;
+import projeto.indices.IndiceNomes;
+import projeto.jogo.JogoTabuleiro;
+
+/**
+ * Testes da classe IndiceNomes.
+ *
+ * @author igoratf
+ *
+ */
+public class IndiceNomesTest {
+
+	private IndiceNomes indice;
+	private Item xadrez;
+	private Item dama;
+	private Item outraDama;
+
+	@Before
+	public void setUp() {
+		indice = new IndiceNomes();
+		xadrez = new JogoTabuleiro("Xadrez", 50.0);
+		xadrez.setId(1);
+		dama = new JogoTabuleiro("Dama", 20.0);
+		dama.setId(3);
+		outraDama = new JogoTabuleiro("Dama", 30.0);
+		outraDama.setId(2);
+		indice.adicionar(xadrez);
+		indice.adicionar(dama);
+		indice.adicionar(outraDama);
+	}
+
+	private List<Item> emOrdem() {
+		return new ArrayList<>(indice.emOrdem());
+	}
+
+	/**
+	 * Testa se o índice ordena por nome e desempata por identificador.
+	 */
+	@Test
+	public void testEmOrdem() {
+		assertEquals(3, indice.tamanho());
+		List<Item> itens = emOrdem();
+		assertSame(outraDama, itens.get(0));
+		assertSame(dama, itens.get(1));
+		assertSame(xadrez, itens.get(2));
+	}
+
+	/**
+	 * Testa se o índice acompanha alterações de nome e remoções.
+	 */
+	@Test
+	public void testAlteracoes() {
+		xadrez.setNome("Banco Imobiliario");
+		indice.nomeAlterado(xadrez, "Xadrez");
+		assertSame(xadrez, emOrdem().get(0));
+
+		indice.remover(outraDama);
+		assertEquals(2, indice.tamanho());
+		assertSame(dama, emOrdem().get(1));
+
+		outraDama.setNome("Ludo");
+		indice.nomeAlterado(outraDama, "Dama");
+		assertEquals(2, indice.tamanho());
+	}
+
+	/**
+	 * Testa se o índice pode ser percorrido enquanto itens são cadastrados e
+	 * removidos.
+	 */
+	@Test
+	public void testAlteracaoDurantePercurso() {
+		Iterator<Item> itens = indice.emOrdem().iterator();
+		assertSame(outraDama, itens.next());
+		indice.remover(xadrez);
+		Item ludo = new JogoTabuleiro("Ludo", 10.0);
+		ludo.setId(4);
+		indice.adicionar(ludo);
+		assertSame(dama, itens.next());
+		assertSame(ludo, itens.next());
+		assertFalse(itens.hasNext());
+	}
+
+	/**
+	 * Testa a listagem por nome do sistema, lida do índice.
+	 */
+	@Test
+	public void testListagemSistema() {
+		Sistema sistema = new Sistema();
+		sistema.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		sistema.cadastrarUsuario("Bia", "2", "bia@bia.com");
+		sistema.cadastrarJogoTabuleiro("Bia", "2", "War", 10.0);
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "Xadrez", 20.0);
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "War", 30.0);
+		sistema.atualizarItem("Ana", "1", "Xadrez", "Nome", "Dama");
+		sistema.removerUsuario("Bia", "2");
+
+		String listagem = sistema.listarItensOrdenadosPorNome();
+		assertTrue(listagem.startsWith("JOGO DE TABULEIRO: Dama"));
+		assertTrue(listagem.contains("War, R$ 30"));
+		assertFalse(listagem.contains("War, R$ 10"));
+	}
+
+}
@@ -0,0 +1,76 @@
+package testes.indices;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Item;
+import projeto.indices.IndicePopularidade;
+import projeto.jogo.JogoTabuleiro;
+
+/**
+ * Testes da classe IndicePopularidade.
+ *
+ * @author igoratf
+ *
+ */
+public class IndicePopularidadeTest {
+
+	private IndicePopularidade indice;
+	private Item xadrez;
+	private Item dama;
+
+	@Before
+	public void setUp() {
+		indice = new IndicePopularidade();
+		xadrez = new JogoTabuleiro("Xadrez", 50.0);
+		xadrez.setId(1);
+		dama = new JogoTabuleiro("Dama", 20.0);
+		dama.setId(2);
+	}
+
+	private void empresta(Item item) {
+		int anterior = item.getNumEmprestimos();
+		item.contaEmprestimos();
+		indice.emprestimoContado(item, anterior);
+	}
+
+	/**
+	 * Testa se o índice ordena por empréstimos e desempata por nome.
+	 */
+	@Test
+	public void testMaisEmprestados() {
+		indice.adicionar(xadrez);
+		assertTrue(indice.maisEmprestados(10).isEmpty());
+
+		empresta(xadrez);
+		empresta(dama);
+		List<Item> itens = indice.maisEmprestados(10);
+		assertEquals(2, itens.size());
+		assertEquals("Dama", itens.get(0).getNome());
+
+		empresta(xadrez);
+		assertEquals("Xadrez", indice.maisEmprestados(1).get(0).getNome());
+	}
+
+	/**
+	 * Testa se renomear e remover itens mantém o índice consistente.
+	 */
+	@Test
+	public void testAlteracoes() {
+		empresta(xadrez);
+		empresta(dama);
+
+		xadrez.setNome("Banco Imobiliario");
+		indice.nomeAlterado(xadrez, "Xadrez");
+		assertEquals(2, indice.maisEmprestados(10).size());
+		assertEquals("Banco Imobiliario", indice.maisEmprestados(1).get(0).getNome());
+
+		indice.remover(dama);
+		assertEquals(1, indice.maisEmprestados(10).size());
+	}
+
+}
@@ -0,0 +1,113 @@
+package testes.indices;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Item;
+import projeto.Sistema;
+import projeto.indices.IndiceValores;
+import projeto.jogo.JogoTabuleiro;
+
+/**
+ * Testes da classe IndiceValores.
+ *
+ * @author igoratf
+ *
+ */
+public class IndiceValoresTest {
+
+	private IndiceValores indice;
+	private Item xadrez;
+	private Item dama;
+	private Item war;
+
+	@Before
+	public void setUp() {
+		indice = new IndiceValores();
+		xadrez = new JogoTabuleiro("Xadrez", 50.0);
+		xadrez.setId(1);
+		dama = new JogoTabuleiro("Dama", 20.0);
+		dama.setId(3);
+		war = new JogoTabuleiro("War", 20.0);
+		war.setId(2);
+		indice.adicionar(xadrez);
+		indice.adicionar(dama);
+		indice.adicionar(war);
+	}
+
+	/**
+	 * Testa se o índice ordena por valor e desempata por identificador.
+	 */
+	@Test
+	public void testEmOrdem() {
+		assertEquals(3, indice.tamanho());
+		List<Item> itens = new ArrayList<>(indice.emOrdem());
+		assertSame(war, itens.get(0));
+		assertSame(dama, itens.get(1));
+		assertSame(xadrez, itens.get(2));
+	}
+
+	/**
+	 * Testa se a faixa inclui os limites e apenas os itens entre eles.
+	 */
+	@Test
+	public void testFaixa() {
+		List<Item> itens = new ArrayList<>(indice.faixa(20.0, 20.0));
+		assertEquals(2, itens.size());
+		assertSame(war, itens.get(0));
+		assertSame(dama, itens.get(1));
+
+		assertEquals(1, indice.faixa(20.5, 50.0).size());
+		assertTrue(indice.faixa(50.5, 100.0).isEmpty());
+		assertEquals(3, indice.faixa(0.0, Double.MAX_VALUE).size());
+	}
+
+	/**
+	 * Testa se o índice acompanha alterações de valor e remoções.
+	 */
+	@Test
+	public void testAlteracoes() {
+		double anterior = xadrez.getValor();
+		xadrez.setValor(10.0);
+		indice.valorAlterado(xadrez, anterior);
+		assertSame(xadrez, indice.emOrdem().iterator().next());
+		assertTrue(indice.faixa(40.0, 60.0).isEmpty());
+
+		indice.remover(war);
+		assertEquals(2, indice.tamanho());
+		assertSame(dama, new ArrayList<>(indice.faixa(15.0, 25.0)).get(0));
+	}
+
+	/**
+	 * Testa a busca por faixa de valor do sistema, depois de uma alteração de
+	 * preço, e a validação da faixa.
+	 */
+	@Test
+	public void testFaixaSistema() {
+		Sistema sistema = new Sistema();
+		sistema.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "War", 10.0);
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "Xadrez", 20.0);
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "Dama", 30.0);
+		sistema.atualizarItem("Ana", "1", "Dama", "Preco", "15");
+
+		String faixa = sistema.listarItensPorFaixaDeValor(12.0, 25.0);
+		assertTrue(faixa.startsWith("JOGO DE TABULEIRO: Dama"));
+		assertTrue(faixa.contains("Xadrez"));
+		assertFalse(faixa.contains("War"));
+		assertEquals("", sistema.listarItensPorFaixaDeValor(31.0, 40.0));
+
+		try {
+			sistema.listarItensPorFaixaDeValor(25.0, 12.0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Faixa de valor invalida", e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package testes.indices;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Usuario;
+import projeto.indices.RankingReputacao;
+
+/**
+ * Testes da classe RankingReputacao.
+ *
+ * @author caiosbl
+ *
+ */
+public class RankingReputacaoTest {
+
+	private RankingReputacao ranking;
+	private Usuario caio;
+	private Usuario ana;
+	private Usuario bia;
+
+	@Before
+	public void setUp() {
+		ranking = new RankingReputacao();
+		caio = new Usuario("Caio", "caio@caio.com", "190");
+		ana = new Usuario("Ana", "ana@ana.com", "191");
+		bia = new Usuario("Bia", "bia@bia.com", "192");
+		ranking.adicionar(caio);
+		ranking.adicionar(ana);
+		ranking.adicionar(bia);
+	}
+
+	/**
+	 * Testa se empates são listados por nome nas duas direções.
+	 */
+	@Test
+	public void testEmpates() {
+		List<Usuario> melhores = ranking.melhores(3);
+		assertEquals("Ana", melhores.get(0).getNome());
+		assertEquals("Bia", melhores.get(1).getNome());
+		assertEquals("Caio", melhores.get(2).getNome());
+
+		List<Usuario> piores = ranking.piores(2);
+		assertEquals(2, piores.size());
+		assertEquals("Ana", piores.get(0).getNome());
+		assertEquals("Bia", piores.get(1).getNome());
+	}
+
+	/**
+	 * Testa se o ranking acompanha as alterações de reputação e de nome.
+	 */
+	@Test
+	public void testAlteracoes() {
+		double anterior = caio.getReputacao();
+		caio.addReputacaoItemAdicionado(100);
+		ranking.reputacaoAlterada(caio, anterior);
+
+		anterior = bia.getReputacao();
+		bia.addReputacaoItemDevolvidoAtrasado(100, 2);
+		ranking.reputacaoAlterada(bia, anterior);
+
+		assertEquals("Caio", ranking.melhores(1).get(0).getNome());
+		assertEquals("Bia", ranking.piores(1).get(0).getNome());
+
+		ana.setNome("Zoe");
+		ranking.identificacaoAlterada(ana, "Ana", "191");
+		assertEquals(3, ranking.tamanho());
+		assertEquals("Zoe", ranking.melhores(2).get(1).getNome());
+
+		ranking.remover(caio);
+		assertEquals(2, ranking.tamanho());
+		assertEquals("Zoe", ranking.melhores(1).get(0).getNome());
+	}
+
+}
@@ -2,8 +2,12 @@ package testes.jogos;
 
 import static org.junit.Assert.*;
 
+import java.util.Locale;
+
 import org.junit.Test;
 
+import projeto.Item;
+import projeto.enums.ModoCacheLinhas;
 import projeto.jogo.JogoTabuleiro;
 
 /**
@@ -25,5 +29,91 @@ public class JogoTabuleiroTest {
 		jogo.adicionarPecaPerdida("Token");
 		assertEquals("COM PECAS PERDIDAS", jogo.existePecasPerdidas());
 	}
-	
+
+	/**
+	 * Verifica se a linha guardada do jogo acompanha as alterações e o locale
+	 */
+
+	@Test
+	public void linhaGuardadaTest() {
+		Locale anterior = Locale.getDefault(Locale.Category.FORMAT);
+		try {
+			Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+			String linha = jogo.toString();
+			assertEquals("JOGO DE TABULEIRO: Zombiecide, R$ 300.0, Nao emprestado, COMPLETO", linha);
+			assertSame(linha, jogo.toString());
+
+			jogo.adicionarPecaPerdida("Token");
+			jogo.setEstadoDeEmprestimo(true);
+			assertEquals("JOGO DE TABULEIRO: Zombiecide, R$ 300.0, Emprestado, COM PECAS PERDIDAS", jogo.toString());
+			jogo.setValor(150.5);
+			jogo.setNome("Zombicide");
+			assertEquals("JOGO DE TABULEIRO: Zombicide, R$ 150.5, Emprestado, COM PECAS PERDIDAS", jogo.toString());
+
+			Locale.setDefault(Locale.Category.FORMAT, new Locale("pt", "BR"));
+			assertEquals("JOGO DE TABULEIRO: Zombicide, R$ 150,5, Emprestado, COM PECAS PERDIDAS", jogo.toString());
+		} finally {
+			Locale.setDefault(Locale.Category.FORMAT, anterior);
+		}
+	}
+
+	/**
+	 * Verifica a linha do jogo com as linhas em referências suaves e sem linhas
+	 * guardadas
+	 */
+
+	@Test
+	public void modosCacheLinhasTest() {
+		ModoCacheLinhas anterior = Item.getModoCacheLinhas();
+		try {
+			Item.setModoCacheLinhas(ModoCacheLinhas.SUAVE);
+			String linha = jogo.toString();
+			jogo.setValor(10);
+			assertNotEquals(linha, jogo.toString());
+
+			Item.setModoCacheLinhas(ModoCacheLinhas.DESLIGADO);
+			jogo.adicionarPecaPerdida("Dado");
+			assertTrue(jogo.toString().endsWith("COM PECAS PERDIDAS"));
+			assertNotSame(jogo.toString(), jogo.toString());
+		} finally {
+			Item.setModoCacheLinhas(anterior);
+		}
+	}
+
+	/**
+	 * Verifica se o modo limitado guarda no máximo o número de linhas
+	 * configurado, descartando a linha que não foi lida desde a última volta
+	 * do relógio
+	 */
+
+	@Test
+	public void cacheLinhasLimitadoTest() {
+		ModoCacheLinhas anterior = Item.getModoCacheLinhas();
+		int maximoAnterior = Item.getMaximoLinhas();
+		try {
+			Item.setModoCacheLinhas(ModoCacheLinhas.LIMITADO);
+			Item.setMaximoLinhas(2);
+			JogoTabuleiro xadrez = new JogoTabuleiro("Xadrez", 50.0);
+			JogoTabuleiro dama = new JogoTabuleiro("Dama", 20.0);
+
+			String linhaJogo = jogo.toString();
+			String linhaXadrez = xadrez.toString();
+			assertSame(linhaXadrez, xadrez.toString());
+
+			String linhaDama = dama.toString();
+			assertNotSame(linhaJogo, jogo.toString());
+			assertSame(linhaXadrez, xadrez.toString());
+			assertNotSame(linhaDama, dama.toString());
+		} finally {
+			Item.setMaximoLinhas(maximoAnterior);
+			Item.setModoCacheLinhas(anterior);
+		}
+		try {
+			Item.setMaximoLinhas(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Maximo de linhas invalido", e.getMessage());
+		}
+	}
+
 }
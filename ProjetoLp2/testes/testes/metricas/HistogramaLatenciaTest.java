@@ -0,0 +1,105 @@
+package testes.metricas;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.metricas.HistogramaLatencia;
+
+/**
+ * Testes da classe HistogramaLatencia.
+ *
+ * @author caiosbl
+ *
+ */
+public class HistogramaLatenciaTest {
+
+	private HistogramaLatencia histograma;
+
+	@Before
+	public void setUp() {
+		histograma = new HistogramaLatencia();
+	}
+
+	/**
+	 * Testa o histograma vazio e os valores exatos abaixo de 64 ns.
+	 */
+	@Test
+	public void testValoresPequenos() {
+		assertEquals(0, histograma.getContagem());
+		assertEquals(0, histograma.percentil(99));
+		for (int i = 1; i <= 50; i++) {
+			histograma.registrar(i);
+		}
+		histograma.registrar(-5);
+		assertEquals(51, histograma.getContagem());
+		assertEquals(25, histograma.percentil(50));
+		assertEquals(50, histograma.percentil(100));
+		assertEquals(0, histograma.percentil(0));
+		assertEquals(50, histograma.getMaxima());
+	}
+
+	/**
+	 * Testa se os percentis ficam a menos de 1/32 do valor registrado, de
+	 * microssegundos a minutos.
+	 */
+	@Test
+	public void testErroRelativo() {
+		long[] latencias = { 100, 1_234, 98_765, 1_000_000, 7_654_321, 60_000_000_000L };
+		for (long latencia : latencias) {
+			HistogramaLatencia unico = new HistogramaLatencia();
+			unico.registrar(latencia);
+			unico.registrar(latencia + latencia / 100);
+			long percentil = unico.percentil(50);
+			assertTrue(percentil >= latencia);
+			assertTrue(percentil - latencia <= latencia / 32);
+		}
+	}
+
+	/**
+	 * Testa a média, a máxima e a limpeza.
+	 */
+	@Test
+	public void testMediaEZerar() {
+		histograma.registrar(1_000);
+		histograma.registrar(3_000);
+		assertEquals(2_000.0, histograma.getMedia(), 0.001);
+		assertEquals(3_000, histograma.getMaxima());
+		histograma.zerar();
+		assertEquals(0, histograma.getContagem());
+		assertEquals(0.0, histograma.getMedia(), 0.001);
+		try {
+			histograma.percentil(101);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Percentual invalido", e.getMessage());
+		}
+	}
+
+	/**
+	 * Testa se registros de várias threads ao mesmo tempo não se perdem.
+	 */
+	@Test
+	public void testConcorrencia() throws InterruptedException {
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					histograma.registrar(i);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40_000, histograma.getContagem());
+		assertEquals(9_999, histograma.getMaxima());
+	}
+
+}
@@ -0,0 +1,84 @@
+package testes.metricas;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import projeto.Facade;
+import projeto.metricas.Metricas;
+import projeto.metricas.MetricasOperacao;
+
+/**
+ * Testes da classe Metricas e das métricas das operações da Facade.
+ *
+ * @author caiosbl
+ *
+ */
+public class MetricasTest {
+
+	/**
+	 * Testa se chamadas e erros são contados e se o erro é relançado.
+	 */
+	@Test
+	public void testMedir() {
+		Metricas metricas = new Metricas();
+		assertEquals("ok", metricas.medir("consultar", () -> "ok"));
+		metricas.medir("consultar", () -> {
+		});
+		try {
+			metricas.medir("consultar", () -> {
+				throw new IllegalArgumentException("Usuario invalido");
+			});
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Usuario invalido", e.getMessage());
+		}
+
+		MetricasOperacao consultar = metricas.operacao("consultar");
+		assertEquals(3, consultar.getChamadas());
+		assertEquals(1, consultar.getErros());
+		assertEquals("{IllegalArgumentException=1}", consultar.getErrosPorTipo());
+		assertTrue(metricas.emTexto().contains("consultar"));
+
+		metricas.zerar();
+		assertEquals(0, consultar.getChamadas());
+		assertEquals(0, consultar.getErros());
+	}
+
+	/**
+	 * Testa as métricas das operações da Facade e sua publicação no JMX.
+	 */
+	@Test
+	public void testFacade() throws Exception {
+		MetricasOperacao cadastrar = Metricas.global().operacao("cadastrarUsuario");
+		MetricasOperacao consultar = Metricas.global().operacao("getInfoUsuario");
+		long cadastros = cadastrar.getChamadas();
+		long consultas = consultar.getChamadas();
+		long erros = consultar.getErros();
+
+		Facade facade = new Facade();
+		facade.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		assertEquals("Ana", facade.getInfoUsuario("Ana", "1", "Nome"));
+		try {
+			facade.getInfoUsuario("Bia", "2", "Nome");
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+
+		assertEquals(cadastros + 1, cadastrar.getChamadas());
+		assertEquals(consultas + 2, consultar.getChamadas());
+		assertEquals(erros + 1, consultar.getErros());
+		assertTrue(facade.listarMetricas().contains("getInfoUsuario"));
+
+		MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+		ObjectName nome = new ObjectName("projeto:type=Operacao,name=getInfoUsuario");
+		assertEquals(consultar.getErros(), servidor.getAttribute(nome, "Erros"));
+		assertTrue(servidor.isRegistered(new ObjectName("projeto:type=Metricas")));
+	}
+
+}
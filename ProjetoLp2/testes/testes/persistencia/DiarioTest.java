@@ -0,0 +1,193 @@
+package testes.persistencia;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.persistencia.Diario;
+import projeto.persistencia.RegistroDiario;
+
+/**
+ * Testes da classe Diario.
+ *
+ * @author caiosbl
+ *
+ */
+public class DiarioTest {
+
+	private File arquivo;
+
+	@Before
+	public void setUp() throws IOException {
+		arquivo = File.createTempFile("sistema", ".diario");
+		arquivo.deleteOnExit();
+	}
+
+	/**
+	 * Testa se os registros são lidos na ordem em que foram gravados, com
+	 * números de sequência a partir do último aplicado.
+	 */
+	@Test
+	public void testRegistrarELer() throws IOException {
+		Diario diario = new Diario(arquivo, 10, 2);
+		diario.registrar("cadastrarUsuario", "Caio", "190", "caio@caio.com");
+		diario.registrar("cadastrarJogoTabuleiro", "Caio", "190", "War", "70.5");
+		diario.registrar("atualizarUsuario", "Caio", "190", "Email", null);
+		diario.fechar();
+
+		List<RegistroDiario> registros = Diario.ler(arquivo);
+		assertEquals(3, registros.size());
+		assertEquals(11, registros.get(0).getNumero());
+		assertEquals("cadastrarUsuario", registros.get(0).getOperacao());
+		assertEquals(70.5, registros.get(1).getArgumentoReal(3), 0.0);
+		assertNull(registros.get(2).getArgumento(3));
+		assertEquals(13, registros.get(2).getNumero());
+	}
+
+	/**
+	 * Testa se um registro incompleto no final do diário é descartado e se novos
+	 * registros continuam a partir do último válido.
+	 */
+	@Test
+	public void testRegistroIncompleto() throws IOException {
+		Diario diario = new Diario(arquivo, 0, 1);
+		diario.registrar("removerUsuario", "Caio", "190");
+		diario.registrar("removerUsuario", "Ana", "191");
+		diario.fechar();
+
+		try (RandomAccessFile acesso = new RandomAccessFile(arquivo, "rw")) {
+			acesso.setLength(acesso.length() - 3);
+		}
+
+		List<RegistroDiario> registros = Diario.ler(arquivo);
+		assertEquals(1, registros.size());
+
+		diario = new Diario(arquivo, 1, 1);
+		diario.registrar("removerUsuario", "Bia", "192");
+		diario.fechar();
+		registros = Diario.ler(arquivo);
+		assertEquals(2, registros.size());
+		assertEquals("Bia", registros.get(1).getArgumento(0));
+	}
+
+	/**
+	 * Testa se um registro com CRC inválido encerra a leitura.
+	 */
+	@Test
+	public void testRegistroCorrompido() throws IOException {
+		Diario diario = new Diario(arquivo, 0, 1);
+		diario.registrar("removerItem", "Caio", "190", "War");
+		diario.registrar("removerItem", "Caio", "190", "Xadrez");
+		diario.fechar();
+
+		try (RandomAccessFile acesso = new RandomAccessFile(arquivo, "rw")) {
+			acesso.seek(acesso.length() - 1);
+			acesso.write('y');
+		}
+
+		List<RegistroDiario> registros = Diario.ler(arquivo);
+		assertEquals(1, registros.size());
+		assertEquals("War", registros.get(0).getArgumento(2));
+	}
+
+	/**
+	 * Testa se truncar esvazia o diário.
+	 */
+	@Test
+	public void testTruncar() throws IOException {
+		Diario diario = new Diario(arquivo, 0, 4);
+		diario.registrar("removerUsuario", "Caio", "190");
+		diario.truncar();
+		diario.registrar("removerUsuario", "Ana", "191");
+		diario.fechar();
+
+		List<RegistroDiario> registros = Diario.ler(arquivo);
+		assertEquals(1, registros.size());
+		assertEquals(2, registros.get(0).getNumero());
+	}
+
+	/**
+	 * Testa se uma operação que falhou é lida marcada como falha.
+	 */
+	@Test
+	public void testOperacaoQueFalhou() throws IOException {
+		Diario diario = new Diario(arquivo, 0, 1);
+		diario.acrescentar(Diario.codificar("cadastrarUsuario", "Caio", "190", "caio@caio.com"), true);
+		diario.registrar("removerUsuario", "Caio", "190");
+		diario.fechar();
+
+		List<RegistroDiario> registros = Diario.ler(arquivo);
+		assertEquals(2, registros.size());
+		assertTrue(registros.get(0).isFalhou());
+		assertEquals("caio@caio.com", registros.get(0).getArgumento(2));
+		assertFalse(registros.get(1).isFalhou());
+	}
+
+	/**
+	 * Testa se um argumento que não cabe em um registro é recusado na
+	 * codificação.
+	 */
+	@Test
+	public void testArgumentoMuitoGrande() throws IOException {
+		char[] nome = new char[70000];
+		Arrays.fill(nome, 'a');
+		try {
+			Diario.codificar("cadastrarUsuario", new String(nome), "190", "caio@caio.com");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Argumento muito grande", e.getMessage());
+		}
+	}
+
+	/**
+	 * Testa se o diário é sincronizado apenas quando um lote se completa e
+	 * apenas por quem conclui o registro.
+	 */
+	@Test
+	public void testSincronizarPorLote() throws IOException {
+		Diario diario = new Diario(arquivo, 0, 3);
+		diario.registrar("removerUsuario", "Caio", "190");
+		diario.registrar("removerUsuario", "Ana", "191");
+		assertEquals(0, diario.getUltimoSincronizado());
+		long numero = diario.acrescentar(Diario.codificar("removerUsuario", "Bia", "192"), false);
+		assertEquals(3, numero);
+		assertEquals(0, diario.getUltimoSincronizado());
+		diario.concluir(numero);
+		assertEquals(3, diario.getUltimoSincronizado());
+
+		diario.registrar("removerUsuario", "Edu", "193");
+		diario.truncar();
+		assertEquals(4, diario.getUltimoSincronizado());
+		diario.fechar();
+	}
+
+	/**
+	 * Testa se um registro que não completa um lote é sincronizado pela
+	 * sincronização periódica.
+	 */
+	@Test
+	public void testSincronizarPorIntervalo() throws IOException, InterruptedException {
+		Diario diario = new Diario(arquivo, 0, 100, 10);
+		diario.registrar("removerUsuario", "Caio", "190");
+		for (int i = 0; i < 500 && diario.getUltimoSincronizado() < 1; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, diario.getUltimoSincronizado());
+		diario.fechar();
+
+		try {
+			new Diario(arquivo, 0, 1, -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Intervalo de sincronizacao invalido", e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package testes.persistencia;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.ParseException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Sistema;
+import projeto.persistencia.FormatoSnapshot;
+import projeto.persistencia.Snapshot;
+import projeto.persistencia.SnapshotBinario;
+
+/**
+ * Testes do formato binário de snapshot.
+ *
+ * @author caiosbl
+ *
+ */
+public class SnapshotBinarioTest {
+
+	private Sistema sistema;
+
+	@Before
+	public void setUp() throws ParseException {
+		sistema = new Sistema();
+		sistema.cadastrarUsuario("Joao", "98888-8888", "joao@joao.com");
+		sistema.cadastrarUsuario("Maria", "97777-7777", "maria@maria.com");
+		sistema.cadastrarEletronico("Joao", "98888-8888", "Fifa", 99.9, "PS4");
+		sistema.cadastrarJogoTabuleiro("Joao", "98888-8888", "War", 70);
+		sistema.adicionarPecaPerdida("Joao", "98888-8888", "War", "Dado");
+		sistema.cadastrarBluRayFilme("Maria", "97777-7777", "Avatar", 10.5, 160, "ACAO", "DOZE_ANOS", 2009);
+		sistema.cadastrarBluRaySerie("Maria", "97777-7777", "Lost", 50, "Ilha", 40, "QUATORZE_ANOS", "SUSPENSE", 1);
+		sistema.adicionarBluRay("Maria", "97777-7777", "Lost", 40);
+		sistema.cadastrarBluRayShow("Maria", "97777-7777", "Acustico", 20, 90, 12, "Cassia", "LIVRE");
+		sistema.registrarEmprestimo("Joao", "98888-8888", "Maria", "97777-7777", "War", "01/01/2018", 5);
+		sistema.devolverItem("Joao", "98888-8888", "Maria", "97777-7777", "War", "01/01/2018", "10/01/2018");
+		sistema.atualizarUsuario("Maria", "97777-7777", "Nome", "Maria Clara");
+		sistema.registrarEmprestimo("Maria Clara", "97777-7777", "Joao", "98888-8888", "Avatar", "02/01/2018", 5);
+	}
+
+	private Sistema gravarELer(Sistema original) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SnapshotBinario.gravar(new Snapshot(original, 42), bytes);
+		Snapshot lido = SnapshotBinario.ler(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(42, lido.getUltimoRegistro());
+		return lido.getSistema();
+	}
+
+	/**
+	 * Testa se o sistema lido do formato binário produz as mesmas consultas e
+	 * listagens do sistema original.
+	 */
+	@Test
+	public void testIdaEVolta() throws IOException {
+		Sistema lido = gravarELer(sistema);
+
+		assertEquals(sistema.listarItensOrdenadosPorNome(), lido.listarItensOrdenadosPorNome());
+		assertEquals(sistema.listarItensOrdenadosPorValor(), lido.listarItensOrdenadosPorValor());
+		assertEquals(sistema.listarTop10Itens(), lido.listarTop10Itens());
+		assertEquals(sistema.listarItensEmprestados(), lido.listarItensEmprestados());
+		assertEquals(sistema.listarEmprestimosItem("War"), lido.listarEmprestimosItem("War"));
+		assertEquals(sistema.listarEmprestimosUsuarioEmprestando("Joao", "98888-8888"),
+				lido.listarEmprestimosUsuarioEmprestando("Joao", "98888-8888"));
+		assertEquals(sistema.getInfoUsuario("Maria Clara", "97777-7777", "Reputacao"),
+				lido.getInfoUsuario("Maria Clara", "97777-7777", "Reputacao"));
+		assertEquals(sistema.getInfoUsuario("Joao", "98888-8888", "Cartao"),
+				lido.getInfoUsuario("Joao", "98888-8888", "Cartao"));
+		assertEquals(sistema.pesquisarDetalhesItem("Maria Clara", "97777-7777", "Lost"),
+				lido.pesquisarDetalhesItem("Maria Clara", "97777-7777", "Lost"));
+		assertEquals(sistema.getReputacaoEm("Maria Clara", "97777-7777", "05/01/2018"),
+				lido.getReputacaoEm("Maria Clara", "97777-7777", "05/01/2018"));
+		assertEquals(sistema.getReputacaoEm("Joao", "98888-8888", "01/01/2018"),
+				lido.getReputacaoEm("Joao", "98888-8888", "01/01/2018"));
+	}
+
+	/**
+	 * Testa se o sistema lido continua operando: devoluções fecham o empréstimo
+	 * em andamento e novos itens recebem identificadores novos.
+	 */
+	@Test
+	public void testSistemaLidoContinuaOperando() throws IOException, ParseException {
+		Sistema lido = gravarELer(sistema);
+		lido.devolverItem("Maria Clara", "97777-7777", "Joao", "98888-8888", "Avatar", "02/01/2018", "04/01/2018");
+		assertEquals("", lido.listarItensEmprestados());
+
+		lido.cadastrarJogoTabuleiro("Joao", "98888-8888", "Banco Imobiliario", 120);
+		assertEquals(sistema.listarItensOrdenadosPorNome().split("\\|").length + 1,
+				lido.listarItensOrdenadosPorNome().split("\\|").length);
+	}
+
+	/**
+	 * Testa se o formato binário é menor que a serialização padrão e se a
+	 * migração de um formato para o outro preserva o sistema.
+	 */
+	@Test
+	public void testMigracao() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream serializado = new ByteArrayOutputStream();
+		FormatoSnapshot.SERIALIZADO.gravar(new Snapshot(sistema, 7), serializado);
+		Snapshot migrado = FormatoSnapshot.SERIALIZADO.ler(new ByteArrayInputStream(serializado.toByteArray()));
+
+		ByteArrayOutputStream binario = new ByteArrayOutputStream();
+		FormatoSnapshot.BINARIO.gravar(migrado, binario);
+		assertTrue(binario.size() < serializado.size());
+
+		Snapshot lido = FormatoSnapshot.BINARIO.ler(new ByteArrayInputStream(binario.toByteArray()));
+		assertEquals(7, lido.getUltimoRegistro());
+		assertEquals(sistema.listarItensOrdenadosPorNome(), lido.getSistema().listarItensOrdenadosPorNome());
+	}
+
+	/**
+	 * Testa se versões desconhecidas do formato são rejeitadas.
+	 */
+	@Test(expected = IOException.class)
+	public void testVersaoDesconhecida() throws IOException {
+		byte[] cabecalho = { 0x4C, 0x50, 0x32, 0x53, 0x7F };
+		SnapshotBinario.ler(new ByteArrayInputStream(cabecalho));
+	}
+
+}
@@ -0,0 +1,116 @@
+package testes.persistencia;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+
+import org.junit.Test;
+
+import projeto.Sistema;
+import projeto.persistencia.FormatoSnapshot;
+import projeto.persistencia.Snapshot;
+
+/**
+ * Testes da leitura de sistemas serializados por versões anteriores.
+ *
+ * @author caiosbl
+ *
+ */
+public class SnapshotSerializadoTest {
+
+	/**
+	 * Sistema montado por popular e serializado pelas classes da primeira
+	 * versão do projeto, sem catálogo de itens, identificadores, índices,
+	 * ranking e histórico de empréstimos em colunas.
+	 */
+	private static final File SISTEMA_ORIGINAL = new File("testes/testes/persistencia/sistemaOriginal.dat");
+
+	private static Sistema popular(Sistema sistema) throws ParseException {
+		sistema.cadastrarUsuario("Ana", "1", "ana@ana.com");
+		sistema.cadastrarUsuario("Bia", "2", "bia@bia.com");
+		sistema.cadastrarUsuario("Caio", "3", "caio@caio.com");
+		for (int i = 4; i <= 11; i++) {
+			sistema.cadastrarUsuario("Usuario " + i, "" + i, "u" + i + "@u.com");
+			sistema.cadastrarJogoTabuleiro("Usuario " + i, "" + i, "Jogo " + i, 10 * i + 1);
+		}
+		sistema.cadastrarEletronico("Ana", "1", "Dota", 100, "PC");
+		sistema.cadastrarJogoTabuleiro("Ana", "1", "Xadrez", 40);
+		sistema.adicionarPecaPerdida("Ana", "1", "Xadrez", "Rainha");
+		sistema.cadastrarBluRayFilme("Bia", "2", "Avatar", 30, 160, "ACAO", "LIVRE", 2009);
+		sistema.cadastrarBluRaySerie("Bia", "2", "Dark", 60, "Viagem no tempo", 50, "DEZESSEIS_ANOS", "SUSPENSE", 1);
+		sistema.adicionarBluRay("Bia", "2", "Dark", 50);
+		sistema.cadastrarBluRayShow("Caio", "3", "Ao Vivo", 25, 90, 12, "Chico Buarque", "LIVRE");
+		sistema.registrarEmprestimo("Ana", "1", "Bia", "2", "Dota", "01/02/2018", 5);
+		sistema.registrarEmprestimo("Ana", "1", "Caio", "3", "Xadrez", "05/02/2018", 7);
+		sistema.registrarEmprestimo("Bia", "2", "Caio", "3", "Avatar", "01/02/2018", 3);
+		sistema.devolverItem("Bia", "2", "Caio", "3", "Avatar", "01/02/2018", "20/02/2018");
+		return sistema;
+	}
+
+	private static void alterar(Sistema sistema) throws ParseException {
+		sistema.cadastrarJogoTabuleiro("Caio", "3", "War", 15);
+		sistema.devolverItem("Ana", "1", "Bia", "2", "Dota", "01/02/2018", "04/02/2018");
+		sistema.devolverItem("Ana", "1", "Caio", "3", "Xadrez", "05/02/2018", "09/02/2018");
+		sistema.atualizarUsuario("Bia", "2", "Nome", "Beatriz");
+		sistema.registrarEmprestimo("Ana", "1", "Beatriz", "2", "Dota", "05/02/2018", 2);
+		sistema.atualizarItem("Usuario 4", "4", "Jogo 4", "Preco", "200");
+		sistema.removerItem("Usuario 5", "5", "Jogo 5");
+	}
+
+	private static void confere(Sistema esperado, Sistema lido) {
+		for (String[] usuario : new String[][] { { "Ana", "1" }, { "Caio", "3" }, { "Usuario 4", "4" } }) {
+			assertEquals(esperado.getInfoUsuario(usuario[0], usuario[1], "Reputacao"),
+					lido.getInfoUsuario(usuario[0], usuario[1], "Reputacao"));
+			assertEquals(esperado.getInfoUsuario(usuario[0], usuario[1], "Cartao"),
+					lido.getInfoUsuario(usuario[0], usuario[1], "Cartao"));
+			assertEquals(esperado.listarEmprestimosUsuarioEmprestando(usuario[0], usuario[1]),
+					lido.listarEmprestimosUsuarioEmprestando(usuario[0], usuario[1]));
+			assertEquals(esperado.listarEmprestimosUsuarioPegandoEmprestado(usuario[0], usuario[1]),
+					lido.listarEmprestimosUsuarioPegandoEmprestado(usuario[0], usuario[1]));
+		}
+		assertEquals(esperado.listarItensOrdenadosPorNome(), lido.listarItensOrdenadosPorNome());
+		assertEquals(esperado.listarItensOrdenadosPorValor(), lido.listarItensOrdenadosPorValor());
+		assertEquals(esperado.listarItensPorFaixaDeValor(30, 60), lido.listarItensPorFaixaDeValor(30, 60));
+		assertEquals(esperado.listarItensEmprestados(), lido.listarItensEmprestados());
+		assertEquals(esperado.listarItensNaoEmprestados(), lido.listarItensNaoEmprestados());
+		assertEquals(esperado.listarTop10Itens(), lido.listarTop10Itens());
+		assertEquals(esperado.listarEmprestimosItem("Dota"), lido.listarEmprestimosItem("Dota"));
+		assertEquals(esperado.listarCaloteiros(), lido.listarCaloteiros());
+		assertEquals(esperado.listarTop10MelhoresUsuarios(), lido.listarTop10MelhoresUsuarios());
+		assertEquals(esperado.listarTop10PioresUsuarios(), lido.listarTop10PioresUsuarios());
+		assertEquals(esperado.pesquisarItens("jogo", 20), lido.pesquisarItens("jogo", 20));
+	}
+
+	private static Sistema ler(InputStream origem) throws IOException, ClassNotFoundException {
+		try (InputStream entrada = origem) {
+			return FormatoSnapshot.SERIALIZADO.ler(entrada).getSistema();
+		}
+	}
+
+	/**
+	 * Testa se um sistema salvo pela primeira versão do projeto é lido com o
+	 * catálogo, os índices e o ranking refeitos, se continua igual a um
+	 * sistema novo depois das mesmas operações e se pode ser salvo de novo.
+	 */
+	@Test
+	public void testLerVersaoOriginal() throws IOException, ClassNotFoundException, ParseException {
+		Sistema esperado = popular(new Sistema());
+		Sistema lido = ler(new FileInputStream(SISTEMA_ORIGINAL));
+		confere(esperado, lido);
+
+		alterar(esperado);
+		alterar(lido);
+		confere(esperado, lido);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		FormatoSnapshot.SERIALIZADO.gravar(new Snapshot(lido, 0), bytes);
+		confere(esperado, ler(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+}
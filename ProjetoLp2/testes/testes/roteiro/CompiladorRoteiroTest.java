@@ -0,0 +1,109 @@
+package testes.roteiro;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Facade;
+import projeto.roteiro.CompiladorRoteiro;
+import projeto.roteiro.ResultadoRoteiro;
+import projeto.roteiro.Roteiro;
+
+/**
+ * Testes da compilação e execução de roteiros.
+ *
+ * @author caiosbl
+ *
+ */
+public class CompiladorRoteiroTest {
+
+	private Facade facade;
+
+	@Before
+	public void setUp() {
+		facade = new Facade();
+	}
+
+	private Roteiro compilar(String texto) throws IOException {
+		return CompiladorRoteiro.compilar(new StringReader(texto));
+	}
+
+	/**
+	 * Testa um roteiro em que todos os comandos têm o resultado esperado.
+	 */
+	@Test
+	public void testExecutar() throws IOException {
+		Roteiro roteiro = compilar("# comentario\n\n"
+				+ "cadastrarUsuario nome=\"Joao\" telefone=\"98888-8888\" email=\"joao@email.com\"\r\n"
+				+ "expect \"joao@email.com\" getInfoUsuario nome=\"Joao\" telefone=\"98888-8888\" atributo=\"Email\"\n"
+				+ "cadastrarEletronico nome=\"Joao\" telefone=\"98888-8888\" nomeItem=\"Pokemon Sun\" preco=99.99 plataforma=\"NINTENDO_3DS\"\n"
+				+ "expect \"99.99\" getInfoItem nome=\"Joao\" telefone=\"98888-8888\" nomeItem=\"Pokemon Sun\" atributo=\"Preco\"\n"
+				+ "expectError \"Usuario ja cadastrado\" cadastrarUsuario nome=\"Joao\" telefone=\"98888-8888\" email=\"x@x.com\"\n"
+				+ "expect \"a \\\"b\\\" = c\" getInfoUsuario nome=\"Joao\" telefone=\"98888-8888\" atributo=\"Email\"\n");
+
+		assertEquals(6, roteiro.getNumComandos());
+		ResultadoRoteiro resultado = roteiro.executar(facade);
+		assertEquals(6, resultado.getNumComandos());
+		assertEquals(1, resultado.getNumFalhas());
+		assertEquals(Arrays.asList("Linha 8: Esperado \"a \"b\" = c\", obtido \"joao@email.com\""),
+				resultado.getFalhas());
+		assertTrue(resultado.toString().startsWith("Comandos: 6, falhas: 1, comandos por segundo: "));
+	}
+
+	/**
+	 * Testa as falhas de expectError: erro diferente do esperado, comando sem
+	 * erro e erro não esperado.
+	 */
+	@Test
+	public void testFalhasDeErro() throws IOException {
+		Roteiro roteiro = compilar("expectError \"Usuario ja cadastrado\" removerUsuario nome=\"Joao\" telefone=\"1\"\n"
+				+ "expectError \"Usuario invalido\" cadastrarUsuario nome=\"Joao\" telefone=\"1\" email=\"j@j.com\"\n"
+				+ "cadastrarUsuario nome=\"Joao\" telefone=\"1\" email=\"j@j.com\"\n");
+
+		ResultadoRoteiro resultado = roteiro.executar(facade);
+		assertEquals(3, resultado.getNumFalhas());
+		assertEquals(Arrays.asList("Linha 1: Esperado erro \"Usuario ja cadastrado\", obtido \"Usuario invalido\"",
+				"Linha 2: Esperado erro \"Usuario invalido\", mas o comando foi executado",
+				"Linha 3: Erro inesperado \"Usuario ja cadastrado\""), resultado.getFalhas());
+	}
+
+	/**
+	 * Testa se um roteiro compilado pode ser executado mais de uma vez.
+	 */
+	@Test
+	public void testExecutarDeNovo() throws IOException {
+		Roteiro roteiro = compilar("expect \"ana@ana.com\" getInfoUsuario nome=\"Ana\" telefone=\"1\" atributo=\"Email\"\n");
+		facade.cadastrarUsuario("Ana", "1", "ana@ana.com");
+
+		assertEquals(0, roteiro.executar(facade).getNumFalhas());
+		assertEquals(0, roteiro.executar(facade).getNumFalhas());
+		assertEquals(1, roteiro.executar(new Facade()).getNumFalhas());
+	}
+
+	/**
+	 * Testa os erros de compilação, que informam a linha.
+	 */
+	@Test
+	public void testErrosDeCompilacao() throws IOException {
+		String[][] casos = { { "\nlistarTudo\n", "Linha 2: Comando invalido: listarTudo" },
+				{ "removerUsuario nome=\"Joao\"", "Linha 1: Numero de argumentos invalido" },
+				{ "cadastrarJogoTabuleiro nome=\"A\" telefone=\"1\" nomeItem=\"War\" preco=abc",
+						"Linha 1: Numero invalido: abc" },
+				{ "expect \"x\"", "Linha 1: Comando ausente" },
+				{ "getInfoUsuario nome=\"Joao telefone=\"1\"", "Linha 1: Aspas nao fechadas" } };
+		for (String[] caso : casos) {
+			try {
+				compilar(caso[0]);
+				fail("Deveria lancar excecao: " + caso[0]);
+			} catch (IllegalArgumentException e) {
+				assertEquals(caso[1], e.getMessage());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package testes.utilitarios;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.junit.Test;
+
+import projeto.utilitarios.Datas;
+
+/**
+ * Testes da classe Datas.
+ *
+ * @author lucasvsa
+ *
+ */
+public class DatasTest {
+
+	/**
+	 * Testa a conversão de ida e volta em comparação com o java.time, incluindo
+	 * anos bissextos e datas antes de 1970.
+	 */
+	@Test
+	public void testIdaEVolta() {
+		DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+		LocalDate data = LocalDate.of(1896, 1, 1);
+		while (data.getYear() < 2104) {
+			String texto = formato.format(data);
+			assertEquals(data.toEpochDay(), Datas.paraDia(texto));
+			assertEquals(texto, Datas.formatar((int) data.toEpochDay()));
+			data = data.plusDays(1);
+		}
+	}
+
+	/**
+	 * Testa se um dia além do fim do mês é trocado pelo último dia do mês.
+	 */
+	@Test
+	public void testFimDoMes() {
+		assertEquals("30/04/2018", Datas.formatar(Datas.paraDia("31/04/2018")));
+		assertEquals("28/02/2019", Datas.formatar(Datas.paraDia("30/02/2019")));
+		assertEquals("29/02/2020", Datas.formatar(Datas.paraDia("31/02/2020")));
+	}
+
+	/**
+	 * Testa datas fora do formato dd/MM/yyyy.
+	 */
+	@Test
+	public void testDatasInvalidas() {
+		String[] invalidas = { "1/01/2018", "01/01/18", "32/01/2018", "00/01/2018", "01/13/2018", "01-01-2018",
+				"aa/01/2018", "01/01/0000", "" };
+		for (String invalida : invalidas) {
+			try {
+				Datas.paraDia(invalida);
+				fail("Exceção não lançada para " + invalida);
+			} catch (DateTimeParseException e) {
+				assertEquals("Data invalida", e.getMessage());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+package testes.utilitarios;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+import java.util.function.BiFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.Sistema;
+import projeto.utilitarios.Cursor;
+import projeto.utilitarios.Pagina;
+
+/**
+ * Testes das listagens paginadas do Sistema.
+ *
+ * @author caiosbl
+ *
+ */
+public class PaginaTest {
+
+	private Sistema sistema;
+
+	@Before
+	public void setUp() throws ParseException {
+		sistema = new Sistema();
+		for (int i = 0; i < 12; i++) {
+			sistema.cadastrarUsuario("Usuario" + (char) ('A' + i), "9" + i, "u" + i + "@u.com");
+		}
+		for (int i = 0; i < 7; i++) {
+			sistema.cadastrarJogoTabuleiro("UsuarioA", "90", "Jogo" + (6 - i), 10.0 + i % 3);
+			sistema.cadastrarEletronico("UsuarioB", "91", "Jogo" + i, 20.0 - i % 2, "PC");
+		}
+		for (int i = 0; i < 5; i++) {
+			String requerente = "Usuario" + (char) ('C' + i), telefone = "9" + (2 + i);
+			sistema.registrarEmprestimo("UsuarioA", "90", requerente, telefone, "Jogo" + i, "01/01/2018", 5);
+			sistema.devolverItem("UsuarioA", "90", requerente, telefone, "Jogo" + i, "01/01/2018", "20/01/2018");
+			sistema.registrarEmprestimo("UsuarioB", "91", "UsuarioK", "910", "Jogo" + i, "01/01/2018", 5);
+		}
+		sistema.registrarEmprestimo("UsuarioA", "90", "UsuarioL", "911", "Jogo1", "02/01/2018", 5);
+	}
+
+	/**
+	 * Junta todas as páginas de uma listagem, conferindo o tamanho de cada uma.
+	 */
+	private String juntarPaginas(BiFunction<Integer, String, Pagina> listagem, int tamanhoPagina) {
+		StringBuilder linhas = new StringBuilder();
+		String cursor = null;
+		do {
+			Pagina pagina = listagem.apply(tamanhoPagina, cursor);
+			assertTrue(pagina.getNumLinhas() <= tamanhoPagina);
+			if (pagina.temProxima()) {
+				assertEquals(tamanhoPagina, pagina.getNumLinhas());
+			}
+			linhas.append(pagina.getLinhas());
+			cursor = pagina.getProximoCursor();
+		} while (cursor != null);
+		return linhas.toString();
+	}
+
+	private void confereTamanhos(String completa, BiFunction<Integer, String, Pagina> listagem) {
+		for (int tamanhoPagina : new int[] { 1, 2, 3, 5, 100 }) {
+			assertEquals(completa, juntarPaginas(listagem, tamanhoPagina));
+		}
+	}
+
+	/**
+	 * Testa se as páginas das listagens de itens, juntas, formam a listagem
+	 * completa.
+	 */
+	@Test
+	public void testListagensItens() {
+		confereTamanhos(sistema.listarItensOrdenadosPorNome(), sistema::listarItensOrdenadosPorNome);
+		confereTamanhos(sistema.listarItensOrdenadosPorValor(), sistema::listarItensOrdenadosPorValor);
+		confereTamanhos(sistema.listarItensNaoEmprestados(), sistema::listarItensNaoEmprestados);
+		confereTamanhos(sistema.listarItensEmprestados(), sistema::listarItensEmprestados);
+		confereTamanhos(sistema.listarItensPorFaixaDeValor(11.0, 19.0),
+				(tamanho, cursor) -> sistema.listarItensPorFaixaDeValor(11.0, 19.0, tamanho, cursor));
+	}
+
+	/**
+	 * Testa se as páginas das listagens de empréstimos formam a listagem
+	 * completa sem o cabeçalho.
+	 */
+	@Test
+	public void testListagensEmprestimos() {
+		confereTamanhos(
+				sistema.listarEmprestimosUsuarioEmprestando("UsuarioA", "90").substring("Emprestimos: ".length()),
+				(tamanho, cursor) -> sistema.listarEmprestimosUsuarioEmprestando("UsuarioA", "90", tamanho,
+						cursor));
+		confereTamanhos(
+				sistema.listarEmprestimosUsuarioPegandoEmprestado("UsuarioK", "910")
+						.substring("Emprestimos pegos: ".length()),
+				(tamanho, cursor) -> sistema.listarEmprestimosUsuarioPegandoEmprestado("UsuarioK", "910", tamanho,
+						cursor));
+		confereTamanhos(
+				sistema.listarEmprestimosItem("Jogo1").substring("Emprestimos associados ao item: ".length()),
+				(tamanho, cursor) -> sistema.listarEmprestimosItem("Jogo1", tamanho, cursor));
+		assertEquals("", sistema.listarEmprestimosUsuarioEmprestando("UsuarioJ", "99", 10, null).getLinhas());
+	}
+
+	/**
+	 * Testa a listagem de um requerente que pegou itens de donos cadastrados
+	 * fora da ordem de nome: a listagem segue o nome do dono, não o número do
+	 * empréstimo, e as páginas precisam chegar até o último.
+	 */
+	@Test
+	public void testEmprestimosPegosDeVariosDonos() throws ParseException {
+		sistema.cadastrarJogoTabuleiro("UsuarioC", "92", "Xadrez", 10.0);
+		sistema.registrarEmprestimo("UsuarioC", "92", "UsuarioK", "910", "Xadrez", "03/01/2018", 5);
+		sistema.registrarEmprestimo("UsuarioA", "90", "UsuarioK", "910", "Jogo5", "03/01/2018", 5);
+
+		String completa = sistema.listarEmprestimosUsuarioPegandoEmprestado("UsuarioK", "910")
+				.substring("Emprestimos pegos: ".length());
+		assertTrue(completa.startsWith("EMPRESTIMO - De: UsuarioA"));
+		assertTrue(completa.endsWith("Xadrez, 03/01/2018, 5 dias, ENTREGA: Emprestimo em andamento|"));
+		confereTamanhos(completa, (tamanho, cursor) -> sistema.listarEmprestimosUsuarioPegandoEmprestado("UsuarioK",
+				"910", tamanho, cursor));
+	}
+
+	/**
+	 * Testa as listagens de usuários: caloteiros e o ranking, cuja numeração
+	 * continua de uma página para a outra.
+	 */
+	@Test
+	public void testListagensUsuarios() {
+		confereTamanhos(
+				sistema.listarCaloteiros().substring("Lista de usuarios com reputacao negativa: ".length()),
+				sistema::listarCaloteiros);
+		String ranking = juntarPaginas(sistema::listarMelhoresUsuarios, 4);
+		assertTrue(ranking.startsWith(sistema.listarTop10MelhoresUsuarios()));
+		assertTrue(ranking.contains("12: "));
+		assertEquals(ranking, juntarPaginas(sistema::listarMelhoresUsuarios, 12));
+	}
+
+	/**
+	 * Testa se a página seguinte continua da chave da última linha, mesmo com
+	 * cadastros e remoções entre as páginas.
+	 */
+	@Test
+	public void testAlteracaoEntrePaginas() {
+		Pagina primeira = sistema.listarItensOrdenadosPorNome(3, null);
+		assertTrue(primeira.getLinhas().endsWith("JOGO ELETRONICO: Jogo1, R$ 19.0, Emprestado, PC|"));
+		sistema.cadastrarJogoTabuleiro("UsuarioJ", "99", "Jogo0", 5.0);
+		sistema.cadastrarJogoTabuleiro("UsuarioJ", "99", "Jogo9", 5.0);
+		sistema.removerUsuario("UsuarioB", "91");
+
+		Pagina segunda = sistema.listarItensOrdenadosPorNome(3, primeira.getProximoCursor());
+		assertTrue(segunda.getLinhas().startsWith("JOGO DE TABULEIRO: Jogo1"));
+		String restante = juntarPaginas(
+				(tamanho, cursor) -> sistema.listarItensOrdenadosPorNome(tamanho,
+						cursor == null ? primeira.getProximoCursor() : cursor),
+				3);
+		assertFalse(restante.contains("JOGO DE TABULEIRO: Jogo0"));
+		assertTrue(restante.endsWith("JOGO DE TABULEIRO: Jogo9, R$ 5.0, Nao emprestado, COMPLETO|"));
+	}
+
+	/**
+	 * Testa a recusa de cursores de outra listagem ou corrompidos e de
+	 * tamanhos de página inválidos.
+	 */
+	@Test
+	public void testCursorInvalido() {
+		String cursorValor = sistema.listarItensOrdenadosPorValor(1, null).getProximoCursor();
+		String[] invalidos = { cursorValor, "%%%", "abc", Cursor.codificar("itensPorNome", "Jogo", "x") };
+		for (String invalido : invalidos) {
+			try {
+				sistema.listarItensOrdenadosPorNome(2, invalido);
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("Cursor invalido", e.getMessage());
+			}
+		}
+		try {
+			sistema.listarCaloteiros(0, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Tamanho de pagina invalido", e.getMessage());
+		}
+		assertEquals(sistema.listarItensOrdenadosPorNome(2, null).getLinhas(),
+				sistema.listarItensOrdenadosPorNome(2, "").getLinhas());
+	}
+
+}
@@ -0,0 +1,47 @@
+package testes.utilitarios;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import projeto.enums.ModoCacheLinhas;
+import projeto.utilitarios.Propriedades;
+
+/**
+ * Testes da classe Propriedades.
+ *
+ * @author caiosbl
+ *
+ */
+public class PropriedadesTest {
+
+	private static final String PROPRIEDADE = "projeto.teste.modo";
+
+	/**
+	 * Testa a leitura de um valor válido, sem diferenciar maiúsculas.
+	 */
+	@Test
+	public void testLerEnum() {
+		assertEquals(ModoCacheLinhas.FORTE, Propriedades.lerEnum(PROPRIEDADE, ModoCacheLinhas.FORTE));
+		System.setProperty(PROPRIEDADE, " Suave");
+		try {
+			assertEquals(ModoCacheLinhas.SUAVE, Propriedades.lerEnum(PROPRIEDADE, ModoCacheLinhas.FORTE));
+		} finally {
+			System.clearProperty(PROPRIEDADE);
+		}
+	}
+
+	/**
+	 * Testa se um valor inválido dá lugar ao padrão em vez de uma exceção.
+	 */
+	@Test
+	public void testLerEnumInvalido() {
+		System.setProperty(PROPRIEDADE, "fraco");
+		try {
+			assertEquals(ModoCacheLinhas.DESLIGADO, Propriedades.lerEnum(PROPRIEDADE, ModoCacheLinhas.DESLIGADO));
+		} finally {
+			System.clearProperty(PROPRIEDADE);
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package testes.utilitarios;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import projeto.utilitarios.ChaveUsuario;
+import projeto.utilitarios.RegistroUsuarios;
+
+/**
+ * Testes da classe RegistroUsuarios.
+ *
+ * @author caiosbl
+ *
+ */
+public class RegistroUsuariosTest {
+
+	private RegistroUsuarios registro;
+
+	@Before
+	public void setUp() {
+		registro = new RegistroUsuarios();
+	}
+
+	/**
+	 * Testa se os identificadores são atribuídos em sequência e encontrados pela
+	 * chave.
+	 */
+	@Test
+	public void testRegistrar() {
+		assertEquals(0, registro.registrar("Ana", "1"));
+		assertEquals(1, registro.registrar("Ana", "2"));
+		assertEquals(2, registro.registrar("Bia", "1"));
+
+		assertEquals(1, registro.id("Ana", "2"));
+		assertEquals(RegistroUsuarios.SEM_USUARIO, registro.id("Bia", "2"));
+		assertEquals(new ChaveUsuario("Bia", "1"), registro.getChave(2));
+		assertEquals(3, registro.numUsuarios());
+	}
+
+	/**
+	 * Testa se um usuário repetido é recusado.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testRegistrarRepetido() {
+		registro.registrar("Ana", "1");
+		registro.registrar("Ana", "1");
+	}
+
+	/**
+	 * Testa se o identificador de um usuário removido não é reaproveitado.
+	 */
+	@Test
+	public void testRemover() {
+		registro.registrar("Ana", "1");
+		registro.remover(0);
+
+		assertEquals(RegistroUsuarios.SEM_USUARIO, registro.id("Ana", "1"));
+		assertNull(registro.getChave(0));
+		assertEquals(0, registro.numUsuarios());
+		assertEquals(1, registro.registrar("Ana", "1"));
+		assertEquals(2, registro.limite());
+	}
+
+	/**
+	 * Testa se a alteração da chave mantém o identificador e recusa a chave de
+	 * outro usuário.
+	 */
+	@Test
+	public void testAlterar() {
+		registro.registrar("Ana", "1");
+		registro.registrar("Bia", "2");
+
+		registro.alterar(0, "Ane", "1");
+		assertEquals(0, registro.id("Ane", "1"));
+		assertEquals(RegistroUsuarios.SEM_USUARIO, registro.id("Ana", "1"));
+
+		try {
+			registro.alterar(0, "Bia", "2");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Usuario ja cadastrado", e.getMessage());
+		}
+		assertEquals(0, registro.id("Ane", "1"));
+		assertEquals(1, registro.id("Bia", "2"));
+		assertEquals(2, registro.numUsuarios());
+	}
+
+	/**
+	 * Testa se uma chave inválida é recusada na busca.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testIdNomeVazio() {
+		registro.id(" ", "1");
+	}
+
+}